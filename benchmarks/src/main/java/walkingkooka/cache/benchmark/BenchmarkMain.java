@@ -0,0 +1,61 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs every benchmark once for each thread count, writing each run to its own JSON file so results may be compared
+ * between versions, eg with <a href="https://jmh.morethan.io">JMH Visualizer</a>.
+ * <pre>
+ * java -jar benchmarks.jar [jmh options]
+ * </pre>
+ * Thread counts default to 1,2 and 4 and may be replaced with the system property <code>threads</code>, eg
+ * <code>-Dthreads=1,8</code>. All other JMH command line options such as <code>-p size=1000</code> are honoured.
+ */
+public final class BenchmarkMain {
+
+    public static void main(final String[] args) throws CommandLineOptionException, RunnerException {
+        final CommandLineOptions commandLine = new CommandLineOptions(args);
+        final String output = System.getProperty(
+            "output",
+            "target/jmh-results"
+        );
+
+        for (final String threads : System.getProperty("threads", "1,2,4").split(",")) {
+            final Options options = new OptionsBuilder()
+                .parent(commandLine)
+                .threads(Integer.parseInt(threads.trim()))
+                .resultFormat(ResultFormatType.JSON)
+                .result(output + "-threads-" + threads.trim() + ".json")
+                .build();
+
+            new Runner(options).run();
+        }
+    }
+
+    private BenchmarkMain() {
+        throw new UnsupportedOperationException();
+    }
+}
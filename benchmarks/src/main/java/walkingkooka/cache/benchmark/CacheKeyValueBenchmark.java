@@ -0,0 +1,77 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import walkingkooka.cache.CacheKey;
+import walkingkooka.cache.CacheKeyInterner;
+import walkingkooka.cache.CacheValue;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of creating {@link CacheKey} and {@link CacheValue}, which every cache request pays.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CacheKeyValueBenchmark {
+
+    private final String text = "key1234567";
+
+    private final CacheKey key = CacheKey.with(this.text);
+
+    private final Optional<Object> value = Optional.of("value");
+
+    private final CacheKeyInterner interner = CacheKeyInterner.empty();
+
+    @Benchmark
+    public CacheKey cacheKeyWith() {
+        return CacheKey.with(this.text);
+    }
+
+    @Benchmark
+    public CacheKey cacheKeyIntern() {
+        return this.interner.intern(this.text);
+    }
+
+    @Benchmark
+    public int cacheKeyHashCode() {
+        return this.key.hashCode();
+    }
+
+    @Benchmark
+    public CacheValue cacheValueWith() {
+        return CacheValue.with(
+            this.key,
+            this.value
+        );
+    }
+}
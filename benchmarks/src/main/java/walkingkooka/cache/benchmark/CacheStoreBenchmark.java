@@ -0,0 +1,109 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import walkingkooka.cache.CacheKey;
+import walkingkooka.cache.CacheStore;
+import walkingkooka.cache.CacheValue;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the basic {@link CacheStore} operations against a populated store.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheStoreBenchmark {
+
+    /**
+     * The width of {@link #between} ranges and {@link #ids} and {@link #values} pages.
+     */
+    private final static int PAGE = 100;
+
+    @Benchmark
+    public Optional<CacheValue> load(final CacheStoreBenchmarkState state,
+                                     final CacheStoreBenchmarkThreadState thread) {
+        return state.cacheStore.load(
+            state.keys[thread.next()]
+        );
+    }
+
+    @Benchmark
+    public CacheValue save(final CacheStoreBenchmarkState state,
+                           final CacheStoreBenchmarkThreadState thread) {
+        return state.cacheStore.save(
+            state.values[thread.next()]
+        );
+    }
+
+    /**
+     * Deletes and then saves the same key, so the population remains constant across iterations.
+     */
+    @Benchmark
+    public CacheValue delete(final CacheStoreBenchmarkState state,
+                             final CacheStoreBenchmarkThreadState thread) {
+        final int index = thread.next();
+        final CacheStore store = state.cacheStore;
+
+        store.delete(state.keys[index]);
+        return store.save(state.values[index]);
+    }
+
+    @Benchmark
+    public List<CacheValue> between(final CacheStoreBenchmarkState state,
+                                    final CacheStoreBenchmarkThreadState thread) {
+        final CacheKey[] keys = state.keys;
+        final int from = thread.next();
+
+        return state.cacheStore.between(
+            keys[from],
+            keys[Math.min(from + PAGE, keys.length - 1)]
+        );
+    }
+
+    @Benchmark
+    public Set<CacheKey> ids(final CacheStoreBenchmarkState state,
+                             final CacheStoreBenchmarkThreadState thread) {
+        return state.cacheStore.ids(
+            thread.next(),
+            PAGE
+        );
+    }
+
+    @Benchmark
+    public List<CacheValue> values(final CacheStoreBenchmarkState state,
+                                   final CacheStoreBenchmarkThreadState thread) {
+        return state.cacheStore.values(
+            thread.next(),
+            PAGE
+        );
+    }
+}
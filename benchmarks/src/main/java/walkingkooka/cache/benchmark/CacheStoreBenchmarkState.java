@@ -0,0 +1,90 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import walkingkooka.cache.CacheKey;
+import walkingkooka.cache.CacheStore;
+import walkingkooka.cache.CacheValue;
+
+import java.util.Optional;
+
+/**
+ * A {@link CacheStore} shared by all benchmark threads, populated with {@link #size} keys before each trial.
+ */
+@State(Scope.Benchmark)
+public class CacheStoreBenchmarkState {
+
+    @Param({"TREE_MAP", "CONCURRENT", "CONCURRENT_SORTED", "COPY_ON_WRITE", "ORDER_STATISTIC_TREE", "RADIX_TREE", "BOUNDED"})
+    public CacheStoreKind store;
+
+    @Param({"1000", "100000", "1000000"})
+    public int size;
+
+    @Param({"UNIFORM", "ZIPFIAN", "SCAN"})
+    public KeyDistribution distribution;
+
+    CacheStore cacheStore;
+
+    CacheKey[] keys;
+
+    CacheValue[] values;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final int size = this.size;
+        final CacheStore cacheStore = this.store.create(size);
+
+        final CacheKey[] keys = new CacheKey[size];
+        final CacheValue[] values = new CacheValue[size];
+
+        for (int i = 0; i < size; i++) {
+            final CacheKey key = key(i);
+            final CacheValue value = CacheValue.with(
+                key,
+                Optional.of("value" + i)
+            );
+
+            keys[i] = key;
+            values[i] = value;
+
+            cacheStore.save(value);
+        }
+
+        this.cacheStore = cacheStore;
+        this.keys = keys;
+        this.values = values;
+    }
+
+    /**
+     * Zero padded so key order matches index order, which keeps {@link CacheStore#between(Object, Object)} ranges a
+     * predictable width.
+     */
+    static CacheKey key(final int index) {
+        return CacheKey.with(
+            String.format(
+                "key%07d",
+                index
+            )
+        );
+    }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache.benchmark;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the {@link KeyDistributionGenerator} for a single benchmark thread, each thread receiving a different seed.
+ */
+@State(Scope.Thread)
+public class CacheStoreBenchmarkThreadState {
+
+    private final static AtomicLong SEED = new AtomicLong(1);
+
+    KeyDistributionGenerator generator;
+
+    @Setup(Level.Trial)
+    public void setup(final CacheStoreBenchmarkState state) {
+        this.generator = state.distribution.generator(
+            state.size,
+            SEED.getAndIncrement() * 0x9E3779B97F4A7C15L
+        );
+    }
+
+    int next() {
+        return this.generator.next();
+    }
+}
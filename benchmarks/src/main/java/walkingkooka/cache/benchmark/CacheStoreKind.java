@@ -0,0 +1,85 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache.benchmark;
+
+import walkingkooka.cache.CacheStore;
+import walkingkooka.cache.CacheStores;
+import walkingkooka.cache.JreCacheStores;
+
+/**
+ * The {@link CacheStore} implementations being measured.
+ */
+public enum CacheStoreKind {
+
+    TREE_MAP {
+        @Override
+        CacheStore create(final int size) {
+            return CacheStores.treeMap();
+        }
+    },
+
+    CONCURRENT {
+        @Override
+        CacheStore create(final int size) {
+            return CacheStores.concurrent();
+        }
+    },
+
+    CONCURRENT_SORTED {
+        @Override
+        CacheStore create(final int size) {
+            return JreCacheStores.concurrentSorted();
+        }
+    },
+
+    COPY_ON_WRITE {
+        @Override
+        CacheStore create(final int size) {
+            return CacheStores.copyOnWrite();
+        }
+    },
+
+    ORDER_STATISTIC_TREE {
+        @Override
+        CacheStore create(final int size) {
+            return CacheStores.orderStatisticTree();
+        }
+    },
+
+    RADIX_TREE {
+        @Override
+        CacheStore create(final int size) {
+            return CacheStores.radixTree();
+        }
+    },
+
+    /**
+     * A {@link CacheStores#bounded(int, CacheStore)} large enough to never evict, measuring only the policy overhead.
+     */
+    BOUNDED {
+        @Override
+        CacheStore create(final int size) {
+            return CacheStores.bounded(
+                size,
+                CacheStores.concurrent()
+            );
+        }
+    };
+
+    abstract CacheStore create(final int size);
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache.benchmark;
+
+import java.util.Random;
+
+/**
+ * The order in which benchmark threads visit the keys of a populated cache.
+ */
+public enum KeyDistribution {
+
+    /**
+     * Every key is equally likely.
+     */
+    UNIFORM {
+        @Override
+        KeyDistributionGenerator generator(final int size,
+                                           final long seed) {
+            final Random random = new Random(seed);
+            return () -> random.nextInt(size);
+        }
+    },
+
+    /**
+     * A few hot keys receive most requests, approximating real world cache traffic.
+     */
+    ZIPFIAN {
+        @Override
+        KeyDistributionGenerator generator(final int size,
+                                           final long seed) {
+            return ZipfianKeyDistributionGenerator.with(
+                size,
+                seed
+            );
+        }
+    },
+
+    /**
+     * Keys are visited in order, wrapping at the end, defeating any recency or frequency based policy.
+     */
+    SCAN {
+        @Override
+        KeyDistributionGenerator generator(final int size,
+                                           final long seed) {
+            final int[] next = new int[]{
+                (int) Math.floorMod(
+                    seed,
+                    (long) size
+                )
+            };
+            return () -> {
+                final int index = next[0];
+                next[0] = index + 1 == size ?
+                    0 :
+                    index + 1;
+                return index;
+            };
+        }
+    };
+
+    /**
+     * Creates a new generator returning indices between 0 and size exclusive. Generators are not thread safe and
+     * should be created per benchmark thread.
+     */
+    abstract KeyDistributionGenerator generator(final int size,
+                                                final long seed);
+}
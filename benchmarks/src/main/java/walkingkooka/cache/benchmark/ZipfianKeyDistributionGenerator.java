@@ -0,0 +1,119 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache.benchmark;
+
+import java.util.Random;
+
+/**
+ * A Zipfian generator after Gray et al, "Quickly Generating Billion-Record Synthetic Databases", with ranks
+ * shuffled so the hot keys are spread across the key space rather than clustered at the start. The shuffle always uses
+ * {@link #SHUFFLE_SEED}, so every thread shares the same hot keys, the given seed only drives sampling.
+ */
+final class ZipfianKeyDistributionGenerator implements KeyDistributionGenerator {
+
+    /**
+     * The skew used by YCSB.
+     */
+    private final static double THETA = 0.99;
+
+    /**
+     * Shared by all generators of the same size, so threads contend on the same hot keys as real traffic would.
+     */
+    private final static long SHUFFLE_SEED = 0x5DEECE66DL;
+
+    static ZipfianKeyDistributionGenerator with(final int size,
+                                                final long seed) {
+        return new ZipfianKeyDistributionGenerator(
+            size,
+            seed
+        );
+    }
+
+    private ZipfianKeyDistributionGenerator(final int size,
+                                            final long seed) {
+        this.size = size;
+        this.random = new Random(seed);
+
+        final double zetan = zeta(size);
+        final double zeta2 = zeta(2);
+
+        this.zetan = zetan;
+        this.alpha = 1.0 / (1.0 - THETA);
+        this.eta = (1 - Math.pow(2.0 / size, 1 - THETA)) / (1 - zeta2 / zetan);
+
+        final Random shuffle = new Random(SHUFFLE_SEED);
+        final int[] ranks = new int[size];
+        for (int i = 0; i < size; i++) {
+            ranks[i] = i;
+        }
+        for (int i = size - 1; i > 0; i--) {
+            final int j = shuffle.nextInt(i + 1);
+            final int swap = ranks[i];
+            ranks[i] = ranks[j];
+            ranks[j] = swap;
+        }
+        this.ranks = ranks;
+    }
+
+    private static double zeta(final int size) {
+        double sum = 0;
+        for (int i = 1; i <= size; i++) {
+            sum += 1 / Math.pow(i, THETA);
+        }
+        return sum;
+    }
+
+    @Override
+    public int next() {
+        final double u = this.random.nextDouble();
+        final double uz = u * this.zetan;
+
+        final int rank;
+        if (uz < 1.0) {
+            rank = 0;
+        } else {
+            if (uz < 1.0 + Math.pow(0.5, THETA)) {
+                rank = 1;
+            } else {
+                rank = Math.min(
+                    (int) (this.size * Math.pow(this.eta * u - this.eta + 1, this.alpha)),
+                    this.size - 1
+                );
+            }
+        }
+
+        return this.ranks[rank];
+    }
+
+    private final int size;
+
+    private final Random random;
+
+    private final double zetan;
+
+    private final double alpha;
+
+    private final double eta;
+
+    private final int[] ranks;
+
+    @Override
+    public String toString() {
+        return "zipfian " + this.size;
+    }
+}
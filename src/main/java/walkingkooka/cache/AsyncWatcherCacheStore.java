@@ -0,0 +1,59 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+/**
+ * A {@link CacheStore} that notifies its save, delete, save all and delete all watchers asynchronously, so that slow
+ * watchers do not add to the latency of writes. Events are queued and delivered in order, in batches, by an
+ * {@link java.util.concurrent.Executor}. When the queue is full the {@link CacheWatcherOverflow} decides what happens.
+ * <br>
+ * The counts below may be polled to detect backpressure, such as a queue depth that stays near its capacity.
+ */
+public interface AsyncWatcherCacheStore extends CacheStore {
+
+    /**
+     * The number of watchers currently added.
+     */
+    int watcherCount();
+
+    /**
+     * The number of events waiting to be delivered, including coalesced events.
+     */
+    int queueDepth();
+
+    /**
+     * The maximum number of events that may be queued.
+     */
+    int queueCapacity();
+
+    /**
+     * The number of events delivered to watchers.
+     */
+    long dispatchedCount();
+
+    /**
+     * The number of events discarded because the queue was full.
+     */
+    long droppedCount();
+
+    /**
+     * The number of events replaced by a later event for the same {@link CacheKey}.
+     */
+    long coalescedCount();
+}
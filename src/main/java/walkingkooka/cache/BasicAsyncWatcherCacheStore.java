@@ -0,0 +1,543 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+import walkingkooka.watch.Watchers;
+
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * An {@link AsyncWatcherCacheStore} that wraps another {@link CacheStore}. It watches the wrapped store, and each event
+ * only costs the writer an offer to a {@link BasicAsyncWatcherCacheStoreRingBuffer}. At most one drain task runs on
+ * the {@link Executor} at a time, delivering up to a queue capacity of events before yielding the thread by submitting
+ * a new task, so events are delivered in order and in batches. Any {@link Executor} may be used, including one creating
+ * a virtual thread per task.
+ * <br>
+ * A watcher that throws is reported to the uncaught exception handler of the delivering thread, and delivery
+ * continues with the next event.
+ */
+final class BasicAsyncWatcherCacheStore implements AsyncWatcherCacheStore {
+
+    /**
+     * How long a writer sleeps between attempts to offer an event to a full queue, when blocking.
+     */
+    final static long BLOCK_PARK_NANOS = 100_000;
+
+    static BasicAsyncWatcherCacheStore with(final CacheStore store,
+                                            final Executor executor,
+                                            final int capacity,
+                                            final CacheWatcherOverflow overflow) {
+        Objects.requireNonNull(store, "store");
+        Objects.requireNonNull(executor, "executor");
+        Objects.requireNonNull(overflow, "overflow");
+
+        return new BasicAsyncWatcherCacheStore(
+            store,
+            executor,
+            BasicAsyncWatcherCacheStoreRingBuffer.with(capacity),
+            overflow
+        );
+    }
+
+    private BasicAsyncWatcherCacheStore(final CacheStore store,
+                                        final Executor executor,
+                                        final BasicAsyncWatcherCacheStoreRingBuffer<BasicAsyncWatcherCacheStoreEvent<?>> queue,
+                                        final CacheWatcherOverflow overflow) {
+        this.store = store;
+        this.executor = executor;
+        this.queue = queue;
+        this.overflow = overflow;
+
+        store.addSaveWatcher(
+            (v) -> {
+                if (this.saveWatcherCount.get() > 0) {
+                    this.enqueue(
+                        BasicAsyncWatcherCacheStoreEvent.with(
+                            this.saveWatchers,
+                            v,
+                            v.key()
+                        )
+                    );
+                }
+            }
+        );
+        store.addDeleteWatcher(
+            (k) -> {
+                if (this.deleteWatcherCount.get() > 0) {
+                    this.enqueue(
+                        BasicAsyncWatcherCacheStoreEvent.with(
+                            this.deleteWatchers,
+                            k,
+                            k
+                        )
+                    );
+                }
+            }
+        );
+        store.addSaveAllWatcher(
+            (v) -> {
+                if (this.saveAllWatcherCount.get() > 0) {
+                    this.enqueue(
+                        BasicAsyncWatcherCacheStoreEvent.with(
+                            this.saveAllWatchers,
+                            v,
+                            null
+                        )
+                    );
+                }
+            }
+        );
+        store.addDeleteAllWatcher(
+            (k) -> {
+                if (this.deleteAllWatcherCount.get() > 0) {
+                    this.enqueue(
+                        BasicAsyncWatcherCacheStoreEvent.with(
+                            this.deleteAllWatchers,
+                            k,
+                            null
+                        )
+                    );
+                }
+            }
+        );
+    }
+
+    // CacheStore.......................................................................................................
+
+    @Override
+    public Optional<CacheValue> load(final CacheKey cacheKey) {
+        return this.store.load(cacheKey);
+    }
+
+    @Override
+    public CacheValue loadOrNull(final CacheKey cacheKey) {
+        return this.store.loadOrNull(cacheKey);
+    }
+
+    @Override
+    public Map<CacheKey, CacheValue> loadAll(final Collection<CacheKey> cacheKeys) {
+        return this.store.loadAll(cacheKeys);
+    }
+
+    @Override
+    public CacheValue save(final CacheValue cacheValue) {
+        return this.store.save(cacheValue);
+    }
+
+    @Override
+    public Runnable addSaveWatcher(final Consumer<CacheValue> watcher) {
+        return counted(
+            this.saveWatchers.add(watcher),
+            this.saveWatcherCount
+        );
+    }
+
+    private final Watchers<CacheValue> saveWatchers = Watchers.create();
+
+    private final AtomicInteger saveWatcherCount = new AtomicInteger();
+
+    @Override
+    public void delete(final CacheKey cacheKey) {
+        this.store.delete(cacheKey);
+    }
+
+    @Override
+    public Runnable addDeleteWatcher(final Consumer<CacheKey> watcher) {
+        return counted(
+            this.deleteWatchers.add(watcher),
+            this.deleteWatcherCount
+        );
+    }
+
+    private final Watchers<CacheKey> deleteWatchers = Watchers.create();
+
+    private final AtomicInteger deleteWatcherCount = new AtomicInteger();
+
+    @Override
+    public List<CacheValue> saveAll(final Collection<CacheValue> cacheValues) {
+        return this.store.saveAll(cacheValues);
+    }
+
+    @Override
+    public Runnable addSaveAllWatcher(final Consumer<List<CacheValue>> watcher) {
+        return counted(
+            this.saveAllWatchers.add(watcher),
+            this.saveAllWatcherCount
+        );
+    }
+
+    private final Watchers<List<CacheValue>> saveAllWatchers = Watchers.create();
+
+    private final AtomicInteger saveAllWatcherCount = new AtomicInteger();
+
+    @Override
+    public void deleteAll(final Collection<CacheKey> cacheKeys) {
+        this.store.deleteAll(cacheKeys);
+    }
+
+    @Override
+    public Runnable addDeleteAllWatcher(final Consumer<Set<CacheKey>> watcher) {
+        return counted(
+            this.deleteAllWatchers.add(watcher),
+            this.deleteAllWatcherCount
+        );
+    }
+
+    private final Watchers<Set<CacheKey>> deleteAllWatchers = Watchers.create();
+
+    private final AtomicInteger deleteAllWatcherCount = new AtomicInteger();
+
+    @Override
+    public int count() {
+        return this.store.count();
+    }
+
+    @Override
+    public Set<CacheKey> ids(final int offset,
+                             final int count) {
+        return this.store.ids(
+            offset,
+            count
+        );
+    }
+
+    @Override
+    public List<CacheValue> values(final int offset,
+                                   final int count) {
+        return this.store.values(
+            offset,
+            count
+        );
+    }
+
+    @Override
+    public List<CacheValue> between(final CacheKey from,
+                                    final CacheKey to) {
+        return this.store.between(
+            from,
+            to
+        );
+    }
+
+    @Override
+    public List<CacheValue> loadByPrefix(final String prefix) {
+        return this.store.loadByPrefix(prefix);
+    }
+
+    @Override
+    public void deleteByPrefix(final String prefix) {
+        this.store.deleteByPrefix(prefix);
+    }
+
+    @Override
+    public Stream<CacheValue> stream() {
+        return this.store.stream();
+    }
+
+    @Override
+    public Stream<CacheValue> stream(final CacheKey from,
+                                     final CacheKey to) {
+        return this.store.stream(
+            from,
+            to
+        );
+    }
+
+    // watchers.........................................................................................................
+
+    /**
+     * Counts the watcher, returning a remover that only uncounts it once. Events without any watchers are never queued.
+     */
+    private static Runnable counted(final Runnable remover,
+                                    final AtomicInteger watcherCount) {
+        watcherCount.incrementAndGet();
+
+        final AtomicBoolean removed = new AtomicBoolean();
+        return () -> {
+            if (removed.compareAndSet(false, true)) {
+                watcherCount.decrementAndGet();
+                remover.run();
+            }
+        };
+    }
+
+    @Override
+    public int watcherCount() {
+        return this.saveWatcherCount.get() +
+            this.deleteWatcherCount.get() +
+            this.saveAllWatcherCount.get() +
+            this.deleteAllWatcherCount.get();
+    }
+
+    // queue............................................................................................................
+
+    /**
+     * Called by the writer with each event from the wrapped store that has at least one watcher.
+     */
+    private void enqueue(final BasicAsyncWatcherCacheStoreEvent<?> event) {
+        if (false == this.coalesceIfCoalescing(event)) {
+            if (false == this.queue.offer(event)) {
+                this.overflow(event);
+            }
+        }
+        this.schedule();
+    }
+
+    /**
+     * Once events are coalescing, later events of every kind must not overtake them via the queue, so they are also
+     * held behind them, including save all and delete all events.
+     */
+    private boolean coalesceIfCoalescing(final BasicAsyncWatcherCacheStoreEvent<?> event) {
+        final Map<Object, BasicAsyncWatcherCacheStoreEvent<?>> coalesced = this.coalesced;
+
+        synchronized (coalesced) {
+            final boolean coalescing = false == coalesced.isEmpty();
+            if (coalescing) {
+                this.coalesceLocked(event);
+            }
+            return coalescing;
+        }
+    }
+
+    private void overflow(final BasicAsyncWatcherCacheStoreEvent<?> event) {
+        switch (this.overflow) {
+            case DROP:
+                this.dropped.increment();
+                break;
+            case COALESCE:
+                if (null != event.key) {
+                    this.coalesce(event);
+                } else {
+                    this.dropped.increment();
+                }
+                break;
+            case BLOCK:
+                if (Thread.currentThread() == this.dispatcher) {
+                    this.dropped.increment();
+                } else {
+                    while (false == this.queue.offer(event)) {
+                        this.schedule();
+                        LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                    }
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown overflow " + this.overflow);
+        }
+    }
+
+    private void coalesce(final BasicAsyncWatcherCacheStoreEvent<?> event) {
+        synchronized (this.coalesced) {
+            this.coalesceLocked(event);
+        }
+    }
+
+    /**
+     * Appends the event, replacing any earlier event for the same key. The replaced event is removed rather than
+     * overwritten in place, so the latest event is never delivered before a save all or delete all that preceded it.
+     * Events without a key are held under themselves and never replaced.
+     */
+    private void coalesceLocked(final BasicAsyncWatcherCacheStoreEvent<?> event) {
+        final Map<Object, BasicAsyncWatcherCacheStoreEvent<?>> coalesced = this.coalesced;
+        final Object key = null != event.key ?
+            event.key :
+            event;
+
+        if (null != coalesced.remove(key)) {
+            this.coalescedCount.increment();
+        }
+        coalesced.put(
+            key,
+            event
+        );
+    }
+
+    /**
+     * Removes and returns the oldest coalesced event, or null if there are none.
+     */
+    private BasicAsyncWatcherCacheStoreEvent<?> pollCoalesced() {
+        final Map<Object, BasicAsyncWatcherCacheStoreEvent<?>> coalesced = this.coalesced;
+
+        synchronized (coalesced) {
+            BasicAsyncWatcherCacheStoreEvent<?> event = null;
+
+            final Iterator<BasicAsyncWatcherCacheStoreEvent<?>> events = coalesced.values()
+                .iterator();
+            if (events.hasNext()) {
+                event = events.next();
+                events.remove();
+            }
+
+            return event;
+        }
+    }
+
+    /**
+     * Submits a drain task unless one is already pending or running.
+     */
+    private void schedule() {
+        if (this.scheduled.compareAndSet(false, true)) {
+            try {
+                this.executor.execute(this::drain);
+            } catch (final RejectedExecutionException cause) {
+                // events remain queued until a later write schedules a drain
+                this.scheduled.set(false);
+            }
+        }
+    }
+
+    /**
+     * Delivers queued events, then any coalesced events in order once the queue is empty, yielding after a queue
+     * capacity of events. Events are only queued while none are coalesced, so every queued event is older than the
+     * coalesced events.
+     */
+    private void drain() {
+        final Thread thread = Thread.currentThread();
+        this.dispatcher = thread;
+        try {
+            final BasicAsyncWatcherCacheStoreRingBuffer<BasicAsyncWatcherCacheStoreEvent<?>> queue = this.queue;
+
+            int remaining = queue.capacity();
+            while (remaining > 0) {
+                final BasicAsyncWatcherCacheStoreEvent<?> event = queue.poll();
+                if (null == event) {
+                    break;
+                }
+                this.deliver(
+                    event,
+                    thread
+                );
+                remaining--;
+            }
+
+            while (remaining > 0) {
+                final BasicAsyncWatcherCacheStoreEvent<?> event = this.pollCoalesced();
+                if (null == event) {
+                    break;
+                }
+                this.deliver(
+                    event,
+                    thread
+                );
+                remaining--;
+            }
+        } finally {
+            this.dispatcher = null;
+            this.scheduled.set(false);
+        }
+
+        // events may have been added after the queue was found empty but before scheduled was cleared
+        if (this.queueDepth() > 0) {
+            this.schedule();
+        }
+    }
+
+    private void deliver(final BasicAsyncWatcherCacheStoreEvent<?> event,
+                         final Thread thread) {
+        try {
+            event.deliver();
+        } catch (final RuntimeException cause) {
+            thread.getUncaughtExceptionHandler()
+                .uncaughtException(
+                    thread,
+                    cause
+                );
+        }
+        this.dispatched.increment();
+    }
+
+    @Override
+    public int queueDepth() {
+        final int coalesced;
+        synchronized (this.coalesced) {
+            coalesced = this.coalesced.size();
+        }
+        return this.queue.size() + coalesced;
+    }
+
+    @Override
+    public int queueCapacity() {
+        return this.queue.capacity();
+    }
+
+    @Override
+    public long dispatchedCount() {
+        return this.dispatched.sum();
+    }
+
+    @Override
+    public long droppedCount() {
+        return this.dropped.sum();
+    }
+
+    @Override
+    public long coalescedCount() {
+        return this.coalescedCount.sum();
+    }
+
+    private final BasicAsyncWatcherCacheStoreRingBuffer<BasicAsyncWatcherCacheStoreEvent<?>> queue;
+
+    /**
+     * The latest save or delete event for each key that overflowed the queue, followed in order by every later event,
+     * only used by {@link CacheWatcherOverflow#COALESCE}. Guarded by synchronizing on the map itself.
+     */
+    private final LinkedHashMap<Object, BasicAsyncWatcherCacheStoreEvent<?>> coalesced = new LinkedHashMap<>();
+
+    private final CacheWatcherOverflow overflow;
+
+    /**
+     * True while a drain task is pending or running.
+     */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /**
+     * The thread running the drain task, so events raised by watchers are never blocked waiting for themselves.
+     */
+    private volatile Thread dispatcher;
+
+    private final LongAdder dispatched = new LongAdder();
+
+    private final LongAdder dropped = new LongAdder();
+
+    private final LongAdder coalescedCount = new LongAdder();
+
+    private final Executor executor;
+
+    private final CacheStore store;
+
+    @Override
+    public String toString() {
+        return this.store + " " + this.queue;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+import walkingkooka.watch.Watchers;
+
+/**
+ * A watcher event queued by {@link BasicAsyncWatcherCacheStore}, holding the {@link Watchers} to notify and the value
+ * they receive. Save and delete events also hold their {@link CacheKey} so they may be coalesced.
+ */
+final class BasicAsyncWatcherCacheStoreEvent<T> {
+
+    static <T> BasicAsyncWatcherCacheStoreEvent<T> with(final Watchers<T> watchers,
+                                                        final T value,
+                                                        final CacheKey key) {
+        return new BasicAsyncWatcherCacheStoreEvent<>(
+            watchers,
+            value,
+            key
+        );
+    }
+
+    private BasicAsyncWatcherCacheStoreEvent(final Watchers<T> watchers,
+                                             final T value,
+                                             final CacheKey key) {
+        super();
+        this.watchers = watchers;
+        this.value = value;
+        this.key = key;
+    }
+
+    void deliver() {
+        this.watchers.accept(this.value);
+    }
+
+    private final Watchers<T> watchers;
+
+    private final T value;
+
+    /**
+     * The key of a save or delete, null for save all and delete all events.
+     */
+    final CacheKey key;
+
+    @Override
+    public String toString() {
+        return String.valueOf(this.value);
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded lock free queue used by {@link BasicAsyncWatcherCacheStore}, supporting many producers and a single
+ * consumer. Each slot has a sequence number, a producer claims a slot by advancing the tail with a compare and set
+ * once the sequence shows the slot is free, and publishes its element by advancing the sequence, so offers never block
+ * and a full queue is detected without locks. The capacity is rounded up to a power of two so positions map to slots
+ * with a mask.
+ */
+final class BasicAsyncWatcherCacheStoreRingBuffer<T> {
+
+    static <T> BasicAsyncWatcherCacheStoreRingBuffer<T> with(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Invalid capacity " + capacity + " <= 0");
+        }
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("Invalid capacity " + capacity + " > " + MAX_CAPACITY);
+        }
+
+        return new BasicAsyncWatcherCacheStoreRingBuffer<>(
+            Integer.highestOneBit(capacity) == capacity ?
+                capacity :
+                Integer.highestOneBit(capacity) << 1
+        );
+    }
+
+    final static int MAX_CAPACITY = 1 << 30;
+
+    private BasicAsyncWatcherCacheStoreRingBuffer(final int capacity) {
+        super();
+        this.mask = capacity - 1;
+        this.elements = new AtomicReferenceArray<>(capacity);
+
+        final AtomicLongArray sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+        this.sequences = sequences;
+    }
+
+    /**
+     * Adds the element returning false if the queue is full. May be called by any thread.
+     */
+    boolean offer(final T element) {
+        final AtomicLongArray sequences = this.sequences;
+        final AtomicLong tail = this.tail;
+        final int mask = this.mask;
+
+        long position = tail.get();
+        for (; ; ) {
+            final int slot = (int) (position & mask);
+            final long available = sequences.get(slot) - position;
+
+            if (0 == available) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    this.elements.set(slot, element);
+                    sequences.set(slot, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (available < 0) {
+                // the slot still holds an element from the previous lap
+                return false;
+            } else {
+                // another producer claimed this position
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Removes and returns the oldest element or null if the queue is empty, or the oldest element has been claimed but
+     * not yet published. Must only be called by one thread at a time.
+     */
+    T poll() {
+        final long position = this.head.get();
+        final int slot = (int) (position & this.mask);
+
+        T element = null;
+        if (this.sequences.get(slot) == position + 1) {
+            element = this.elements.get(slot);
+            this.elements.set(slot, null);
+            this.sequences.set(slot, position + this.mask + 1);
+            this.head.set(position + 1);
+        }
+        return element;
+    }
+
+    /**
+     * The number of elements queued, which may be stale by the time it returns.
+     */
+    int size() {
+        final long size = this.tail.get() - this.head.get();
+        return (int) Math.max(
+            0,
+            Math.min(
+                size,
+                this.capacity()
+            )
+        );
+    }
+
+    int capacity() {
+        return this.mask + 1;
+    }
+
+    private final int mask;
+
+    private final AtomicReferenceArray<T> elements;
+
+    /**
+     * A slot is free for the producer at position p when its sequence equals p, and holds an element for the consumer
+     * at position p when its sequence equals p + 1.
+     */
+    private final AtomicLongArray sequences;
+
+    /**
+     * The next position to be claimed by a producer.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * The next position to be consumed.
+     */
+    private final AtomicLong head = new AtomicLong();
+
+    @Override
+    public String toString() {
+        return this.size() + "/" + this.capacity();
+    }
+}
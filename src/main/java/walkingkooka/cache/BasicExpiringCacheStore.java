@@ -0,0 +1,619 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import walkingkooka.watch.Watchers;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * A {@link ExpiringCacheStore} that wraps another {@link CacheStore}, keeping the deadline of each entry in a
+ * separate {@link ConcurrentHashMap} so the wrapped store need not know about expiry. The clock supplies the current
+ * time in milliseconds, typically {@link System#currentTimeMillis()}.
+ * <br>
+ * Deadlines are also indexed by a {@link BasicExpiringCacheStoreTimingWheel}, so {@link #sweep(int)} only visits
+ * entries whose deadline has passed. Loads never touch the wheel, entries whose access deadline was extended are
+ * rescheduled when their original bucket is visited.
+ * <br>
+ * Expired entries remain in the wrapped store until swept, but are hidden from {@link #count()}, {@link #ids(int, int)},
+ * {@link #values(int, int)} and {@link #between(CacheKey, CacheKey)} just as they are from {@link #load(CacheKey)}.
+ * {@link #count()} advances the wheel and subtracts a running count of the expired entries not yet swept. Schedule
+ * {@link #sweep(int)}, for example with {@link JreCacheStores#sweepPeriodically}, so they are eventually removed.
+ * <br>
+ * Writes to the wrapped store and their deadlines are guarded by a striped lock per key, so a sweep never deletes a
+ * value saved after its deadline expired. Watchers of the wrapped store are notified holding these locks, and must not
+ * write to this store.
+ */
+final class BasicExpiringCacheStore implements ExpiringCacheStore {
+
+    static BasicExpiringCacheStore with(final CacheStore store,
+                                        final LongSupplier clock) {
+        return new BasicExpiringCacheStore(
+            Objects.requireNonNull(store, "store"),
+            Objects.requireNonNull(clock, "clock")
+        );
+    }
+
+    private BasicExpiringCacheStore(final CacheStore store,
+                                    final LongSupplier clock) {
+        this.store = store;
+        this.clock = clock;
+        this.wheel = BasicExpiringCacheStoreTimingWheel.with(
+            clock.getAsLong()
+        );
+
+        final Object[] locks = new Object[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        this.locks = locks;
+    }
+
+    @Override
+    public Optional<CacheValue> load(final CacheKey cacheKey) {
+        return Optional.ofNullable(
+            this.loadOrNull(cacheKey)
+        );
+    }
+
+    @Override
+    public CacheValue loadOrNull(final CacheKey cacheKey) {
+        Objects.requireNonNull(cacheKey, "cacheKey");
+
+        final BasicExpiringCacheStoreDeadline deadline = this.keyToDeadline.get(cacheKey);
+        CacheValue loaded;
+
+        if (null == deadline) {
+            // entry was saved directly to the wrapped store and never expires
+            loaded = this.store.loadOrNull(cacheKey);
+        } else {
+            final long now = this.clock.getAsLong();
+            if (deadline.isExpired(now)) {
+                loaded = null;
+            } else {
+                loaded = this.store.loadOrNull(cacheKey);
+                if (null != loaded) {
+                    deadline.accessed(now);
+                }
+            }
+        }
+
+        return loaded;
+    }
+
+    @Override
+    public CacheValue save(final CacheValue cacheValue) {
+        Objects.requireNonNull(cacheValue, "cacheValue");
+
+        final CacheValue saved;
+
+        synchronized (this.lock(cacheValue.key())) {
+            saved = this.store.save(cacheValue);
+            final BasicExpiringCacheStoreDeadline deadline = BasicExpiringCacheStoreDeadline.with(
+                saved,
+                this.clock.getAsLong()
+            );
+            final BasicExpiringCacheStoreDeadline replaced = this.keyToDeadline.put(
+                saved.key(),
+                deadline
+            );
+
+            synchronized (this.wheel) {
+                if (null != replaced) {
+                    this.unschedule(replaced);
+                }
+                this.wheel.schedule(deadline);
+            }
+        }
+
+        return saved;
+    }
+
+    @Override
+    public Runnable addSaveWatcher(final Consumer<CacheValue> watcher) {
+        return this.store.addSaveWatcher(watcher);
+    }
+
+    @Override
+    public void delete(final CacheKey cacheKey) {
+        Objects.requireNonNull(cacheKey, "cacheKey");
+
+        synchronized (this.lock(cacheKey)) {
+            final BasicExpiringCacheStoreDeadline removed = this.keyToDeadline.remove(cacheKey);
+            if (null != removed) {
+                synchronized (this.wheel) {
+                    this.unschedule(removed);
+                }
+            }
+            this.store.delete(cacheKey);
+        }
+    }
+
+    @Override
+    public Runnable addDeleteWatcher(final Consumer<CacheKey> watcher) {
+        return this.store.addDeleteWatcher(watcher);
+    }
+
+    @Override
+    public Map<CacheKey, CacheValue> loadAll(final Collection<CacheKey> cacheKeys) {
+        CacheStoreChecks.all(cacheKeys, "cacheKeys");
+
+        final ConcurrentHashMap<CacheKey, BasicExpiringCacheStoreDeadline> keyToDeadline = this.keyToDeadline;
+        final long now = this.clock.getAsLong();
+
+        final List<CacheKey> unexpired = new ArrayList<>(cacheKeys.size());
+        for (final CacheKey cacheKey : cacheKeys) {
+            final BasicExpiringCacheStoreDeadline deadline = keyToDeadline.get(cacheKey);
+            if (null == deadline || false == deadline.isExpired(now)) {
+                unexpired.add(cacheKey);
+            }
+        }
+
+        final Map<CacheKey, CacheValue> loaded = this.store.loadAll(unexpired);
+        for (final CacheKey cacheKey : loaded.keySet()) {
+            final BasicExpiringCacheStoreDeadline deadline = keyToDeadline.get(cacheKey);
+            if (null != deadline) {
+                deadline.accessed(now);
+            }
+        }
+
+        return loaded;
+    }
+
+    @Override
+    public List<CacheValue> saveAll(final Collection<CacheValue> cacheValues) {
+        CacheStoreChecks.all(cacheValues, "cacheValues");
+
+        final List<CacheKey> cacheKeys = new ArrayList<>(cacheValues.size());
+        for (final CacheValue cacheValue : cacheValues) {
+            cacheKeys.add(cacheValue.key());
+        }
+
+        return this.locked(
+            cacheKeys,
+            () -> this.saveAllLocked(cacheValues)
+        );
+    }
+
+    private List<CacheValue> saveAllLocked(final Collection<CacheValue> cacheValues) {
+        final List<CacheValue> saved = this.store.saveAll(cacheValues);
+
+        final ConcurrentHashMap<CacheKey, BasicExpiringCacheStoreDeadline> keyToDeadline = this.keyToDeadline;
+        final long now = this.clock.getAsLong();
+
+        final List<BasicExpiringCacheStoreDeadline> deadlines = new ArrayList<>(saved.size());
+        final List<BasicExpiringCacheStoreDeadline> replaced = new ArrayList<>();
+
+        for (final CacheValue value : saved) {
+            final BasicExpiringCacheStoreDeadline deadline = BasicExpiringCacheStoreDeadline.with(
+                value,
+                now
+            );
+            deadlines.add(deadline);
+
+            final BasicExpiringCacheStoreDeadline previous = keyToDeadline.put(
+                value.key(),
+                deadline
+            );
+            if (null != previous) {
+                replaced.add(previous);
+            }
+        }
+
+        final BasicExpiringCacheStoreTimingWheel wheel = this.wheel;
+        synchronized (wheel) {
+            for (final BasicExpiringCacheStoreDeadline previous : replaced) {
+                this.unschedule(previous);
+            }
+            for (final BasicExpiringCacheStoreDeadline deadline : deadlines) {
+                wheel.schedule(deadline);
+            }
+        }
+
+        return saved;
+    }
+
+    @Override
+    public Runnable addSaveAllWatcher(final Consumer<List<CacheValue>> watcher) {
+        return this.store.addSaveAllWatcher(watcher);
+    }
+
+    @Override
+    public void deleteAll(final Collection<CacheKey> cacheKeys) {
+        CacheStoreChecks.all(cacheKeys, "cacheKeys");
+
+        this.locked(
+            cacheKeys,
+            () -> {
+                this.deleteAllLocked(cacheKeys);
+                return null;
+            }
+        );
+    }
+
+    private void deleteAllLocked(final Collection<CacheKey> cacheKeys) {
+        final ConcurrentHashMap<CacheKey, BasicExpiringCacheStoreDeadline> keyToDeadline = this.keyToDeadline;
+        final List<BasicExpiringCacheStoreDeadline> removed = new ArrayList<>();
+
+        for (final CacheKey cacheKey : cacheKeys) {
+            final BasicExpiringCacheStoreDeadline deadline = keyToDeadline.remove(cacheKey);
+            if (null != deadline) {
+                removed.add(deadline);
+            }
+        }
+
+        if (false == removed.isEmpty()) {
+            synchronized (this.wheel) {
+                for (final BasicExpiringCacheStoreDeadline deadline : removed) {
+                    this.unschedule(deadline);
+                }
+            }
+        }
+
+        this.store.deleteAll(cacheKeys);
+    }
+
+    @Override
+    public Runnable addDeleteAllWatcher(final Consumer<Set<CacheKey>> watcher) {
+        return this.store.addDeleteAllWatcher(watcher);
+    }
+
+    /**
+     * Advances the wheel, which only visits the buckets passed since it was last advanced, and subtracts the running
+     * count of expired entries not yet swept.
+     */
+    @Override
+    public int count() {
+        final int expired;
+
+        final BasicExpiringCacheStoreTimingWheel wheel = this.wheel;
+        synchronized (wheel) {
+            wheel.advance(
+                this.clock.getAsLong(),
+                this::expired
+            );
+            expired = this.expiredCount;
+        }
+
+        return Math.max(
+            0,
+            this.store.count() - expired
+        );
+    }
+
+    @Override
+    public Set<CacheKey> ids(final int offset,
+                             final int count) {
+        CacheStoreChecks.offsetAndCount(
+            offset,
+            count
+        );
+
+        final CacheStore store = this.store;
+        final long now = this.clock.getAsLong();
+
+        final Set<CacheKey> ids = new TreeSet<>();
+
+        int skip = offset;
+        int position = 0;
+        Set<CacheKey> page;
+        do {
+            page = store.ids(
+                position,
+                PAGE_SIZE
+            );
+            for (final CacheKey key : page) {
+                if (ids.size() == count) {
+                    break;
+                }
+                if (false == this.isExpired(key, now)) {
+                    if (skip > 0) {
+                        skip--;
+                    } else {
+                        ids.add(key);
+                    }
+                }
+            }
+            position += PAGE_SIZE;
+        } while (ids.size() < count && page.size() == PAGE_SIZE);
+
+        return ids;
+    }
+
+    @Override
+    public List<CacheValue> values(final int offset,
+                                   final int count) {
+        CacheStoreChecks.offsetAndCount(
+            offset,
+            count
+        );
+
+        final CacheStore store = this.store;
+        final long now = this.clock.getAsLong();
+
+        final List<CacheValue> values = new ArrayList<>();
+
+        int skip = offset;
+        int position = 0;
+        List<CacheValue> page;
+        do {
+            page = store.values(
+                position,
+                PAGE_SIZE
+            );
+            for (final CacheValue value : page) {
+                if (values.size() == count) {
+                    break;
+                }
+                if (false == this.isExpired(value.key(), now)) {
+                    if (skip > 0) {
+                        skip--;
+                    } else {
+                        values.add(value);
+                    }
+                }
+            }
+            position += PAGE_SIZE;
+        } while (values.size() < count && page.size() == PAGE_SIZE);
+
+        return values;
+    }
+
+    @Override
+    public List<CacheValue> between(final CacheKey from,
+                                    final CacheKey to) {
+        final List<CacheValue> values = this.store.between(
+            from,
+            to
+        );
+        final long now = this.clock.getAsLong();
+
+        final List<CacheValue> unexpired = new ArrayList<>(values.size());
+        for (final CacheValue value : values) {
+            if (false == this.isExpired(value.key(), now)) {
+                unexpired.add(value);
+            }
+        }
+        return unexpired;
+    }
+
+    /**
+     * Wraps the stream of the wrapped store, skipping entries that have expired when the stream is created.
+     */
+    @Override
+    public Stream<CacheValue> stream() {
+        return this.unexpired(
+            this.store.stream()
+        );
+    }
+
+    @Override
+    public Stream<CacheValue> stream(final CacheKey from,
+                                     final CacheKey to) {
+        return this.unexpired(
+            this.store.stream(
+                from,
+                to
+            )
+        );
+    }
+
+    private Stream<CacheValue> unexpired(final Stream<CacheValue> values) {
+        final long now = this.clock.getAsLong();
+
+        return values.filter(
+            (v) -> false == this.isExpired(v.key(), now)
+        );
+    }
+
+    /**
+     * Scans do not extend access deadlines, only {@link #load(CacheKey)} and {@link #loadAll(Collection)} do.
+     */
+    private boolean isExpired(final CacheKey key,
+                              final long now) {
+        final BasicExpiringCacheStoreDeadline deadline = this.keyToDeadline.get(key);
+        return null != deadline && deadline.isExpired(now);
+    }
+
+    /**
+     * The number of entries read from the wrapped store at a time while skipping expired entries.
+     */
+    private final static int PAGE_SIZE = 1000;
+
+    // ExpiringCacheStore...............................................................................................
+
+    @Override
+    public int sweep(final int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Invalid batchSize " + batchSize + " <= 0");
+        }
+
+        final List<BasicExpiringCacheStoreDeadline> batch = new ArrayList<>();
+
+        final BasicExpiringCacheStoreTimingWheel wheel = this.wheel;
+        synchronized (wheel) {
+            final ArrayDeque<BasicExpiringCacheStoreDeadline> expired = this.expired;
+            wheel.advance(
+                this.clock.getAsLong(),
+                this::expired
+            );
+
+            // take the oldest expired first, leaving the remainder for the next sweep
+            while (batch.size() < batchSize && false == expired.isEmpty()) {
+                final BasicExpiringCacheStoreDeadline deadline = expired.poll();
+
+                // skip deadlines since replaced or deleted, which were already uncounted
+                if (deadline.expired) {
+                    deadline.expired = false;
+                    this.expiredCount--;
+                    batch.add(deadline);
+                }
+            }
+        }
+
+        // delete outside the wheel lock so delete watchers never delay saves of other keys
+        int deleted = 0;
+        for (final BasicExpiringCacheStoreDeadline deadline : batch) {
+            final CacheKey key = deadline.key;
+
+            final boolean removed;
+            synchronized (this.lock(key)) {
+                // only remove if the entry was not replaced by a save, which holds the same lock
+                removed = this.keyToDeadline.remove(key, deadline);
+                if (removed) {
+                    this.store.delete(key);
+                }
+            }
+
+            if (removed) {
+                this.expiryWatchers.accept(key);
+                deleted++;
+            }
+        }
+
+        return deleted;
+    }
+
+    /**
+     * Receives each deadline the wheel finds expired, queueing and counting it until swept.
+     */
+    private void expired(final BasicExpiringCacheStoreDeadline deadline) {
+        deadline.expired = true;
+        this.expiredCount++;
+        this.expired.add(deadline);
+    }
+
+    /**
+     * Removes a replaced or deleted deadline from the wheel, and uncounts it if it was already found expired. Must be
+     * called holding the wheel lock.
+     */
+    private void unschedule(final BasicExpiringCacheStoreDeadline deadline) {
+        this.wheel.unschedule(deadline);
+
+        if (deadline.expired) {
+            deadline.expired = false;
+            this.expiredCount--;
+        }
+    }
+
+    @Override
+    public Runnable addExpiryWatcher(final Consumer<CacheKey> watcher) {
+        return this.expiryWatchers.add(watcher);
+    }
+
+    private final Watchers<CacheKey> expiryWatchers = Watchers.create();
+
+    /**
+     * Expired entries found by the wheel that have not yet been deleted, because a sweep reached its batch size.
+     * Deadlines replaced or deleted meanwhile remain queued but are skipped.
+     */
+    private final ArrayDeque<BasicExpiringCacheStoreDeadline> expired = new ArrayDeque<>();
+
+    /**
+     * The number of deadlines in {@link #expired} that were neither replaced nor deleted, guarded by the wheel.
+     */
+    private int expiredCount;
+
+    // locks............................................................................................................
+
+    /**
+     * The number of lock stripes, a power of two.
+     */
+    private final static int STRIPES = 64;
+
+    private Object lock(final CacheKey cacheKey) {
+        return this.locks[stripe(cacheKey)];
+    }
+
+    private static int stripe(final CacheKey cacheKey) {
+        final int hash = cacheKey.hashCode();
+        return (hash ^ (hash >>> 16)) & (STRIPES - 1);
+    }
+
+    /**
+     * Holds the locks of all the keys while getting from the {@link Supplier}. Locks are taken in stripe order so
+     * batches of overlapping keys never deadlock.
+     */
+    private <T> T locked(final Collection<CacheKey> cacheKeys,
+                         final Supplier<T> task) {
+        final boolean[] stripes = new boolean[STRIPES];
+        for (final CacheKey cacheKey : cacheKeys) {
+            stripes[stripe(cacheKey)] = true;
+        }
+
+        return this.locked(
+            stripes,
+            0,
+            task
+        );
+    }
+
+    private <T> T locked(final boolean[] stripes,
+                         final int stripe,
+                         final Supplier<T> task) {
+        final T result;
+
+        if (STRIPES == stripe) {
+            result = task.get();
+        } else if (stripes[stripe]) {
+            synchronized (this.locks[stripe]) {
+                result = this.locked(
+                    stripes,
+                    stripe + 1,
+                    task
+                );
+            }
+        } else {
+            result = this.locked(
+                stripes,
+                stripe + 1,
+                task
+            );
+        }
+
+        return result;
+    }
+
+    private final Object[] locks;
+
+    private final BasicExpiringCacheStoreTimingWheel wheel;
+
+    private final ConcurrentHashMap<CacheKey, BasicExpiringCacheStoreDeadline> keyToDeadline = new ConcurrentHashMap<>();
+
+    private final CacheStore store;
+
+    private final LongSupplier clock;
+
+    @Override
+    public String toString() {
+        return this.store.toString();
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+/**
+ * Holds the expiry deadlines of a single {@link CacheValue} within a {@link BasicExpiringCacheStore}, in the units
+ * of its clock. Instances are also the nodes of the doubly linked bucket lists of a
+ * {@link BasicExpiringCacheStoreTimingWheel}, which allows them to be unscheduled in constant time.
+ */
+final class BasicExpiringCacheStoreDeadline {
+
+    /**
+     * Value used when a deadline is absent.
+     */
+    final static long NEVER = Long.MAX_VALUE;
+
+    static BasicExpiringCacheStoreDeadline with(final CacheValue value,
+                                                final long now) {
+        return new BasicExpiringCacheStoreDeadline(
+            value.key(),
+            value.expireAfterWrite()
+                .map(d -> add(now, d.toMillis()))
+                .orElse(NEVER),
+            value.expireAfterAccess()
+                .map(d -> d.toMillis())
+                .orElse(NEVER),
+            now
+        );
+    }
+
+    /**
+     * Creates the head of an empty bucket list, which never expires.
+     */
+    static BasicExpiringCacheStoreDeadline sentinel() {
+        final BasicExpiringCacheStoreDeadline sentinel = new BasicExpiringCacheStoreDeadline(
+            null,
+            NEVER,
+            NEVER,
+            0
+        );
+        sentinel.previous = sentinel;
+        sentinel.next = sentinel;
+        return sentinel;
+    }
+
+    private BasicExpiringCacheStoreDeadline(final CacheKey key,
+                                            final long writeDeadline,
+                                            final long expireAfterAccess,
+                                            final long now) {
+        this.key = key;
+        this.writeDeadline = writeDeadline;
+        this.expireAfterAccess = expireAfterAccess;
+        this.accessDeadline = add(now, expireAfterAccess);
+    }
+
+    final CacheKey key;
+
+    /**
+     * Returns true if either deadline has been reached.
+     */
+    boolean isExpired(final long now) {
+        return now >= this.deadline();
+    }
+
+    /**
+     * Extends the access deadline if the value has an expire after access.
+     */
+    void accessed(final long now) {
+        if (NEVER != this.expireAfterAccess) {
+            this.accessDeadline = add(now, this.expireAfterAccess);
+        }
+    }
+
+    /**
+     * The earlier of the write and access deadlines.
+     */
+    long deadline() {
+        return Math.min(
+            this.writeDeadline,
+            this.accessDeadline
+        );
+    }
+
+    private final long writeDeadline;
+
+    private final long expireAfterAccess;
+
+    private volatile long accessDeadline;
+
+    /**
+     * True while this deadline is queued and counted as expired by its {@link BasicExpiringCacheStore}, guarded by the
+     * {@link BasicExpiringCacheStoreTimingWheel}.
+     */
+    boolean expired;
+
+    // BasicExpiringCacheStoreTimingWheel...............................................................................
+
+    /**
+     * Inserts this node before the given bucket sentinel.
+     */
+    void link(final BasicExpiringCacheStoreDeadline sentinel) {
+        final BasicExpiringCacheStoreDeadline last = sentinel.previous;
+
+        this.previous = last;
+        this.next = sentinel;
+        last.next = this;
+        sentinel.previous = this;
+    }
+
+    /**
+     * Removes this node from its bucket, doing nothing if it is not scheduled.
+     */
+    void unlink() {
+        final BasicExpiringCacheStoreDeadline previous = this.previous;
+        if (null != previous) {
+            final BasicExpiringCacheStoreDeadline next = this.next;
+            previous.next = next;
+            next.previous = previous;
+
+            this.previous = null;
+            this.next = null;
+        }
+    }
+
+    BasicExpiringCacheStoreDeadline previous;
+
+    BasicExpiringCacheStoreDeadline next;
+
+    /**
+     * Adds without overflowing, so very long durations never wrap around into the past.
+     */
+    private static long add(final long now,
+                            final long duration) {
+        return NEVER - now <= duration ?
+            NEVER :
+            now + duration;
+    }
+
+    @Override
+    public String toString() {
+        return String.valueOf(this.deadline());
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * A hierarchical timing wheel that indexes {@link BasicExpiringCacheStoreDeadline} by deadline, so that advancing
+ * time only visits the buckets that have passed, rather than every entry in the cache.
+ * <br>
+ * Each of the {@link #LEVELS} levels has {@link #BUCKETS} buckets, with a bucket in level n spanning 64<sup>n</sup>
+ * milliseconds, so level 0 has millisecond precision and the top level covers about two years. Nodes whose deadline
+ * lies further in the future are placed in a coarser level and cascade down to finer levels as time advances.
+ * Deadlines that were extended after scheduling, eg by an access, are simply rescheduled when their bucket is visited.
+ * <br>
+ * This class is not thread safe and must be guarded by its owner.
+ */
+final class BasicExpiringCacheStoreTimingWheel {
+
+    static BasicExpiringCacheStoreTimingWheel with(final long now) {
+        return new BasicExpiringCacheStoreTimingWheel(now);
+    }
+
+    /**
+     * The number of bits of the deadline consumed by each level.
+     */
+    private final static int BITS = 6;
+
+    final static int BUCKETS = 1 << BITS;
+
+    private final static int MASK = BUCKETS - 1;
+
+    final static int LEVELS = 6;
+
+    private BasicExpiringCacheStoreTimingWheel(final long now) {
+        this.time = now;
+
+        final BasicExpiringCacheStoreDeadline[][] wheel = new BasicExpiringCacheStoreDeadline[LEVELS][BUCKETS];
+        for (int level = 0; level < LEVELS; level++) {
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                wheel[level][bucket] = BasicExpiringCacheStoreDeadline.sentinel();
+            }
+        }
+        this.wheel = wheel;
+    }
+
+    /**
+     * Adds the node to the bucket matching its deadline, ignoring nodes that never expire.
+     */
+    void schedule(final BasicExpiringCacheStoreDeadline node) {
+        final long deadline = node.deadline();
+
+        if (BasicExpiringCacheStoreDeadline.NEVER != deadline) {
+            final long duration = deadline - this.time;
+
+            int level = 0;
+            while (level < LEVELS - 1 && duration >= 1L << (BITS * (level + 1))) {
+                level++;
+            }
+
+            node.link(
+                this.wheel[level][(int) ((deadline >>> (BITS * level)) & MASK)]
+            );
+        }
+    }
+
+    /**
+     * Removes the node from the wheel in constant time.
+     */
+    void unschedule(final BasicExpiringCacheStoreDeadline node) {
+        node.unlink();
+    }
+
+    /**
+     * Advances the wheel to the given time, passing every expired node to the {@link Consumer}, and cascading the
+     * remaining nodes of the visited buckets into finer levels.
+     */
+    void advance(final long now,
+                 final Consumer<BasicExpiringCacheStoreDeadline> expired) {
+        final long previous = this.time;
+        this.time = now;
+
+        for (int level = 0; level < LEVELS; level++) {
+            final int shift = BITS * level;
+            final long previousTicks = previous >>> shift;
+            final long delta = (now >>> shift) - previousTicks;
+            if (delta <= 0) {
+                break;
+            }
+
+            final int start = (int) (previousTicks & MASK);
+            final int end = start + (int) Math.min(
+                1 + delta,
+                BUCKETS
+            );
+
+            for (int i = start; i < end; i++) {
+                this.expire(
+                    this.wheel[level][i & MASK],
+                    now,
+                    expired
+                );
+            }
+        }
+    }
+
+    private void expire(final BasicExpiringCacheStoreDeadline sentinel,
+                        final long now,
+                        final Consumer<BasicExpiringCacheStoreDeadline> expired) {
+        // detach the entire bucket first so nodes rescheduled into the same bucket are not visited again.
+        BasicExpiringCacheStoreDeadline node = sentinel.next;
+        sentinel.previous = sentinel;
+        sentinel.next = sentinel;
+
+        while (sentinel != node) {
+            final BasicExpiringCacheStoreDeadline next = node.next;
+            node.previous = null;
+            node.next = null;
+
+            if (node.isExpired(now)) {
+                expired.accept(node);
+            } else {
+                this.schedule(node);
+            }
+
+            node = next;
+        }
+    }
+
+    /**
+     * The time of the last advance.
+     */
+    private long time;
+
+    private final BasicExpiringCacheStoreDeadline[][] wheel;
+
+    @Override
+    public String toString() {
+        return String.valueOf(this.time);
+    }
+}
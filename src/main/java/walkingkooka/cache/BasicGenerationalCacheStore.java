@@ -0,0 +1,449 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * A {@link GenerationalCacheStore} that wraps another {@link CacheStore}. Invalidation only replaces the immutable
+ * {@link BasicGenerationalCacheStoreGenerations}, and loads filter values whose generation is no longer valid.
+ * Invalidated entries are never loaded, so a wrapped {@link BoundedCacheStore} soon evicts them, while
+ * {@link #sweep(int)} pages thru the wrapped store deleting them.
+ * <br>
+ * Until a sweep has deleted every invalidated entry, {@link #count()}, {@link #ids(int, int)} and
+ * {@link #values(int, int)} page thru the wrapped store skipping invalid entries, otherwise they delegate directly.
+ * A save stamped with a generation that was invalidated before the save landed restarts the sweep, so it cannot be
+ * mistaken for swept. {@link #values(int, int)}, {@link #between(CacheKey, CacheKey)},
+ * {@link #loadByPrefix(String)} and the streams of the wrapped store always filter the values they return.
+ */
+final class BasicGenerationalCacheStore implements GenerationalCacheStore {
+
+    /**
+     * The number of values read from the wrapped store at a time when counting or paging past invalid entries.
+     */
+    final static int PAGE_SIZE = 1000;
+
+    static BasicGenerationalCacheStore with(final CacheStore store) {
+        return new BasicGenerationalCacheStore(
+            Objects.requireNonNull(store, "store")
+        );
+    }
+
+    private BasicGenerationalCacheStore(final CacheStore store) {
+        super();
+        this.store = store;
+    }
+
+    @Override
+    public Optional<CacheValue> load(final CacheKey cacheKey) {
+        return Optional.ofNullable(
+            this.loadOrNull(cacheKey)
+        );
+    }
+
+    @Override
+    public CacheValue loadOrNull(final CacheKey cacheKey) {
+        return this.valid(
+            this.store.loadOrNull(cacheKey)
+        );
+    }
+
+    @Override
+    public Map<CacheKey, CacheValue> loadAll(final Collection<CacheKey> cacheKeys) {
+        final BasicGenerationalCacheStoreGenerations generations = this.generations;
+        final Map<CacheKey, CacheValue> loaded = new LinkedHashMap<>();
+
+        for (final Entry<CacheKey, CacheValue> keyAndValue : this.store.loadAll(cacheKeys).entrySet()) {
+            final CacheValue value = keyAndValue.getValue();
+            if (generations.isValid(value.generation())) {
+                loaded.put(
+                    keyAndValue.getKey(),
+                    value
+                );
+            }
+        }
+
+        return loaded;
+    }
+
+    /**
+     * Saves the value stamped with the current {@link #generation()}, watchers receive the stamped value.
+     */
+    @Override
+    public CacheValue save(final CacheValue cacheValue) {
+        Objects.requireNonNull(cacheValue, "cacheValue");
+
+        final long generation = this.generation();
+        final CacheValue saved = this.store.save(
+            cacheValue.setGeneration(generation)
+        );
+        this.saved(generation);
+        return saved;
+    }
+
+    @Override
+    public Runnable addSaveWatcher(final Consumer<CacheValue> watcher) {
+        return this.store.addSaveWatcher(watcher);
+    }
+
+    @Override
+    public void delete(final CacheKey cacheKey) {
+        this.store.delete(cacheKey);
+    }
+
+    @Override
+    public Runnable addDeleteWatcher(final Consumer<CacheKey> watcher) {
+        return this.store.addDeleteWatcher(watcher);
+    }
+
+    @Override
+    public List<CacheValue> saveAll(final Collection<CacheValue> cacheValues) {
+        CacheStoreChecks.all(cacheValues, "cacheValues");
+
+        final long generation = this.generation();
+        final List<CacheValue> stamped = new ArrayList<>(cacheValues.size());
+        for (final CacheValue cacheValue : cacheValues) {
+            stamped.add(
+                cacheValue.setGeneration(generation)
+            );
+        }
+
+        final List<CacheValue> saved = this.store.saveAll(stamped);
+        this.saved(generation);
+        return saved;
+    }
+
+    /**
+     * Restarts sweeping if the generation was invalidated while values stamped with it were being saved, because a
+     * sweep may have already passed their position.
+     */
+    private void saved(final long generation) {
+        if (false == this.generations.isValid(generation)) {
+            this.unswept();
+        }
+    }
+
+    @Override
+    public Runnable addSaveAllWatcher(final Consumer<List<CacheValue>> watcher) {
+        return this.store.addSaveAllWatcher(watcher);
+    }
+
+    @Override
+    public void deleteAll(final Collection<CacheKey> cacheKeys) {
+        this.store.deleteAll(cacheKeys);
+    }
+
+    @Override
+    public Runnable addDeleteAllWatcher(final Consumer<Set<CacheKey>> watcher) {
+        return this.store.addDeleteAllWatcher(watcher);
+    }
+
+    /**
+     * Delegates to the wrapped store once swept, otherwise counts the valid values of every page of the wrapped store.
+     * Counts per generation are not kept, because replacing, deleting or evicting an entry in the wrapped store does
+     * not report the generation of the value it removed.
+     */
+    @Override
+    public int count() {
+        int count;
+
+        if (this.isSwept()) {
+            count = this.store.count();
+        } else {
+            final BasicGenerationalCacheStoreGenerations generations = this.generations;
+            final CacheStore store = this.store;
+
+            count = 0;
+            int offset = 0;
+            List<CacheValue> page;
+            do {
+                page = store.values(
+                    offset,
+                    PAGE_SIZE
+                );
+                for (final CacheValue value : page) {
+                    if (generations.isValid(value.generation())) {
+                        count++;
+                    }
+                }
+                offset += PAGE_SIZE;
+            } while (page.size() == PAGE_SIZE);
+        }
+
+        return count;
+    }
+
+    @Override
+    public Set<CacheKey> ids(final int offset,
+                             final int count) {
+        final Set<CacheKey> ids = new TreeSet<>();
+        for (final CacheValue value : this.values(offset, count)) {
+            ids.add(value.key());
+        }
+        return ids;
+    }
+
+    @Override
+    public List<CacheValue> values(final int offset,
+                                   final int count) {
+        CacheStoreChecks.offsetAndCount(
+            offset,
+            count
+        );
+
+        List<CacheValue> values = null;
+
+        if (this.isSwept()) {
+            values = this.store.values(
+                offset,
+                count
+            );
+            // a save racing an invalidation may have landed, fall back to skipping invalid entries
+            if (this.valid(values).size() != values.size()) {
+                values = null;
+            }
+        }
+
+        if (null == values) {
+            final BasicGenerationalCacheStoreGenerations generations = this.generations;
+            final CacheStore store = this.store;
+
+            values = new ArrayList<>();
+
+            int skip = offset;
+            int position = 0;
+            List<CacheValue> page;
+            do {
+                page = store.values(
+                    position,
+                    PAGE_SIZE
+                );
+                for (final CacheValue value : page) {
+                    if (values.size() == count) {
+                        break;
+                    }
+                    if (generations.isValid(value.generation())) {
+                        if (skip > 0) {
+                            skip--;
+                        } else {
+                            values.add(value);
+                        }
+                    }
+                }
+                position += PAGE_SIZE;
+            } while (values.size() < count && page.size() == PAGE_SIZE);
+        }
+
+        return values;
+    }
+
+    @Override
+    public List<CacheValue> between(final CacheKey from,
+                                    final CacheKey to) {
+        return this.valid(
+            this.store.between(
+                from,
+                to
+            )
+        );
+    }
+
+    @Override
+    public List<CacheValue> loadByPrefix(final String prefix) {
+        return this.valid(
+            this.store.loadByPrefix(prefix)
+        );
+    }
+
+    /**
+     * Deletes the whole namespace from the wrapped store, including any invalidated entries not yet swept.
+     */
+    @Override
+    public void deleteByPrefix(final String prefix) {
+        this.store.deleteByPrefix(prefix);
+    }
+
+    /**
+     * Wraps the stream of the wrapped store, skipping values whose generation is no longer valid as each is visited.
+     */
+    @Override
+    public Stream<CacheValue> stream() {
+        return this.valid(
+            this.store.stream()
+        );
+    }
+
+    @Override
+    public Stream<CacheValue> stream(final CacheKey from,
+                                     final CacheKey to) {
+        return this.valid(
+            this.store.stream(
+                from,
+                to
+            )
+        );
+    }
+
+    private Stream<CacheValue> valid(final Stream<CacheValue> values) {
+        return values.filter(
+            (v) -> this.generations.isValid(v.generation())
+        );
+    }
+
+    private CacheValue valid(final CacheValue value) {
+        return null != value && this.generations.isValid(value.generation()) ?
+            value :
+            null;
+    }
+
+    private List<CacheValue> valid(final List<CacheValue> values) {
+        final BasicGenerationalCacheStoreGenerations generations = this.generations;
+
+        final List<CacheValue> valid = new ArrayList<>(values.size());
+        for (final CacheValue value : values) {
+            if (generations.isValid(value.generation())) {
+                valid.add(value);
+            }
+        }
+
+        return valid;
+    }
+
+    // GenerationalCacheStore...........................................................................................
+
+    @Override
+    public long generation() {
+        return this.generations.current;
+    }
+
+    @Override
+    public synchronized long nextGeneration() {
+        final BasicGenerationalCacheStoreGenerations generations = this.generations.next();
+        this.generations = generations;
+        return generations.current;
+    }
+
+    @Override
+    public synchronized void invalidateGeneration(final long generation) {
+        this.generations = this.generations.invalidate(generation);
+    }
+
+    @Override
+    public synchronized void invalidateAll() {
+        this.generations = this.generations.invalidateAll();
+    }
+
+    private volatile BasicGenerationalCacheStoreGenerations generations = BasicGenerationalCacheStoreGenerations.INITIAL;
+
+    @Override
+    public synchronized int sweep(final int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Invalid batchSize " + batchSize + " <= 0");
+        }
+
+        int deleted = 0;
+
+        if (false == this.isSwept()) {
+            final BasicGenerationalCacheStoreGenerations generations = this.generations;
+            if (0 == this.cursor) {
+                this.pass = generations.invalidations;
+            }
+
+            final List<CacheValue> values = this.store.values(
+                this.cursor,
+                batchSize
+            );
+
+            final List<CacheKey> invalid = new ArrayList<>();
+            for (final CacheValue value : values) {
+                if (false == generations.isValid(value.generation())) {
+                    invalid.add(value.key());
+                }
+            }
+
+            if (false == invalid.isEmpty()) {
+                this.store.deleteAll(invalid);
+                deleted = invalid.size();
+            }
+
+            if (values.size() < batchSize) {
+                this.cursor = 0;
+
+                // nothing was invalidated since the pass began, so every invalid entry has been deleted
+                if (this.pass == this.generations.invalidations) {
+                    this.swept = this.pass;
+                }
+            } else {
+                this.cursor += values.size() - deleted;
+            }
+        }
+
+        return deleted;
+    }
+
+    /**
+     * Forgets any finished sweep, and stops the pass in progress marking the store swept, so only a pass beginning
+     * after the save can.
+     */
+    private synchronized void unswept() {
+        this.swept = -1;
+        this.pass = -1;
+    }
+
+    /**
+     * When true every invalidated entry has been deleted from the wrapped store.
+     */
+    private boolean isSwept() {
+        return this.swept == this.generations.invalidations;
+    }
+
+    /**
+     * The {@link BasicGenerationalCacheStoreGenerations#invalidations} when a sweep last finished deleting every
+     * invalidated entry.
+     */
+    private volatile long swept;
+
+    /**
+     * The {@link BasicGenerationalCacheStoreGenerations#invalidations} when the current sweep pass began.
+     */
+    private long pass;
+
+    /**
+     * The offset of the next value to be swept.
+     */
+    private int cursor;
+
+    private final CacheStore store;
+
+    @Override
+    public String toString() {
+        return this.store.toString();
+    }
+}
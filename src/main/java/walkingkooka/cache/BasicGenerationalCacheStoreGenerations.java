@@ -0,0 +1,154 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+import java.util.Arrays;
+
+/**
+ * An immutable record of the current generation and the invalidated generations of a
+ * {@link BasicGenerationalCacheStore}. Every generation below {@link #floor} is invalid, along with the few individually
+ * invalidated generations above it, which are kept sorted so checking a generation never allocates.
+ */
+final class BasicGenerationalCacheStoreGenerations {
+
+    /**
+     * The first generation follows {@link CacheValue#NO_GENERATION}, so values saved without a generation remain valid
+     * until {@link #invalidateAll()}.
+     */
+    final static BasicGenerationalCacheStoreGenerations INITIAL = new BasicGenerationalCacheStoreGenerations(
+        CacheValue.NO_GENERATION + 1,
+        CacheValue.NO_GENERATION,
+        new long[0],
+        0
+    );
+
+    private BasicGenerationalCacheStoreGenerations(final long current,
+                                                   final long floor,
+                                                   final long[] invalidated,
+                                                   final long invalidations) {
+        super();
+        this.current = current;
+        this.floor = floor;
+        this.invalidated = invalidated;
+        this.invalidations = invalidations;
+    }
+
+    /**
+     * Tests if a value saved under the given generation remains valid.
+     */
+    boolean isValid(final long generation) {
+        return generation >= this.floor &&
+            Arrays.binarySearch(
+                this.invalidated,
+                generation
+            ) < 0;
+    }
+
+    /**
+     * Returns generations with a new current generation.
+     */
+    BasicGenerationalCacheStoreGenerations next() {
+        return new BasicGenerationalCacheStoreGenerations(
+            this.current + 1,
+            this.floor,
+            this.invalidated,
+            this.invalidations
+        );
+    }
+
+    /**
+     * Returns generations with the given generation invalidated, starting a new generation if it is the current.
+     */
+    BasicGenerationalCacheStoreGenerations invalidate(final long generation) {
+        final long current = this.current;
+        if (generation > current) {
+            throw new IllegalArgumentException("Invalid generation " + generation + " > " + current);
+        }
+
+        final BasicGenerationalCacheStoreGenerations invalidated;
+
+        final long[] previous = this.invalidated;
+        final int i = Arrays.binarySearch(
+            previous,
+            generation
+        );
+        if (generation < this.floor || i >= 0) {
+            invalidated = this;
+        } else {
+            final int insert = -i - 1;
+            final long[] next = new long[previous.length + 1];
+            System.arraycopy(previous, 0, next, 0, insert);
+            next[insert] = generation;
+            System.arraycopy(previous, insert, next, insert + 1, previous.length - insert);
+
+            invalidated = new BasicGenerationalCacheStoreGenerations(
+                generation == current ?
+                    current + 1 :
+                    current,
+                this.floor,
+                next,
+                this.invalidations + 1
+            );
+        }
+
+        return invalidated;
+    }
+
+    /**
+     * Returns generations where every generation up to and including the current is invalid.
+     */
+    BasicGenerationalCacheStoreGenerations invalidateAll() {
+        final long next = this.current + 1;
+
+        return new BasicGenerationalCacheStoreGenerations(
+            next,
+            next,
+            new long[0],
+            this.invalidations + 1
+        );
+    }
+
+    /**
+     * The generation stamped on saved values.
+     */
+    final long current;
+
+    /**
+     * All generations less than the floor are invalid.
+     */
+    final long floor;
+
+    /**
+     * Individually invalidated generations at or above the floor, sorted.
+     */
+    private final long[] invalidated;
+
+    /**
+     * The number of changes that invalidated a generation, so a sweep can tell if anything was invalidated since it
+     * began.
+     */
+    final long invalidations;
+
+    @Override
+    public String toString() {
+        return "generation=" + this.current +
+            " floor=" + this.floor +
+            " invalidated=" + Arrays.toString(this.invalidated);
+    }
+}
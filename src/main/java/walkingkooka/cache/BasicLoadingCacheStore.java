@@ -0,0 +1,466 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
+
+/**
+ * A {@link LoadingCacheStore} that wraps another {@link CacheStore}. Each key being computed has a
+ * {@link CompletableFuture} in flight, which later callers for the same key join rather than computing the value
+ * again. Computed values are saved through the wrapped {@link CacheStore#save(CacheValue)} so save watchers fire.
+ * <br>
+ * When created with a refresh after write, a hit on a value saved at least that long ago returns the current value at
+ * once and recomputes a replacement on the {@link Executor}, so callers of hot keys never wait for a recompute. A failed
+ * refresh keeps the current value and is retried by the next hit. Save times are taken from the clock in milliseconds
+ * by a save watcher on the wrapped store, so values saved directly to it are also refreshed. A refresh is discarded
+ * if the value it started from was replaced or deleted meanwhile, saves and deletes through this store are never
+ * overwritten by a refresh, but a save made directly to the wrapped store may still race one completing.
+ */
+final class BasicLoadingCacheStore implements LoadingCacheStore {
+
+    static BasicLoadingCacheStore with(final CacheStore store) {
+        return new BasicLoadingCacheStore(
+            Objects.requireNonNull(store, "store"),
+            NO_REFRESH,
+            null,
+            null
+        );
+    }
+
+    static BasicLoadingCacheStore withRefreshAfterWrite(final CacheStore store,
+                                                        final Duration refreshAfterWrite,
+                                                        final Executor executor,
+                                                        final LongSupplier clock) {
+        Objects.requireNonNull(store, "store");
+        Objects.requireNonNull(refreshAfterWrite, "refreshAfterWrite");
+        Objects.requireNonNull(executor, "executor");
+        Objects.requireNonNull(clock, "clock");
+
+        if (refreshAfterWrite.isNegative() || refreshAfterWrite.isZero()) {
+            throw new IllegalArgumentException("Invalid refreshAfterWrite " + refreshAfterWrite + " <= 0");
+        }
+
+        return new BasicLoadingCacheStore(
+            store,
+            refreshAfterWrite.toMillis(),
+            executor,
+            clock
+        );
+    }
+
+    /**
+     * Used to mark that values are never refreshed.
+     */
+    private final static long NO_REFRESH = -1;
+
+    private BasicLoadingCacheStore(final CacheStore store,
+                                   final long refreshAfterWrite,
+                                   final Executor executor,
+                                   final LongSupplier clock) {
+        this.store = store;
+        this.refreshAfterWrite = refreshAfterWrite;
+        this.executor = executor;
+        this.clock = clock;
+
+        if (NO_REFRESH != refreshAfterWrite) {
+            final ConcurrentHashMap<CacheKey, BasicLoadingCacheStoreSaved> keyToSaved = this.keyToSaved;
+            store.addSaveWatcher(
+                (v) -> keyToSaved.put(
+                    v.key(),
+                    BasicLoadingCacheStoreSaved.with(
+                        clock.getAsLong()
+                    )
+                )
+            );
+            store.addSaveAllWatcher(
+                (values) -> {
+                    final long time = clock.getAsLong();
+                    for (final CacheValue v : values) {
+                        keyToSaved.put(
+                            v.key(),
+                            BasicLoadingCacheStoreSaved.with(time)
+                        );
+                    }
+                }
+            );
+            store.addDeleteWatcher(keyToSaved::remove);
+            store.addDeleteAllWatcher(
+                (keys) -> keyToSaved.keySet()
+                    .removeAll(keys)
+            );
+        }
+    }
+
+    // LoadingCacheStore................................................................................................
+
+    @Override
+    public CacheValue load(final CacheKey cacheKey,
+                           final Function<CacheKey, Optional<Object>> loader) {
+        Objects.requireNonNull(cacheKey, "cacheKey");
+        Objects.requireNonNull(loader, "loader");
+
+        final Optional<CacheValue> loaded = this.store.load(cacheKey);
+        final CacheValue value;
+
+        if (loaded.isPresent()) {
+            value = loaded.get();
+
+            if (NO_REFRESH != this.refreshAfterWrite) {
+                this.refreshIfStale(
+                    value,
+                    loader
+                );
+            }
+        } else {
+            value = this.loadMissing(
+                cacheKey,
+                loader
+            );
+        }
+
+        return value;
+    }
+
+    private CacheValue loadMissing(final CacheKey cacheKey,
+                                   final Function<CacheKey, Optional<Object>> loader) {
+        final CompletableFuture<CacheValue> created = new CompletableFuture<>();
+        final CompletableFuture<CacheValue> inFlight = this.keyToFuture.putIfAbsent(
+            cacheKey,
+            created
+        );
+
+        final CacheValue value;
+        if (null == inFlight) {
+            value = this.compute(
+                cacheKey,
+                loader,
+                created
+            );
+        } else {
+            final CacheValue joined = join(inFlight);
+
+            // a discarded refresh completes with null after it is no longer in flight, so load again
+            value = null != joined ?
+                joined :
+                this.load(
+                    cacheKey,
+                    loader
+                );
+        }
+
+        return value;
+    }
+
+    private CacheValue compute(final CacheKey cacheKey,
+                               final Function<CacheKey, Optional<Object>> loader,
+                               final CompletableFuture<CacheValue> future) {
+        try {
+            final CacheStore store = this.store;
+
+            // another thread may have saved the value between the first load and the future being registered
+            final Optional<CacheValue> loaded = store.load(cacheKey);
+            final CacheValue value = loaded.isPresent() ?
+                loaded.get() :
+                store.save(
+                    CacheValue.with(
+                        cacheKey,
+                        Objects.requireNonNull(
+                            loader.apply(cacheKey),
+                            "loader returned null"
+                        )
+                    )
+                );
+
+            future.complete(value);
+            return value;
+        } catch (final RuntimeException | Error cause) {
+            future.completeExceptionally(cause);
+            throw cause;
+        } finally {
+            this.keyToFuture.remove(
+                cacheKey,
+                future
+            );
+        }
+    }
+
+    /**
+     * Starts recomputing the value on the executor if it was saved at least refresh after write ago, unless a
+     * computation for the key is already in flight.
+     */
+    private void refreshIfStale(final CacheValue value,
+                                final Function<CacheKey, Optional<Object>> loader) {
+        final CacheKey cacheKey = value.key();
+        final BasicLoadingCacheStoreSaved saved = this.keyToSaved.get(cacheKey);
+
+        if (null != saved && this.clock.getAsLong() - saved.time >= this.refreshAfterWrite) {
+            final CompletableFuture<CacheValue> created = new CompletableFuture<>();
+            if (null == this.keyToFuture.putIfAbsent(cacheKey, created)) {
+                try {
+                    this.executor.execute(
+                        () -> this.refresh(
+                            value,
+                            saved,
+                            loader,
+                            created
+                        )
+                    );
+                } catch (final RuntimeException rejected) {
+                    // usually a RejectedExecutionException, which is not available to GWT, try again on the next hit
+                    this.keyToFuture.remove(
+                        cacheKey,
+                        created
+                    );
+                    created.completeExceptionally(rejected);
+                }
+            }
+        }
+    }
+
+    /**
+     * Recomputes the value keeping its other properties such as expiry and saves it, unless the save it started from
+     * was replaced or deleted while computing, in which case the future completes with null.
+     */
+    private void refresh(final CacheValue value,
+                         final BasicLoadingCacheStoreSaved saved,
+                         final Function<CacheKey, Optional<Object>> loader,
+                         final CompletableFuture<CacheValue> future) {
+        final CacheKey cacheKey = value.key();
+
+        CacheValue refreshed = null;
+        Throwable failed = null;
+        try {
+            final Optional<Object> loaded = Objects.requireNonNull(
+                loader.apply(cacheKey),
+                "loader returned null"
+            );
+
+            synchronized (saved) {
+                if (false == saved.replaced && saved == this.keyToSaved.get(cacheKey)) {
+                    refreshed = this.store.save(
+                        value.setValue(loaded)
+                    );
+                }
+            }
+        } catch (final RuntimeException | Error cause) {
+            failed = cause;
+        }
+
+        // remove before completing, so a joiner that loads again after a discard never finds this future
+        this.keyToFuture.remove(
+            cacheKey,
+            future
+        );
+
+        if (null != failed) {
+            future.completeExceptionally(failed);
+        } else {
+            future.complete(refreshed);
+        }
+    }
+
+    /**
+     * Discards any refresh in flight that started from the current save of the key, waiting for one that is already
+     * saving so the caller's save or delete is applied after it.
+     */
+    private void replace(final CacheKey cacheKey) {
+        final BasicLoadingCacheStoreSaved saved = this.keyToSaved.get(cacheKey);
+        if (null != saved) {
+            synchronized (saved) {
+                saved.replaced = true;
+            }
+        }
+    }
+
+    /**
+     * Waits for the in flight computation, rethrowing its failure unwrapped.
+     */
+    private static CacheValue join(final CompletableFuture<CacheValue> future) {
+        try {
+            return future.join();
+        } catch (final CompletionException wrapper) {
+            final Throwable cause = wrapper.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw wrapper;
+        }
+    }
+
+    /**
+     * Computations in flight, removed once complete.
+     */
+    private final ConcurrentHashMap<CacheKey, CompletableFuture<CacheValue>> keyToFuture = new ConcurrentHashMap<>();
+
+    /**
+     * The time each value was saved, only maintained when refreshing.
+     */
+    private final ConcurrentHashMap<CacheKey, BasicLoadingCacheStoreSaved> keyToSaved = new ConcurrentHashMap<>();
+
+    /**
+     * The age in milliseconds after which a hit triggers a refresh or {@link #NO_REFRESH}.
+     */
+    private final long refreshAfterWrite;
+
+    private final Executor executor;
+
+    private final LongSupplier clock;
+
+    // CacheStore.......................................................................................................
+
+    @Override
+    public Optional<CacheValue> load(final CacheKey cacheKey) {
+        return this.store.load(cacheKey);
+    }
+
+    @Override
+    public CacheValue loadOrNull(final CacheKey cacheKey) {
+        return this.store.loadOrNull(cacheKey);
+    }
+
+    @Override
+    public CacheValue save(final CacheValue cacheValue) {
+        Objects.requireNonNull(cacheValue, "cacheValue");
+
+        this.replace(cacheValue.key());
+        return this.store.save(cacheValue);
+    }
+
+    @Override
+    public Runnable addSaveWatcher(final Consumer<CacheValue> watcher) {
+        return this.store.addSaveWatcher(watcher);
+    }
+
+    @Override
+    public void delete(final CacheKey cacheKey) {
+        Objects.requireNonNull(cacheKey, "cacheKey");
+
+        this.replace(cacheKey);
+        this.store.delete(cacheKey);
+    }
+
+    @Override
+    public Runnable addDeleteWatcher(final Consumer<CacheKey> watcher) {
+        return this.store.addDeleteWatcher(watcher);
+    }
+
+    @Override
+    public Map<CacheKey, CacheValue> loadAll(final Collection<CacheKey> cacheKeys) {
+        return this.store.loadAll(cacheKeys);
+    }
+
+    @Override
+    public List<CacheValue> saveAll(final Collection<CacheValue> cacheValues) {
+        CacheStoreChecks.all(cacheValues, "cacheValues");
+
+        for (final CacheValue cacheValue : cacheValues) {
+            this.replace(cacheValue.key());
+        }
+        return this.store.saveAll(cacheValues);
+    }
+
+    @Override
+    public Runnable addSaveAllWatcher(final Consumer<List<CacheValue>> watcher) {
+        return this.store.addSaveAllWatcher(watcher);
+    }
+
+    @Override
+    public void deleteAll(final Collection<CacheKey> cacheKeys) {
+        CacheStoreChecks.all(cacheKeys, "cacheKeys");
+
+        for (final CacheKey cacheKey : cacheKeys) {
+            this.replace(cacheKey);
+        }
+        this.store.deleteAll(cacheKeys);
+    }
+
+    @Override
+    public Runnable addDeleteAllWatcher(final Consumer<Set<CacheKey>> watcher) {
+        return this.store.addDeleteAllWatcher(watcher);
+    }
+
+    @Override
+    public int count() {
+        return this.store.count();
+    }
+
+    @Override
+    public Set<CacheKey> ids(final int offset,
+                             final int count) {
+        return this.store.ids(
+            offset,
+            count
+        );
+    }
+
+    @Override
+    public List<CacheValue> values(final int offset,
+                                   final int count) {
+        return this.store.values(
+            offset,
+            count
+        );
+    }
+
+    @Override
+    public List<CacheValue> between(final CacheKey from,
+                                    final CacheKey to) {
+        return this.store.between(
+            from,
+            to
+        );
+    }
+
+    @Override
+    public Stream<CacheValue> stream() {
+        return this.store.stream();
+    }
+
+    @Override
+    public Stream<CacheValue> stream(final CacheKey from,
+                                     final CacheKey to) {
+        return this.store.stream(
+            from,
+            to
+        );
+    }
+
+    private final CacheStore store;
+
+    @Override
+    public String toString() {
+        return this.store.toString();
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+/**
+ * Records when a value was saved to a refreshing {@link BasicLoadingCacheStore}. A new instance is created for every
+ * save, so a refresh can detect that the value it started from was replaced or deleted by comparing identities.
+ */
+final class BasicLoadingCacheStoreSaved {
+
+    static BasicLoadingCacheStoreSaved with(final long time) {
+        return new BasicLoadingCacheStoreSaved(time);
+    }
+
+    private BasicLoadingCacheStoreSaved(final long time) {
+        this.time = time;
+    }
+
+    /**
+     * The clock time in milliseconds of the save.
+     */
+    final long time;
+
+    /**
+     * Set by saves and deletes through the {@link BasicLoadingCacheStore} before they reach the wrapped store, so a
+     * refresh of this save in flight is discarded. Guarded by the monitor of this instance.
+     */
+    boolean replaced;
+
+    @Override
+    public String toString() {
+        return this.time + (this.replaced ? " replaced" : "");
+    }
+}
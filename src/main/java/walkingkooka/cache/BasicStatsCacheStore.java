@@ -0,0 +1,286 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * A {@link StatsCacheStore} that wraps another {@link CacheStore}, counting with the given
+ * {@link BasicStatsCacheStoreCounter}. {@link CacheStores#stats(CacheStore, LongSupplier)} counts with a single
+ * {@link java.util.concurrent.atomic.AtomicLong}, as {@link java.util.concurrent.atomic.LongAdder} is not available
+ * to GWT or J2CL, while {@link JreCacheStores#stripedStats(CacheStore, LongSupplier)} counts with a
+ * {@link java.util.concurrent.atomic.LongAdder} so concurrent loads do not contend. Evictions and expirations are
+ * only counted when the wrapped store is a {@link BoundedCacheStore} or {@link ExpiringCacheStore}. Deletes are counted
+ * by the delete and delete all watchers of the wrapped store, so only keys actually removed are counted, less those reported as
+ * evictions or expirations. The ticker supplies nanoseconds used to time loads, typically {@link System#nanoTime()}.
+ */
+final class BasicStatsCacheStore implements StatsCacheStore {
+
+    static BasicStatsCacheStore with(final CacheStore store,
+                                     final LongSupplier ticker,
+                                     final Supplier<BasicStatsCacheStoreCounter> counters) {
+        return new BasicStatsCacheStore(
+            Objects.requireNonNull(store, "store"),
+            Objects.requireNonNull(ticker, "ticker"),
+            Objects.requireNonNull(counters, "counters")
+        );
+    }
+
+    private BasicStatsCacheStore(final CacheStore store,
+                                 final LongSupplier ticker,
+                                 final Supplier<BasicStatsCacheStoreCounter> counters) {
+        this.store = store;
+        this.ticker = ticker;
+
+        this.hitCount = counters.get();
+        this.missCount = counters.get();
+        this.saveCount = counters.get();
+        this.removedCount = counters.get();
+        this.evictionCount = counters.get();
+        this.expirationCount = counters.get();
+        this.totalLoadTime = counters.get();
+
+        final BasicStatsCacheStoreCounter[] loadLatencies = new BasicStatsCacheStoreCounter[CacheStats.LOAD_LATENCY_BUCKETS];
+        for (int i = 0; i < loadLatencies.length; i++) {
+            loadLatencies[i] = counters.get();
+        }
+        this.loadLatencies = loadLatencies;
+
+        store.addDeleteWatcher(
+            (k) -> this.removedCount.increment()
+        );
+        store.addDeleteAllWatcher(
+            (k) -> this.removedCount.add(k.size())
+        );
+        if (store instanceof BoundedCacheStore) {
+            ((BoundedCacheStore) store).addEvictionWatcher(
+                (v) -> this.evictionCount.increment()
+            );
+        }
+        if (store instanceof ExpiringCacheStore) {
+            ((ExpiringCacheStore) store).addExpiryWatcher(
+                (k) -> this.expirationCount.increment()
+            );
+        }
+    }
+
+    @Override
+    public Optional<CacheValue> load(final CacheKey cacheKey) {
+        return Optional.ofNullable(
+            this.loadOrNull(cacheKey)
+        );
+    }
+
+    @Override
+    public CacheValue loadOrNull(final CacheKey cacheKey) {
+        final LongSupplier ticker = this.ticker;
+        final long start = ticker.getAsLong();
+
+        final CacheValue loaded = this.store.loadOrNull(cacheKey);
+
+        final long nanos = ticker.getAsLong() - start;
+        (null != loaded ? this.hitCount : this.missCount).increment();
+        this.totalLoadTime.add(nanos);
+        this.loadLatencies[CacheStats.loadLatencyBucket(nanos)].increment();
+
+        return loaded;
+    }
+
+    /**
+     * A batch is recorded as if each key took an equal share of the batch time.
+     */
+    @Override
+    public Map<CacheKey, CacheValue> loadAll(final Collection<CacheKey> cacheKeys) {
+        final LongSupplier ticker = this.ticker;
+        final long start = ticker.getAsLong();
+
+        final Map<CacheKey, CacheValue> loaded = this.store.loadAll(cacheKeys);
+
+        final int count = cacheKeys.size();
+        if (count > 0) {
+            final long nanos = ticker.getAsLong() - start;
+            final int hits = loaded.size();
+
+            this.hitCount.add(hits);
+            this.missCount.add(count - hits);
+            this.totalLoadTime.add(nanos);
+            this.loadLatencies[CacheStats.loadLatencyBucket(nanos / count)].add(count);
+        }
+
+        return loaded;
+    }
+
+    @Override
+    public CacheValue save(final CacheValue cacheValue) {
+        final CacheValue saved = this.store.save(cacheValue);
+        this.saveCount.increment();
+        return saved;
+    }
+
+    @Override
+    public Runnable addSaveWatcher(final Consumer<CacheValue> watcher) {
+        return this.store.addSaveWatcher(watcher);
+    }
+
+    @Override
+    public void delete(final CacheKey cacheKey) {
+        this.store.delete(cacheKey);
+    }
+
+    @Override
+    public Runnable addDeleteWatcher(final Consumer<CacheKey> watcher) {
+        return this.store.addDeleteWatcher(watcher);
+    }
+
+    @Override
+    public List<CacheValue> saveAll(final Collection<CacheValue> cacheValues) {
+        final List<CacheValue> saved = this.store.saveAll(cacheValues);
+        this.saveCount.add(saved.size());
+        return saved;
+    }
+
+    @Override
+    public Runnable addSaveAllWatcher(final Consumer<List<CacheValue>> watcher) {
+        return this.store.addSaveAllWatcher(watcher);
+    }
+
+    @Override
+    public void deleteAll(final Collection<CacheKey> cacheKeys) {
+        this.store.deleteAll(cacheKeys);
+    }
+
+    @Override
+    public Runnable addDeleteAllWatcher(final Consumer<Set<CacheKey>> watcher) {
+        return this.store.addDeleteAllWatcher(watcher);
+    }
+
+    @Override
+    public int count() {
+        return this.store.count();
+    }
+
+    @Override
+    public Set<CacheKey> ids(final int offset,
+                             final int count) {
+        return this.store.ids(
+            offset,
+            count
+        );
+    }
+
+    @Override
+    public List<CacheValue> values(final int offset,
+                                   final int count) {
+        return this.store.values(
+            offset,
+            count
+        );
+    }
+
+    @Override
+    public List<CacheValue> between(final CacheKey from,
+                                    final CacheKey to) {
+        return this.store.between(
+            from,
+            to
+        );
+    }
+
+    @Override
+    public Stream<CacheValue> stream() {
+        return this.store.stream();
+    }
+
+    @Override
+    public Stream<CacheValue> stream(final CacheKey from,
+                                     final CacheKey to) {
+        return this.store.stream(
+            from,
+            to
+        );
+    }
+
+    // StatsCacheStore..................................................................................................
+
+    /**
+     * Counters are read individually, so a snapshot taken during concurrent activity may be slightly inconsistent,
+     * eg the hit and miss counts may not add up to the total of the histogram.
+     */
+    @Override
+    public CacheStats stats() {
+        final BasicStatsCacheStoreCounter[] loadLatencies = this.loadLatencies;
+        final long[] latencies = new long[loadLatencies.length];
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = loadLatencies[i].get();
+        }
+
+        final long evictionCount = this.evictionCount.get();
+        final long expirationCount = this.expirationCount.get();
+
+        return CacheStats.with(
+            this.hitCount.get(),
+            this.missCount.get(),
+            this.saveCount.get(),
+            Math.max(
+                0,
+                this.removedCount.get() - evictionCount - expirationCount
+            ),
+            evictionCount,
+            expirationCount,
+            this.totalLoadTime.get(),
+            latencies
+        );
+    }
+
+    private final BasicStatsCacheStoreCounter hitCount;
+
+    private final BasicStatsCacheStoreCounter missCount;
+
+    private final BasicStatsCacheStoreCounter saveCount;
+
+    /**
+     * Every key removed from the wrapped store, including evictions and expirations.
+     */
+    private final BasicStatsCacheStoreCounter removedCount;
+
+    private final BasicStatsCacheStoreCounter evictionCount;
+
+    private final BasicStatsCacheStoreCounter expirationCount;
+
+    private final BasicStatsCacheStoreCounter totalLoadTime;
+
+    private final BasicStatsCacheStoreCounter[] loadLatencies;
+
+    private final LongSupplier ticker;
+
+    private final CacheStore store;
+
+    @Override
+    public String toString() {
+        return this.store.toString();
+    }
+}
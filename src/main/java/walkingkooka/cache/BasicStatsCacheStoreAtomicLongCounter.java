@@ -0,0 +1,43 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A {@link BasicStatsCacheStoreCounter} that is a single {@link AtomicLong}, which is available to GWT and J2CL, but
+ * whose increments contend when many threads count at once.
+ */
+final class BasicStatsCacheStoreAtomicLongCounter extends AtomicLong implements BasicStatsCacheStoreCounter {
+
+    private static final long serialVersionUID = 1L;
+
+    BasicStatsCacheStoreAtomicLongCounter() {
+        super();
+    }
+
+    @Override
+    public void increment() {
+        this.incrementAndGet();
+    }
+
+    @Override
+    public void add(final long value) {
+        this.addAndGet(value);
+    }
+}
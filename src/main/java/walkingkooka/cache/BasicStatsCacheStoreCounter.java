@@ -0,0 +1,31 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+/**
+ * A counter used by {@link BasicStatsCacheStore}, allowing JRE builds to use striped counters that do not contend on
+ * the load path, while GWT and J2CL use a single atomic.
+ */
+interface BasicStatsCacheStoreCounter {
+
+    void increment();
+
+    void add(final long value);
+
+    long get();
+}
@@ -0,0 +1,38 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link BasicStatsCacheStoreCounter} that is a {@link LongAdder}, which spreads contended increments over striped
+ * cells and sums them when read, so counting loads from many threads does not contend on a single cache line.
+ */
+final class BasicStatsCacheStoreLongAdderCounter extends LongAdder implements BasicStatsCacheStoreCounter {
+
+    private static final long serialVersionUID = 1L;
+
+    BasicStatsCacheStoreLongAdderCounter() {
+        super();
+    }
+
+    @Override
+    public long get() {
+        return this.sum();
+    }
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * A {@link CacheStore} that bounds the total weight of its entries, evicting entries when a {@link #save(CacheValue)}
+ * would exceed the maximum. Each entry weighs one unless a {@link CacheValueWeigher} was given.
+ */
+public interface BoundedCacheStore extends CacheStore {
+
+    /**
+     * The current total weight of all entries.
+     */
+    long weight();
+
+    /**
+     * The maximum total weight of all entries.
+     */
+    long maximumWeight();
+
+    /**
+     * Adds a watcher that receives each {@link CacheValue} as it is evicted. Watchers are notified before the entry is
+     * deleted and before a {@link #delete(CacheKey)} of the same key can complete. Evicted entries are also reported
+     * to delete watchers, because they are deleted from the wrapped {@link CacheStore}.
+     */
+    Runnable addEvictionWatcher(final Consumer<CacheValue> watcher);
+}
@@ -63,7 +63,8 @@ public final class CacheKey implements Name,
     public final static int MAX_LENGTH = 255;
 
     /**
-     * Factory that creates a {@link CacheKey}
+     * Factory that creates a {@link CacheKey}, hot paths that repeatedly create the same keys should prefer
+     * {@link CacheKeyInterner#intern(String)}.
      */
     public static CacheKey with(final String name) {
         CharPredicates.failIfNullOrEmptyOrInitialAndPartFalse(
@@ -89,6 +90,7 @@ public final class CacheKey implements Name,
     private CacheKey(final String name) {
         super();
         this.name = name;
+        this.hashCode = CASE_SENSITIVITY.hash(name);
     }
 
     // Name.............................................................................................................
@@ -104,9 +106,14 @@ public final class CacheKey implements Name,
 
     @Override
     public int hashCode() {
-        return CASE_SENSITIVITY.hash(this.name);
+        return this.hashCode;
     }
 
+    /**
+     * Computed once, because keys are hashed on every lookup.
+     */
+    private final int hashCode;
+
     @Override
     public boolean equals(final Object other) {
         return this == other ||
@@ -115,7 +122,8 @@ public final class CacheKey implements Name,
     }
 
     private boolean equals0(final CacheKey other) {
-        return this.compareTo(other) == 0;
+        return this.hashCode == other.hashCode &&
+            this.compareTo(other) == 0;
     }
 
     @Override
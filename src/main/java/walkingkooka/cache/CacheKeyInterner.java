@@ -0,0 +1,86 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A factory that returns the same {@link CacheKey} for equal key text, so each distinct key is validated and
+ * allocated only once, and repeated lookups use the hash code already cached by the {@link String}.
+ * <br>
+ * Interned keys are never released, so an interner should be limited to a bounded set of keys, or {@link #clear()}
+ * periodically.
+ */
+public final class CacheKeyInterner {
+
+    public static CacheKeyInterner empty() {
+        return new CacheKeyInterner();
+    }
+
+    private CacheKeyInterner() {
+        super();
+    }
+
+    /**
+     * Returns the {@link CacheKey} for the given text, creating and validating it only if this is the first request
+     * for the text.
+     */
+    public CacheKey intern(final String key) {
+        Objects.requireNonNull(key, "key");
+
+        final ConcurrentHashMap<String, CacheKey> keys = this.keys;
+
+        CacheKey cacheKey = keys.get(key);
+        if (null == cacheKey) {
+            cacheKey = CacheKey.with(key);
+
+            final CacheKey previous = keys.putIfAbsent(
+                key,
+                cacheKey
+            );
+            if (null != previous) {
+                cacheKey = previous;
+            }
+        }
+
+        return cacheKey;
+    }
+
+    /**
+     * The number of interned keys.
+     */
+    public int size() {
+        return this.keys.size();
+    }
+
+    /**
+     * Releases all interned keys.
+     */
+    public void clear() {
+        this.keys.clear();
+    }
+
+    private final ConcurrentHashMap<String, CacheKey> keys = new ConcurrentHashMap<>();
+
+    @Override
+    public String toString() {
+        return this.keys.keySet()
+            .toString();
+    }
+}
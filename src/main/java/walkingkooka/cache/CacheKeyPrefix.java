@@ -0,0 +1,125 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+import java.util.Objects;
+import java.util.function.Predicate;
+
+/**
+ * A {@link CacheKey} prefix such as <code>spreadsheet.123.</code>, which is translated into the inclusive range of
+ * {@link CacheKey keys} that begin with it. Because {@link CacheKey#PART} characters are ordered with <code>z</code>
+ * the greatest, every key beginning with the prefix sorts between the prefix itself and the prefix padded with
+ * <code>z</code> to {@link CacheKey#MAX_LENGTH}, letting ordered stores find a namespace with a single range query.
+ */
+final class CacheKeyPrefix implements Predicate<CacheKey> {
+
+    /**
+     * The greatest {@link CacheKey#PART} character.
+     */
+    final static char GREATEST = 'z';
+
+    static CacheKeyPrefix with(final String prefix) {
+        Objects.requireNonNull(prefix, "prefix");
+        if (prefix.isEmpty()) {
+            throw new IllegalArgumentException("Empty prefix");
+        }
+
+        return new CacheKeyPrefix(prefix);
+    }
+
+    private CacheKeyPrefix(final String prefix) {
+        super();
+        this.prefix = prefix;
+
+        CacheKey from = null;
+        CacheKey to = null;
+
+        if (isValid(prefix)) {
+            from = CacheKey.with(prefix);
+
+            final StringBuilder b = new StringBuilder(CacheKey.MAX_LENGTH);
+            b.append(prefix);
+            while (b.length() < CacheKey.MAX_LENGTH) {
+                b.append(GREATEST);
+            }
+            to = CacheKey.with(b.toString());
+        }
+
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * Tests if the prefix is itself a valid {@link CacheKey}, otherwise no key can begin with it.
+     */
+    private static boolean isValid(final String prefix) {
+        boolean valid = prefix.length() <= CacheKey.MAX_LENGTH &&
+            CacheKey.INITIAL.test(prefix.charAt(0));
+
+        final int length = prefix.length();
+        for (int i = 1; valid && i < length; i++) {
+            valid = CacheKey.PART.test(prefix.charAt(i));
+        }
+
+        return valid;
+    }
+
+    /**
+     * Returns true if no {@link CacheKey} can begin with this prefix, in which case {@link #from()} and {@link #to()}
+     * are null.
+     */
+    boolean isNone() {
+        return null == this.from;
+    }
+
+    /**
+     * The least {@link CacheKey} that begins with this prefix.
+     */
+    CacheKey from() {
+        return this.from;
+    }
+
+    private final CacheKey from;
+
+    /**
+     * The greatest {@link CacheKey} that begins with this prefix.
+     */
+    CacheKey to() {
+        return this.to;
+    }
+
+    private final CacheKey to;
+
+    // Predicate........................................................................................................
+
+    @Override
+    public boolean test(final CacheKey cacheKey) {
+        return cacheKey.value()
+            .startsWith(this.prefix);
+    }
+
+    private final String prefix;
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return this.prefix;
+    }
+}
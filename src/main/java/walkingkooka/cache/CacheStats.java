@@ -0,0 +1,291 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import walkingkooka.Cast;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * An immutable snapshot of the statistics recorded by a {@link StatsCacheStore}. Load latencies are recorded in a
+ * histogram of {@link #LOAD_LATENCY_BUCKETS} buckets, where bucket n counts loads that took less than 2<sup>n</sup>
+ * nanoseconds but at least 2<sup>n-1</sup> nanoseconds.
+ */
+public final class CacheStats {
+
+    public final static int LOAD_LATENCY_BUCKETS = 64;
+
+    /**
+     * Stats with all counts zero.
+     */
+    public final static CacheStats EMPTY = new CacheStats(
+        0,
+        0,
+        0,
+        0,
+        0,
+        0,
+        0,
+        new long[LOAD_LATENCY_BUCKETS]
+    );
+
+    static CacheStats with(final long hitCount,
+                           final long missCount,
+                           final long saveCount,
+                           final long deleteCount,
+                           final long evictionCount,
+                           final long expirationCount,
+                           final long totalLoadTime,
+                           final long[] loadLatencies) {
+        return new CacheStats(
+            hitCount,
+            missCount,
+            saveCount,
+            deleteCount,
+            evictionCount,
+            expirationCount,
+            totalLoadTime,
+            loadLatencies
+        );
+    }
+
+    /**
+     * Returns the histogram bucket for the given load latency in nanoseconds.
+     */
+    static int loadLatencyBucket(final long nanos) {
+        return nanos <= 0 ?
+            0 :
+            Math.min(
+                LOAD_LATENCY_BUCKETS - 1,
+                64 - Long.numberOfLeadingZeros(nanos)
+            );
+    }
+
+    private CacheStats(final long hitCount,
+                       final long missCount,
+                       final long saveCount,
+                       final long deleteCount,
+                       final long evictionCount,
+                       final long expirationCount,
+                       final long totalLoadTime,
+                       final long[] loadLatencies) {
+        this.hitCount = hitCount;
+        this.missCount = missCount;
+        this.saveCount = saveCount;
+        this.deleteCount = deleteCount;
+        this.evictionCount = evictionCount;
+        this.expirationCount = expirationCount;
+        this.totalLoadTime = totalLoadTime;
+        this.loadLatencies = loadLatencies;
+    }
+
+    public long hitCount() {
+        return this.hitCount;
+    }
+
+    private final long hitCount;
+
+    public long missCount() {
+        return this.missCount;
+    }
+
+    private final long missCount;
+
+    /**
+     * The total number of loads, both hits and misses.
+     */
+    public long loadCount() {
+        return this.hitCount + this.missCount;
+    }
+
+    /**
+     * The ratio of hits to loads, or 1.0 when there have been no loads.
+     */
+    public double hitRate() {
+        final long loadCount = this.loadCount();
+        return 0 == loadCount ?
+            1.0 :
+            (double) this.hitCount / loadCount;
+    }
+
+    /**
+     * The ratio of misses to loads, or 0.0 when there have been no loads.
+     */
+    public double missRate() {
+        final long loadCount = this.loadCount();
+        return 0 == loadCount ?
+            0.0 :
+            (double) this.missCount / loadCount;
+    }
+
+    public long saveCount() {
+        return this.saveCount;
+    }
+
+    private final long saveCount;
+
+    public long deleteCount() {
+        return this.deleteCount;
+    }
+
+    private final long deleteCount;
+
+    public long evictionCount() {
+        return this.evictionCount;
+    }
+
+    private final long evictionCount;
+
+    public long expirationCount() {
+        return this.expirationCount;
+    }
+
+    private final long expirationCount;
+
+    /**
+     * The total time in nanoseconds spent loading.
+     */
+    public long totalLoadTime() {
+        return this.totalLoadTime;
+    }
+
+    private final long totalLoadTime;
+
+    /**
+     * The average time in nanoseconds of a load, or 0.0 when there have been no loads.
+     */
+    public double averageLoadTime() {
+        final long loadCount = this.loadCount();
+        return 0 == loadCount ?
+            0.0 :
+            (double) this.totalLoadTime / loadCount;
+    }
+
+    /**
+     * Returns the number of loads in the given histogram bucket.
+     */
+    public long loadLatencyCount(final int bucket) {
+        if (bucket < 0 || bucket >= LOAD_LATENCY_BUCKETS) {
+            throw new IllegalArgumentException("Invalid bucket " + bucket + " not between 0 and " + LOAD_LATENCY_BUCKETS);
+        }
+        return this.loadLatencies[bucket];
+    }
+
+    /**
+     * Returns an upper bound in nanoseconds, within a factor of two, of the given load latency percentile,
+     * eg 0.99 for p99, or 0 when there have been no loads.
+     */
+    public long loadLatencyPercentile(final double percentile) {
+        if (percentile < 0 || percentile > 1) {
+            throw new IllegalArgumentException("Invalid percentile " + percentile + " not between 0 and 1");
+        }
+
+        final long[] loadLatencies = this.loadLatencies;
+
+        long total = 0;
+        for (final long count : loadLatencies) {
+            total += count;
+        }
+
+        final long rank = (long) Math.ceil(percentile * total);
+        long upper = 0;
+
+        long seen = 0;
+        for (int i = 0; i < loadLatencies.length; i++) {
+            seen += loadLatencies[i];
+            if (seen >= rank && seen > 0) {
+                upper = i >= 63 ?
+                    Long.MAX_VALUE :
+                    1L << i;
+                break;
+            }
+        }
+
+        return upper;
+    }
+
+    private final long[] loadLatencies;
+
+    /**
+     * Returns the difference between this and an earlier snapshot, ie the activity between the two snapshots.
+     */
+    public CacheStats minus(final CacheStats earlier) {
+        Objects.requireNonNull(earlier, "earlier");
+
+        final long[] loadLatencies = new long[LOAD_LATENCY_BUCKETS];
+        for (int i = 0; i < LOAD_LATENCY_BUCKETS; i++) {
+            loadLatencies[i] = this.loadLatencies[i] - earlier.loadLatencies[i];
+        }
+
+        return new CacheStats(
+            this.hitCount - earlier.hitCount,
+            this.missCount - earlier.missCount,
+            this.saveCount - earlier.saveCount,
+            this.deleteCount - earlier.deleteCount,
+            this.evictionCount - earlier.evictionCount,
+            this.expirationCount - earlier.expirationCount,
+            this.totalLoadTime - earlier.totalLoadTime,
+            loadLatencies
+        );
+    }
+
+    // Object...........................................................................................................
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(
+            this.hitCount,
+            this.missCount,
+            this.saveCount,
+            this.deleteCount,
+            this.evictionCount,
+            this.expirationCount,
+            this.totalLoadTime
+        );
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return this == other ||
+            other instanceof CacheStats &&
+                this.equals0(Cast.to(other));
+    }
+
+    private boolean equals0(final CacheStats other) {
+        return this.hitCount == other.hitCount &&
+            this.missCount == other.missCount &&
+            this.saveCount == other.saveCount &&
+            this.deleteCount == other.deleteCount &&
+            this.evictionCount == other.evictionCount &&
+            this.expirationCount == other.expirationCount &&
+            this.totalLoadTime == other.totalLoadTime &&
+            Arrays.equals(this.loadLatencies, other.loadLatencies);
+    }
+
+    @Override
+    public String toString() {
+        return "hits=" + this.hitCount +
+            " misses=" + this.missCount +
+            " saves=" + this.saveCount +
+            " deletes=" + this.deleteCount +
+            " evictions=" + this.evictionCount +
+            " expirations=" + this.expirationCount +
+            " totalLoadTime=" + this.totalLoadTime;
+    }
+}
@@ -19,5 +19,166 @@ package walkingkooka.cache;
 
 import walkingkooka.store.Store;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 public interface CacheStore extends Store<CacheKey, CacheValue> {
+
+    /**
+     * Fast path alternative to {@link #load(Object)} returning the {@link CacheValue} or null when absent, so a hit
+     * allocates no {@link java.util.Optional}. Stores should override the default, which unwraps {@link #load(Object)}.
+     */
+    default CacheValue loadOrNull(final CacheKey cacheKey) {
+        return this.load(cacheKey)
+            .orElse(null);
+    }
+
+    /**
+     * Loads all the given keys returning a {@link Map} holding only the keys that were present, in the order of the
+     * given keys. The default loads each key with {@link #loadOrNull(CacheKey)}, stores able to load a batch at once
+     * should override.
+     */
+    default Map<CacheKey, CacheValue> loadAll(final Collection<CacheKey> cacheKeys) {
+        CacheStoreChecks.all(cacheKeys, "cacheKeys");
+
+        final Map<CacheKey, CacheValue> loaded = new LinkedHashMap<>();
+        for (final CacheKey cacheKey : cacheKeys) {
+            final CacheValue value = this.loadOrNull(cacheKey);
+            if (null != value) {
+                loaded.put(
+                    cacheKey,
+                    value
+                );
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Saves all the given values returning the saved values. Save all watchers are notified once with all the saved
+     * values, save watchers are not notified, so watchers of every save should add both. The default saves each value
+     * with {@link #save(CacheValue)}, which notifies save watchers instead, stores should override this together with
+     * {@link #addSaveAllWatcher(Consumer)}.
+     */
+    default List<CacheValue> saveAll(final Collection<CacheValue> cacheValues) {
+        CacheStoreChecks.all(cacheValues, "cacheValues");
+
+        final List<CacheValue> saved = new ArrayList<>(cacheValues.size());
+        for (final CacheValue cacheValue : cacheValues) {
+            saved.add(
+                this.save(cacheValue)
+            );
+        }
+        return Collections.unmodifiableList(saved);
+    }
+
+    /**
+     * Adds a watcher that receives all the values saved by each {@link #saveAll(Collection)} in a single callback.
+     * The default {@link #saveAll(Collection)} notifies save watchers instead, so the default adds nothing and returns
+     * a {@link Runnable} that does nothing.
+     */
+    default Runnable addSaveAllWatcher(final Consumer<List<CacheValue>> watcher) {
+        Objects.requireNonNull(watcher, "watcher");
+
+        return () -> {
+        };
+    }
+
+    /**
+     * Deletes all the given keys. Delete all watchers are notified once with all the deleted keys, delete watchers are
+     * not notified, so watchers of every delete should add both. The default deletes each key with
+     * {@link #delete(Object)}, which notifies delete watchers instead, stores should override this together with
+     * {@link #addDeleteAllWatcher(Consumer)}.
+     */
+    default void deleteAll(final Collection<CacheKey> cacheKeys) {
+        CacheStoreChecks.all(cacheKeys, "cacheKeys");
+
+        for (final CacheKey cacheKey : cacheKeys) {
+            this.delete(cacheKey);
+        }
+    }
+
+    /**
+     * Adds a watcher that receives all the keys deleted by each {@link #deleteAll(Collection)} in a single callback.
+     * The default {@link #deleteAll(Collection)} notifies delete watchers instead, so the default adds nothing and
+     * returns a {@link Runnable} that does nothing.
+     */
+    default Runnable addDeleteAllWatcher(final Consumer<Set<CacheKey>> watcher) {
+        Objects.requireNonNull(watcher, "watcher");
+
+        return () -> {
+        };
+    }
+
+    /**
+     * Loads all values whose {@link CacheKey} begins with the given prefix, such as <code>spreadsheet.123.</code>, in
+     * key order. The default is a single {@link #between(Object, Object)} over the range of keys beginning with the
+     * prefix, stores able to do better should override.
+     */
+    default List<CacheValue> loadByPrefix(final String prefix) {
+        final CacheKeyPrefix cacheKeyPrefix = CacheKeyPrefix.with(prefix);
+
+        return cacheKeyPrefix.isNone() ?
+            new ArrayList<>() :
+            this.between(
+                cacheKeyPrefix.from(),
+                cacheKeyPrefix.to()
+            );
+    }
+
+    /**
+     * Deletes all values whose {@link CacheKey} begins with the given prefix, invalidating an entire namespace. The
+     * deleted keys are reported like {@link #deleteAll(Collection)}, to delete all watchers once with all the keys.
+     */
+    default void deleteByPrefix(final String prefix) {
+        final List<CacheValue> values = this.loadByPrefix(prefix);
+        if (false == values.isEmpty()) {
+            final List<CacheKey> cacheKeys = new ArrayList<>(values.size());
+            for (final CacheValue value : values) {
+                cacheKeys.add(value.key());
+            }
+            this.deleteAll(cacheKeys);
+        }
+    }
+
+    /**
+     * Returns a lazy {@link Stream} of all values. Stores report their order, size and concurrency through the
+     * characteristics of the {@link java.util.Spliterator}. The default fetches a page of values at a time with
+     * {@link #values(int, int)}, in key order, so bulk reads run in constant memory and split well for parallel streams.
+     */
+    default Stream<CacheValue> stream() {
+        return StreamSupport.stream(
+            CacheStoreSpliterator.with(
+                this,
+                0,
+                this.count(),
+                false
+            ),
+            false
+        );
+    }
+
+    /**
+     * Returns a lazy {@link Stream} of the values whose {@link CacheKey} is between from and to inclusive. The default
+     * filters {@link #stream()}, ordered stores should override and only visit the range.
+     */
+    default Stream<CacheValue> stream(final CacheKey from,
+                                      final CacheKey to) {
+        CacheStoreChecks.between(
+            from,
+            to
+        );
+
+        return this.stream()
+            .filter(v -> CacheStoreChecks.isBetween(v.key(), from, to));
+    }
 }
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Parameter checks shared by {@link CacheStore} implementations that do not delegate to a {@link walkingkooka.store.Store}.
+ */
+final class CacheStoreChecks {
+
+    /**
+     * Fails if either the offset or count are negative.
+     */
+    static void offsetAndCount(final int offset,
+                               final int count) {
+        if (offset < 0) {
+            throw new IllegalArgumentException("Invalid offset " + offset + " < 0");
+        }
+        if (count < 0) {
+            throw new IllegalArgumentException("Invalid count " + count + " < 0");
+        }
+    }
+
+    /**
+     * Fails if either {@link CacheKey} is null.
+     */
+    static void between(final CacheKey from,
+                        final CacheKey to) {
+        Objects.requireNonNull(from, "from");
+        Objects.requireNonNull(to, "to");
+    }
+
+    /**
+     * Tests if the {@link CacheKey} is within the given inclusive range.
+     */
+    static boolean isBetween(final CacheKey key,
+                             final CacheKey from,
+                             final CacheKey to) {
+        return key.compareTo(from) >= 0 &&
+            key.compareTo(to) <= 0;
+    }
+
+    /**
+     * Fails if the collection or any of its elements are null.
+     */
+    static <T> Collection<T> all(final Collection<T> all,
+                                 final String label) {
+        Objects.requireNonNull(all, label);
+
+        for (final T element : all) {
+            if (null == element) {
+                throw new NullPointerException(label + " includes null");
+            }
+        }
+
+        return all;
+    }
+
+    /**
+     * Stop creation
+     */
+    private CacheStoreChecks() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,486 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Writes every entry of a {@link CacheStore} to a compact binary stream and restores them into another store, for
+ * example to carry an in memory cache across a restart.
+ * <br>
+ * Values are encoded by the {@link CacheValueCodec} registered for their type, the type name rather than the class is
+ * written, so snapshots survive class renames provided the same name is registered.
+ * <br>
+ * The stream begins with {@link #MAGIC}, a version and flags byte, followed by records, compressed with deflate when
+ * requested. A type record introduces a type name and its index. An entry record holds the key, its expiries, the type
+ * index and the length prefixed encoded value. An end record holds the number of entries, which is verified by
+ * {@link #restore(InputStream, CacheStore)}. {@link CacheValue#generation()} is not written, as generations are not
+ * meaningful to another process, so restored values have {@link CacheValue#NO_GENERATION}.
+ * <br>
+ * Instances are immutable, {@link #register(String, Class, CacheValueCodec)} and {@link #setCompressed(boolean)}
+ * return a new instance.
+ */
+public final class CacheStoreSnapshot {
+
+    private final static byte[] MAGIC = "WKCS".getBytes(StandardCharsets.US_ASCII);
+
+    private final static int VERSION = 1;
+
+    private final static int COMPRESSED = 1;
+
+    private final static int TYPE = 1;
+
+    private final static int ENTRY = 2;
+
+    private final static int END = 3;
+
+    private final static int EXPIRE_AFTER_WRITE = 1;
+
+    private final static int EXPIRE_AFTER_ACCESS = 2;
+
+    private final static int VALUE = 4;
+
+    /**
+     * The number of entries read by each {@link CacheStore#values(int, int)} or saved by each
+     * {@link CacheStore#saveAll(java.util.Collection)}.
+     */
+    final static int PAGE_SIZE = 1000;
+
+    public static CacheStoreSnapshot empty() {
+        return EMPTY;
+    }
+
+    private final static CacheStoreSnapshot EMPTY = new CacheStoreSnapshot(
+        Collections.emptyMap(),
+        false
+    );
+
+    private CacheStoreSnapshot(final Map<String, CacheStoreSnapshotType> nameToType,
+                               final boolean compressed) {
+        this.nameToType = nameToType;
+        this.compressed = compressed;
+    }
+
+    /**
+     * Returns a snapshot that uses the given codec for values that are instances of the given type. When several
+     * registered types match a value the first registered wins.
+     */
+    public CacheStoreSnapshot register(final String name,
+                                       final Class<?> type,
+                                       final CacheValueCodec codec) {
+        Objects.requireNonNull(name, "name");
+        Objects.requireNonNull(type, "type");
+        Objects.requireNonNull(codec, "codec");
+
+        if (name.isEmpty()) {
+            throw new IllegalArgumentException("Empty name");
+        }
+        if (this.nameToType.containsKey(name)) {
+            throw new IllegalArgumentException("Type " + name + " already registered");
+        }
+
+        final Map<String, CacheStoreSnapshotType> nameToType = new LinkedHashMap<>(this.nameToType);
+        nameToType.put(
+            name,
+            CacheStoreSnapshotType.with(
+                name,
+                type,
+                codec
+            )
+        );
+
+        return new CacheStoreSnapshot(
+            Collections.unmodifiableMap(nameToType),
+            this.compressed
+        );
+    }
+
+    private final Map<String, CacheStoreSnapshotType> nameToType;
+
+    public boolean isCompressed() {
+        return this.compressed;
+    }
+
+    /**
+     * When true the records written by {@link #snapshot(CacheStore, OutputStream)} are deflated. Compression is
+     * recorded in the stream so restore does not need to be told.
+     */
+    public CacheStoreSnapshot setCompressed(final boolean compressed) {
+        return this.compressed == compressed ?
+            this :
+            new CacheStoreSnapshot(
+                this.nameToType,
+                compressed
+            );
+    }
+
+    private final boolean compressed;
+
+    // snapshot.........................................................................................................
+
+    /**
+     * Writes all entries of the store, walking it in pages of {@link CacheStore#values(int, int)}, and returns the
+     * number of entries written. Entries saved or deleted while the snapshot is written may or may not be included.
+     * The given {@link OutputStream} is flushed but not closed.
+     */
+    public int snapshot(final CacheStore store,
+                        final OutputStream output) throws IOException {
+        Objects.requireNonNull(store, "store");
+        Objects.requireNonNull(output, "output");
+
+        output.write(MAGIC);
+        output.write(VERSION);
+        output.write(this.compressed ? COMPRESSED : 0);
+
+        final DeflaterOutputStream deflater = this.compressed ?
+            new DeflaterOutputStream(output) :
+            null;
+        final DataOutputStream data = new DataOutputStream(
+            null != deflater ?
+                deflater :
+                output
+        );
+
+        final Map<CacheStoreSnapshotType, Integer> typeToIndex = new IdentityHashMap<>();
+        int count = 0;
+
+        for (int offset = 0; ; offset += PAGE_SIZE) {
+            final List<CacheValue> page = store.values(
+                offset,
+                PAGE_SIZE
+            );
+
+            for (final CacheValue value : page) {
+                this.writeEntry(
+                    value,
+                    typeToIndex,
+                    data
+                );
+                count++;
+            }
+
+            if (page.size() < PAGE_SIZE) {
+                break;
+            }
+        }
+
+        data.writeByte(END);
+        writeVarInt(count, data);
+        data.flush();
+
+        if (null != deflater) {
+            deflater.finish();
+        }
+        output.flush();
+
+        return count;
+    }
+
+    private void writeEntry(final CacheValue cacheValue,
+                            final Map<CacheStoreSnapshotType, Integer> typeToIndex,
+                            final DataOutputStream data) throws IOException {
+        final Optional<Object> value = cacheValue.value();
+        final Optional<Duration> expireAfterWrite = cacheValue.expireAfterWrite();
+        final Optional<Duration> expireAfterAccess = cacheValue.expireAfterAccess();
+
+        int typeIndex = -1;
+        byte[] encoded = null;
+
+        if (value.isPresent()) {
+            final Object object = value.get();
+            final CacheStoreSnapshotType type = this.type(object);
+
+            Integer index = typeToIndex.get(type);
+            if (null == index) {
+                index = typeToIndex.size();
+                typeToIndex.put(type, index);
+
+                data.writeByte(TYPE);
+                writeVarInt(index, data);
+                data.writeUTF(type.name);
+            }
+
+            typeIndex = index;
+            encoded = type.codec.encode(object);
+        }
+
+        data.writeByte(ENTRY);
+        data.writeUTF(
+            cacheValue.key()
+                .value()
+        );
+        data.writeByte(
+            (expireAfterWrite.isPresent() ? EXPIRE_AFTER_WRITE : 0) |
+                (expireAfterAccess.isPresent() ? EXPIRE_AFTER_ACCESS : 0) |
+                (value.isPresent() ? VALUE : 0)
+        );
+        writeDuration(expireAfterWrite, data);
+        writeDuration(expireAfterAccess, data);
+
+        if (null != encoded) {
+            writeVarInt(typeIndex, data);
+            writeVarInt(encoded.length, data);
+            data.write(encoded);
+        }
+    }
+
+    private CacheStoreSnapshotType type(final Object value) {
+        for (final CacheStoreSnapshotType type : this.nameToType.values()) {
+            if (type.type.isInstance(value)) {
+                return type;
+            }
+        }
+
+        throw new IllegalArgumentException("No codec registered for " + value.getClass().getName());
+    }
+
+    private static void writeDuration(final Optional<Duration> duration,
+                                      final DataOutputStream data) throws IOException {
+        if (duration.isPresent()) {
+            final Duration d = duration.get();
+            writeVarLong(d.getSeconds(), data);
+            writeVarInt(d.getNano(), data);
+        }
+    }
+
+    private static void writeVarInt(final int value,
+                                    final DataOutputStream data) throws IOException {
+        writeVarLong(value & 0xffffffffL, data);
+    }
+
+    /**
+     * Writes an unsigned value seven bits at a time, so small values take a single byte.
+     */
+    private static void writeVarLong(final long value,
+                                     final DataOutputStream data) throws IOException {
+        long remaining = value;
+        while ((remaining & ~0x7fL) != 0) {
+            data.writeByte((int) ((remaining & 0x7f) | 0x80));
+            remaining >>>= 7;
+        }
+        data.writeByte((int) remaining);
+    }
+
+    // restore..........................................................................................................
+
+    /**
+     * Reads all entries written by {@link #snapshot(CacheStore, OutputStream)}, saving them into the store in batches
+     * with {@link CacheStore#saveAll(java.util.Collection)}, and returns the number of entries restored. Save all
+     * watchers are notified once per batch and save watchers not at all, except for stores that only have the default
+     * {@link CacheStore#saveAll(java.util.Collection)}, which notify save watchers for each entry. The given
+     * {@link InputStream} is not closed.
+     */
+    public int restore(final InputStream input,
+                       final CacheStore store) throws IOException {
+        Objects.requireNonNull(input, "input");
+        Objects.requireNonNull(store, "store");
+
+        final DataInputStream header = new DataInputStream(input);
+        final byte[] magic = new byte[MAGIC.length];
+        header.readFully(magic);
+        if (false == Arrays.equals(MAGIC, magic)) {
+            throw new IllegalArgumentException("Invalid snapshot, missing header");
+        }
+        final int version = header.readUnsignedByte();
+        if (VERSION != version) {
+            throw new IllegalArgumentException("Unsupported snapshot version " + version);
+        }
+        final int flags = header.readUnsignedByte();
+
+        final DataInputStream data = new DataInputStream(
+            0 != (flags & COMPRESSED) ?
+                new InflaterInputStream(input) :
+                input
+        );
+
+        final Map<Integer, CacheStoreSnapshotType> indexToType = new HashMap<>();
+        final List<CacheValue> batch = new ArrayList<>(PAGE_SIZE);
+        int count = 0;
+
+        for (; ; ) {
+            final int record = data.readUnsignedByte();
+
+            switch (record) {
+                case TYPE:
+                    this.readType(
+                        indexToType,
+                        data
+                    );
+                    break;
+                case ENTRY:
+                    batch.add(
+                        readEntry(
+                            indexToType,
+                            data
+                        )
+                    );
+                    count++;
+
+                    if (batch.size() == PAGE_SIZE) {
+                        store.saveAll(batch);
+                        batch.clear();
+                    }
+                    break;
+                case END:
+                    final int expected = readVarInt(data);
+                    if (expected != count) {
+                        throw new IllegalArgumentException("Invalid snapshot, expected " + expected + " entries got " + count);
+                    }
+                    if (false == batch.isEmpty()) {
+                        store.saveAll(batch);
+                    }
+                    return count;
+                default:
+                    throw new IllegalArgumentException("Invalid snapshot, unknown record " + record);
+            }
+        }
+    }
+
+    private void readType(final Map<Integer, CacheStoreSnapshotType> indexToType,
+                          final DataInputStream data) throws IOException {
+        final int index = readVarInt(data);
+        final String name = data.readUTF();
+
+        final CacheStoreSnapshotType type = this.nameToType.get(name);
+        if (null == type) {
+            throw new IllegalArgumentException("No codec registered for " + name);
+        }
+        indexToType.put(index, type);
+    }
+
+    private static CacheValue readEntry(final Map<Integer, CacheStoreSnapshotType> indexToType,
+                                        final DataInputStream data) throws IOException {
+        final CacheKey key = CacheKey.with(data.readUTF());
+        final int flags = data.readUnsignedByte();
+
+        final Optional<Duration> expireAfterWrite = readDuration(
+            0 != (flags & EXPIRE_AFTER_WRITE),
+            data
+        );
+        final Optional<Duration> expireAfterAccess = readDuration(
+            0 != (flags & EXPIRE_AFTER_ACCESS),
+            data
+        );
+
+        Optional<Object> value = Optional.empty();
+        if (0 != (flags & VALUE)) {
+            final int typeIndex = readVarInt(data);
+            final CacheStoreSnapshotType type = indexToType.get(typeIndex);
+            if (null == type) {
+                throw new IllegalArgumentException("Invalid snapshot, unknown type " + typeIndex + " for " + key);
+            }
+
+            final byte[] encoded = new byte[readVarInt(data)];
+            data.readFully(encoded);
+
+            value = Optional.of(
+                type.codec.decode(
+                    ByteBuffer.wrap(encoded)
+                        .asReadOnlyBuffer()
+                )
+            );
+        }
+
+        return CacheValue.with(
+            key,
+            value
+        ).setExpireAfterWrite(expireAfterWrite)
+            .setExpireAfterAccess(expireAfterAccess);
+    }
+
+    private static Optional<Duration> readDuration(final boolean present,
+                                                   final DataInputStream data) throws IOException {
+        return present ?
+            Optional.of(
+                Duration.ofSeconds(
+                    readVarLong(data),
+                    readVarInt(data)
+                )
+            ) :
+            CacheValue.NO_EXPIRY;
+    }
+
+    private static int readVarInt(final DataInputStream data) throws IOException {
+        final long value = readVarLong(data);
+        if (value > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid snapshot, number too large " + value);
+        }
+        return (int) value;
+    }
+
+    private static long readVarLong(final DataInputStream data) throws IOException {
+        long value = 0;
+
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            final int b = data.read();
+            if (-1 == b) {
+                throw new EOFException();
+            }
+            value |= (long) (b & 0x7f) << shift;
+            if (0 == (b & 0x80)) {
+                return value;
+            }
+        }
+
+        throw new IllegalArgumentException("Invalid snapshot, number too long");
+    }
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        final StringBuilder b = new StringBuilder();
+
+        String separator = "";
+        for (final Entry<String, CacheStoreSnapshotType> nameAndType : this.nameToType.entrySet()) {
+            b.append(separator)
+                .append(nameAndType.getKey())
+                .append('=')
+                .append(nameAndType.getValue().codec);
+            separator = ", ";
+        }
+
+        if (this.compressed) {
+            b.append(separator)
+                .append("compressed");
+        }
+
+        return b.toString();
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+/**
+ * A value type registered with a {@link CacheStoreSnapshot}, along with its name and {@link CacheValueCodec}.
+ */
+final class CacheStoreSnapshotType {
+
+    static CacheStoreSnapshotType with(final String name,
+                                       final Class<?> type,
+                                       final CacheValueCodec codec) {
+        return new CacheStoreSnapshotType(
+            name,
+            type,
+            codec
+        );
+    }
+
+    private CacheStoreSnapshotType(final String name,
+                                   final Class<?> type,
+                                   final CacheValueCodec codec) {
+        this.name = name;
+        this.type = type;
+        this.codec = codec;
+    }
+
+    final String name;
+
+    final Class<?> type;
+
+    final CacheValueCodec codec;
+
+    @Override
+    public String toString() {
+        return this.name + " " + this.type.getName();
+    }
+}
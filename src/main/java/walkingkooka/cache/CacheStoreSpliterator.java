@@ -0,0 +1,185 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A {@link Spliterator} over the values of a {@link CacheStore} between two offsets, fetching a page of
+ * {@link #PAGE_SIZE} values at a time with {@link CacheStore#values(int, int)}, so only one page is ever held. Splitting
+ * halves the remaining offsets, so parallel streams fetch separate pages concurrently. This is efficient for stores
+ * that find an offset quickly, and correct but slower for stores that walk from the first entry to reach an offset.
+ * <br>
+ * Only an immutable store, such as a snapshot, is reported as {@link #SIZED}, {@link #SUBSIZED} and {@link #DISTINCT}.
+ * Otherwise the size taken when the traversal began is only an estimate, because saves and deletes during a traversal
+ * shift offsets, so entries may then be skipped or visited twice.
+ */
+final class CacheStoreSpliterator implements Spliterator<CacheValue> {
+
+    final static int PAGE_SIZE = 1000;
+
+    static CacheStoreSpliterator with(final CacheStore store,
+                                      final int offset,
+                                      final int fence,
+                                      final boolean immutable) {
+        return new CacheStoreSpliterator(
+            store,
+            offset,
+            fence,
+            immutable
+        );
+    }
+
+    private CacheStoreSpliterator(final CacheStore store,
+                                  final int offset,
+                                  final int fence,
+                                  final boolean immutable) {
+        super();
+        this.store = store;
+        this.offset = offset;
+        this.fence = fence;
+        this.immutable = immutable;
+    }
+
+    @Override
+    public boolean tryAdvance(final Consumer<? super CacheValue> action) {
+        List<CacheValue> page = this.page;
+
+        if (null == page || this.next == page.size()) {
+            page = null;
+
+            final int offset = this.offset;
+            final int fence = this.fence;
+            if (offset < fence) {
+                page = this.store.values(
+                    offset,
+                    Math.min(
+                        PAGE_SIZE,
+                        fence - offset
+                    )
+                );
+
+                if (page.isEmpty()) {
+                    // the store has shrunk since the size was taken
+                    page = null;
+                    this.offset = fence;
+                } else {
+                    this.offset = offset + page.size();
+                }
+            }
+            this.page = page;
+            this.next = 0;
+        }
+
+        final boolean advanced = null != page;
+        if (advanced) {
+            action.accept(
+                page.get(this.next++)
+            );
+        }
+        return advanced;
+    }
+
+    /**
+     * Splits off the first half of the offsets not yet fetched, but never part of a page or less than a page.
+     */
+    @Override
+    public Spliterator<CacheValue> trySplit() {
+        Spliterator<CacheValue> split = null;
+
+        final List<CacheValue> page = this.page;
+        if (null == page || this.next == page.size()) {
+            final int offset = this.offset;
+            final int half = (this.fence - offset) / 2;
+
+            if (half >= PAGE_SIZE) {
+                split = new CacheStoreSpliterator(
+                    this.store,
+                    offset,
+                    offset + half,
+                    this.immutable
+                );
+                this.offset = offset + half;
+            }
+        }
+
+        return split;
+    }
+
+    @Override
+    public long estimateSize() {
+        final List<CacheValue> page = this.page;
+
+        return this.fence - this.offset +
+            (null != page ?
+                page.size() - this.next :
+                0);
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SORTED | NONNULL |
+            (this.immutable ?
+                DISTINCT | SIZED | SUBSIZED :
+                0);
+    }
+
+    /**
+     * Values are sorted by their natural order, which is that of their {@link CacheKey}.
+     */
+    @Override
+    public Comparator<? super CacheValue> getComparator() {
+        return null;
+    }
+
+    private final CacheStore store;
+
+    /**
+     * The offset of the first value not yet fetched.
+     */
+    private int offset;
+
+    /**
+     * The offset after the last value.
+     */
+    private final int fence;
+
+    /**
+     * When true the store never changes, so the size is exact and no value is visited twice.
+     */
+    private final boolean immutable;
+
+    /**
+     * The current page, or null before the first fetch or once exhausted.
+     */
+    private List<CacheValue> page;
+
+    /**
+     * The index of the next value within {@link #page}.
+     */
+    private int next;
+
+    @Override
+    public String toString() {
+        return this.offset + ".." + this.fence;
+    }
+}
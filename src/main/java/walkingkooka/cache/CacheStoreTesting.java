@@ -17,7 +17,494 @@
 
 package walkingkooka.cache;
 
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
 import walkingkooka.store.StoreTesting;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
 public interface CacheStoreTesting<S extends CacheStore> extends StoreTesting<S, CacheKey, CacheValue> {
+
+    // loadOrNull.......................................................................................................
+
+    @Test
+    default void testLoadOrNullMissing() {
+        this.loadOrNullAndCheck(
+            this.createStore(),
+            this.id(),
+            null
+        );
+    }
+
+    @Test
+    default void testSaveAndLoadOrNull() {
+        final S store = this.createStore();
+        final CacheValue value = this.value();
+
+        store.save(value);
+
+        this.loadOrNullAndCheck(
+            store,
+            value.key(),
+            value
+        );
+    }
+
+    default void loadOrNullAndCheck(final S store,
+                                    final CacheKey cacheKey,
+                                    final CacheValue expected) {
+        this.checkEquals(
+            expected,
+            store.loadOrNull(cacheKey),
+            "loadOrNull " + cacheKey
+        );
+    }
+
+    // loadAll..........................................................................................................
+
+    @Test
+    default void testLoadAllWithNullFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> this.createStore()
+                .loadAll(null)
+        );
+    }
+
+    @Test
+    default void testSaveAllAndLoadAll() {
+        final S store = this.createStore();
+
+        final CacheValue value1 = this.value();
+        final CacheValue value2 = this.value2();
+
+        store.saveAll(
+            Lists.of(
+                value1,
+                value2
+            )
+        );
+
+        final Map<CacheKey, CacheValue> expected = new LinkedHashMap<>();
+        expected.put(value1.key(), value1);
+        expected.put(value2.key(), value2);
+
+        this.loadAllAndCheck(
+            store,
+            Lists.of(
+                value1.key(),
+                CacheKey.with("missing"),
+                value2.key()
+            ),
+            expected
+        );
+    }
+
+    default void loadAllAndCheck(final S store,
+                                 final Collection<CacheKey> cacheKeys,
+                                 final Map<CacheKey, CacheValue> expected) {
+        this.checkEquals(
+            expected,
+            store.loadAll(cacheKeys),
+            "loadAll " + cacheKeys
+        );
+    }
+
+    // saveAll..........................................................................................................
+
+    @Test
+    default void testSaveAllWithNullFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> this.createStore()
+                .saveAll(null)
+        );
+    }
+
+    @Test
+    default void testSaveAllFiresSaveAllWatcherOnce() {
+        final S store = this.createStore();
+
+        final List<CacheValue> saved = Lists.array();
+        store.addSaveWatcher(saved::add);
+
+        final List<List<CacheValue>> fired = Lists.array();
+        store.addSaveAllWatcher(fired::add);
+
+        final List<CacheValue> values = Lists.of(
+            this.value(),
+            this.value2()
+        );
+        store.saveAll(values);
+
+        this.checkEquals(
+            Lists.empty(),
+            saved,
+            "save watcher"
+        );
+        this.checkEquals(
+            Lists.of(values),
+            fired,
+            "saveAll watcher"
+        );
+    }
+
+    // deleteAll........................................................................................................
+
+    @Test
+    default void testDeleteAllWithNullFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> this.createStore()
+                .deleteAll(null)
+        );
+    }
+
+    @Test
+    default void testDeleteAllFiresDeleteAllWatcherOnce() {
+        final S store = this.createStore();
+
+        final CacheValue value1 = this.value();
+        final CacheValue value2 = this.value2();
+        store.save(value1);
+        store.save(value2);
+
+        final List<CacheKey> deleted = Lists.array();
+        store.addDeleteWatcher(deleted::add);
+
+        final List<Set<CacheKey>> fired = Lists.array();
+        store.addDeleteAllWatcher(fired::add);
+
+        store.deleteAll(
+            Lists.of(
+                value1.key(),
+                value2.key()
+            )
+        );
+
+        this.checkEquals(
+            0,
+            store.count(),
+            "count"
+        );
+        this.checkEquals(
+            Lists.empty(),
+            deleted,
+            "delete watcher"
+        );
+        this.checkEquals(
+            Lists.of(
+                Set.of(
+                    value1.key(),
+                    value2.key()
+                )
+            ),
+            fired,
+            "deleteAll watcher"
+        );
+    }
+
+    // loadByPrefix.....................................................................................................
+
+    @Test
+    default void testLoadByPrefixWithNullFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> this.createStore()
+                .loadByPrefix(null)
+        );
+    }
+
+    @Test
+    default void testLoadByPrefixWithEmptyFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> this.createStore()
+                .loadByPrefix("")
+        );
+    }
+
+    @Test
+    default void testSaveAndLoadByPrefix() {
+        final S store = this.createStore();
+
+        final CacheValue value1 = this.prefixValue("namespace.1");
+        final CacheValue value2 = this.prefixValue("namespace.2.child");
+
+        store.save(this.prefixValue("namespace"));
+        store.save(value2);
+        store.save(this.prefixValue("namespaceOther.1"));
+        store.save(value1);
+        store.save(this.prefixValue("other.1"));
+
+        this.loadByPrefixAndCheck(
+            store,
+            "namespace.",
+            value1,
+            value2
+        );
+    }
+
+    @Test
+    default void testLoadByPrefixInvalidPrefix() {
+        final S store = this.createStore();
+        store.save(this.value());
+
+        this.loadByPrefixAndCheck(
+            store,
+            "1"
+        );
+    }
+
+    default void loadByPrefixAndCheck(final S store,
+                                      final String prefix,
+                                      final CacheValue... expected) {
+        this.checkEquals(
+            Lists.of(expected),
+            store.loadByPrefix(prefix),
+            "loadByPrefix " + prefix
+        );
+    }
+
+    // deleteByPrefix...................................................................................................
+
+    @Test
+    default void testDeleteByPrefixWithNullFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> this.createStore()
+                .deleteByPrefix(null)
+        );
+    }
+
+    @Test
+    default void testDeleteByPrefixWithEmptyFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> this.createStore()
+                .deleteByPrefix("")
+        );
+    }
+
+    @Test
+    default void testDeleteByPrefixFiresDeleteAllWatcherOnce() {
+        final S store = this.createStore();
+
+        final CacheValue value1 = this.prefixValue("namespace.1");
+        final CacheValue value2 = this.prefixValue("namespace.2.child");
+        final CacheValue other1 = this.prefixValue("namespaceOther.1");
+        final CacheValue other2 = this.prefixValue("other.1");
+
+        store.save(value1);
+        store.save(value2);
+        store.save(other1);
+        store.save(other2);
+
+        final List<CacheKey> deleted = Lists.array();
+        store.addDeleteWatcher(deleted::add);
+
+        final List<Set<CacheKey>> deletedAll = Lists.array();
+        store.addDeleteAllWatcher(deletedAll::add);
+
+        store.deleteByPrefix("namespace.");
+
+        this.checkEquals(
+            Lists.empty(),
+            deleted,
+            "delete watcher"
+        );
+        this.checkEquals(
+            Lists.of(
+                Set.of(
+                    value1.key(),
+                    value2.key()
+                )
+            ),
+            deletedAll,
+            "deleteAll watcher"
+        );
+        this.loadByPrefixAndCheck(
+            store,
+            "namespace",
+            other1
+        );
+        this.checkEquals(
+            2,
+            store.count(),
+            "count"
+        );
+    }
+
+    @Test
+    default void testDeleteByPrefixNoneMatchingFiresNothing() {
+        final S store = this.createStore();
+        store.save(this.prefixValue("other.1"));
+
+        final List<Set<CacheKey>> deletedAll = Lists.array();
+        store.addDeleteAllWatcher(deletedAll::add);
+
+        store.deleteByPrefix("namespace.");
+
+        this.checkEquals(
+            Lists.empty(),
+            deletedAll,
+            "deleteAll watcher"
+        );
+        this.checkEquals(
+            1,
+            store.count(),
+            "count"
+        );
+    }
+
+    // stream...........................................................................................................
+
+    @Test
+    default void testStreamEmpty() {
+        this.streamAndCheck(
+            this.createStore()
+        );
+    }
+
+    @Test
+    default void testSaveAndStream() {
+        final S store = this.createStore();
+
+        final CacheValue value1 = this.prefixValue("namespace.1");
+        final CacheValue value2 = this.prefixValue("namespace.2");
+        final CacheValue value3 = this.prefixValue("other.1");
+
+        store.save(value3);
+        store.save(value1);
+        store.save(value2);
+
+        this.streamAndCheck(
+            store,
+            value1,
+            value2,
+            value3
+        );
+    }
+
+    @Test
+    default void testStreamBetweenWithNullFromFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> this.createStore()
+                .stream(
+                    null,
+                    this.id()
+                )
+        );
+    }
+
+    @Test
+    default void testStreamBetweenWithNullToFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> this.createStore()
+                .stream(
+                    this.id(),
+                    null
+                )
+        );
+    }
+
+    @Test
+    default void testSaveAndStreamBetween() {
+        final S store = this.createStore();
+
+        final CacheValue value1 = this.prefixValue("key.1");
+        final CacheValue value2 = this.prefixValue("key.2");
+        final CacheValue value3 = this.prefixValue("key.3");
+        final CacheValue value4 = this.prefixValue("key.4");
+
+        store.save(value4);
+        store.save(value1);
+        store.save(value3);
+        store.save(value2);
+
+        this.streamAndCheck(
+            store,
+            value2.key(),
+            value3.key(),
+            value2,
+            value3
+        );
+    }
+
+    @Test
+    default void testStreamBetweenFromAfterTo() {
+        final S store = this.createStore();
+
+        final CacheValue value1 = this.prefixValue("key.1");
+        final CacheValue value2 = this.prefixValue("key.2");
+        store.save(value1);
+        store.save(value2);
+
+        this.streamAndCheck(
+            store,
+            value2.key(),
+            value1.key()
+        );
+    }
+
+    /**
+     * Sorts the streamed values, as unordered stores may stream in any order.
+     */
+    default void streamAndCheck(final S store,
+                                final CacheValue... expected) {
+        this.checkEquals(
+            Lists.of(expected),
+            store.stream()
+                .sorted()
+                .collect(Collectors.toList()),
+            "stream"
+        );
+    }
+
+    default void streamAndCheck(final S store,
+                                final CacheKey from,
+                                final CacheKey to,
+                                final CacheValue... expected) {
+        this.checkEquals(
+            Lists.of(expected),
+            store.stream(
+                    from,
+                    to
+                ).sorted()
+                .collect(Collectors.toList()),
+            "stream " + from + " " + to
+        );
+    }
+
+    /**
+     * Returns {@link #value()} with the given key.
+     */
+    default CacheValue prefixValue(final String key) {
+        return this.value()
+            .setKey(
+                CacheKey.with(key)
+            );
+    }
+
+    /**
+     * A second value with a key different from {@link #value()}.
+     */
+    default CacheValue value2() {
+        final CacheValue value = this.value();
+        return value.setKey(
+            CacheKey.with(
+                value.key()
+                    .value() + "2"
+            )
+        );
+    }
 }
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A node of a binary search tree of {@link CacheValue} ordered by {@link CacheKey}, where null is the empty tree. Each
+ * node records the size of its sub tree, so the queries below find any offset or rank in O(log n) by comparing against
+ * the size of the left sub tree at each level. Sub classes own the shape of the tree and how it is updated.
+ */
+abstract class CacheStoreTreeNode<N extends CacheStoreTreeNode<N>> {
+
+    CacheStoreTreeNode() {
+        super();
+    }
+
+    // queries..........................................................................................................
+
+    static <N extends CacheStoreTreeNode<N>> CacheValue get(final N root,
+                                                           final CacheKey cacheKey) {
+        N node = root;
+
+        while (null != node) {
+            final CacheValue value = node.value();
+            final int compare = cacheKey.compareTo(value.key());
+            if (0 == compare) {
+                break;
+            }
+            node = compare < 0 ?
+                node.left() :
+                node.right();
+        }
+
+        return null != node ?
+            node.value() :
+            null;
+    }
+
+    /**
+     * Returns the number of keys less than the given key, or also equal to it when inclusive, which is the offset of
+     * the first key after it.
+     */
+    static <N extends CacheStoreTreeNode<N>> int rank(final N root,
+                                                     final CacheKey cacheKey,
+                                                     final boolean inclusive) {
+        N node = root;
+        int rank = 0;
+
+        while (null != node) {
+            final int compare = cacheKey.compareTo(node.value().key());
+            if (compare < 0 || (0 == compare && false == inclusive)) {
+                node = node.left();
+            } else {
+                rank += size(node.left()) + 1;
+                node = node.right();
+            }
+        }
+
+        return rank;
+    }
+
+    /**
+     * Adds the keys of up to count entries beginning at offset, skipping whole sub trees before the offset.
+     */
+    static <N extends CacheStoreTreeNode<N>> void ids(final N node,
+                                                     final int offset,
+                                                     final int count,
+                                                     final Set<CacheKey> ids) {
+        if (null != node && ids.size() < count) {
+            final int leftSize = size(node.left());
+
+            if (offset < leftSize) {
+                ids(
+                    node.left(),
+                    offset,
+                    count,
+                    ids
+                );
+            }
+            if (offset <= leftSize && ids.size() < count) {
+                ids.add(
+                    node.value().key()
+                );
+            }
+            ids(
+                node.right(),
+                Math.max(
+                    0,
+                    offset - leftSize - 1
+                ),
+                count,
+                ids
+            );
+        }
+    }
+
+    /**
+     * Adds up to count values beginning at offset, skipping whole sub trees before the offset.
+     */
+    static <N extends CacheStoreTreeNode<N>> void values(final N node,
+                                                        final int offset,
+                                                        final int count,
+                                                        final List<CacheValue> values) {
+        if (null != node && values.size() < count) {
+            final int leftSize = size(node.left());
+
+            if (offset < leftSize) {
+                values(
+                    node.left(),
+                    offset,
+                    count,
+                    values
+                );
+            }
+            if (offset <= leftSize && values.size() < count) {
+                values.add(
+                    node.value()
+                );
+            }
+            values(
+                node.right(),
+                Math.max(
+                    0,
+                    offset - leftSize - 1
+                ),
+                count,
+                values
+            );
+        }
+    }
+
+    /**
+     * Adds the values with keys between from and to inclusive, only visiting sub trees that overlap the range.
+     */
+    static <N extends CacheStoreTreeNode<N>> void between(final N node,
+                                                         final CacheKey from,
+                                                         final CacheKey to,
+                                                         final List<CacheValue> values) {
+        if (null != node) {
+            final CacheValue value = node.value();
+            final CacheKey key = value.key();
+
+            if (from.compareTo(key) < 0) {
+                between(
+                    node.left(),
+                    from,
+                    to,
+                    values
+                );
+            }
+            if (CacheStoreChecks.isBetween(key, from, to)) {
+                values.add(value);
+            }
+            if (to.compareTo(key) > 0) {
+                between(
+                    node.right(),
+                    from,
+                    to,
+                    values
+                );
+            }
+        }
+    }
+
+    static int size(final CacheStoreTreeNode<?> node) {
+        return null != node ?
+            node.size() :
+            0;
+    }
+
+    // node.............................................................................................................
+
+    abstract CacheValue value();
+
+    abstract N left();
+
+    abstract N right();
+
+    /**
+     * The number of nodes in this sub tree including this node.
+     */
+    abstract int size();
+}
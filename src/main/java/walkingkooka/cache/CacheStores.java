@@ -19,11 +19,52 @@ package walkingkooka.cache;
 
 import walkingkooka.reflect.PublicStaticHelper;
 
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.function.LongSupplier;
+
 /**
  * A collection of {@link CacheStore}.
  */
 public final class CacheStores implements PublicStaticHelper {
 
+    /**
+     * {@see TinyLfuCacheStore}
+     */
+    public static BoundedCacheStore bounded(final int maximumSize,
+                                            final CacheStore store) {
+        return TinyLfuCacheStore.with(
+            maximumSize,
+            CacheValueWeighers.one(),
+            store
+        );
+    }
+
+    /**
+     * {@see ConcurrentHashMapCacheStore}
+     */
+    public static CacheStore concurrent() {
+        return ConcurrentHashMapCacheStore.empty();
+    }
+
+    /**
+     * {@see CopyOnWriteCacheStore}
+     */
+    public static SnapshotCacheStore copyOnWrite() {
+        return CopyOnWriteCacheStore.empty();
+    }
+
+    /**
+     * {@see BasicExpiringCacheStore}
+     */
+    public static ExpiringCacheStore expiring(final CacheStore store,
+                                              final LongSupplier clock) {
+        return BasicExpiringCacheStore.with(
+            store,
+            clock
+        );
+    }
+
     /**
      * {@see FakeCacheStore}
      */
@@ -31,6 +72,74 @@ public final class CacheStores implements PublicStaticHelper {
         return new FakeCacheStore();
     }
 
+    /**
+     * {@see BasicGenerationalCacheStore}
+     */
+    public static GenerationalCacheStore generational(final CacheStore store) {
+        return BasicGenerationalCacheStore.with(store);
+    }
+
+    /**
+     * {@see BasicLoadingCacheStore}
+     */
+    public static LoadingCacheStore loading(final CacheStore store) {
+        return BasicLoadingCacheStore.with(store);
+    }
+
+    /**
+     * {@see OrderStatisticTreeCacheStore}
+     */
+    public static CacheStore orderStatisticTree() {
+        return OrderStatisticTreeCacheStore.empty();
+    }
+
+    /**
+     * {@see RadixTreeCacheStore}
+     */
+    public static CacheStore radixTree() {
+        return RadixTreeCacheStore.empty();
+    }
+
+    /**
+     * {@see BasicLoadingCacheStore}
+     */
+    public static LoadingCacheStore refreshing(final CacheStore store,
+                                               final Duration refreshAfterWrite,
+                                               final Executor executor,
+                                               final LongSupplier clock) {
+        return BasicLoadingCacheStore.withRefreshAfterWrite(
+            store,
+            refreshAfterWrite,
+            executor,
+            clock
+        );
+    }
+
+    /**
+     * {@see BasicStatsCacheStore}
+     */
+    public static StatsCacheStore stats(final CacheStore store,
+                                        final LongSupplier ticker) {
+        return BasicStatsCacheStore.with(
+            store,
+            ticker,
+            BasicStatsCacheStoreAtomicLongCounter::new
+        );
+    }
+
+    /**
+     * {@see TieredCacheStore}
+     */
+    public static CacheStore tiered(final CacheStore l1,
+                                    final CacheStore l2,
+                                    final Executor executor) {
+        return TieredCacheStore.with(
+            l1,
+            l2,
+            executor
+        );
+    }
+
     /**
      * {@see TreeMapStoreCacheStore}
      */
@@ -38,6 +147,19 @@ public final class CacheStores implements PublicStaticHelper {
         return TreeMapStoreCacheStore.empty();
     }
 
+    /**
+     * {@see TinyLfuCacheStore}
+     */
+    public static BoundedCacheStore weighted(final long maximumWeight,
+                                             final CacheValueWeigher weigher,
+                                             final CacheStore store) {
+        return TinyLfuCacheStore.with(
+            maximumWeight,
+            weigher,
+            store
+        );
+    }
+
     /**
      * Stop creation
      */
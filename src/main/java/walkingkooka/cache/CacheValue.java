@@ -24,11 +24,14 @@ import walkingkooka.Value;
 import walkingkooka.text.printer.IndentingPrinter;
 import walkingkooka.text.printer.TreePrintable;
 
+import java.time.Duration;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 /**
- * A value type that holds the cache value and some extra meta data.
+ * A value type that holds the cache value and some extra meta data, such as optional expire after write and expire after
+ * access {@link Duration durations}. Expiry is only honoured by stores created by {@link CacheStores#expiring(CacheStore, java.util.function.LongSupplier)}.
  * Instances are not meant be marshalled to JSON or serializable.
  */
 public final class CacheValue implements Value<Optional<Object>>,
@@ -40,34 +43,163 @@ public final class CacheValue implements Value<Optional<Object>>,
                                   final Optional<Object> value) {
         return new CacheValue(
             Objects.requireNonNull(key, "key"),
-            Objects.requireNonNull(value, "value")
+            Objects.requireNonNull(value, "value"),
+            NO_EXPIRY,
+            NO_EXPIRY,
+            NO_GENERATION
         );
     }
 
+    /**
+     * Factory used by stores that keep an encoded form of the value, such as {@link OffHeapCacheStore}, the decoder is
+     * only invoked the first time {@link #value()} is called, so checking a value is present never decodes it. The
+     * decoder returns null for an empty value.
+     */
+    static CacheValue lazy(final CacheKey key,
+                           final Supplier<Object> decoder,
+                           final Optional<Duration> expireAfterWrite,
+                           final Optional<Duration> expireAfterAccess,
+                           final long generation) {
+        return new CacheValue(
+            key,
+            decoder,
+            expireAfterWrite,
+            expireAfterAccess,
+            generation
+        );
+    }
+
+    /**
+     * Factory used by stores that keep the value apart from its {@link CacheKey}, such as {@link RadixTreeCacheStore},
+     * a null value is empty.
+     */
+    static CacheValue withValueOrNull(final CacheKey key,
+                                      final Object value,
+                                      final Optional<Duration> expireAfterWrite,
+                                      final Optional<Duration> expireAfterAccess,
+                                      final long generation) {
+        return new CacheValue(
+            key,
+            value,
+            expireAfterWrite,
+            expireAfterAccess,
+            generation
+        );
+    }
+
+    /**
+     * Constant used to indicate the value does not expire.
+     */
+    public final static Optional<Duration> NO_EXPIRY = Optional.empty();
+
+    /**
+     * The generation of values that were never stamped with a generation.
+     */
+    public final static long NO_GENERATION = 0;
+
     private CacheValue(final CacheKey key,
-                       final Optional<Object> value) {
+                       final Optional<Object> value,
+                       final Optional<Duration> expireAfterWrite,
+                       final Optional<Duration> expireAfterAccess,
+                       final long generation) {
+        this(
+            key,
+            value.orElse(null),
+            expireAfterWrite,
+            expireAfterAccess,
+            generation
+        );
+    }
+
+    private CacheValue(final CacheKey key,
+                       final Object value,
+                       final Optional<Duration> expireAfterWrite,
+                       final Optional<Duration> expireAfterAccess,
+                       final long generation) {
         this.key = key;
         this.value = value;
+        this.decoder = null;
+        this.expireAfterWrite = expireAfterWrite;
+        this.expireAfterAccess = expireAfterAccess;
+        this.generation = generation;
+    }
+
+    private CacheValue(final CacheKey key,
+                       final Supplier<Object> decoder,
+                       final Optional<Duration> expireAfterWrite,
+                       final Optional<Duration> expireAfterAccess,
+                       final long generation) {
+        this.key = key;
+        this.value = UNDECODED;
+        this.decoder = decoder;
+        this.expireAfterWrite = expireAfterWrite;
+        this.expireAfterAccess = expireAfterAccess;
+        this.generation = generation;
     }
 
     // Value............................................................................................................
 
+    /**
+     * The value is held without an {@link Optional}, which is only created by this method. Hot paths should prefer
+     * {@link #valueOrNull()}.
+     */
     @Override
     public Optional<Object> value() {
-        return this.value;
+        return Optional.ofNullable(
+            this.valueOrNull()
+        );
+    }
+
+    /**
+     * Returns the value or null when empty, without allocating.
+     */
+    public Object valueOrNull() {
+        Object value = this.value;
+
+        if (UNDECODED == value) {
+            final Supplier<Object> decoder = this.decoder;
+            if (null != decoder) {
+                value = decoder.get();
+                this.value = value;
+                this.decoder = null;
+            } else {
+                // another thread decoded after value was read above
+                value = this.value;
+            }
+        }
+
+        return value;
     }
 
-    private final Optional<Object> value;
+    /**
+     * Marks a lazy value that has not yet been decoded.
+     */
+    private final static Object UNDECODED = new Object();
+
+    /**
+     * The value, null when empty or {@link #UNDECODED}. Written before {@link #decoder} is cleared.
+     */
+    private volatile Object value;
+
+    /**
+     * Only present for lazy values that have not yet been decoded.
+     */
+    private volatile Supplier<Object> decoder;
 
     /**
      * Would be setter that returns a CacheValue with the given value creating a new instance if necessary.
      */
     public CacheValue setValue(final Optional<Object> value) {
-        return this.value.equals(value) ?
+        Objects.requireNonNull(value, "value");
+
+        return Objects.equals(this.valueOrNull(), value.orElse(null)) ?
             this :
             new CacheValue(
                 this.key,
-                Objects.requireNonNull(value, "value")
+                value,
+                this.expireAfterWrite,
+                this.expireAfterAccess,
+                this.generation
             );
     }
 
@@ -89,19 +221,113 @@ public final class CacheValue implements Value<Optional<Object>>,
             this :
             new CacheValue(
                 Objects.requireNonNull(key, "key"),
-                this.value
+                this.valueOrNull(),
+                this.expireAfterWrite,
+                this.expireAfterAccess,
+                this.generation
             );
     }
 
     private final CacheKey key;
 
+    // expireAfterWrite.................................................................................................
+
+    /**
+     * When present the value expires once this {@link Duration} has passed since it was saved.
+     */
+    public Optional<Duration> expireAfterWrite() {
+        return this.expireAfterWrite;
+    }
+
+    public CacheValue setExpireAfterWrite(final Optional<Duration> expireAfterWrite) {
+        return this.expireAfterWrite.equals(expireAfterWrite) ?
+            this :
+            new CacheValue(
+                this.key,
+                this.valueOrNull(),
+                checkExpiry(expireAfterWrite, "expireAfterWrite"),
+                this.expireAfterAccess,
+                this.generation
+            );
+    }
+
+    private final Optional<Duration> expireAfterWrite;
+
+    // expireAfterAccess................................................................................................
+
+    /**
+     * When present the value expires once this {@link Duration} has passed since it was last saved or loaded.
+     */
+    public Optional<Duration> expireAfterAccess() {
+        return this.expireAfterAccess;
+    }
+
+    public CacheValue setExpireAfterAccess(final Optional<Duration> expireAfterAccess) {
+        return this.expireAfterAccess.equals(expireAfterAccess) ?
+            this :
+            new CacheValue(
+                this.key,
+                this.valueOrNull(),
+                this.expireAfterWrite,
+                checkExpiry(expireAfterAccess, "expireAfterAccess"),
+                this.generation
+            );
+    }
+
+    private final Optional<Duration> expireAfterAccess;
+
+    private static Optional<Duration> checkExpiry(final Optional<Duration> expiry,
+                                                  final String label) {
+        Objects.requireNonNull(expiry, label);
+
+        if (expiry.isPresent()) {
+            final Duration duration = expiry.get();
+            if (duration.isNegative() || duration.isZero()) {
+                throw new IllegalArgumentException("Invalid " + label + " " + duration + " <= 0");
+            }
+        }
+
+        return expiry;
+    }
+
+    // generation.......................................................................................................
+
+    /**
+     * The generation this value was written under, stamped by stores created by
+     * {@link CacheStores#generational(CacheStore)} and used to invalidate entire generations at once.
+     */
+    public long generation() {
+        return this.generation;
+    }
+
+    public CacheValue setGeneration(final long generation) {
+        if (generation < NO_GENERATION) {
+            throw new IllegalArgumentException("Invalid generation " + generation + " < " + NO_GENERATION);
+        }
+
+        return this.generation == generation ?
+            this :
+            new CacheValue(
+                this.key,
+                this.valueOrNull(),
+                this.expireAfterWrite,
+                this.expireAfterAccess,
+                generation
+            );
+    }
+
+    private final long generation;
+
     // Object...........................................................................................................
 
     @Override
     public int hashCode() {
         return Objects.hash(
             this.key,
-            this.value
+            this.valueOrNull(),
+            this.expireAfterWrite,
+            this.expireAfterAccess,
+            this.generation
         );
     }
 
@@ -114,7 +340,10 @@ public final class CacheValue implements Value<Optional<Object>>,
 
     private boolean equals0(final CacheValue other) {
         return this.key.equals(other.key) &&
-            this.value.equals(other.value);
+            Objects.equals(this.valueOrNull(), other.valueOrNull()) &&
+            this.expireAfterWrite.equals(other.expireAfterWrite) &&
+            this.expireAfterAccess.equals(other.expireAfterAccess) &&
+            this.generation == other.generation;
     }
 
     @Override
@@ -122,7 +351,7 @@ public final class CacheValue implements Value<Optional<Object>>,
         return ToStringBuilder.empty()
             .label(this.key.toString())
             .separator("=")
-            .value(this.value)
+            .value(this.value())
             .build();
     }
 
@@ -140,10 +369,10 @@ public final class CacheValue implements Value<Optional<Object>>,
         printer.println(this.key.toString());
         printer.indent();
         {
-            final Optional<Object> value = this.value();
-            if(value.isPresent()) {
+            final Object value = this.valueOrNull();
+            if(null != value) {
                 TreePrintable.printTreeOrToString(
-                    value.get(),
+                    value,
                     printer
                 );
             }
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Converts {@link CacheValue#value()} to and from bytes, for stores that keep values outside the java heap.
+ */
+public interface CacheValueCodec {
+
+    /**
+     * Encodes the value, failing with {@link IllegalArgumentException} if the value is not supported.
+     */
+    byte[] encode(final Object value);
+
+    /**
+     * Decodes a value from all the remaining bytes in the given read only buffer.
+     */
+    Object decode(final ByteBuffer bytes);
+}
@@ -0,0 +1,44 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+/**
+ * What an {@link AsyncWatcherCacheStore} does with a watcher event when its queue is full.
+ */
+public enum CacheWatcherOverflow {
+
+    /**
+     * The event is discarded and counted by {@link AsyncWatcherCacheStore#droppedCount()}.
+     */
+    DROP,
+
+    /**
+     * Save and delete events are held apart from the queue, keeping only the latest event for each {@link CacheKey}
+     * until the queue drains, counting replaced events by {@link AsyncWatcherCacheStore#coalescedCount()}. Save all and
+     * delete all events that overflow have no single key and are dropped, but while events are coalescing every later
+     * event is held in order behind them, so none is delivered before an older event.
+     */
+    COALESCE,
+
+    /**
+     * The writer waits until the queue has room, so a slow watcher eventually slows writers. Events raised by a
+     * watcher while it is being notified are dropped, as waiting for itself would never finish.
+     */
+    BLOCK
+}
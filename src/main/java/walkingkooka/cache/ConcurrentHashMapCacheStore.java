@@ -0,0 +1,298 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import walkingkooka.watch.Watchers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A {@link CacheStore} backed by a {@link ConcurrentHashMap}, where {@link #load(CacheKey)} never takes a lock and
+ * {@link #save(CacheValue)} and {@link #delete(CacheKey)} only lock the hash bin of the key being modified.
+ * The ordered queries {@link #ids(int, int)}, {@link #values(int, int)} and {@link #between(CacheKey, CacheKey)}
+ * remain correct but must sort a weakly consistent view of the entries on every call.
+ */
+final class ConcurrentHashMapCacheStore implements CacheStore {
+
+    static ConcurrentHashMapCacheStore empty() {
+        return new ConcurrentHashMapCacheStore();
+    }
+
+    private ConcurrentHashMapCacheStore() {
+        super();
+    }
+
+    @Override
+    public Optional<CacheValue> load(final CacheKey cacheKey) {
+        return Optional.ofNullable(
+            this.loadOrNull(cacheKey)
+        );
+    }
+
+    @Override
+    public CacheValue loadOrNull(final CacheKey cacheKey) {
+        Objects.requireNonNull(cacheKey, "cacheKey");
+
+        return this.keyToValue.get(cacheKey);
+    }
+
+    @Override
+    public CacheValue save(final CacheValue cacheValue) {
+        Objects.requireNonNull(cacheValue, "cacheValue");
+
+        this.keyToValue.put(
+            cacheValue.key(),
+            cacheValue
+        );
+        this.saveWatchers.accept(cacheValue);
+        return cacheValue;
+    }
+
+    @Override
+    public Runnable addSaveWatcher(final Consumer<CacheValue> watcher) {
+        return this.saveWatchers.add(watcher);
+    }
+
+    private final Watchers<CacheValue> saveWatchers = Watchers.create();
+
+    @Override
+    public void delete(final CacheKey cacheKey) {
+        Objects.requireNonNull(cacheKey, "cacheKey");
+
+        if (null != this.keyToValue.remove(cacheKey)) {
+            this.deleteWatchers.accept(cacheKey);
+        }
+    }
+
+    @Override
+    public Runnable addDeleteWatcher(final Consumer<CacheKey> watcher) {
+        return this.deleteWatchers.add(watcher);
+    }
+
+    private final Watchers<CacheKey> deleteWatchers = Watchers.create();
+
+    @Override
+    public Map<CacheKey, CacheValue> loadAll(final Collection<CacheKey> cacheKeys) {
+        CacheStoreChecks.all(cacheKeys, "cacheKeys");
+
+        final ConcurrentHashMap<CacheKey, CacheValue> keyToValue = this.keyToValue;
+        final Map<CacheKey, CacheValue> loaded = new LinkedHashMap<>();
+
+        for (final CacheKey cacheKey : cacheKeys) {
+            final CacheValue value = keyToValue.get(cacheKey);
+            if (null != value) {
+                loaded.put(
+                    cacheKey,
+                    value
+                );
+            }
+        }
+
+        return loaded;
+    }
+
+    @Override
+    public List<CacheValue> saveAll(final Collection<CacheValue> cacheValues) {
+        CacheStoreChecks.all(cacheValues, "cacheValues");
+
+        final ConcurrentHashMap<CacheKey, CacheValue> keyToValue = this.keyToValue;
+        final List<CacheValue> saved = Collections.unmodifiableList(
+            new ArrayList<>(cacheValues)
+        );
+
+        for (final CacheValue cacheValue : saved) {
+            keyToValue.put(
+                cacheValue.key(),
+                cacheValue
+            );
+        }
+
+        if (false == saved.isEmpty()) {
+            this.saveAllWatchers.accept(saved);
+        }
+        return saved;
+    }
+
+    @Override
+    public Runnable addSaveAllWatcher(final Consumer<List<CacheValue>> watcher) {
+        return this.saveAllWatchers.add(watcher);
+    }
+
+    private final Watchers<List<CacheValue>> saveAllWatchers = Watchers.create();
+
+    @Override
+    public void deleteAll(final Collection<CacheKey> cacheKeys) {
+        CacheStoreChecks.all(cacheKeys, "cacheKeys");
+
+        final ConcurrentHashMap<CacheKey, CacheValue> keyToValue = this.keyToValue;
+        final Set<CacheKey> deleted = new LinkedHashSet<>();
+
+        for (final CacheKey cacheKey : cacheKeys) {
+            if (null != keyToValue.remove(cacheKey)) {
+                deleted.add(cacheKey);
+            }
+        }
+
+        this.fireDeleted(deleted);
+    }
+
+    /**
+     * Notifies delete all watchers once with all the deleted keys, delete watchers only see single deletes.
+     */
+    private void fireDeleted(final Set<CacheKey> deleted) {
+        if (false == deleted.isEmpty()) {
+            this.deleteAllWatchers.accept(
+                Collections.unmodifiableSet(deleted)
+            );
+        }
+    }
+
+    @Override
+    public Runnable addDeleteAllWatcher(final Consumer<Set<CacheKey>> watcher) {
+        return this.deleteAllWatchers.add(watcher);
+    }
+
+    private final Watchers<Set<CacheKey>> deleteAllWatchers = Watchers.create();
+
+    @Override
+    public int count() {
+        return this.keyToValue.size();
+    }
+
+    @Override
+    public Set<CacheKey> ids(final int offset,
+                             final int count) {
+        CacheStoreChecks.offsetAndCount(
+            offset,
+            count
+        );
+
+        return this.keyToValue.keySet()
+            .stream()
+            .sorted()
+            .skip(offset)
+            .limit(count)
+            .collect(Collectors.toCollection(TreeSet::new));
+    }
+
+    @Override
+    public List<CacheValue> values(final int offset,
+                                   final int count) {
+        CacheStoreChecks.offsetAndCount(
+            offset,
+            count
+        );
+
+        return this.keyToValue.values()
+            .stream()
+            .sorted()
+            .skip(offset)
+            .limit(count)
+            .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<CacheValue> between(final CacheKey from,
+                                    final CacheKey to) {
+        CacheStoreChecks.between(
+            from,
+            to
+        );
+
+        return this.keyToValue.values()
+            .stream()
+            .filter(v -> CacheStoreChecks.isBetween(v.key(), from, to))
+            .sorted()
+            .collect(Collectors.toList());
+    }
+
+    // prefix...........................................................................................................
+
+    /**
+     * Filters the entries in a single pass, sorting only the matches.
+     */
+    @Override
+    public List<CacheValue> loadByPrefix(final String prefix) {
+        final CacheKeyPrefix cacheKeyPrefix = CacheKeyPrefix.with(prefix);
+
+        return cacheKeyPrefix.isNone() ?
+            new ArrayList<>() :
+            this.keyToValue.values()
+                .stream()
+                .filter(v -> cacheKeyPrefix.test(v.key()))
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Removes matching keys in a single pass, without first loading or sorting the matching values.
+     */
+    @Override
+    public void deleteByPrefix(final String prefix) {
+        final CacheKeyPrefix cacheKeyPrefix = CacheKeyPrefix.with(prefix);
+        final Set<CacheKey> deleted = new TreeSet<>();
+
+        if (false == cacheKeyPrefix.isNone()) {
+            final ConcurrentHashMap<CacheKey, CacheValue> keyToValue = this.keyToValue;
+
+            for (final CacheKey cacheKey : keyToValue.keySet()) {
+                if (cacheKeyPrefix.test(cacheKey) && null != keyToValue.remove(cacheKey)) {
+                    deleted.add(cacheKey);
+                }
+            }
+        }
+
+        this.fireDeleted(deleted);
+    }
+
+    // stream...........................................................................................................
+
+    /**
+     * Streams the weakly consistent values of the map without sorting, so the stream is unordered and splits by hash
+     * bin. {@link #stream(CacheKey, CacheKey)} filters this stream.
+     */
+    @Override
+    public Stream<CacheValue> stream() {
+        return this.keyToValue.values()
+            .stream();
+    }
+
+    /**
+     * A map supporting lock free reads and concurrent writes.
+     */
+    private final ConcurrentHashMap<CacheKey, CacheValue> keyToValue = new ConcurrentHashMap<>();
+
+    @Override
+    public String toString() {
+        return this.keyToValue.toString();
+    }
+}
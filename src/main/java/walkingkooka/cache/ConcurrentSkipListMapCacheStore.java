@@ -0,0 +1,354 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import walkingkooka.watch.Watchers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * A {@link CacheStore} backed by a {@link ConcurrentSkipListMap}, which keeps entries in {@link CacheKey} order without
+ * any locks. Unlike {@link ConcurrentHashMapCacheStore} the ordered queries {@link #ids(int, int)},
+ * {@link #values(int, int)} and {@link #between(CacheKey, CacheKey)} walk weakly consistent iterators in key order
+ * rather than sorting, and never block concurrent saves or deletes. Loads are O(log n) rather than O(1).
+ */
+final class ConcurrentSkipListMapCacheStore implements CacheStore {
+
+    static ConcurrentSkipListMapCacheStore empty() {
+        return new ConcurrentSkipListMapCacheStore();
+    }
+
+    private ConcurrentSkipListMapCacheStore() {
+        super();
+    }
+
+    @Override
+    public Optional<CacheValue> load(final CacheKey cacheKey) {
+        return Optional.ofNullable(
+            this.loadOrNull(cacheKey)
+        );
+    }
+
+    @Override
+    public CacheValue loadOrNull(final CacheKey cacheKey) {
+        Objects.requireNonNull(cacheKey, "cacheKey");
+
+        return this.keyToValue.get(cacheKey);
+    }
+
+    @Override
+    public CacheValue save(final CacheValue cacheValue) {
+        Objects.requireNonNull(cacheValue, "cacheValue");
+
+        if (null == this.keyToValue.put(cacheValue.key(), cacheValue)) {
+            this.count.incrementAndGet();
+        }
+        this.saveWatchers.accept(cacheValue);
+        return cacheValue;
+    }
+
+    @Override
+    public Runnable addSaveWatcher(final Consumer<CacheValue> watcher) {
+        return this.saveWatchers.add(watcher);
+    }
+
+    private final Watchers<CacheValue> saveWatchers = Watchers.create();
+
+    @Override
+    public void delete(final CacheKey cacheKey) {
+        Objects.requireNonNull(cacheKey, "cacheKey");
+
+        if (null != this.keyToValue.remove(cacheKey)) {
+            this.count.decrementAndGet();
+            this.deleteWatchers.accept(cacheKey);
+        }
+    }
+
+    @Override
+    public Runnable addDeleteWatcher(final Consumer<CacheKey> watcher) {
+        return this.deleteWatchers.add(watcher);
+    }
+
+    private final Watchers<CacheKey> deleteWatchers = Watchers.create();
+
+    @Override
+    public Map<CacheKey, CacheValue> loadAll(final Collection<CacheKey> cacheKeys) {
+        CacheStoreChecks.all(cacheKeys, "cacheKeys");
+
+        final ConcurrentSkipListMap<CacheKey, CacheValue> keyToValue = this.keyToValue;
+        final Map<CacheKey, CacheValue> loaded = new LinkedHashMap<>();
+
+        for (final CacheKey cacheKey : cacheKeys) {
+            final CacheValue value = keyToValue.get(cacheKey);
+            if (null != value) {
+                loaded.put(
+                    cacheKey,
+                    value
+                );
+            }
+        }
+
+        return loaded;
+    }
+
+    @Override
+    public List<CacheValue> saveAll(final Collection<CacheValue> cacheValues) {
+        CacheStoreChecks.all(cacheValues, "cacheValues");
+
+        final ConcurrentSkipListMap<CacheKey, CacheValue> keyToValue = this.keyToValue;
+        final List<CacheValue> saved = Collections.unmodifiableList(
+            new ArrayList<>(cacheValues)
+        );
+
+        for (final CacheValue cacheValue : saved) {
+            if (null == keyToValue.put(cacheValue.key(), cacheValue)) {
+                this.count.incrementAndGet();
+            }
+        }
+
+        if (false == saved.isEmpty()) {
+            this.saveAllWatchers.accept(saved);
+        }
+        return saved;
+    }
+
+    @Override
+    public Runnable addSaveAllWatcher(final Consumer<List<CacheValue>> watcher) {
+        return this.saveAllWatchers.add(watcher);
+    }
+
+    private final Watchers<List<CacheValue>> saveAllWatchers = Watchers.create();
+
+    @Override
+    public void deleteAll(final Collection<CacheKey> cacheKeys) {
+        CacheStoreChecks.all(cacheKeys, "cacheKeys");
+
+        final ConcurrentSkipListMap<CacheKey, CacheValue> keyToValue = this.keyToValue;
+        final Set<CacheKey> deleted = new LinkedHashSet<>();
+
+        for (final CacheKey cacheKey : cacheKeys) {
+            if (null != keyToValue.remove(cacheKey)) {
+                this.count.decrementAndGet();
+                deleted.add(cacheKey);
+            }
+        }
+
+        this.fireDeleted(deleted);
+    }
+
+    /**
+     * Notifies delete all watchers once with all the deleted keys, delete watchers only see single deletes.
+     */
+    private void fireDeleted(final Set<CacheKey> deleted) {
+        if (false == deleted.isEmpty()) {
+            this.deleteAllWatchers.accept(
+                Collections.unmodifiableSet(deleted)
+            );
+        }
+    }
+
+    @Override
+    public Runnable addDeleteAllWatcher(final Consumer<Set<CacheKey>> watcher) {
+        return this.deleteAllWatchers.add(watcher);
+    }
+
+    private final Watchers<Set<CacheKey>> deleteAllWatchers = Watchers.create();
+
+    /**
+     * {@link ConcurrentSkipListMap#size()} walks every entry, so a separate counter is maintained.
+     */
+    @Override
+    public int count() {
+        return this.count.get();
+    }
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Set<CacheKey> ids(final int offset,
+                             final int count) {
+        CacheStoreChecks.offsetAndCount(
+            offset,
+            count
+        );
+
+        final Set<CacheKey> ids = new TreeSet<>();
+
+        int skip = offset;
+        for (final CacheKey cacheKey : this.keyToValue.keySet()) {
+            if (ids.size() == count) {
+                break;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            ids.add(cacheKey);
+        }
+
+        return ids;
+    }
+
+    @Override
+    public List<CacheValue> values(final int offset,
+                                   final int count) {
+        CacheStoreChecks.offsetAndCount(
+            offset,
+            count
+        );
+
+        final List<CacheValue> values = new ArrayList<>();
+
+        int skip = offset;
+        for (final CacheValue value : this.keyToValue.values()) {
+            if (values.size() == count) {
+                break;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            values.add(value);
+        }
+
+        return values;
+    }
+
+    @Override
+    public List<CacheValue> between(final CacheKey from,
+                                    final CacheKey to) {
+        CacheStoreChecks.between(
+            from,
+            to
+        );
+
+        return from.compareTo(to) <= 0 ?
+            new ArrayList<>(
+                this.keyToValue.subMap(
+                    from,
+                    true,
+                    to,
+                    true
+                ).values()
+            ) :
+            new ArrayList<>();
+    }
+
+    // prefix...........................................................................................................
+
+    @Override
+    public List<CacheValue> loadByPrefix(final String prefix) {
+        final CacheKeyPrefix cacheKeyPrefix = CacheKeyPrefix.with(prefix);
+
+        return cacheKeyPrefix.isNone() ?
+            new ArrayList<>() :
+            new ArrayList<>(
+                this.prefix(cacheKeyPrefix)
+                    .values()
+            );
+    }
+
+    /**
+     * Walks the range of keys beginning with the prefix once, removing each as it is visited.
+     */
+    @Override
+    public void deleteByPrefix(final String prefix) {
+        final CacheKeyPrefix cacheKeyPrefix = CacheKeyPrefix.with(prefix);
+        final Set<CacheKey> deleted = new LinkedHashSet<>();
+
+        if (false == cacheKeyPrefix.isNone()) {
+            final ConcurrentSkipListMap<CacheKey, CacheValue> keyToValue = this.keyToValue;
+
+            for (final CacheKey cacheKey : this.prefix(cacheKeyPrefix).keySet()) {
+                if (null != keyToValue.remove(cacheKey)) {
+                    this.count.decrementAndGet();
+                    deleted.add(cacheKey);
+                }
+            }
+        }
+
+        this.fireDeleted(deleted);
+    }
+
+    private ConcurrentNavigableMap<CacheKey, CacheValue> prefix(final CacheKeyPrefix prefix) {
+        return this.keyToValue.subMap(
+            prefix.from(),
+            true,
+            prefix.to(),
+            true
+        );
+    }
+
+    // stream...........................................................................................................
+
+    /**
+     * Streams the weakly consistent values of the map in key order.
+     */
+    @Override
+    public Stream<CacheValue> stream() {
+        return this.keyToValue.values()
+            .stream();
+    }
+
+    /**
+     * Streams only the range of keys between from and to.
+     */
+    @Override
+    public Stream<CacheValue> stream(final CacheKey from,
+                                     final CacheKey to) {
+        CacheStoreChecks.between(
+            from,
+            to
+        );
+
+        return from.compareTo(to) <= 0 ?
+            this.keyToValue.subMap(
+                from,
+                true,
+                to,
+                true
+            ).values()
+                .stream() :
+            Stream.empty();
+    }
+
+    /**
+     * A sorted map supporting lock free reads and writes.
+     */
+    private final ConcurrentSkipListMap<CacheKey, CacheValue> keyToValue = new ConcurrentSkipListMap<>();
+
+    @Override
+    public String toString() {
+        return this.keyToValue.toString();
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+import walkingkooka.watch.Watchers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * A {@link SnapshotCacheStore} holding its entries in a persistent AVL tree of {@link CopyOnWriteCacheStoreNode},
+ * where each write creates a new root sharing all unchanged nodes with the previous root, and replaces it with a
+ * compare and set, retrying if another writer won. Readers only read the current root so never take a lock or wait
+ * for a writer, and {@link #snapshot()} simply captures the current root. Batch writes replace the root once, so a
+ * snapshot never includes only part of a {@link #saveAll(Collection)} or {@link #deleteAll(Collection)}.
+ * <br>
+ * Loads are O(log n), and as each node records the size of its sub tree, {@link #ids(int, int)} and
+ * {@link #values(int, int)} find the first entry at any offset in O(log n).
+ */
+final class CopyOnWriteCacheStore implements SnapshotCacheStore {
+
+    static CopyOnWriteCacheStore empty() {
+        return new CopyOnWriteCacheStore();
+    }
+
+    private CopyOnWriteCacheStore() {
+        super();
+    }
+
+    @Override
+    public Optional<CacheValue> load(final CacheKey cacheKey) {
+        return Optional.ofNullable(
+            this.loadOrNull(cacheKey)
+        );
+    }
+
+    @Override
+    public CacheValue loadOrNull(final CacheKey cacheKey) {
+        Objects.requireNonNull(cacheKey, "cacheKey");
+
+        return CopyOnWriteCacheStoreNode.get(
+            this.root.get(),
+            cacheKey
+        );
+    }
+
+    /**
+     * All keys are loaded from the same point in time.
+     */
+    @Override
+    public Map<CacheKey, CacheValue> loadAll(final Collection<CacheKey> cacheKeys) {
+        return this.snapshot()
+            .loadAll(cacheKeys);
+    }
+
+    @Override
+    public CacheValue save(final CacheValue cacheValue) {
+        Objects.requireNonNull(cacheValue, "cacheValue");
+
+        final AtomicReference<CopyOnWriteCacheStoreNode> root = this.root;
+        for (; ; ) {
+            final CopyOnWriteCacheStoreNode before = root.get();
+            if (root.compareAndSet(before, CopyOnWriteCacheStoreNode.put(before, cacheValue))) {
+                break;
+            }
+        }
+
+        this.saveWatchers.accept(cacheValue);
+        return cacheValue;
+    }
+
+    @Override
+    public Runnable addSaveWatcher(final Consumer<CacheValue> watcher) {
+        return this.saveWatchers.add(watcher);
+    }
+
+    private final Watchers<CacheValue> saveWatchers = Watchers.create();
+
+    @Override
+    public void delete(final CacheKey cacheKey) {
+        Objects.requireNonNull(cacheKey, "cacheKey");
+
+        final AtomicReference<CopyOnWriteCacheStoreNode> root = this.root;
+        for (; ; ) {
+            final CopyOnWriteCacheStoreNode before = root.get();
+            final CopyOnWriteCacheStoreNode after = CopyOnWriteCacheStoreNode.remove(
+                before,
+                cacheKey
+            );
+            if (before == after) {
+                break;
+            }
+            if (root.compareAndSet(before, after)) {
+                this.deleteWatchers.accept(cacheKey);
+                break;
+            }
+        }
+    }
+
+    @Override
+    public Runnable addDeleteWatcher(final Consumer<CacheKey> watcher) {
+        return this.deleteWatchers.add(watcher);
+    }
+
+    private final Watchers<CacheKey> deleteWatchers = Watchers.create();
+
+    @Override
+    public List<CacheValue> saveAll(final Collection<CacheValue> cacheValues) {
+        CacheStoreChecks.all(cacheValues, "cacheValues");
+
+        final List<CacheValue> saved = Collections.unmodifiableList(
+            new ArrayList<>(cacheValues)
+        );
+
+        if (false == saved.isEmpty()) {
+            final AtomicReference<CopyOnWriteCacheStoreNode> root = this.root;
+            for (; ; ) {
+                final CopyOnWriteCacheStoreNode before = root.get();
+
+                CopyOnWriteCacheStoreNode after = before;
+                for (final CacheValue cacheValue : saved) {
+                    after = CopyOnWriteCacheStoreNode.put(
+                        after,
+                        cacheValue
+                    );
+                }
+
+                if (root.compareAndSet(before, after)) {
+                    break;
+                }
+            }
+
+            this.saveAllWatchers.accept(saved);
+        }
+        return saved;
+    }
+
+    @Override
+    public Runnable addSaveAllWatcher(final Consumer<List<CacheValue>> watcher) {
+        return this.saveAllWatchers.add(watcher);
+    }
+
+    private final Watchers<List<CacheValue>> saveAllWatchers = Watchers.create();
+
+    @Override
+    public void deleteAll(final Collection<CacheKey> cacheKeys) {
+        CacheStoreChecks.all(cacheKeys, "cacheKeys");
+
+        final AtomicReference<CopyOnWriteCacheStoreNode> root = this.root;
+        final Set<CacheKey> deleted = new LinkedHashSet<>();
+
+        for (; ; ) {
+            deleted.clear();
+
+            final CopyOnWriteCacheStoreNode before = root.get();
+
+            CopyOnWriteCacheStoreNode after = before;
+            for (final CacheKey cacheKey : cacheKeys) {
+                final CopyOnWriteCacheStoreNode removed = CopyOnWriteCacheStoreNode.remove(
+                    after,
+                    cacheKey
+                );
+                if (removed != after) {
+                    deleted.add(cacheKey);
+                    after = removed;
+                }
+            }
+
+            if (before == after || root.compareAndSet(before, after)) {
+                break;
+            }
+        }
+
+        if (false == deleted.isEmpty()) {
+            this.deleteAllWatchers.accept(
+                Collections.unmodifiableSet(deleted)
+            );
+        }
+    }
+
+    @Override
+    public Runnable addDeleteAllWatcher(final Consumer<Set<CacheKey>> watcher) {
+        return this.deleteAllWatchers.add(watcher);
+    }
+
+    private final Watchers<Set<CacheKey>> deleteAllWatchers = Watchers.create();
+
+    @Override
+    public int count() {
+        return CopyOnWriteCacheStoreNode.size(
+            this.root.get()
+        );
+    }
+
+    @Override
+    public Set<CacheKey> ids(final int offset,
+                             final int count) {
+        return this.snapshot()
+            .ids(
+                offset,
+                count
+            );
+    }
+
+    @Override
+    public List<CacheValue> values(final int offset,
+                                   final int count) {
+        return this.snapshot()
+            .values(
+                offset,
+                count
+            );
+    }
+
+    @Override
+    public List<CacheValue> between(final CacheKey from,
+                                    final CacheKey to) {
+        return this.snapshot()
+            .between(
+                from,
+                to
+            );
+    }
+
+    /**
+     * Streams a {@link #snapshot()}, so the stream is unaffected by later writes.
+     */
+    @Override
+    public Stream<CacheValue> stream() {
+        return this.snapshot()
+            .stream();
+    }
+
+    @Override
+    public Stream<CacheValue> stream(final CacheKey from,
+                                     final CacheKey to) {
+        return this.snapshot()
+            .stream(
+                from,
+                to
+            );
+    }
+
+    // SnapshotCacheStore...............................................................................................
+
+    @Override
+    public SnapshotCacheStore snapshot() {
+        return CopyOnWriteCacheStoreView.with(
+            this.root.get()
+        );
+    }
+
+    /**
+     * The root of the current tree, null when empty.
+     */
+    private final AtomicReference<CopyOnWriteCacheStoreNode> root = new AtomicReference<>();
+
+    @Override
+    public String toString() {
+        return this.snapshot()
+            .toString();
+    }
+}
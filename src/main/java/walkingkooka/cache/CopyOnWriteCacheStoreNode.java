@@ -0,0 +1,272 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+/**
+ * An immutable node of the persistent AVL tree held by {@link CopyOnWriteCacheStore}, where null is the empty tree.
+ * Updates copy only the nodes along the path from the root to the changed node, sharing all other nodes with the
+ * previous tree, so any root remains a valid point in time view. Each node also records the size of its sub tree, so
+ * the entry at any offset is found in O(log n).
+ */
+final class CopyOnWriteCacheStoreNode extends CacheStoreTreeNode<CopyOnWriteCacheStoreNode> {
+
+    static CopyOnWriteCacheStoreNode with(final CacheValue value,
+                                          final CopyOnWriteCacheStoreNode left,
+                                          final CopyOnWriteCacheStoreNode right) {
+        return new CopyOnWriteCacheStoreNode(
+            value,
+            left,
+            right
+        );
+    }
+
+    private CopyOnWriteCacheStoreNode(final CacheValue value,
+                                      final CopyOnWriteCacheStoreNode left,
+                                      final CopyOnWriteCacheStoreNode right) {
+        this.value = value;
+        this.left = left;
+        this.right = right;
+        this.height = 1 + Math.max(
+            height(left),
+            height(right)
+        );
+        this.size = 1 + size(left) + size(right);
+    }
+
+    // updates..........................................................................................................
+
+    /**
+     * Returns a new tree with the value added or replacing any value with the same key.
+     */
+    static CopyOnWriteCacheStoreNode put(final CopyOnWriteCacheStoreNode node,
+                                         final CacheValue value) {
+        final CopyOnWriteCacheStoreNode put;
+
+        if (null == node) {
+            put = with(
+                value,
+                null,
+                null
+            );
+        } else {
+            final int compare = value.key()
+                .compareTo(node.value.key());
+            if (compare < 0) {
+                put = balance(
+                    node.value,
+                    put(
+                        node.left,
+                        value
+                    ),
+                    node.right
+                );
+            } else if (compare > 0) {
+                put = balance(
+                    node.value,
+                    node.left,
+                    put(
+                        node.right,
+                        value
+                    )
+                );
+            } else {
+                put = with(
+                    value,
+                    node.left,
+                    node.right
+                );
+            }
+        }
+
+        return put;
+    }
+
+    /**
+     * Returns a new tree without the key, or the same tree if the key is absent.
+     */
+    static CopyOnWriteCacheStoreNode remove(final CopyOnWriteCacheStoreNode node,
+                                            final CacheKey cacheKey) {
+        CopyOnWriteCacheStoreNode removed = node;
+
+        if (null != node) {
+            final int compare = cacheKey.compareTo(node.value.key());
+            if (compare < 0) {
+                final CopyOnWriteCacheStoreNode left = remove(
+                    node.left,
+                    cacheKey
+                );
+                if (left != node.left) {
+                    removed = balance(
+                        node.value,
+                        left,
+                        node.right
+                    );
+                }
+            } else if (compare > 0) {
+                final CopyOnWriteCacheStoreNode right = remove(
+                    node.right,
+                    cacheKey
+                );
+                if (right != node.right) {
+                    removed = balance(
+                        node.value,
+                        node.left,
+                        right
+                    );
+                }
+            } else {
+                if (null == node.left) {
+                    removed = node.right;
+                } else if (null == node.right) {
+                    removed = node.left;
+                } else {
+                    // replace with the smallest value of the right sub tree
+                    CopyOnWriteCacheStoreNode smallest = node.right;
+                    while (null != smallest.left) {
+                        smallest = smallest.left;
+                    }
+                    removed = balance(
+                        smallest.value,
+                        node.left,
+                        remove(
+                            node.right,
+                            smallest.value.key()
+                        )
+                    );
+                }
+            }
+        }
+
+        return removed;
+    }
+
+    /**
+     * Creates a node, rotating if the heights of left and right differ by more than one.
+     */
+    private static CopyOnWriteCacheStoreNode balance(final CacheValue value,
+                                                     final CopyOnWriteCacheStoreNode left,
+                                                     final CopyOnWriteCacheStoreNode right) {
+        final int leftHeight = height(left);
+        final int rightHeight = height(right);
+
+        final CopyOnWriteCacheStoreNode balanced;
+
+        if (leftHeight > rightHeight + 1) {
+            balanced = height(left.left) >= height(left.right) ?
+                with(
+                    left.value,
+                    left.left,
+                    with(
+                        value,
+                        left.right,
+                        right
+                    )
+                ) :
+                with(
+                    left.right.value,
+                    with(
+                        left.value,
+                        left.left,
+                        left.right.left
+                    ),
+                    with(
+                        value,
+                        left.right.right,
+                        right
+                    )
+                );
+        } else if (rightHeight > leftHeight + 1) {
+            balanced = height(right.right) >= height(right.left) ?
+                with(
+                    right.value,
+                    with(
+                        value,
+                        left,
+                        right.left
+                    ),
+                    right.right
+                ) :
+                with(
+                    right.left.value,
+                    with(
+                        value,
+                        left,
+                        right.left.left
+                    ),
+                    with(
+                        right.value,
+                        right.left.right,
+                        right.right
+                    )
+                );
+        } else {
+            balanced = with(
+                value,
+                left,
+                right
+            );
+        }
+
+        return balanced;
+    }
+
+    static int height(final CopyOnWriteCacheStoreNode node) {
+        return null != node ?
+            node.height :
+            0;
+    }
+
+    final CacheValue value;
+
+    final CopyOnWriteCacheStoreNode left;
+
+    final CopyOnWriteCacheStoreNode right;
+
+    private final int height;
+
+    /**
+     * The number of nodes in this sub tree including this node.
+     */
+    private final int size;
+
+    @Override
+    CacheValue value() {
+        return this.value;
+    }
+
+    @Override
+    CopyOnWriteCacheStoreNode left() {
+        return this.left;
+    }
+
+    @Override
+    CopyOnWriteCacheStoreNode right() {
+        return this.right;
+    }
+
+    @Override
+    int size() {
+        return this.size;
+    }
+
+    @Override
+    public String toString() {
+        return this.value.toString();
+    }
+}
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * An immutable read only {@link CacheStore} over a root of the persistent tree of a {@link CopyOnWriteCacheStore},
+ * returned by {@link CopyOnWriteCacheStore#snapshot()}. All writes throw {@link UnsupportedOperationException}, and
+ * as nothing ever changes, watchers are never notified.
+ */
+final class CopyOnWriteCacheStoreView implements SnapshotCacheStore {
+
+    static CopyOnWriteCacheStoreView with(final CopyOnWriteCacheStoreNode root) {
+        return new CopyOnWriteCacheStoreView(root);
+    }
+
+    private CopyOnWriteCacheStoreView(final CopyOnWriteCacheStoreNode root) {
+        super();
+        this.root = root;
+    }
+
+    @Override
+    public Optional<CacheValue> load(final CacheKey cacheKey) {
+        return Optional.ofNullable(
+            this.loadOrNull(cacheKey)
+        );
+    }
+
+    @Override
+    public CacheValue loadOrNull(final CacheKey cacheKey) {
+        Objects.requireNonNull(cacheKey, "cacheKey");
+
+        return CopyOnWriteCacheStoreNode.get(
+            this.root,
+            cacheKey
+        );
+    }
+
+    @Override
+    public Map<CacheKey, CacheValue> loadAll(final Collection<CacheKey> cacheKeys) {
+        CacheStoreChecks.all(cacheKeys, "cacheKeys");
+
+        final CopyOnWriteCacheStoreNode root = this.root;
+        final Map<CacheKey, CacheValue> loaded = new LinkedHashMap<>();
+
+        for (final CacheKey cacheKey : cacheKeys) {
+            final CacheValue value = CopyOnWriteCacheStoreNode.get(
+                root,
+                cacheKey
+            );
+            if (null != value) {
+                loaded.put(
+                    cacheKey,
+                    value
+                );
+            }
+        }
+
+        return loaded;
+    }
+
+    @Override
+    public CacheValue save(final CacheValue cacheValue) {
+        Objects.requireNonNull(cacheValue, "cacheValue");
+        throw this.readOnly();
+    }
+
+    @Override
+    public Runnable addSaveWatcher(final Consumer<CacheValue> watcher) {
+        return this.addWatcher(watcher);
+    }
+
+    @Override
+    public void delete(final CacheKey cacheKey) {
+        Objects.requireNonNull(cacheKey, "cacheKey");
+        throw this.readOnly();
+    }
+
+    @Override
+    public Runnable addDeleteWatcher(final Consumer<CacheKey> watcher) {
+        return this.addWatcher(watcher);
+    }
+
+    @Override
+    public List<CacheValue> saveAll(final Collection<CacheValue> cacheValues) {
+        CacheStoreChecks.all(cacheValues, "cacheValues");
+        throw this.readOnly();
+    }
+
+    @Override
+    public Runnable addSaveAllWatcher(final Consumer<List<CacheValue>> watcher) {
+        return this.addWatcher(watcher);
+    }
+
+    @Override
+    public void deleteAll(final Collection<CacheKey> cacheKeys) {
+        CacheStoreChecks.all(cacheKeys, "cacheKeys");
+        throw this.readOnly();
+    }
+
+    @Override
+    public Runnable addDeleteAllWatcher(final Consumer<Set<CacheKey>> watcher) {
+        return this.addWatcher(watcher);
+    }
+
+    @Override
+    public void deleteByPrefix(final String prefix) {
+        CacheKeyPrefix.with(prefix);
+        throw this.readOnly();
+    }
+
+    private UnsupportedOperationException readOnly() {
+        return new UnsupportedOperationException("Snapshot is read only");
+    }
+
+    /**
+     * Watchers are accepted but never notified, so the remover does nothing.
+     */
+    private Runnable addWatcher(final Consumer<?> watcher) {
+        Objects.requireNonNull(watcher, "watcher");
+        return () -> {
+        };
+    }
+
+    @Override
+    public int count() {
+        return CopyOnWriteCacheStoreNode.size(this.root);
+    }
+
+    @Override
+    public Set<CacheKey> ids(final int offset,
+                             final int count) {
+        CacheStoreChecks.offsetAndCount(
+            offset,
+            count
+        );
+
+        final Set<CacheKey> ids = new TreeSet<>();
+        CopyOnWriteCacheStoreNode.ids(
+            this.root,
+            offset,
+            count,
+            ids
+        );
+        return ids;
+    }
+
+    @Override
+    public List<CacheValue> values(final int offset,
+                                   final int count) {
+        CacheStoreChecks.offsetAndCount(
+            offset,
+            count
+        );
+
+        final List<CacheValue> values = new ArrayList<>();
+        CopyOnWriteCacheStoreNode.values(
+            this.root,
+            offset,
+            count,
+            values
+        );
+        return values;
+    }
+
+    @Override
+    public List<CacheValue> between(final CacheKey from,
+                                    final CacheKey to) {
+        CacheStoreChecks.between(
+            from,
+            to
+        );
+
+        final List<CacheValue> values = new ArrayList<>();
+        CopyOnWriteCacheStoreNode.between(
+            this.root,
+            from,
+            to,
+            values
+        );
+        return values;
+    }
+
+    /**
+     * Pages thru all values, and as a snapshot never changes its size is always exact.
+     */
+    @Override
+    public Stream<CacheValue> stream() {
+        return StreamSupport.stream(
+            CacheStoreSpliterator.with(
+                this,
+                0,
+                CopyOnWriteCacheStoreNode.size(this.root),
+                true
+            ),
+            false
+        );
+    }
+
+    /**
+     * Finds the offsets of from and to in O(log n), then pages thru only the values between.
+     */
+    @Override
+    public Stream<CacheValue> stream(final CacheKey from,
+                                     final CacheKey to) {
+        CacheStoreChecks.between(
+            from,
+            to
+        );
+
+        final CopyOnWriteCacheStoreNode root = this.root;
+        final int offset = CopyOnWriteCacheStoreNode.rank(
+            root,
+            from,
+            false
+        );
+
+        return StreamSupport.stream(
+            CacheStoreSpliterator.with(
+                this,
+                offset,
+                Math.max(
+                    offset,
+                    CopyOnWriteCacheStoreNode.rank(
+                        root,
+                        to,
+                        true
+                    )
+                ),
+                true
+            ),
+            false
+        );
+    }
+
+    /**
+     * A snapshot never changes so is its own snapshot.
+     */
+    @Override
+    public SnapshotCacheStore snapshot() {
+        return this;
+    }
+
+    /**
+     * The root of the tree when this snapshot was taken, null when empty.
+     */
+    private final CopyOnWriteCacheStoreNode root;
+
+    @Override
+    public String toString() {
+        return this.values(
+            0,
+            Integer.MAX_VALUE
+        ).toString();
+    }
+}
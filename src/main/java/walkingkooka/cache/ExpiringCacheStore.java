@@ -0,0 +1,42 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * A {@link CacheStore} that honours the {@link CacheValue#expireAfterWrite()} and {@link CacheValue#expireAfterAccess()}
+ * of its entries. Expired entries are immediately hidden from {@link #load(CacheKey)}, {@link #count()} and the paging
+ * queries, but are only removed from the wrapped {@link CacheStore} by {@link #sweep(int)}, which should be invoked
+ * periodically, for example by {@link JreCacheStores#sweepPeriodically}.
+ */
+public interface ExpiringCacheStore extends CacheStore {
+
+    /**
+     * Deletes at most the given number of expired entries, returning the number deleted. Expired entries beyond the
+     * batch size are remembered and deleted by following calls, so a large expiry is swept in several small batches,
+     * rather than one long pass that could delay other callers.
+     */
+    int sweep(final int batchSize);
+
+    /**
+     * Adds a watcher that receives the {@link CacheKey} of each entry deleted by {@link #sweep(int)}, after delete
+     * watchers have been notified.
+     */
+    Runnable addExpiryWatcher(final Consumer<CacheKey> watcher);
+}
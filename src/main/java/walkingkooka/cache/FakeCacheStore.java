@@ -19,9 +19,62 @@ package walkingkooka.cache;
 
 import walkingkooka.store.FakeStore;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
 public class FakeCacheStore extends FakeStore<CacheKey, CacheValue> implements CacheStore {
 
     public FakeCacheStore() {
         super();
     }
+
+    @Override
+    public Map<CacheKey, CacheValue> loadAll(final Collection<CacheKey> cacheKeys) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<CacheValue> saveAll(final Collection<CacheValue> cacheValues) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Runnable addSaveAllWatcher(final Consumer<List<CacheValue>> watcher) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void deleteAll(final Collection<CacheKey> cacheKeys) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Runnable addDeleteAllWatcher(final Consumer<Set<CacheKey>> watcher) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public List<CacheValue> loadByPrefix(final String prefix) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void deleteByPrefix(final String prefix) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Stream<CacheValue> stream() {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Stream<CacheValue> stream(final CacheKey from,
+                                     final CacheKey to) {
+        throw new UnsupportedOperationException();
+    }
 }
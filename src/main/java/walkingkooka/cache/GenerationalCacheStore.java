@@ -0,0 +1,66 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+/**
+ * A {@link CacheStore} that stamps each saved {@link CacheValue} with the current {@link #generation()}, so that all
+ * entries derived from some upstream state may be invalidated at once, without visiting each entry or notifying
+ * watchers per key. Invalidated entries are immediately reported as absent, but are only removed from the wrapped
+ * {@link CacheStore} when evicted by it, or by {@link #sweep(int)} which should be invoked periodically.
+ */
+public interface GenerationalCacheStore extends CacheStore {
+
+    /**
+     * The generation stamped on values as they are saved.
+     */
+    long generation();
+
+    /**
+     * Starts a new generation returning it, entries from earlier generations remain valid.
+     */
+    long nextGeneration();
+
+    /**
+     * Invalidates all entries saved under the given generation. Invalidating the current generation also starts a new
+     * generation, so later saves remain valid.
+     */
+    void invalidateGeneration(final long generation);
+
+    /**
+     * Invalidates every entry saved before this call, including entries without a generation, and starts a new
+     * generation.
+     */
+    void invalidateAll();
+
+    /**
+     * Returns the number of entries that are still valid. Until {@link #sweep(int)} has deleted every invalidated entry
+     * the wrapped store holds, this visits every entry to skip invalid ones, costing O(n) rather than O(1), so callers
+     * that count often should sweep to completion soon after invalidating.
+     */
+    @Override
+    int count();
+
+    /**
+     * Visits at most the given number of entries, deleting any that were invalidated and returning the number deleted.
+     * Following calls continue where the previous stopped, and return 0 without visiting any entries once all
+     * invalidated entries have been deleted. The keys deleted by each call are reported like
+     * {@link CacheStore#deleteAll(java.util.Collection)}.
+     */
+    int sweep(final int batchSize);
+}
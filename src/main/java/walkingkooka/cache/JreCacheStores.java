@@ -0,0 +1,138 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import walkingkooka.reflect.PublicStaticHelper;
+
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * A collection of {@link CacheStore} that depend on JRE only classes such as {@link java.nio.ByteBuffer}, and are
+ * therefore not available to GWT or J2CL.
+ */
+public final class JreCacheStores implements PublicStaticHelper {
+
+    /**
+     * {@see BasicAsyncWatcherCacheStore}
+     */
+    public static AsyncWatcherCacheStore asyncWatchers(final CacheStore store,
+                                                       final Executor executor,
+                                                       final int capacity,
+                                                       final CacheWatcherOverflow overflow) {
+        return BasicAsyncWatcherCacheStore.with(
+            store,
+            executor,
+            capacity,
+            overflow
+        );
+    }
+
+    /**
+     * {@see ConcurrentSkipListMapCacheStore}
+     */
+    public static CacheStore concurrentSorted() {
+        return ConcurrentSkipListMapCacheStore.empty();
+    }
+
+    /**
+     * {@see MappedFileCacheStore}
+     */
+    public static PersistentCacheStore mappedFile(final Path path,
+                                                  final CacheValueCodec codec) {
+        return MappedFileCacheStore.open(
+            path,
+            codec
+        );
+    }
+
+    /**
+     * {@see OffHeapCacheStore}
+     */
+    public static CacheStore offHeap(final CacheValueCodec codec,
+                                     final int slabSize) {
+        return OffHeapCacheStore.with(
+            codec,
+            slabSize
+        );
+    }
+
+    /**
+     * {@see ReferenceCacheStore}
+     */
+    public static CacheStore softValues() {
+        return ReferenceCacheStore.soft();
+    }
+
+    /**
+     * {@see ReferenceCacheStore}
+     */
+    public static CacheStore weakValues() {
+        return ReferenceCacheStore.weak();
+    }
+
+    /**
+     * {@see BasicStatsCacheStore}, counting with striped {@link java.util.concurrent.atomic.LongAdder}.
+     */
+    public static StatsCacheStore stripedStats(final CacheStore store,
+                                               final LongSupplier ticker) {
+        return BasicStatsCacheStore.with(
+            store,
+            ticker,
+            BasicStatsCacheStoreLongAdderCounter::new
+        );
+    }
+
+    /**
+     * Schedules {@link ExpiringCacheStore#sweep(int)} of one batch every period milliseconds on the given executor.
+     * Cancel the returned {@link ScheduledFuture} to stop sweeping. A batch size smaller than the number of entries
+     * expiring per period leaves a growing backlog, which later ticks drain only as expiries slow down.
+     */
+    public static ScheduledFuture<?> sweepPeriodically(final ExpiringCacheStore store,
+                                                       final ScheduledExecutorService executor,
+                                                       final long periodMillis,
+                                                       final int batchSize) {
+        Objects.requireNonNull(store, "store");
+        Objects.requireNonNull(executor, "executor");
+        if (periodMillis <= 0) {
+            throw new IllegalArgumentException("Invalid periodMillis " + periodMillis + " <= 0");
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Invalid batchSize " + batchSize + " <= 0");
+        }
+
+        return executor.scheduleWithFixedDelay(
+            () -> store.sweep(batchSize),
+            periodMillis,
+            periodMillis,
+            TimeUnit.MILLISECONDS
+        );
+    }
+
+    /**
+     * Stop creation
+     */
+    private JreCacheStores() {
+        throw new UnsupportedOperationException();
+    }
+}
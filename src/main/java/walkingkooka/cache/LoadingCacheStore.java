@@ -0,0 +1,35 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * A {@link CacheStore} that can compute and save missing values.
+ */
+public interface LoadingCacheStore extends CacheStore {
+
+    /**
+     * Returns the {@link CacheValue} for the given key, computing it with the loader and saving it if absent.
+     * Concurrent calls for the same missing key share a single computation, the other callers wait for and receive
+     * the same {@link CacheValue} or failure.
+     */
+    CacheValue load(final CacheKey cacheKey,
+                    final Function<CacheKey, Optional<Object>> loader);
+}
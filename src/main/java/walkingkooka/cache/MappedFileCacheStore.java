@@ -0,0 +1,1002 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import walkingkooka.watch.Watchers;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * A {@link PersistentCacheStore} that appends every save and delete as a record to a memory mapped file, keeping a
+ * {@link TreeMap} index of the latest record for each key on the heap.
+ * <br>
+ * Reopening a file replays the records reading only keys and record positions, so values are not decoded until they
+ * are requested. Because records are never modified once written, {@link #load(CacheKey)} returns values that decode
+ * directly from the mapped file without copying.
+ * <br>
+ * Replaced and deleted records remain in the file until {@link #compact()} copies the live records to a new file which
+ * atomically replaces the original. Compaction runs automatically once the garbage exceeds both the live records and
+ * {@link #COMPACT_THRESHOLD}.
+ * <br>
+ * The file begins with {@link #MAGIC} followed by records, each an int body length, an int CRC32 of the body and the
+ * body. A body begins with the operation and key, and a {@link #PUT} continues with the expiry durations, the value
+ * length and the encoded value. Replay stops at the first record that is empty, truncated or fails its checksum, and
+ * discards anything after it, so a torn write loses only that record.
+ * <br>
+ * A single mapping limits the file to 2GB.
+ */
+final class MappedFileCacheStore implements PersistentCacheStore {
+
+    private final static byte[] MAGIC = "WKCACHE1".getBytes(StandardCharsets.US_ASCII);
+
+    private final static int FRAME_HEADER = Integer.BYTES * 2;
+
+    private final static byte PUT = 1;
+
+    private final static byte DELETE = 2;
+
+    private final static int MIN_CAPACITY = 64 * 1024;
+
+    /**
+     * The garbage bytes that must be present before automatic compaction is considered.
+     */
+    final static long COMPACT_THRESHOLD = 1024 * 1024;
+
+    /**
+     * The seconds recorded for a missing expiry.
+     */
+    private final static long NO_EXPIRY = -1;
+
+    static MappedFileCacheStore open(final Path path,
+                                     final CacheValueCodec codec) {
+        Objects.requireNonNull(path, "path");
+        Objects.requireNonNull(codec, "codec");
+
+        final MappedFileCacheStore store = new MappedFileCacheStore(
+            path,
+            codec
+        );
+        try {
+            store.open();
+        } catch (final IOException cause) {
+            throw new UncheckedIOException(cause);
+        }
+        return store;
+    }
+
+    private MappedFileCacheStore(final Path path,
+                                 final CacheValueCodec codec) {
+        super();
+        this.path = path;
+        this.codec = codec;
+    }
+
+    @Override
+    public Optional<CacheValue> load(final CacheKey cacheKey) {
+        return Optional.ofNullable(
+            this.loadOrNull(cacheKey)
+        );
+    }
+
+    @Override
+    public CacheValue loadOrNull(final CacheKey cacheKey) {
+        Objects.requireNonNull(cacheKey, "cacheKey");
+
+        final Lock lock = this.lock.readLock();
+        lock.lock();
+        try {
+            this.checkOpen();
+
+            final MappedFileCacheStoreEntry entry = this.index.get(cacheKey);
+            return null == entry ?
+                null :
+                this.value(
+                    cacheKey,
+                    entry
+                );
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public CacheValue save(final CacheValue cacheValue) {
+        Objects.requireNonNull(cacheValue, "cacheValue");
+
+        final byte[] encoded = this.encode(cacheValue);
+
+        final Lock lock = this.lock.writeLock();
+        lock.lock();
+        try {
+            this.checkOpen();
+            this.put(
+                cacheValue,
+                encoded
+            );
+            this.compactIfNecessary();
+        } catch (final IOException cause) {
+            throw new UncheckedIOException(cause);
+        } finally {
+            lock.unlock();
+        }
+
+        this.saveWatchers.accept(cacheValue);
+        return cacheValue;
+    }
+
+    @Override
+    public Runnable addSaveWatcher(final Consumer<CacheValue> watcher) {
+        return this.saveWatchers.add(watcher);
+    }
+
+    private final Watchers<CacheValue> saveWatchers = Watchers.create();
+
+    @Override
+    public void delete(final CacheKey cacheKey) {
+        Objects.requireNonNull(cacheKey, "cacheKey");
+
+        final boolean deleted;
+
+        final Lock lock = this.lock.writeLock();
+        lock.lock();
+        try {
+            this.checkOpen();
+            deleted = this.remove(cacheKey);
+            this.compactIfNecessary();
+        } catch (final IOException cause) {
+            throw new UncheckedIOException(cause);
+        } finally {
+            lock.unlock();
+        }
+
+        if (deleted) {
+            this.deleteWatchers.accept(cacheKey);
+        }
+    }
+
+    @Override
+    public Runnable addDeleteWatcher(final Consumer<CacheKey> watcher) {
+        return this.deleteWatchers.add(watcher);
+    }
+
+    private final Watchers<CacheKey> deleteWatchers = Watchers.create();
+
+    @Override
+    public Map<CacheKey, CacheValue> loadAll(final Collection<CacheKey> cacheKeys) {
+        CacheStoreChecks.all(cacheKeys, "cacheKeys");
+
+        final Map<CacheKey, CacheValue> loaded = new LinkedHashMap<>();
+
+        final Lock lock = this.lock.readLock();
+        lock.lock();
+        try {
+            this.checkOpen();
+
+            final TreeMap<CacheKey, MappedFileCacheStoreEntry> index = this.index;
+
+            for (final CacheKey cacheKey : cacheKeys) {
+                final MappedFileCacheStoreEntry entry = index.get(cacheKey);
+                if (null != entry) {
+                    loaded.put(
+                        cacheKey,
+                        this.value(
+                            cacheKey,
+                            entry
+                        )
+                    );
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return loaded;
+    }
+
+    @Override
+    public List<CacheValue> saveAll(final Collection<CacheValue> cacheValues) {
+        CacheStoreChecks.all(cacheValues, "cacheValues");
+
+        final List<CacheValue> saved = Collections.unmodifiableList(
+            new ArrayList<>(cacheValues)
+        );
+
+        // encode outside the lock, a failure leaves the store unchanged
+        final List<byte[]> encoded = new ArrayList<>(saved.size());
+        for (final CacheValue cacheValue : saved) {
+            encoded.add(
+                this.encode(cacheValue)
+            );
+        }
+
+        final Lock lock = this.lock.writeLock();
+        lock.lock();
+        try {
+            this.checkOpen();
+
+            final int count = saved.size();
+            for (int i = 0; i < count; i++) {
+                this.put(
+                    saved.get(i),
+                    encoded.get(i)
+                );
+            }
+            this.compactIfNecessary();
+        } catch (final IOException cause) {
+            throw new UncheckedIOException(cause);
+        } finally {
+            lock.unlock();
+        }
+
+        if (false == saved.isEmpty()) {
+            this.saveAllWatchers.accept(saved);
+        }
+        return saved;
+    }
+
+    @Override
+    public Runnable addSaveAllWatcher(final Consumer<List<CacheValue>> watcher) {
+        return this.saveAllWatchers.add(watcher);
+    }
+
+    private final Watchers<List<CacheValue>> saveAllWatchers = Watchers.create();
+
+    @Override
+    public void deleteAll(final Collection<CacheKey> cacheKeys) {
+        CacheStoreChecks.all(cacheKeys, "cacheKeys");
+
+        final Set<CacheKey> deleted = new LinkedHashSet<>();
+
+        final Lock lock = this.lock.writeLock();
+        lock.lock();
+        try {
+            this.checkOpen();
+
+            for (final CacheKey cacheKey : cacheKeys) {
+                if (this.remove(cacheKey)) {
+                    deleted.add(cacheKey);
+                }
+            }
+            this.compactIfNecessary();
+        } catch (final IOException cause) {
+            throw new UncheckedIOException(cause);
+        } finally {
+            lock.unlock();
+        }
+
+        if (false == deleted.isEmpty()) {
+            this.deleteAllWatchers.accept(
+                Collections.unmodifiableSet(deleted)
+            );
+        }
+    }
+
+    @Override
+    public Runnable addDeleteAllWatcher(final Consumer<Set<CacheKey>> watcher) {
+        return this.deleteAllWatchers.add(watcher);
+    }
+
+    private final Watchers<Set<CacheKey>> deleteAllWatchers = Watchers.create();
+
+    @Override
+    public int count() {
+        final Lock lock = this.lock.readLock();
+        lock.lock();
+        try {
+            this.checkOpen();
+            return this.index.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Set<CacheKey> ids(final int offset,
+                             final int count) {
+        CacheStoreChecks.offsetAndCount(
+            offset,
+            count
+        );
+
+        final Set<CacheKey> ids = new TreeSet<>();
+
+        final Lock lock = this.lock.readLock();
+        lock.lock();
+        try {
+            this.checkOpen();
+
+            int skip = offset;
+            for (final CacheKey cacheKey : this.index.keySet()) {
+                if (ids.size() == count) {
+                    break;
+                }
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                ids.add(cacheKey);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return ids;
+    }
+
+    @Override
+    public List<CacheValue> values(final int offset,
+                                   final int count) {
+        CacheStoreChecks.offsetAndCount(
+            offset,
+            count
+        );
+
+        final List<CacheValue> values = new ArrayList<>();
+
+        final Lock lock = this.lock.readLock();
+        lock.lock();
+        try {
+            this.checkOpen();
+
+            int skip = offset;
+            for (final Entry<CacheKey, MappedFileCacheStoreEntry> keyAndEntry : this.index.entrySet()) {
+                if (values.size() == count) {
+                    break;
+                }
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                values.add(
+                    this.value(
+                        keyAndEntry.getKey(),
+                        keyAndEntry.getValue()
+                    )
+                );
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return values;
+    }
+
+    @Override
+    public List<CacheValue> between(final CacheKey from,
+                                    final CacheKey to) {
+        CacheStoreChecks.between(
+            from,
+            to
+        );
+
+        final List<CacheValue> values = new ArrayList<>();
+
+        final Lock lock = this.lock.readLock();
+        lock.lock();
+        try {
+            this.checkOpen();
+
+            if (from.compareTo(to) <= 0) {
+                for (final Entry<CacheKey, MappedFileCacheStoreEntry> keyAndEntry : this.index.subMap(from, true, to, true).entrySet()) {
+                    values.add(
+                        this.value(
+                            keyAndEntry.getKey(),
+                            keyAndEntry.getValue()
+                        )
+                    );
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return values;
+    }
+
+    // PersistentCacheStore.............................................................................................
+
+    @Override
+    public void flush() {
+        final Lock lock = this.lock.writeLock();
+        lock.lock();
+        try {
+            this.checkOpen();
+            this.mapped.force();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void compact() {
+        final Lock lock = this.lock.writeLock();
+        lock.lock();
+        try {
+            this.checkOpen();
+            this.compactLocked();
+        } catch (final IOException cause) {
+            throw new UncheckedIOException(cause);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Mappings cannot be explicitly released, they are unmapped when garbage collected.
+     */
+    @Override
+    public void close() {
+        final Lock lock = this.lock.writeLock();
+        lock.lock();
+        try {
+            if (null != this.channel) {
+                this.mapped.force();
+                this.channel.close();
+                this.channel = null;
+                this.mapped = null;
+            }
+        } catch (final IOException cause) {
+            throw new UncheckedIOException(cause);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkOpen() {
+        if (null == this.channel) {
+            throw new IllegalStateException("Closed " + this.path);
+        }
+    }
+
+    // open.............................................................................................................
+
+    /**
+     * Opens or creates the file, replays all records to rebuild the index and discards any torn record at the end.
+     */
+    private void open() throws IOException {
+        final FileChannel channel = FileChannel.open(
+            this.path,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE
+        );
+
+        try {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Invalid cache file " + this.path + " too large " + size);
+            }
+            if (0 == size) {
+                channel.write(
+                    ByteBuffer.wrap(MAGIC),
+                    0
+                );
+                size = MAGIC.length;
+            }
+
+            final MappedByteBuffer mapped = channel.map(
+                FileChannel.MapMode.READ_WRITE,
+                0,
+                size
+            );
+            this.checkMagic(mapped);
+
+            final TreeMap<CacheKey, MappedFileCacheStoreEntry> index = new TreeMap<>();
+            final int end = this.replay(
+                mapped,
+                (int) size,
+                index
+            );
+
+            // discard zero padding and any torn record, the mapping is then grown from the truncated end
+            if (end < size) {
+                channel.truncate(end);
+            }
+
+            this.channel = channel;
+            this.mapped = mapped;
+            this.capacity = end;
+            this.end = end;
+            this.index = index;
+            this.live = index.values()
+                .stream()
+                .mapToLong(e -> e.frameLength)
+                .sum();
+
+            this.ensureCapacity(
+                Math.max(
+                    end * 2L,
+                    MIN_CAPACITY
+                )
+            );
+        } catch (final IOException | RuntimeException cause) {
+            channel.close();
+            throw cause;
+        }
+    }
+
+    private void checkMagic(final ByteBuffer mapped) {
+        final byte[] magic = new byte[MAGIC.length];
+        if (mapped.capacity() >= magic.length) {
+            mapped.duplicate()
+                .get(magic);
+        }
+        if (false == Arrays.equals(MAGIC, magic)) {
+            throw new IllegalArgumentException("Invalid cache file " + this.path);
+        }
+    }
+
+    /**
+     * Replays the records returning the position after the last valid record.
+     */
+    private int replay(final ByteBuffer mapped,
+                       final int size,
+                       final TreeMap<CacheKey, MappedFileCacheStoreEntry> index) {
+        int position = MAGIC.length;
+
+        while (position + FRAME_HEADER <= size) {
+            final int bodyLength = mapped.getInt(position);
+            if (bodyLength <= 0 || bodyLength > size - position - FRAME_HEADER) {
+                break;
+            }
+            final int crc = mapped.getInt(position + Integer.BYTES);
+            if (crc != crc(mapped, position + FRAME_HEADER, bodyLength)) {
+                break;
+            }
+
+            replayRecord(
+                mapped,
+                position,
+                FRAME_HEADER + bodyLength,
+                index
+            );
+            position += FRAME_HEADER + bodyLength;
+        }
+
+        return position;
+    }
+
+    private static void replayRecord(final ByteBuffer mapped,
+                                     final int framePosition,
+                                     final int frameLength,
+                                     final TreeMap<CacheKey, MappedFileCacheStoreEntry> index) {
+        final ByteBuffer body = mapped.duplicate();
+        body.position(framePosition + FRAME_HEADER);
+
+        final byte operation = body.get();
+
+        final byte[] keyBytes = new byte[body.getShort() & 0xffff];
+        body.get(keyBytes);
+        final CacheKey cacheKey = CacheKey.with(
+            new String(
+                keyBytes,
+                StandardCharsets.UTF_8
+            )
+        );
+
+        switch (operation) {
+            case PUT:
+                final Optional<Duration> expireAfterWrite = getDuration(body);
+                final Optional<Duration> expireAfterAccess = getDuration(body);
+                final int valueLength = body.getInt();
+
+                index.put(
+                    cacheKey,
+                    MappedFileCacheStoreEntry.with(
+                        framePosition,
+                        frameLength,
+                        body.position() - framePosition,
+                        valueLength,
+                        expireAfterWrite,
+                        expireAfterAccess,
+                        CacheValue.NO_GENERATION
+                    )
+                );
+                break;
+            case DELETE:
+                index.remove(cacheKey);
+                break;
+            default:
+                throw new IllegalArgumentException("Invalid record " + operation + " at " + framePosition);
+        }
+    }
+
+    // write............................................................................................................
+
+    private byte[] encode(final CacheValue cacheValue) {
+        final Object value = cacheValue.valueOrNull();
+        return null != value ?
+            this.codec.encode(value) :
+            null;
+    }
+
+    /**
+     * Must be called while holding the write lock.
+     */
+    private void put(final CacheValue cacheValue,
+                     final byte[] encoded) throws IOException {
+        final CacheKey cacheKey = cacheValue.key();
+        final byte[] keyBytes = keyBytes(cacheKey);
+        final int valueLength = null == encoded ?
+            MappedFileCacheStoreEntry.EMPTY :
+            encoded.length;
+
+        final int valueOffset = FRAME_HEADER + 1 + Short.BYTES + keyBytes.length + 2 * DURATION_BYTES + Integer.BYTES;
+        final int frameLength = valueOffset + Math.max(valueLength, 0);
+        final int framePosition = this.end;
+
+        final ByteBuffer body = this.appendFrame(frameLength);
+        body.put(PUT);
+        body.putShort((short) keyBytes.length);
+        body.put(keyBytes);
+        putDuration(cacheValue.expireAfterWrite(), body);
+        putDuration(cacheValue.expireAfterAccess(), body);
+        body.putInt(valueLength);
+        if (null != encoded) {
+            body.put(encoded);
+        }
+        this.commitFrame(
+            framePosition,
+            frameLength
+        );
+
+        final MappedFileCacheStoreEntry previous = this.index.put(
+            cacheKey,
+            MappedFileCacheStoreEntry.with(
+                framePosition,
+                frameLength,
+                valueOffset,
+                valueLength,
+                cacheValue.expireAfterWrite(),
+                cacheValue.expireAfterAccess(),
+                cacheValue.generation()
+            )
+        );
+        this.live += frameLength;
+        if (null != previous) {
+            this.live -= previous.frameLength;
+        }
+    }
+
+    /**
+     * Must be called while holding the write lock. Appends a delete record if the key is present.
+     */
+    private boolean remove(final CacheKey cacheKey) throws IOException {
+        final MappedFileCacheStoreEntry previous = this.index.get(cacheKey);
+        final boolean removed = null != previous;
+
+        if (removed) {
+            final byte[] keyBytes = keyBytes(cacheKey);
+            final int frameLength = FRAME_HEADER + 1 + Short.BYTES + keyBytes.length;
+            final int framePosition = this.end;
+
+            final ByteBuffer body = this.appendFrame(frameLength);
+            body.put(DELETE);
+            body.putShort((short) keyBytes.length);
+            body.put(keyBytes);
+            this.commitFrame(
+                framePosition,
+                frameLength
+            );
+
+            this.index.remove(cacheKey);
+            this.live -= previous.frameLength;
+        }
+
+        return removed;
+    }
+
+    private static byte[] keyBytes(final CacheKey cacheKey) {
+        return cacheKey.value()
+            .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Reserves space for a frame of the given length at the end of the file, returning a buffer positioned at the start
+     * of its body.
+     */
+    private ByteBuffer appendFrame(final int frameLength) throws IOException {
+        this.ensureCapacity((long) this.end + frameLength);
+
+        final ByteBuffer body = this.mapped.duplicate();
+        body.position(this.end + FRAME_HEADER);
+        body.limit(this.end + frameLength);
+        return body;
+    }
+
+    /**
+     * Writes the checksum and then the length of the frame whose body was just written, and advances the end.
+     */
+    private void commitFrame(final int framePosition,
+                             final int frameLength) {
+        final MappedByteBuffer mapped = this.mapped;
+
+        final int bodyPosition = framePosition + FRAME_HEADER;
+        final int bodyLength = frameLength - FRAME_HEADER;
+
+        mapped.putInt(
+            framePosition + Integer.BYTES,
+            crc(mapped, bodyPosition, bodyLength)
+        );
+        mapped.putInt(
+            framePosition,
+            bodyLength
+        );
+
+        this.end = framePosition + frameLength;
+    }
+
+    /**
+     * Grows the mapping, which also grows the file, so at least the given number of bytes are available.
+     */
+    private void ensureCapacity(final long required) throws IOException {
+        if (required > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Cache file " + this.path + " full, unable to grow to " + required);
+        }
+        if (required > this.capacity) {
+            final int capacity = (int) Math.min(
+                Math.max(
+                    this.capacity * 2L,
+                    required
+                ),
+                Integer.MAX_VALUE
+            );
+            this.mapped = this.channel.map(
+                FileChannel.MapMode.READ_WRITE,
+                0,
+                capacity
+            );
+            this.capacity = capacity;
+        }
+    }
+
+    private static int crc(final ByteBuffer mapped,
+                           final int position,
+                           final int length) {
+        final ByteBuffer body = mapped.duplicate();
+        body.position(position);
+        body.limit(position + length);
+
+        final CRC32 crc = new CRC32();
+        crc.update(body);
+        return (int) crc.getValue();
+    }
+
+    private final static int DURATION_BYTES = Long.BYTES + Integer.BYTES;
+
+    private static void putDuration(final Optional<Duration> duration,
+                                    final ByteBuffer buffer) {
+        if (duration.isPresent()) {
+            final Duration d = duration.get();
+            buffer.putLong(d.getSeconds());
+            buffer.putInt(d.getNano());
+        } else {
+            buffer.putLong(NO_EXPIRY);
+            buffer.putInt(0);
+        }
+    }
+
+    private static Optional<Duration> getDuration(final ByteBuffer buffer) {
+        final long seconds = buffer.getLong();
+        final int nanos = buffer.getInt();
+
+        return NO_EXPIRY == seconds ?
+            CacheValue.NO_EXPIRY :
+            Optional.of(
+                Duration.ofSeconds(
+                    seconds,
+                    nanos
+                )
+            );
+    }
+
+    // compact..........................................................................................................
+
+    /**
+     * The bytes held by replaced and deleted records.
+     */
+    long garbage() {
+        return this.end - MAGIC.length - this.live;
+    }
+
+    private void compactIfNecessary() throws IOException {
+        final long garbage = this.garbage();
+        if (garbage > COMPACT_THRESHOLD && garbage > this.live) {
+            this.compactLocked();
+        }
+    }
+
+    /**
+     * Copies all live records to a new file which then replaces the original. Values already loaded continue to
+     * decode from the mapping of the replaced file.
+     */
+    private void compactLocked() throws IOException {
+        final Path path = this.path;
+        final Path compacted = path.resolveSibling(path.getFileName() + ".compact");
+        final int end = (int) (MAGIC.length + this.live);
+
+        final TreeMap<CacheKey, MappedFileCacheStoreEntry> index = new TreeMap<>();
+
+        try (final FileChannel channel = FileChannel.open(
+            compacted,
+            StandardOpenOption.CREATE,
+            StandardOpenOption.TRUNCATE_EXISTING,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE
+        )) {
+            final MappedByteBuffer target = channel.map(
+                FileChannel.MapMode.READ_WRITE,
+                0,
+                end
+            );
+            target.put(MAGIC);
+
+            for (final Entry<CacheKey, MappedFileCacheStoreEntry> keyAndEntry : this.index.entrySet()) {
+                final MappedFileCacheStoreEntry entry = keyAndEntry.getValue();
+
+                final ByteBuffer frame = this.mapped.duplicate();
+                frame.position(entry.framePosition);
+                frame.limit(entry.framePosition + entry.frameLength);
+
+                index.put(
+                    keyAndEntry.getKey(),
+                    entry.setFramePosition(target.position())
+                );
+                target.put(frame);
+            }
+
+            target.force();
+        }
+
+        Files.move(
+            compacted,
+            path,
+            StandardCopyOption.ATOMIC_MOVE,
+            StandardCopyOption.REPLACE_EXISTING
+        );
+
+        this.channel.close();
+        this.channel = null;
+
+        final FileChannel channel = FileChannel.open(
+            path,
+            StandardOpenOption.READ,
+            StandardOpenOption.WRITE
+        );
+        this.channel = channel;
+        this.mapped = channel.map(
+            FileChannel.MapMode.READ_WRITE,
+            0,
+            end
+        );
+        this.capacity = end;
+        this.end = end;
+        this.index = index;
+
+        this.ensureCapacity(
+            Math.max(
+                end * 2L,
+                MIN_CAPACITY
+            )
+        );
+    }
+
+    // read.............................................................................................................
+
+    /**
+     * Must be called while holding a lock. The returned value decodes from a read only slice of the mapping, which
+     * remains valid because records are never modified.
+     */
+    private CacheValue value(final CacheKey cacheKey,
+                             final MappedFileCacheStoreEntry entry) {
+        final CacheValue value;
+
+        if (entry.isEmpty()) {
+            value = CacheValue.lazy(
+                cacheKey,
+                () -> null,
+                entry.expireAfterWrite,
+                entry.expireAfterAccess,
+                entry.generation
+            );
+        } else {
+            final ByteBuffer slice = this.mapped.asReadOnlyBuffer();
+            final int position = entry.valuePosition();
+            slice.position(position);
+            slice.limit(position + entry.valueLength);
+
+            final ByteBuffer bytes = slice.slice();
+            final CacheValueCodec codec = this.codec;
+
+            value = CacheValue.lazy(
+                cacheKey,
+                () -> codec.decode(
+                    bytes.duplicate()
+                ),
+                entry.expireAfterWrite,
+                entry.expireAfterAccess,
+                entry.generation
+            );
+        }
+
+        return value;
+    }
+
+    private final Path path;
+
+    private final CacheValueCodec codec;
+
+    /**
+     * Null once closed.
+     */
+    private FileChannel channel;
+
+    private MappedByteBuffer mapped;
+
+    /**
+     * The size of the mapping, which is also the size of the file.
+     */
+    private int capacity;
+
+    /**
+     * The position after the last record, where the next record will be appended.
+     */
+    private int end;
+
+    /**
+     * The total length of the records referenced by the index.
+     */
+    private long live;
+
+    private TreeMap<CacheKey, MappedFileCacheStoreEntry> index;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public String toString() {
+        return this.path.toString();
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * The on heap index entry for the latest record of a key held by {@link MappedFileCacheStore}. The
+ * {@link CacheValue#generation()} is only held here and not written to the file, as generations are not meaningful to
+ * another process, so replayed entries have {@link CacheValue#NO_GENERATION}.
+ */
+final class MappedFileCacheStoreEntry {
+
+    /**
+     * The value length used for {@link Optional#empty()} values which have no bytes.
+     */
+    final static int EMPTY = -1;
+
+    static MappedFileCacheStoreEntry with(final int framePosition,
+                                          final int frameLength,
+                                          final int valueOffset,
+                                          final int valueLength,
+                                          final Optional<Duration> expireAfterWrite,
+                                          final Optional<Duration> expireAfterAccess,
+                                          final long generation) {
+        return new MappedFileCacheStoreEntry(
+            framePosition,
+            frameLength,
+            valueOffset,
+            valueLength,
+            expireAfterWrite,
+            expireAfterAccess,
+            generation
+        );
+    }
+
+    private MappedFileCacheStoreEntry(final int framePosition,
+                                      final int frameLength,
+                                      final int valueOffset,
+                                      final int valueLength,
+                                      final Optional<Duration> expireAfterWrite,
+                                      final Optional<Duration> expireAfterAccess,
+                                      final long generation) {
+        this.framePosition = framePosition;
+        this.frameLength = frameLength;
+        this.valueOffset = valueOffset;
+        this.valueLength = valueLength;
+        this.expireAfterWrite = expireAfterWrite;
+        this.expireAfterAccess = expireAfterAccess;
+        this.generation = generation;
+    }
+
+    /**
+     * Returns an entry for the same record after it was copied to a new position by compaction.
+     */
+    MappedFileCacheStoreEntry setFramePosition(final int framePosition) {
+        return new MappedFileCacheStoreEntry(
+            framePosition,
+            this.frameLength,
+            this.valueOffset,
+            this.valueLength,
+            this.expireAfterWrite,
+            this.expireAfterAccess,
+            this.generation
+        );
+    }
+
+    boolean isEmpty() {
+        return EMPTY == this.valueLength;
+    }
+
+    int valuePosition() {
+        return this.framePosition + this.valueOffset;
+    }
+
+    /**
+     * The position of the record within the file.
+     */
+    final int framePosition;
+
+    /**
+     * The length of the entire record including its header.
+     */
+    final int frameLength;
+
+    /**
+     * The offset of the encoded value from the start of the record.
+     */
+    final int valueOffset;
+
+    final int valueLength;
+
+    final Optional<Duration> expireAfterWrite;
+
+    final Optional<Duration> expireAfterAccess;
+
+    final long generation;
+
+    @Override
+    public String toString() {
+        return this.framePosition + " " + this.frameLength;
+    }
+}
@@ -0,0 +1,553 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import walkingkooka.watch.Watchers;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * A {@link CacheStore} that keeps values encoded by a {@link CacheValueCodec} in direct memory, leaving only a compact
+ * {@link TreeMap} index of {@link OffHeapCacheStoreEntry} on the heap, so large caches add little to garbage
+ * collection pauses.
+ * <br>
+ * {@link #load(CacheKey)} copies the encoded bytes onto the heap but defers decoding until {@link CacheValue#value()}
+ * is called, so a load that only tests presence never materialises the value.
+ * Loads share a read lock, while saves and deletes take the write lock.
+ */
+final class OffHeapCacheStore implements CacheStore {
+
+    static OffHeapCacheStore with(final CacheValueCodec codec,
+                                  final int slabSize) {
+        return new OffHeapCacheStore(
+            Objects.requireNonNull(codec, "codec"),
+            OffHeapCacheStoreMemory.with(slabSize)
+        );
+    }
+
+    private OffHeapCacheStore(final CacheValueCodec codec,
+                              final OffHeapCacheStoreMemory memory) {
+        super();
+        this.codec = codec;
+        this.memory = memory;
+    }
+
+    @Override
+    public Optional<CacheValue> load(final CacheKey cacheKey) {
+        return Optional.ofNullable(
+            this.loadOrNull(cacheKey)
+        );
+    }
+
+    @Override
+    public CacheValue loadOrNull(final CacheKey cacheKey) {
+        Objects.requireNonNull(cacheKey, "cacheKey");
+
+        final Lock lock = this.lock.readLock();
+        lock.lock();
+        try {
+            final OffHeapCacheStoreEntry entry = this.index.get(cacheKey);
+            return null == entry ?
+                null :
+                this.value(
+                    cacheKey,
+                    entry
+                );
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public CacheValue save(final CacheValue cacheValue) {
+        Objects.requireNonNull(cacheValue, "cacheValue");
+
+        final OffHeapCacheStoreEntry entry = this.entry(cacheValue);
+
+        final Lock lock = this.lock.writeLock();
+        lock.lock();
+        try {
+            this.put(
+                cacheValue.key(),
+                entry
+            );
+        } catch (final RuntimeException cause) {
+            this.free(entry);
+            throw cause;
+        } finally {
+            lock.unlock();
+        }
+
+        this.saveWatchers.accept(cacheValue);
+        return cacheValue;
+    }
+
+    @Override
+    public Runnable addSaveWatcher(final Consumer<CacheValue> watcher) {
+        return this.saveWatchers.add(watcher);
+    }
+
+    private final Watchers<CacheValue> saveWatchers = Watchers.create();
+
+    @Override
+    public void delete(final CacheKey cacheKey) {
+        Objects.requireNonNull(cacheKey, "cacheKey");
+
+        final boolean deleted;
+
+        final Lock lock = this.lock.writeLock();
+        lock.lock();
+        try {
+            deleted = this.remove(cacheKey);
+        } finally {
+            lock.unlock();
+        }
+
+        if (deleted) {
+            this.deleteWatchers.accept(cacheKey);
+        }
+    }
+
+    @Override
+    public Runnable addDeleteWatcher(final Consumer<CacheKey> watcher) {
+        return this.deleteWatchers.add(watcher);
+    }
+
+    private final Watchers<CacheKey> deleteWatchers = Watchers.create();
+
+    @Override
+    public Map<CacheKey, CacheValue> loadAll(final Collection<CacheKey> cacheKeys) {
+        CacheStoreChecks.all(cacheKeys, "cacheKeys");
+
+        final Map<CacheKey, CacheValue> loaded = new LinkedHashMap<>();
+
+        final Lock lock = this.lock.readLock();
+        lock.lock();
+        try {
+            final TreeMap<CacheKey, OffHeapCacheStoreEntry> index = this.index;
+
+            for (final CacheKey cacheKey : cacheKeys) {
+                final OffHeapCacheStoreEntry entry = index.get(cacheKey);
+                if (null != entry) {
+                    loaded.put(
+                        cacheKey,
+                        this.value(
+                            cacheKey,
+                            entry
+                        )
+                    );
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return loaded;
+    }
+
+    @Override
+    public List<CacheValue> saveAll(final Collection<CacheValue> cacheValues) {
+        CacheStoreChecks.all(cacheValues, "cacheValues");
+
+        final List<CacheValue> saved = Collections.unmodifiableList(
+            new ArrayList<>(cacheValues)
+        );
+
+        // encode outside the lock, a failure leaves the store unchanged
+        final List<OffHeapCacheStoreEntry> entries = new ArrayList<>(saved.size());
+        try {
+            for (final CacheValue cacheValue : saved) {
+                entries.add(
+                    this.entry(cacheValue)
+                );
+            }
+        } catch (final RuntimeException cause) {
+            entries.forEach(this::free);
+            throw cause;
+        }
+
+        final Lock lock = this.lock.writeLock();
+        lock.lock();
+        try {
+            final int count = saved.size();
+            for (int i = 0; i < count; i++) {
+                this.put(
+                    saved.get(i).key(),
+                    entries.get(i)
+                );
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        if (false == saved.isEmpty()) {
+            this.saveAllWatchers.accept(saved);
+        }
+        return saved;
+    }
+
+    @Override
+    public Runnable addSaveAllWatcher(final Consumer<List<CacheValue>> watcher) {
+        return this.saveAllWatchers.add(watcher);
+    }
+
+    private final Watchers<List<CacheValue>> saveAllWatchers = Watchers.create();
+
+    @Override
+    public void deleteAll(final Collection<CacheKey> cacheKeys) {
+        CacheStoreChecks.all(cacheKeys, "cacheKeys");
+
+        final Set<CacheKey> deleted = new LinkedHashSet<>();
+
+        final Lock lock = this.lock.writeLock();
+        lock.lock();
+        try {
+            for (final CacheKey cacheKey : cacheKeys) {
+                if (this.remove(cacheKey)) {
+                    deleted.add(cacheKey);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        this.fireDeleted(deleted);
+    }
+
+    /**
+     * Notifies delete all watchers once with all the deleted keys, delete watchers only see single deletes.
+     */
+    private void fireDeleted(final Set<CacheKey> deleted) {
+        if (false == deleted.isEmpty()) {
+            this.deleteAllWatchers.accept(
+                Collections.unmodifiableSet(deleted)
+            );
+        }
+    }
+
+    @Override
+    public Runnable addDeleteAllWatcher(final Consumer<Set<CacheKey>> watcher) {
+        return this.deleteAllWatchers.add(watcher);
+    }
+
+    private final Watchers<Set<CacheKey>> deleteAllWatchers = Watchers.create();
+
+    @Override
+    public int count() {
+        final Lock lock = this.lock.readLock();
+        lock.lock();
+        try {
+            return this.index.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public Set<CacheKey> ids(final int offset,
+                             final int count) {
+        CacheStoreChecks.offsetAndCount(
+            offset,
+            count
+        );
+
+        final Set<CacheKey> ids = new TreeSet<>();
+
+        final Lock lock = this.lock.readLock();
+        lock.lock();
+        try {
+            int skip = offset;
+            for (final CacheKey cacheKey : this.index.keySet()) {
+                if (ids.size() == count) {
+                    break;
+                }
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                ids.add(cacheKey);
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return ids;
+    }
+
+    @Override
+    public List<CacheValue> values(final int offset,
+                                   final int count) {
+        CacheStoreChecks.offsetAndCount(
+            offset,
+            count
+        );
+
+        final List<CacheValue> values = new ArrayList<>();
+
+        final Lock lock = this.lock.readLock();
+        lock.lock();
+        try {
+            int skip = offset;
+            for (final Entry<CacheKey, OffHeapCacheStoreEntry> keyAndEntry : this.index.entrySet()) {
+                if (values.size() == count) {
+                    break;
+                }
+                if (skip > 0) {
+                    skip--;
+                    continue;
+                }
+                values.add(
+                    this.value(
+                        keyAndEntry.getKey(),
+                        keyAndEntry.getValue()
+                    )
+                );
+            }
+        } finally {
+            lock.unlock();
+        }
+
+        return values;
+    }
+
+    @Override
+    public List<CacheValue> between(final CacheKey from,
+                                    final CacheKey to) {
+        CacheStoreChecks.between(
+            from,
+            to
+        );
+
+        final List<CacheValue> values = new ArrayList<>();
+
+        if (from.compareTo(to) <= 0) {
+            final Lock lock = this.lock.readLock();
+            lock.lock();
+            try {
+                for (final Entry<CacheKey, OffHeapCacheStoreEntry> keyAndEntry : this.index.subMap(from, true, to, true).entrySet()) {
+                    values.add(
+                        this.value(
+                            keyAndEntry.getKey(),
+                            keyAndEntry.getValue()
+                        )
+                    );
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        return values;
+    }
+
+    // prefix...........................................................................................................
+
+    /**
+     * Removes and frees the range of keys beginning with the prefix while holding the write lock once.
+     */
+    @Override
+    public void deleteByPrefix(final String prefix) {
+        final CacheKeyPrefix cacheKeyPrefix = CacheKeyPrefix.with(prefix);
+        final Set<CacheKey> deleted = new LinkedHashSet<>();
+
+        if (false == cacheKeyPrefix.isNone()) {
+            final Lock lock = this.lock.writeLock();
+            lock.lock();
+            try {
+                final Iterator<Entry<CacheKey, OffHeapCacheStoreEntry>> keyAndEntries = this.index.subMap(
+                    cacheKeyPrefix.from(),
+                    true,
+                    cacheKeyPrefix.to(),
+                    true
+                ).entrySet()
+                    .iterator();
+
+                while (keyAndEntries.hasNext()) {
+                    final Entry<CacheKey, OffHeapCacheStoreEntry> keyAndEntry = keyAndEntries.next();
+                    keyAndEntries.remove();
+                    this.freeLocked(keyAndEntry.getValue());
+                    deleted.add(keyAndEntry.getKey());
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        this.fireDeleted(deleted);
+    }
+
+    // helpers..........................................................................................................
+
+    /**
+     * Encodes the value. The block is allocated under the write lock as the allocator is not thread safe.
+     */
+    private OffHeapCacheStoreEntry entry(final CacheValue cacheValue) {
+        final Object value = cacheValue.valueOrNull();
+
+        OffHeapCacheStoreEntry entry;
+        if (null != value) {
+            final byte[] bytes = this.codec.encode(value);
+
+            final Lock lock = this.lock.writeLock();
+            lock.lock();
+            try {
+                entry = OffHeapCacheStoreEntry.with(
+                    this.memory.allocate(bytes),
+                    bytes.length,
+                    cacheValue
+                );
+            } finally {
+                lock.unlock();
+            }
+        } else {
+            entry = OffHeapCacheStoreEntry.with(
+                0,
+                OffHeapCacheStoreEntry.EMPTY,
+                cacheValue
+            );
+        }
+
+        return entry;
+    }
+
+    /**
+     * Must be called while holding the write lock. Replaces any previous entry freeing its block.
+     */
+    private void put(final CacheKey cacheKey,
+                     final OffHeapCacheStoreEntry entry) {
+        final OffHeapCacheStoreEntry previous = this.index.put(
+            cacheKey,
+            entry
+        );
+        if (null != previous) {
+            this.freeLocked(previous);
+        }
+    }
+
+    /**
+     * Must be called while holding the write lock.
+     */
+    private boolean remove(final CacheKey cacheKey) {
+        final OffHeapCacheStoreEntry previous = this.index.remove(cacheKey);
+        final boolean removed = null != previous;
+        if (removed) {
+            this.freeLocked(previous);
+        }
+        return removed;
+    }
+
+    private void free(final OffHeapCacheStoreEntry entry) {
+        final Lock lock = this.lock.writeLock();
+        lock.lock();
+        try {
+            this.freeLocked(entry);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void freeLocked(final OffHeapCacheStoreEntry entry) {
+        if (false == entry.isEmpty()) {
+            this.memory.free(
+                entry.address,
+                entry.length
+            );
+        }
+    }
+
+    /**
+     * Must be called while holding a lock. The bytes are copied so the block may be freed and reused after the lock is
+     * released, but decoding is deferred until the value is first requested.
+     */
+    private CacheValue value(final CacheKey cacheKey,
+                             final OffHeapCacheStoreEntry entry) {
+        final CacheValue value;
+
+        if (entry.isEmpty()) {
+            value = CacheValue.lazy(
+                cacheKey,
+                () -> null,
+                entry.expireAfterWrite,
+                entry.expireAfterAccess,
+                entry.generation
+            );
+        } else {
+            final byte[] bytes = this.memory.copy(
+                entry.address,
+                entry.length
+            );
+            final CacheValueCodec codec = this.codec;
+
+            value = CacheValue.lazy(
+                cacheKey,
+                () -> codec.decode(
+                    ByteBuffer.wrap(bytes)
+                        .asReadOnlyBuffer()
+                ),
+                entry.expireAfterWrite,
+                entry.expireAfterAccess,
+                entry.generation
+            );
+        }
+
+        return value;
+    }
+
+    /**
+     * The bytes of direct memory held by values.
+     */
+    long allocated() {
+        final Lock lock = this.lock.readLock();
+        lock.lock();
+        try {
+            return this.memory.allocated();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private final CacheValueCodec codec;
+
+    private final OffHeapCacheStoreMemory memory;
+
+    private final TreeMap<CacheKey, OffHeapCacheStoreEntry> index = new TreeMap<>();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @Override
+    public String toString() {
+        return this.codec + " " + this.count() + " " + this.memory;
+    }
+}
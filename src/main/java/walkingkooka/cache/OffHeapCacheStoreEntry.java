@@ -0,0 +1,75 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * The on heap index entry for a value held by {@link OffHeapCacheStore}, recording where its encoded bytes live.
+ */
+final class OffHeapCacheStoreEntry {
+
+    /**
+     * The length used for {@link Optional#empty()} values which have no bytes.
+     */
+    final static int EMPTY = -1;
+
+    static OffHeapCacheStoreEntry with(final long address,
+                                       final int length,
+                                       final CacheValue value) {
+        return new OffHeapCacheStoreEntry(
+            address,
+            length,
+            value.expireAfterWrite(),
+            value.expireAfterAccess(),
+            value.generation()
+        );
+    }
+
+    private OffHeapCacheStoreEntry(final long address,
+                                   final int length,
+                                   final Optional<Duration> expireAfterWrite,
+                                   final Optional<Duration> expireAfterAccess,
+                                   final long generation) {
+        this.address = address;
+        this.length = length;
+        this.expireAfterWrite = expireAfterWrite;
+        this.expireAfterAccess = expireAfterAccess;
+        this.generation = generation;
+    }
+
+    boolean isEmpty() {
+        return EMPTY == this.length;
+    }
+
+    final long address;
+
+    final int length;
+
+    final Optional<Duration> expireAfterWrite;
+
+    final Optional<Duration> expireAfterAccess;
+
+    final long generation;
+
+    @Override
+    public String toString() {
+        return Long.toHexString(this.address) + " " + this.length;
+    }
+}
@@ -0,0 +1,266 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A simple slab allocator over direct {@link ByteBuffer}, so encoded values live outside the java heap.
+ * <br>
+ * Blocks are rounded up to a power of two size class, with freed blocks kept on a free list per size class and reused
+ * by later allocations of the same class, bounding waste to half of each block. Blocks larger than a slab receive
+ * their own direct buffer, which is released when the block is freed.
+ * <br>
+ * A block is addressed by a long holding the slab index in the high 32 bits and the offset within the slab in the low
+ * 32 bits. This class is not thread safe, {@link OffHeapCacheStore} guards all access.
+ */
+final class OffHeapCacheStoreMemory {
+
+    /**
+     * The smallest block, smaller values still consume this many bytes.
+     */
+    private final static int MIN_BLOCK_BITS = 4;
+
+    static OffHeapCacheStoreMemory with(final int slabSize) {
+        if (slabSize < (1 << MIN_BLOCK_BITS) || Integer.bitCount(slabSize) != 1) {
+            throw new IllegalArgumentException("Invalid slabSize " + slabSize + " must be a power of two >= " + (1 << MIN_BLOCK_BITS));
+        }
+        return new OffHeapCacheStoreMemory(slabSize);
+    }
+
+    private OffHeapCacheStoreMemory(final int slabSize) {
+        this.slabSize = slabSize;
+
+        final int classes = Integer.numberOfTrailingZeros(slabSize) - MIN_BLOCK_BITS + 1;
+        this.free = new long[classes][];
+        this.freeCount = new int[classes];
+        for (int i = 0; i < classes; i++) {
+            this.free[i] = new long[8];
+        }
+    }
+
+    /**
+     * Allocates a block of at least length bytes and copies the bytes into it, returning its address.
+     */
+    long allocate(final byte[] bytes) {
+        final int length = bytes.length;
+
+        final long address;
+        if (length > this.slabSize) {
+            address = this.allocateLarge(length);
+        } else {
+            final int sizeClass = sizeClass(length);
+            address = this.freeCount[sizeClass] > 0 ?
+                this.free[sizeClass][--this.freeCount[sizeClass]] :
+                this.allocateFromCurrentSlab(1 << (sizeClass + MIN_BLOCK_BITS));
+        }
+
+        final ByteBuffer slab = this.slab(address)
+            .duplicate();
+        slab.position(offset(address));
+        slab.put(bytes);
+
+        this.allocated += blockSize(length);
+        return address;
+    }
+
+    private long allocateLarge(final int length) {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(length);
+        this.reserved += length;
+        return address(
+            this.addSlab(buffer),
+            0
+        );
+    }
+
+    private long allocateFromCurrentSlab(final int blockSize) {
+        if (this.current < 0 || this.currentOffset + blockSize > this.slabSize) {
+            this.current = this.addSlab(
+                ByteBuffer.allocateDirect(this.slabSize)
+            );
+            this.currentOffset = 0;
+            this.reserved += this.slabSize;
+        }
+
+        final long address = address(
+            this.current,
+            this.currentOffset
+        );
+        this.currentOffset += blockSize;
+        return address;
+    }
+
+    private int addSlab(final ByteBuffer buffer) {
+        final List<ByteBuffer> slabs = this.slabs;
+
+        final int index;
+        if (this.freeSlabCount > 0) {
+            index = this.freeSlabs[--this.freeSlabCount];
+            slabs.set(index, buffer);
+        } else {
+            index = slabs.size();
+            slabs.add(buffer);
+        }
+        return index;
+    }
+
+    /**
+     * Returns a read only view of the block holding length bytes.
+     */
+    ByteBuffer read(final long address,
+                    final int length) {
+        final ByteBuffer buffer = this.slab(address)
+            .asReadOnlyBuffer();
+        final int offset = offset(address);
+        buffer.limit(offset + length);
+        buffer.position(offset);
+        return buffer.slice();
+    }
+
+    /**
+     * Copies the block holding length bytes onto the heap.
+     */
+    byte[] copy(final long address,
+                final int length) {
+        final byte[] bytes = new byte[length];
+        this.read(
+            address,
+            length
+        ).get(bytes);
+        return bytes;
+    }
+
+    /**
+     * Frees the block at the given address, which held length bytes.
+     */
+    void free(final long address,
+              final int length) {
+        if (length > this.slabSize) {
+            final int index = slabIndex(address);
+            this.slabs.set(index, null);
+            this.reserved -= length;
+
+            if (this.freeSlabCount == this.freeSlabs.length) {
+                this.freeSlabs = Arrays.copyOf(this.freeSlabs, this.freeSlabCount * 2);
+            }
+            this.freeSlabs[this.freeSlabCount++] = index;
+        } else {
+            final int sizeClass = sizeClass(length);
+            long[] free = this.free[sizeClass];
+            final int count = this.freeCount[sizeClass];
+            if (count == free.length) {
+                free = Arrays.copyOf(free, count * 2);
+                this.free[sizeClass] = free;
+            }
+            free[count] = address;
+            this.freeCount[sizeClass] = count + 1;
+        }
+
+        this.allocated -= blockSize(length);
+    }
+
+    /**
+     * Releases all slabs.
+     */
+    void clear() {
+        this.slabs.clear();
+        Arrays.fill(this.freeCount, 0);
+        this.freeSlabCount = 0;
+        this.current = -1;
+        this.currentOffset = 0;
+        this.allocated = 0;
+        this.reserved = 0;
+    }
+
+    private ByteBuffer slab(final long address) {
+        return this.slabs.get(slabIndex(address));
+    }
+
+    private int blockSize(final int length) {
+        return length > this.slabSize ?
+            length :
+            1 << (sizeClass(length) + MIN_BLOCK_BITS);
+    }
+
+    private static int sizeClass(final int length) {
+        return length <= (1 << MIN_BLOCK_BITS) ?
+            0 :
+            32 - Integer.numberOfLeadingZeros(length - 1) - MIN_BLOCK_BITS;
+    }
+
+    private static long address(final int slab,
+                                final int offset) {
+        return ((long) slab << 32) | offset;
+    }
+
+    private static int slabIndex(final long address) {
+        return (int) (address >>> 32);
+    }
+
+    private static int offset(final long address) {
+        return (int) address;
+    }
+
+    /**
+     * The bytes held by allocated blocks, including the rounding to their size class.
+     */
+    long allocated() {
+        return this.allocated;
+    }
+
+    private long allocated;
+
+    /**
+     * The bytes of direct memory reserved by all slabs.
+     */
+    long reserved() {
+        return this.reserved;
+    }
+
+    private long reserved;
+
+    private final int slabSize;
+
+    private final List<ByteBuffer> slabs = new ArrayList<>();
+
+    /**
+     * Indices of slabs released by freeing a large block, available for reuse.
+     */
+    private int[] freeSlabs = new int[8];
+
+    private int freeSlabCount;
+
+    /**
+     * The slab currently being carved into blocks, or -1 when none.
+     */
+    private int current = -1;
+
+    private int currentOffset;
+
+    private final long[][] free;
+
+    private final int[] freeCount;
+
+    @Override
+    public String toString() {
+        return this.allocated + "/" + this.reserved;
+    }
+}
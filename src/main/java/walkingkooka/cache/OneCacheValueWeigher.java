@@ -0,0 +1,43 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+/**
+ * A {@link CacheValueWeigher} that gives every value a weight of one, so the total weight is the number of entries.
+ */
+final class OneCacheValueWeigher implements CacheValueWeigher {
+
+    /**
+     * Singleton
+     */
+    final static OneCacheValueWeigher INSTANCE = new OneCacheValueWeigher();
+
+    private OneCacheValueWeigher() {
+        super();
+    }
+
+    @Override
+    public long weigh(final CacheValue value) {
+        return 1;
+    }
+
+    @Override
+    public String toString() {
+        return "1";
+    }
+}
@@ -0,0 +1,377 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+import walkingkooka.watch.Watchers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A {@link CacheStore} holding its entries in an order statistic tree, a balanced tree where each node records the size
+ * of its sub tree. {@link #ids(int, int)} and {@link #values(int, int)} find the entry at the offset in O(log n) and
+ * then walk count entries, so every page costs the same wherever it is, unlike {@link TreeMapStoreCacheStore} which
+ * must walk from the first entry to reach the offset. Loads, saves and deletes are O(log n), and {@link #count()} is
+ * O(1).
+ * <br>
+ * All operations synchronize on {@link #lock}, as GWT and J2CL do not support <code>java.util.concurrent.locks</code>.
+ */
+final class OrderStatisticTreeCacheStore implements CacheStore {
+
+    static OrderStatisticTreeCacheStore empty() {
+        return new OrderStatisticTreeCacheStore();
+    }
+
+    private OrderStatisticTreeCacheStore() {
+        super();
+    }
+
+    @Override
+    public Optional<CacheValue> load(final CacheKey cacheKey) {
+        return Optional.ofNullable(
+            this.loadOrNull(cacheKey)
+        );
+    }
+
+    @Override
+    public CacheValue loadOrNull(final CacheKey cacheKey) {
+        Objects.requireNonNull(cacheKey, "cacheKey");
+
+        synchronized (this.lock) {
+            return OrderStatisticTreeCacheStoreNode.get(
+                this.root,
+                cacheKey
+            );
+        }
+    }
+
+    @Override
+    public CacheValue save(final CacheValue cacheValue) {
+        Objects.requireNonNull(cacheValue, "cacheValue");
+
+        synchronized (this.lock) {
+            this.root = OrderStatisticTreeCacheStoreNode.put(
+                this.root,
+                cacheValue
+            );
+        }
+
+        this.saveWatchers.accept(cacheValue);
+        return cacheValue;
+    }
+
+    @Override
+    public Runnable addSaveWatcher(final Consumer<CacheValue> watcher) {
+        return this.saveWatchers.add(watcher);
+    }
+
+    private final Watchers<CacheValue> saveWatchers = Watchers.create();
+
+    @Override
+    public void delete(final CacheKey cacheKey) {
+        Objects.requireNonNull(cacheKey, "cacheKey");
+
+        final boolean deleted;
+
+        synchronized (this.lock) {
+            deleted = this.remove(cacheKey);
+        }
+
+        if (deleted) {
+            this.deleteWatchers.accept(cacheKey);
+        }
+    }
+
+    /**
+     * Removes the key returning true if it was present. Must be called while holding {@link #lock}.
+     */
+    private boolean remove(final CacheKey cacheKey) {
+        final int before = OrderStatisticTreeCacheStoreNode.size(this.root);
+
+        this.root = OrderStatisticTreeCacheStoreNode.remove(
+            this.root,
+            cacheKey
+        );
+
+        return OrderStatisticTreeCacheStoreNode.size(this.root) < before;
+    }
+
+    @Override
+    public Runnable addDeleteWatcher(final Consumer<CacheKey> watcher) {
+        return this.deleteWatchers.add(watcher);
+    }
+
+    private final Watchers<CacheKey> deleteWatchers = Watchers.create();
+
+    @Override
+    public Map<CacheKey, CacheValue> loadAll(final Collection<CacheKey> cacheKeys) {
+        CacheStoreChecks.all(cacheKeys, "cacheKeys");
+
+        final Map<CacheKey, CacheValue> loaded = new LinkedHashMap<>();
+
+        synchronized (this.lock) {
+            final OrderStatisticTreeCacheStoreNode root = this.root;
+
+            for (final CacheKey cacheKey : cacheKeys) {
+                final CacheValue value = OrderStatisticTreeCacheStoreNode.get(
+                    root,
+                    cacheKey
+                );
+                if (null != value) {
+                    loaded.put(
+                        cacheKey,
+                        value
+                    );
+                }
+            }
+        }
+
+        return loaded;
+    }
+
+    @Override
+    public List<CacheValue> saveAll(final Collection<CacheValue> cacheValues) {
+        CacheStoreChecks.all(cacheValues, "cacheValues");
+
+        final List<CacheValue> saved = Collections.unmodifiableList(
+            new ArrayList<>(cacheValues)
+        );
+
+        synchronized (this.lock) {
+            OrderStatisticTreeCacheStoreNode root = this.root;
+            for (final CacheValue cacheValue : saved) {
+                root = OrderStatisticTreeCacheStoreNode.put(
+                    root,
+                    cacheValue
+                );
+            }
+            this.root = root;
+        }
+
+        if (false == saved.isEmpty()) {
+            this.saveAllWatchers.accept(saved);
+        }
+        return saved;
+    }
+
+    @Override
+    public Runnable addSaveAllWatcher(final Consumer<List<CacheValue>> watcher) {
+        return this.saveAllWatchers.add(watcher);
+    }
+
+    private final Watchers<List<CacheValue>> saveAllWatchers = Watchers.create();
+
+    @Override
+    public void deleteAll(final Collection<CacheKey> cacheKeys) {
+        CacheStoreChecks.all(cacheKeys, "cacheKeys");
+
+        final Set<CacheKey> deleted = new LinkedHashSet<>();
+
+        synchronized (this.lock) {
+            for (final CacheKey cacheKey : cacheKeys) {
+                if (this.remove(cacheKey)) {
+                    deleted.add(cacheKey);
+                }
+            }
+        }
+
+        if (false == deleted.isEmpty()) {
+            this.deleteAllWatchers.accept(
+                Collections.unmodifiableSet(deleted)
+            );
+        }
+    }
+
+    @Override
+    public Runnable addDeleteAllWatcher(final Consumer<Set<CacheKey>> watcher) {
+        return this.deleteAllWatchers.add(watcher);
+    }
+
+    private final Watchers<Set<CacheKey>> deleteAllWatchers = Watchers.create();
+
+    @Override
+    public int count() {
+        synchronized (this.lock) {
+            return OrderStatisticTreeCacheStoreNode.size(this.root);
+        }
+    }
+
+    @Override
+    public Set<CacheKey> ids(final int offset,
+                             final int count) {
+        CacheStoreChecks.offsetAndCount(
+            offset,
+            count
+        );
+
+        final Set<CacheKey> ids = new TreeSet<>();
+
+        synchronized (this.lock) {
+            OrderStatisticTreeCacheStoreNode.ids(
+                this.root,
+                offset,
+                count,
+                ids
+            );
+        }
+
+        return ids;
+    }
+
+    @Override
+    public List<CacheValue> values(final int offset,
+                                   final int count) {
+        CacheStoreChecks.offsetAndCount(
+            offset,
+            count
+        );
+
+        final List<CacheValue> values = new ArrayList<>();
+
+        synchronized (this.lock) {
+            OrderStatisticTreeCacheStoreNode.values(
+                this.root,
+                offset,
+                count,
+                values
+            );
+        }
+
+        return values;
+    }
+
+    /**
+     * Returns up to count values whose keys follow from, or are also equal to it when inclusive, and are not after to.
+     * The offsets are found and the values read holding the lock, so the page is consistent.
+     */
+    List<CacheValue> values(final CacheKey from,
+                            final boolean inclusive,
+                            final CacheKey to,
+                            final int count) {
+        final List<CacheValue> values = new ArrayList<>();
+
+        synchronized (this.lock) {
+            final OrderStatisticTreeCacheStoreNode root = this.root;
+            final int offset = OrderStatisticTreeCacheStoreNode.rank(
+                root,
+                from,
+                false == inclusive
+            );
+            final int fence = OrderStatisticTreeCacheStoreNode.rank(
+                root,
+                to,
+                true
+            );
+
+            if (offset < fence) {
+                OrderStatisticTreeCacheStoreNode.values(
+                    root,
+                    offset,
+                    Math.min(
+                        count,
+                        fence - offset
+                    ),
+                    values
+                );
+            }
+        }
+
+        return values;
+    }
+
+    @Override
+    public List<CacheValue> between(final CacheKey from,
+                                    final CacheKey to) {
+        CacheStoreChecks.between(
+            from,
+            to
+        );
+
+        final List<CacheValue> values = new ArrayList<>();
+
+        synchronized (this.lock) {
+            OrderStatisticTreeCacheStoreNode.between(
+                this.root,
+                from,
+                to,
+                values
+            );
+        }
+
+        return values;
+    }
+
+    /**
+     * Walks the values between from and to by key, finding the page after the last key returned in O(log n), so saves
+     * and deletes before the range cannot shift it. The default {@link #stream()} pages with
+     * {@link #values(int, int)}, which also costs O(log n) per page.
+     */
+    @Override
+    public Stream<CacheValue> stream(final CacheKey from,
+                                     final CacheKey to) {
+        CacheStoreChecks.between(
+            from,
+            to
+        );
+
+        return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(
+                OrderStatisticTreeCacheStoreIterator.with(
+                    this,
+                    from,
+                    to
+                ),
+                Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL
+            ),
+            false
+        );
+    }
+
+    /**
+     * Guards {@link #root} and all nodes.
+     */
+    private final Object lock = new Object();
+
+    /**
+     * The root of the tree, null when empty.
+     */
+    private OrderStatisticTreeCacheStoreNode root;
+
+    @Override
+    public String toString() {
+        return this.values(
+            0,
+            Integer.MAX_VALUE
+        ).toString();
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * An {@link Iterator} over the values of an {@link OrderStatisticTreeCacheStore} between two keys inclusive, fetching
+ * a page of {@link #PAGE_SIZE} values at a time following the last key returned. Saves and deletes during a traversal
+ * therefore never cause a value to be returned twice or outside the range, or a value that remains to be skipped.
+ */
+final class OrderStatisticTreeCacheStoreIterator implements Iterator<CacheValue> {
+
+    final static int PAGE_SIZE = 1000;
+
+    static OrderStatisticTreeCacheStoreIterator with(final OrderStatisticTreeCacheStore store,
+                                                     final CacheKey from,
+                                                     final CacheKey to) {
+        return new OrderStatisticTreeCacheStoreIterator(
+            store,
+            from,
+            to
+        );
+    }
+
+    private OrderStatisticTreeCacheStoreIterator(final OrderStatisticTreeCacheStore store,
+                                                 final CacheKey from,
+                                                 final CacheKey to) {
+        super();
+        this.store = store;
+        this.from = from;
+        this.to = to;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (false == this.page.hasNext() && this.more) {
+            final CacheKey last = this.last;
+            final List<CacheValue> values = null == last ?
+                this.store.values(
+                    this.from,
+                    true,
+                    this.to,
+                    PAGE_SIZE
+                ) :
+                this.store.values(
+                    last,
+                    false,
+                    this.to,
+                    PAGE_SIZE
+                );
+            this.more = values.size() == PAGE_SIZE;
+            this.page = values.iterator();
+        }
+
+        return this.page.hasNext();
+    }
+
+    @Override
+    public CacheValue next() {
+        if (false == this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        final CacheValue value = this.page.next();
+        this.last = value.key();
+        return value;
+    }
+
+    private final OrderStatisticTreeCacheStore store;
+
+    private final CacheKey from;
+
+    private final CacheKey to;
+
+    /**
+     * The key of the last value returned, or null before the first.
+     */
+    private CacheKey last;
+
+    /**
+     * False once a page shorter than {@link #PAGE_SIZE} was fetched.
+     */
+    private boolean more = true;
+
+    private Iterator<CacheValue> page = Collections.emptyIterator();
+
+    @Override
+    public String toString() {
+        return this.from + ".." + this.to + " " + this.last;
+    }
+}
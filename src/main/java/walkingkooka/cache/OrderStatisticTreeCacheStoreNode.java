@@ -0,0 +1,216 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+/**
+ * A node of the AVL tree held by {@link OrderStatisticTreeCacheStore}, where null is the empty tree. Each node records
+ * the size of its sub tree, so the node at any offset is selected by comparing the offset against the size of the left
+ * sub tree at each level, rather than counting nodes from the start. Updates are made in place, returning the new root
+ * of the sub tree after any rotations.
+ */
+final class OrderStatisticTreeCacheStoreNode extends CacheStoreTreeNode<OrderStatisticTreeCacheStoreNode> {
+
+    private OrderStatisticTreeCacheStoreNode(final CacheValue value) {
+        super();
+        this.value = value;
+        this.height = 1;
+        this.size = 1;
+    }
+
+    // updates..........................................................................................................
+
+    /**
+     * Adds the value or replaces any value with the same key, returning the new root of the sub tree.
+     */
+    static OrderStatisticTreeCacheStoreNode put(final OrderStatisticTreeCacheStoreNode node,
+                                                final CacheValue value) {
+        final OrderStatisticTreeCacheStoreNode put;
+
+        if (null == node) {
+            put = new OrderStatisticTreeCacheStoreNode(value);
+        } else {
+            final int compare = value.key()
+                .compareTo(node.value.key());
+            if (compare < 0) {
+                node.left = put(
+                    node.left,
+                    value
+                );
+                put = balance(node);
+            } else if (compare > 0) {
+                node.right = put(
+                    node.right,
+                    value
+                );
+                put = balance(node);
+            } else {
+                node.value = value;
+                put = node;
+            }
+        }
+
+        return put;
+    }
+
+    /**
+     * Removes the key if present, returning the new root of the sub tree.
+     */
+    static OrderStatisticTreeCacheStoreNode remove(final OrderStatisticTreeCacheStoreNode node,
+                                                   final CacheKey cacheKey) {
+        OrderStatisticTreeCacheStoreNode removed = node;
+
+        if (null != node) {
+            final int compare = cacheKey.compareTo(node.value.key());
+            if (compare < 0) {
+                node.left = remove(
+                    node.left,
+                    cacheKey
+                );
+                removed = balance(node);
+            } else if (compare > 0) {
+                node.right = remove(
+                    node.right,
+                    cacheKey
+                );
+                removed = balance(node);
+            } else {
+                if (null == node.left) {
+                    removed = node.right;
+                } else if (null == node.right) {
+                    removed = node.left;
+                } else {
+                    // take the value of the smallest node of the right sub tree, then remove that node
+                    OrderStatisticTreeCacheStoreNode smallest = node.right;
+                    while (null != smallest.left) {
+                        smallest = smallest.left;
+                    }
+                    node.value = smallest.value;
+                    node.right = remove(
+                        node.right,
+                        smallest.value.key()
+                    );
+                    removed = balance(node);
+                }
+            }
+        }
+
+        return removed;
+    }
+
+    /**
+     * Updates the height and size of the node, rotating if the heights of its left and right differ by more than one.
+     */
+    private static OrderStatisticTreeCacheStoreNode balance(final OrderStatisticTreeCacheStoreNode node) {
+        final int balance = height(node.left) - height(node.right);
+
+        final OrderStatisticTreeCacheStoreNode balanced;
+
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            balanced = rotateRight(node);
+        } else if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            balanced = rotateLeft(node);
+        } else {
+            node.update();
+            balanced = node;
+        }
+
+        return balanced;
+    }
+
+    private static OrderStatisticTreeCacheStoreNode rotateLeft(final OrderStatisticTreeCacheStoreNode node) {
+        final OrderStatisticTreeCacheStoreNode right = node.right;
+        node.right = right.left;
+        node.update();
+
+        right.left = node;
+        right.update();
+        return right;
+    }
+
+    private static OrderStatisticTreeCacheStoreNode rotateRight(final OrderStatisticTreeCacheStoreNode node) {
+        final OrderStatisticTreeCacheStoreNode left = node.left;
+        node.left = left.right;
+        node.update();
+
+        left.right = node;
+        left.update();
+        return left;
+    }
+
+    private void update() {
+        final OrderStatisticTreeCacheStoreNode left = this.left;
+        final OrderStatisticTreeCacheStoreNode right = this.right;
+
+        this.height = 1 + Math.max(
+            height(left),
+            height(right)
+        );
+        this.size = 1 + size(left) + size(right);
+    }
+
+    static int height(final OrderStatisticTreeCacheStoreNode node) {
+        return null != node ?
+            node.height :
+            0;
+    }
+
+    private CacheValue value;
+
+    private OrderStatisticTreeCacheStoreNode left;
+
+    private OrderStatisticTreeCacheStoreNode right;
+
+    private int height;
+
+    /**
+     * The number of nodes in this sub tree including this node.
+     */
+    private int size;
+
+    @Override
+    CacheValue value() {
+        return this.value;
+    }
+
+    @Override
+    OrderStatisticTreeCacheStoreNode left() {
+        return this.left;
+    }
+
+    @Override
+    OrderStatisticTreeCacheStoreNode right() {
+        return this.right;
+    }
+
+    @Override
+    int size() {
+        return this.size;
+    }
+
+    @Override
+    public String toString() {
+        return this.value.toString();
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+/**
+ * A {@link CacheStore} whose entries survive a restart, so a new process may serve hits as soon as the store is
+ * reopened rather than starting cold.
+ */
+public interface PersistentCacheStore extends CacheStore, AutoCloseable {
+
+    /**
+     * Forces all writes to durable storage.
+     */
+    void flush();
+
+    /**
+     * Rewrites storage keeping only live entries, releasing the space held by replaced and deleted entries.
+     */
+    void compact();
+
+    /**
+     * Flushes and releases the underlying storage, after which all other methods fail.
+     */
+    @Override
+    void close();
+}
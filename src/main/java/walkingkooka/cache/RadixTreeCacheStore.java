@@ -0,0 +1,709 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+import walkingkooka.watch.Watchers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.BiPredicate;
+import java.util.function.Consumer;
+
+/**
+ * A {@link CacheStore} backed by a radix tree over the characters of each {@link CacheKey}, suited to many long dotted
+ * keys sharing namespaces such as <code>spreadsheet.123.cell.A1</code>. Shared prefixes are stored once in
+ * {@link RadixTreeCacheStoreNode#label}, and neither the {@link CacheKey} nor the {@link CacheValue} are kept, only
+ * the value and its expiry durations.
+ * <br>
+ * A load walks at most one node per character of the key, comparing characters rather than whole keys, and returns a
+ * new {@link CacheValue} around the given {@link CacheKey}. The tree is ordered, so {@link #ids(int, int)},
+ * {@link #values(int, int)}, {@link #between(CacheKey, CacheKey)} and the prefix operations walk nodes in key order
+ * without sorting, recreating keys only for the entries they return.
+ * All operations synchronize on the root node, as GWT and J2CL do not support <code>java.util.concurrent.locks</code>.
+ */
+final class RadixTreeCacheStore implements CacheStore {
+
+    static RadixTreeCacheStore empty() {
+        return new RadixTreeCacheStore();
+    }
+
+    private RadixTreeCacheStore() {
+        super();
+    }
+
+    @Override
+    public Optional<CacheValue> load(final CacheKey cacheKey) {
+        return Optional.ofNullable(
+            this.loadOrNull(cacheKey)
+        );
+    }
+
+    @Override
+    public CacheValue loadOrNull(final CacheKey cacheKey) {
+        Objects.requireNonNull(cacheKey, "cacheKey");
+
+        synchronized (this.root) {
+            final RadixTreeCacheStoreNode node = this.find(cacheKey);
+            return null == node ?
+                null :
+                node.cacheValue(cacheKey);
+        }
+    }
+
+    @Override
+    public CacheValue save(final CacheValue cacheValue) {
+        Objects.requireNonNull(cacheValue, "cacheValue");
+
+        synchronized (this.root) {
+            this.put(cacheValue);
+        }
+
+        this.saveWatchers.accept(cacheValue);
+        return cacheValue;
+    }
+
+    @Override
+    public Runnable addSaveWatcher(final Consumer<CacheValue> watcher) {
+        return this.saveWatchers.add(watcher);
+    }
+
+    private final Watchers<CacheValue> saveWatchers = Watchers.create();
+
+    @Override
+    public void delete(final CacheKey cacheKey) {
+        Objects.requireNonNull(cacheKey, "cacheKey");
+
+        final boolean deleted;
+
+        synchronized (this.root) {
+            deleted = this.remove(cacheKey);
+        }
+
+        if (deleted) {
+            this.deleteWatchers.accept(cacheKey);
+        }
+    }
+
+    @Override
+    public Runnable addDeleteWatcher(final Consumer<CacheKey> watcher) {
+        return this.deleteWatchers.add(watcher);
+    }
+
+    private final Watchers<CacheKey> deleteWatchers = Watchers.create();
+
+    @Override
+    public Map<CacheKey, CacheValue> loadAll(final Collection<CacheKey> cacheKeys) {
+        CacheStoreChecks.all(cacheKeys, "cacheKeys");
+
+        final Map<CacheKey, CacheValue> loaded = new LinkedHashMap<>();
+
+        synchronized (this.root) {
+            for (final CacheKey cacheKey : cacheKeys) {
+                final RadixTreeCacheStoreNode node = this.find(cacheKey);
+                if (null != node) {
+                    loaded.put(
+                        cacheKey,
+                        node.cacheValue(cacheKey)
+                    );
+                }
+            }
+        }
+
+        return loaded;
+    }
+
+    @Override
+    public List<CacheValue> saveAll(final Collection<CacheValue> cacheValues) {
+        CacheStoreChecks.all(cacheValues, "cacheValues");
+
+        final List<CacheValue> saved = Collections.unmodifiableList(
+            new ArrayList<>(cacheValues)
+        );
+
+        synchronized (this.root) {
+            for (final CacheValue cacheValue : saved) {
+                this.put(cacheValue);
+            }
+        }
+
+        if (false == saved.isEmpty()) {
+            this.saveAllWatchers.accept(saved);
+        }
+        return saved;
+    }
+
+    @Override
+    public Runnable addSaveAllWatcher(final Consumer<List<CacheValue>> watcher) {
+        return this.saveAllWatchers.add(watcher);
+    }
+
+    private final Watchers<List<CacheValue>> saveAllWatchers = Watchers.create();
+
+    @Override
+    public void deleteAll(final Collection<CacheKey> cacheKeys) {
+        CacheStoreChecks.all(cacheKeys, "cacheKeys");
+
+        final Set<CacheKey> deleted = new LinkedHashSet<>();
+
+        synchronized (this.root) {
+            for (final CacheKey cacheKey : cacheKeys) {
+                if (this.remove(cacheKey)) {
+                    deleted.add(cacheKey);
+                }
+            }
+        }
+
+        this.fireDeleted(deleted);
+    }
+
+    /**
+     * Notifies delete all watchers once with all the deleted keys, delete watchers only see single deletes.
+     */
+    private void fireDeleted(final Set<CacheKey> deleted) {
+        if (false == deleted.isEmpty()) {
+            this.deleteAllWatchers.accept(
+                Collections.unmodifiableSet(deleted)
+            );
+        }
+    }
+
+    @Override
+    public Runnable addDeleteAllWatcher(final Consumer<Set<CacheKey>> watcher) {
+        return this.deleteAllWatchers.add(watcher);
+    }
+
+    private final Watchers<Set<CacheKey>> deleteAllWatchers = Watchers.create();
+
+    @Override
+    public int count() {
+        synchronized (this.root) {
+            return this.count;
+        }
+    }
+
+    /**
+     * The number of nodes holding a value, maintained by {@link #put(CacheValue)} and {@link #remove(CacheKey)}.
+     */
+    private int count;
+
+    @Override
+    public Set<CacheKey> ids(final int offset,
+                             final int count) {
+        CacheStoreChecks.offsetAndCount(
+            offset,
+            count
+        );
+
+        final Set<CacheKey> ids = new TreeSet<>();
+
+        if (count > 0) {
+            final int[] skip = {offset};
+
+            this.walk(
+                (k, n) -> {
+                    if (skip[0] > 0) {
+                        skip[0]--;
+                    } else {
+                        ids.add(k);
+                    }
+                    return ids.size() < count;
+                }
+            );
+        }
+
+        return ids;
+    }
+
+    @Override
+    public List<CacheValue> values(final int offset,
+                                   final int count) {
+        CacheStoreChecks.offsetAndCount(
+            offset,
+            count
+        );
+
+        final List<CacheValue> values = new ArrayList<>();
+
+        if (count > 0) {
+            final int[] skip = {offset};
+
+            this.walk(
+                (k, n) -> {
+                    if (skip[0] > 0) {
+                        skip[0]--;
+                    } else {
+                        values.add(
+                            n.cacheValue(k)
+                        );
+                    }
+                    return values.size() < count;
+                }
+            );
+        }
+
+        return values;
+    }
+
+    @Override
+    public List<CacheValue> between(final CacheKey from,
+                                    final CacheKey to) {
+        CacheStoreChecks.between(
+            from,
+            to
+        );
+
+        final List<CacheValue> values = new ArrayList<>();
+
+        synchronized (this.root) {
+            walk(
+                this.root,
+                new StringBuilder(),
+                from.value(),
+                to.value(),
+                (k, n) -> values.add(
+                    n.cacheValue(k)
+                )
+            );
+        }
+
+        return values;
+    }
+
+    // prefix...........................................................................................................
+
+    /**
+     * Finds the node below which every key begins with the prefix, and walks only that sub tree.
+     */
+    @Override
+    public List<CacheValue> loadByPrefix(final String prefix) {
+        final CacheKeyPrefix cacheKeyPrefix = CacheKeyPrefix.with(prefix);
+        final List<CacheValue> values = new ArrayList<>();
+
+        if (false == cacheKeyPrefix.isNone()) {
+            synchronized (this.root) {
+                final RadixTreeCacheStoreNode[] path = new RadixTreeCacheStoreNode[3];
+                final int offset = this.findPrefix(
+                    prefix,
+                    path
+                );
+                if (-1 != offset) {
+                    walk(
+                        path[2],
+                        new StringBuilder(prefix.substring(0, offset)),
+                        null,
+                        null,
+                        (k, n) -> values.add(
+                            n.cacheValue(k)
+                        )
+                    );
+                }
+            }
+        }
+
+        return values;
+    }
+
+    /**
+     * Finds the node below which every key begins with the prefix, and detaches it from its parent in a single step.
+     * The sub tree is then walked only to collect the deleted keys for the watchers.
+     */
+    @Override
+    public void deleteByPrefix(final String prefix) {
+        final CacheKeyPrefix cacheKeyPrefix = CacheKeyPrefix.with(prefix);
+        final Set<CacheKey> deleted = new LinkedHashSet<>();
+
+        if (false == cacheKeyPrefix.isNone()) {
+            synchronized (this.root) {
+                final RadixTreeCacheStoreNode[] path = new RadixTreeCacheStoreNode[3];
+                final int offset = this.findPrefix(
+                    prefix,
+                    path
+                );
+                if (-1 != offset) {
+                    final RadixTreeCacheStoreNode node = path[2];
+
+                    walk(
+                        node,
+                        new StringBuilder(prefix.substring(0, offset)),
+                        null,
+                        null,
+                        (k, n) -> deleted.add(k)
+                    );
+
+                    final RadixTreeCacheStoreNode parent = path[1];
+                    parent.removeChild(node.label[0]);
+                    this.count -= deleted.size();
+
+                    final RadixTreeCacheStoreNode grandParent = path[0];
+                    if (null != grandParent) {
+                        merge(
+                            grandParent,
+                            parent
+                        );
+                    }
+                }
+            }
+        }
+
+        this.fireDeleted(deleted);
+    }
+
+    /**
+     * Finds the highest node whose path begins with the prefix, filling the path with the grand parent, parent and
+     * node, and returning the offset of the node label within the key, or -1 if no key begins with the prefix.
+     */
+    private int findPrefix(final String prefix,
+                           final RadixTreeCacheStoreNode[] path) {
+        final int length = prefix.length();
+
+        RadixTreeCacheStoreNode grandParent = null;
+        RadixTreeCacheStoreNode parent = this.root;
+        int i = 0;
+        int offset = -1;
+
+        while (i < length) {
+            final RadixTreeCacheStoreNode node = parent.child(prefix.charAt(i));
+            if (null == node) {
+                break;
+            }
+            final char[] label = node.label;
+            final int common = common(
+                label,
+                prefix,
+                i
+            );
+            if (i + common == length) {
+                path[0] = grandParent;
+                path[1] = parent;
+                path[2] = node;
+                offset = i;
+                break;
+            }
+            if (common < label.length) {
+                break;
+            }
+            grandParent = parent;
+            parent = node;
+            i += common;
+        }
+
+        return offset;
+    }
+
+    // tree.............................................................................................................
+
+    /**
+     * Must be called while holding the lock. Returns the node holding the value for the given key or null.
+     */
+    private RadixTreeCacheStoreNode find(final CacheKey cacheKey) {
+        final String key = cacheKey.value();
+        final int length = key.length();
+
+        RadixTreeCacheStoreNode node = this.root;
+        int i = 0;
+
+        while (i < length) {
+            node = node.child(key.charAt(i));
+            if (null == node) {
+                break;
+            }
+            final char[] label = node.label;
+            if (common(label, key, i) < label.length) {
+                node = null;
+                break;
+            }
+            i += label.length;
+        }
+
+        return null != node && node.present ?
+            node :
+            null;
+    }
+
+    /**
+     * Must be called while holding the lock. Splits any node whose label only partially matches the key.
+     */
+    private void put(final CacheValue cacheValue) {
+        final String key = cacheValue.key()
+            .value();
+        final int length = key.length();
+
+        RadixTreeCacheStoreNode node = this.root;
+        int i = 0;
+
+        while (i < length) {
+            final RadixTreeCacheStoreNode child = node.child(key.charAt(i));
+            if (null == child) {
+                final RadixTreeCacheStoreNode leaf = RadixTreeCacheStoreNode.with(
+                    key.substring(i)
+                        .toCharArray()
+                );
+                node.setChild(leaf);
+                node = leaf;
+                break;
+            }
+
+            final char[] label = child.label;
+            final int common = common(
+                label,
+                key,
+                i
+            );
+            if (common < label.length) {
+                final RadixTreeCacheStoreNode split = RadixTreeCacheStoreNode.with(
+                    Arrays.copyOf(
+                        label,
+                        common
+                    )
+                );
+                child.label = Arrays.copyOfRange(
+                    label,
+                    common,
+                    label.length
+                );
+                split.setChild(child);
+                node.setChild(split);
+                node = split;
+            } else {
+                node = child;
+            }
+            i += common;
+        }
+
+        if (node.set(cacheValue)) {
+            this.count++;
+        }
+    }
+
+    /**
+     * Must be called while holding the lock. Removes any node left without a value or children, and merges any
+     * node left without a value and a single child.
+     */
+    private boolean remove(final CacheKey cacheKey) {
+        final String key = cacheKey.value();
+        final int length = key.length();
+
+        RadixTreeCacheStoreNode grandParent = null;
+        RadixTreeCacheStoreNode parent = null;
+        RadixTreeCacheStoreNode node = this.root;
+        int i = 0;
+
+        while (i < length) {
+            final RadixTreeCacheStoreNode child = node.child(key.charAt(i));
+            if (null == child) {
+                return false;
+            }
+            final char[] label = child.label;
+            if (common(label, key, i) < label.length) {
+                return false;
+            }
+            grandParent = parent;
+            parent = node;
+            node = child;
+            i += label.length;
+        }
+
+        final boolean removed = null != parent && node.clear();
+        if (removed) {
+            this.count--;
+
+            if (0 == node.childCount) {
+                parent.removeChild(node.label[0]);
+                if (null != grandParent) {
+                    merge(
+                        grandParent,
+                        parent
+                    );
+                }
+            } else {
+                merge(
+                    parent,
+                    node
+                );
+            }
+        }
+
+        return removed;
+    }
+
+    /**
+     * If the node has no value and a single child, the child replaces the node, taking its label as a prefix.
+     */
+    private static void merge(final RadixTreeCacheStoreNode parent,
+                              final RadixTreeCacheStoreNode node) {
+        if (false == node.present) {
+            final RadixTreeCacheStoreNode only = node.onlyChild();
+            if (null != only) {
+                final char[] label = node.label;
+                final char[] merged = Arrays.copyOf(
+                    label,
+                    label.length + only.label.length
+                );
+                System.arraycopy(
+                    only.label,
+                    0,
+                    merged,
+                    label.length,
+                    only.label.length
+                );
+                only.label = merged;
+                parent.setChild(only);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of label characters matching the key starting at the given offset.
+     */
+    private static int common(final char[] label,
+                              final String key,
+                              final int offset) {
+        final int max = Math.min(
+            label.length,
+            key.length() - offset
+        );
+
+        int i = 0;
+        while (i < max && label[i] == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Walks every present node in key order while holding the lock, until the visitor returns false.
+     */
+    private void walk(final BiPredicate<CacheKey, RadixTreeCacheStoreNode> visitor) {
+        synchronized (this.root) {
+            walk(
+                this.root,
+                new StringBuilder(),
+                null,
+                null,
+                visitor
+            );
+        }
+    }
+
+    /**
+     * Must be called while holding the lock. Walks the present nodes in key order, limited to the inclusive range
+     * when from and to are not null. A sub tree is skipped when its path is less than from and not a prefix of from,
+     * and the walk stops at the first path greater than to, as every later key is greater still.
+     * Returns false when the walk should stop.
+     */
+    private static boolean walk(final RadixTreeCacheStoreNode node,
+                                final StringBuilder path,
+                                final String from,
+                                final String to,
+                                final BiPredicate<CacheKey, RadixTreeCacheStoreNode> visitor) {
+        final int length = path.length();
+        path.append(node.label);
+
+        boolean more = true;
+
+        if (null != to && compare(path, to) > 0) {
+            more = false;
+        } else {
+            final boolean afterFrom = null == from || compare(path, from) >= 0;
+            if (afterFrom || startsWith(from, path)) {
+                if (afterFrom && node.present) {
+                    more = visitor.test(
+                        CacheKey.with(path.toString()),
+                        node
+                    );
+                }
+
+                final int slots = node.slots();
+                for (int i = 0; more && i < slots; i++) {
+                    final RadixTreeCacheStoreNode child = node.slot(i);
+                    if (null != child) {
+                        more = walk(
+                            child,
+                            path,
+                            from,
+                            to,
+                            visitor
+                        );
+                    }
+                }
+            }
+        }
+
+        path.setLength(length);
+        return more;
+    }
+
+    /**
+     * Compares the path against a key by character, like {@link String#compareTo(String)}, without creating a
+     * {@link String} from the path.
+     */
+    private static int compare(final StringBuilder path,
+                               final String key) {
+        final int pathLength = path.length();
+        final int keyLength = key.length();
+        final int max = Math.min(
+            pathLength,
+            keyLength
+        );
+
+        for (int i = 0; i < max; i++) {
+            final int difference = path.charAt(i) - key.charAt(i);
+            if (0 != difference) {
+                return difference;
+            }
+        }
+
+        return pathLength - keyLength;
+    }
+
+    private static boolean startsWith(final String key,
+                                      final StringBuilder path) {
+        final int length = path.length();
+
+        boolean startsWith = length <= key.length();
+        for (int i = 0; startsWith && i < length; i++) {
+            startsWith = key.charAt(i) == path.charAt(i);
+        }
+        return startsWith;
+    }
+
+    /**
+     * The root has an empty label and never holds a value, as every {@link CacheKey} has at least one character. It is
+     * also the lock guarding the tree.
+     */
+    private final RadixTreeCacheStoreNode root = RadixTreeCacheStoreNode.root();
+
+    @Override
+    public String toString() {
+        return this.values(
+            0,
+            Integer.MAX_VALUE
+        ).toString();
+    }
+}
@@ -0,0 +1,322 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * A node within a {@link RadixTreeCacheStore}. Each node holds the {@link #label} shared by every key below it, and
+ * the value of the key ending at this node if {@link #present}. Leaves share an empty children array, children are
+ * then kept in a small array sorted by their first character which doubles until {@link #SPARSE_MAX}, before becoming
+ * a dense array indexed by {@link CacheKey#PART} character, similar to the adaptive node sizes of an adaptive radix
+ * tree.
+ * <br>
+ * This class is not thread safe and must be guarded by its owner.
+ */
+final class RadixTreeCacheStoreNode {
+
+    /**
+     * The most children kept in the sorted sparse array, before switching to the dense array.
+     */
+    final static int SPARSE_MAX = 8;
+
+    /**
+     * The number of {@link CacheKey#PART} characters, which is the size of the dense array.
+     */
+    final static int DENSE_SIZE = 1 + 10 + 26 + 26;
+
+    static RadixTreeCacheStoreNode root() {
+        return new RadixTreeCacheStoreNode(new char[0]);
+    }
+
+    static RadixTreeCacheStoreNode with(final char[] label) {
+        return new RadixTreeCacheStoreNode(label);
+    }
+
+    private RadixTreeCacheStoreNode(final char[] label) {
+        super();
+        this.label = label;
+    }
+
+    /**
+     * The characters shared by every key below this node, following the characters of all its parents.
+     */
+    char[] label;
+
+    // value............................................................................................................
+
+    /**
+     * Records a value for the key ending at this node, returning true if no previous value was present.
+     */
+    boolean set(final CacheValue cacheValue) {
+        final boolean added = false == this.present;
+
+        this.present = true;
+        this.value = cacheValue.valueOrNull();
+        this.expireAfterWrite = cacheValue.expireAfterWrite();
+        this.expireAfterAccess = cacheValue.expireAfterAccess();
+        this.generation = cacheValue.generation();
+
+        return added;
+    }
+
+    /**
+     * Clears any value returning true if one was present.
+     */
+    boolean clear() {
+        final boolean removed = this.present;
+
+        this.present = false;
+        this.value = null;
+        this.expireAfterWrite = null;
+        this.expireAfterAccess = null;
+        this.generation = CacheValue.NO_GENERATION;
+
+        return removed;
+    }
+
+    /**
+     * Creates a {@link CacheValue} for the value at this node, the {@link CacheKey} is not kept by the tree.
+     */
+    CacheValue cacheValue(final CacheKey cacheKey) {
+        return CacheValue.withValueOrNull(
+            cacheKey,
+            this.value,
+            this.expireAfterWrite,
+            this.expireAfterAccess,
+            this.generation
+        );
+    }
+
+    /**
+     * When true a key ends at this node.
+     */
+    boolean present;
+
+    private Object value;
+
+    private Optional<Duration> expireAfterWrite;
+
+    private Optional<Duration> expireAfterAccess;
+
+    private long generation;
+
+    // children.........................................................................................................
+
+    /**
+     * Returns the child whose label begins with the given character or null.
+     */
+    RadixTreeCacheStoreNode child(final char c) {
+        final RadixTreeCacheStoreNode child;
+
+        final char[] sparse = this.sparse;
+        if (null != sparse) {
+            final int i = Arrays.binarySearch(
+                sparse,
+                0,
+                this.childCount,
+                c
+            );
+            child = i >= 0 ?
+                this.children[i] :
+                null;
+        } else {
+            child = this.children[dense(c)];
+        }
+
+        return child;
+    }
+
+    /**
+     * Adds or replaces the child, using the first character of its label.
+     */
+    void setChild(final RadixTreeCacheStoreNode child) {
+        final char c = child.label[0];
+
+        final char[] sparse = this.sparse;
+        if (null != sparse) {
+            final int childCount = this.childCount;
+            final int i = Arrays.binarySearch(
+                sparse,
+                0,
+                childCount,
+                c
+            );
+            if (i >= 0) {
+                this.children[i] = child;
+            } else {
+                if (childCount == SPARSE_MAX) {
+                    this.dense();
+                    this.setChild(child);
+                } else {
+                    if (childCount == sparse.length) {
+                        final int length = Math.max(2, childCount * 2);
+                        this.sparse = Arrays.copyOf(sparse, length);
+                        this.children = Arrays.copyOf(this.children, length);
+                    }
+
+                    final int insert = -i - 1;
+                    final int move = childCount - insert;
+
+                    System.arraycopy(this.sparse, insert, this.sparse, insert + 1, move);
+                    System.arraycopy(this.children, insert, this.children, insert + 1, move);
+
+                    this.sparse[insert] = c;
+                    this.children[insert] = child;
+                    this.childCount++;
+                }
+            }
+        } else {
+            final int i = dense(c);
+            if (null == this.children[i]) {
+                this.childCount++;
+            }
+            this.children[i] = child;
+        }
+    }
+
+    /**
+     * Moves the sparse children into a dense array.
+     */
+    private void dense() {
+        final RadixTreeCacheStoreNode[] dense = new RadixTreeCacheStoreNode[DENSE_SIZE];
+
+        final char[] sparse = this.sparse;
+        final int childCount = this.childCount;
+        for (int i = 0; i < childCount; i++) {
+            dense[dense(sparse[i])] = this.children[i];
+        }
+
+        this.sparse = null;
+        this.children = dense;
+    }
+
+    /**
+     * Removes the child whose label begins with the given character.
+     */
+    void removeChild(final char c) {
+        final char[] sparse = this.sparse;
+        if (null != sparse) {
+            final int childCount = this.childCount;
+            final int i = Arrays.binarySearch(
+                sparse,
+                0,
+                childCount,
+                c
+            );
+            if (i >= 0) {
+                final int move = childCount - i - 1;
+
+                System.arraycopy(sparse, i + 1, sparse, i, move);
+                System.arraycopy(this.children, i + 1, this.children, i, move);
+
+                this.children[childCount - 1] = null;
+                this.childCount--;
+            }
+        } else {
+            final int i = dense(c);
+            if (null != this.children[i]) {
+                this.children[i] = null;
+                this.childCount--;
+            }
+        }
+    }
+
+    /**
+     * The number of slots that should be visited by {@link #slot(int)}.
+     */
+    int slots() {
+        return null != this.sparse ?
+            this.childCount :
+            DENSE_SIZE;
+    }
+
+    /**
+     * Returns the child in the given slot, which may be null for a dense node. Slots are in character order.
+     */
+    RadixTreeCacheStoreNode slot(final int i) {
+        return this.children[i];
+    }
+
+    /**
+     * Returns the only child, or null if there are zero or more than one.
+     */
+    RadixTreeCacheStoreNode onlyChild() {
+        RadixTreeCacheStoreNode only = null;
+
+        if (1 == this.childCount) {
+            final int slots = this.slots();
+            for (int i = 0; i < slots; i++) {
+                only = this.children[i];
+                if (null != only) {
+                    break;
+                }
+            }
+        }
+
+        return only;
+    }
+
+    /**
+     * The number of children.
+     */
+    int childCount;
+
+    /**
+     * The first character of each child sorted, or null once the children are dense.
+     */
+    private char[] sparse = NO_SPARSE;
+
+    private RadixTreeCacheStoreNode[] children = NO_CHILDREN;
+
+    private final static char[] NO_SPARSE = new char[0];
+
+    private final static RadixTreeCacheStoreNode[] NO_CHILDREN = new RadixTreeCacheStoreNode[0];
+
+    /**
+     * Maps a {@link CacheKey#PART} character to its dense slot, preserving character order.
+     */
+    static int dense(final char c) {
+        final int i;
+
+        if ('.' == c) {
+            i = 0;
+        } else if (c <= '9') {
+            i = 1 + c - '0';
+        } else if (c <= 'Z') {
+            i = 1 + 10 + c - 'A';
+        } else {
+            i = 1 + 10 + 26 + c - 'a';
+        }
+
+        return i;
+    }
+
+    // Object...........................................................................................................
+
+    @Override
+    public String toString() {
+        return new String(this.label) +
+            (this.present ? "=" + this.value : "") +
+            " " +
+            this.childCount;
+    }
+}
@@ -0,0 +1,378 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+import walkingkooka.watch.Watchers;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * A {@link CacheStore} that holds the value of each {@link CacheValue} with a {@link SoftReference} or
+ * {@link WeakReference}, so the garbage collector may reclaim values rather than fail with an {@link OutOfMemoryError}.
+ * This suits values that can always be recomputed. A load of a reclaimed value is a miss, and the ordered queries skip
+ * reclaimed values. Cleared references are collected by a {@link ReferenceQueue}, which is drained by each write and
+ * {@link #count()}, removing their entries in bulk without notifying delete watchers.
+ * <br>
+ * Entries are kept in a {@link ConcurrentSkipListMap}, so loads never take a lock.
+ */
+final class ReferenceCacheStore implements CacheStore {
+
+    /**
+     * Values are reclaimed only when memory is low.
+     */
+    static ReferenceCacheStore soft() {
+        return new ReferenceCacheStore(ReferenceCacheStoreSoftReference::with);
+    }
+
+    /**
+     * Values are reclaimed as soon as they are only reachable from this store.
+     */
+    static ReferenceCacheStore weak() {
+        return new ReferenceCacheStore(ReferenceCacheStoreWeakReference::with);
+    }
+
+    private ReferenceCacheStore(final BiFunction<CacheValue, ReferenceQueue<Object>, ReferenceCacheStoreReference> references) {
+        super();
+        this.references = references;
+    }
+
+    @Override
+    public Optional<CacheValue> load(final CacheKey cacheKey) {
+        return Optional.ofNullable(
+            this.loadOrNull(cacheKey)
+        );
+    }
+
+    @Override
+    public CacheValue loadOrNull(final CacheKey cacheKey) {
+        Objects.requireNonNull(cacheKey, "cacheKey");
+
+        final ReferenceCacheStoreReference reference = this.keyToReference.get(cacheKey);
+        return null != reference ?
+            reference.cacheValueOrNull() :
+            null;
+    }
+
+    @Override
+    public CacheValue save(final CacheValue cacheValue) {
+        Objects.requireNonNull(cacheValue, "cacheValue");
+
+        this.purge();
+        this.put(cacheValue);
+        this.saveWatchers.accept(cacheValue);
+        return cacheValue;
+    }
+
+    private void put(final CacheValue cacheValue) {
+        if (null == this.keyToReference.put(cacheValue.key(), this.references.apply(cacheValue, this.queue))) {
+            this.count.incrementAndGet();
+        }
+    }
+
+    @Override
+    public Runnable addSaveWatcher(final Consumer<CacheValue> watcher) {
+        return this.saveWatchers.add(watcher);
+    }
+
+    private final Watchers<CacheValue> saveWatchers = Watchers.create();
+
+    @Override
+    public void delete(final CacheKey cacheKey) {
+        Objects.requireNonNull(cacheKey, "cacheKey");
+
+        this.purge();
+        if (null != this.keyToReference.remove(cacheKey)) {
+            this.count.decrementAndGet();
+            this.deleteWatchers.accept(cacheKey);
+        }
+    }
+
+    @Override
+    public Runnable addDeleteWatcher(final Consumer<CacheKey> watcher) {
+        return this.deleteWatchers.add(watcher);
+    }
+
+    private final Watchers<CacheKey> deleteWatchers = Watchers.create();
+
+    @Override
+    public Map<CacheKey, CacheValue> loadAll(final Collection<CacheKey> cacheKeys) {
+        CacheStoreChecks.all(cacheKeys, "cacheKeys");
+
+        final Map<CacheKey, CacheValue> loaded = new LinkedHashMap<>();
+
+        for (final CacheKey cacheKey : cacheKeys) {
+            final CacheValue value = this.loadOrNull(cacheKey);
+            if (null != value) {
+                loaded.put(
+                    cacheKey,
+                    value
+                );
+            }
+        }
+
+        return loaded;
+    }
+
+    @Override
+    public List<CacheValue> saveAll(final Collection<CacheValue> cacheValues) {
+        CacheStoreChecks.all(cacheValues, "cacheValues");
+
+        final List<CacheValue> saved = Collections.unmodifiableList(
+            new ArrayList<>(cacheValues)
+        );
+
+        this.purge();
+        for (final CacheValue cacheValue : saved) {
+            this.put(cacheValue);
+        }
+
+        if (false == saved.isEmpty()) {
+            this.saveAllWatchers.accept(saved);
+        }
+        return saved;
+    }
+
+    @Override
+    public Runnable addSaveAllWatcher(final Consumer<List<CacheValue>> watcher) {
+        return this.saveAllWatchers.add(watcher);
+    }
+
+    private final Watchers<List<CacheValue>> saveAllWatchers = Watchers.create();
+
+    @Override
+    public void deleteAll(final Collection<CacheKey> cacheKeys) {
+        CacheStoreChecks.all(cacheKeys, "cacheKeys");
+
+        final ConcurrentSkipListMap<CacheKey, ReferenceCacheStoreReference> keyToReference = this.keyToReference;
+        final Set<CacheKey> deleted = new LinkedHashSet<>();
+
+        this.purge();
+        for (final CacheKey cacheKey : cacheKeys) {
+            if (null != keyToReference.remove(cacheKey)) {
+                this.count.decrementAndGet();
+                deleted.add(cacheKey);
+            }
+        }
+
+        if (false == deleted.isEmpty()) {
+            this.deleteAllWatchers.accept(
+                Collections.unmodifiableSet(deleted)
+            );
+        }
+    }
+
+    @Override
+    public Runnable addDeleteAllWatcher(final Consumer<Set<CacheKey>> watcher) {
+        return this.deleteAllWatchers.add(watcher);
+    }
+
+    private final Watchers<Set<CacheKey>> deleteAllWatchers = Watchers.create();
+
+    /**
+     * Drains cleared references before counting, entries cleared but not yet enqueued by the garbage collector are
+     * still counted.
+     */
+    @Override
+    public int count() {
+        this.purge();
+        return this.count.get();
+    }
+
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public Set<CacheKey> ids(final int offset,
+                             final int count) {
+        CacheStoreChecks.offsetAndCount(
+            offset,
+            count
+        );
+
+        final Set<CacheKey> ids = new TreeSet<>();
+
+        int skip = offset;
+        for (final ReferenceCacheStoreReference reference : this.keyToReference.values()) {
+            if (ids.size() == count) {
+                break;
+            }
+            if (null == reference.get()) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            ids.add(
+                reference.withoutValue()
+                    .key()
+            );
+        }
+
+        return ids;
+    }
+
+    @Override
+    public List<CacheValue> values(final int offset,
+                                   final int count) {
+        CacheStoreChecks.offsetAndCount(
+            offset,
+            count
+        );
+
+        final List<CacheValue> values = new ArrayList<>();
+
+        int skip = offset;
+        for (final ReferenceCacheStoreReference reference : this.keyToReference.values()) {
+            if (values.size() == count) {
+                break;
+            }
+            final CacheValue value = reference.cacheValueOrNull();
+            if (null == value) {
+                continue;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            values.add(value);
+        }
+
+        return values;
+    }
+
+    @Override
+    public List<CacheValue> between(final CacheKey from,
+                                    final CacheKey to) {
+        CacheStoreChecks.between(
+            from,
+            to
+        );
+
+        final List<CacheValue> values = new ArrayList<>();
+
+        if (from.compareTo(to) <= 0) {
+            for (final ReferenceCacheStoreReference reference : this.keyToReference.subMap(from, true, to, true).values()) {
+                final CacheValue value = reference.cacheValueOrNull();
+                if (null != value) {
+                    values.add(value);
+                }
+            }
+        }
+
+        return values;
+    }
+
+    // stream...........................................................................................................
+
+    /**
+     * Streams the weakly consistent entries in key order, skipping reclaimed values.
+     */
+    @Override
+    public Stream<CacheValue> stream() {
+        return stream(
+            this.keyToReference.values()
+        );
+    }
+
+    @Override
+    public Stream<CacheValue> stream(final CacheKey from,
+                                     final CacheKey to) {
+        CacheStoreChecks.between(
+            from,
+            to
+        );
+
+        return from.compareTo(to) <= 0 ?
+            stream(
+                this.keyToReference.subMap(
+                    from,
+                    true,
+                    to,
+                    true
+                ).values()
+            ) :
+            Stream.empty();
+    }
+
+    private static Stream<CacheValue> stream(final Collection<ReferenceCacheStoreReference> references) {
+        return references.stream()
+            .map(ReferenceCacheStoreReference::cacheValueOrNull)
+            .filter(Objects::nonNull);
+    }
+
+    // references.......................................................................................................
+
+    /**
+     * Removes the entries of all references cleared by the garbage collector. An entry is only removed if it still
+     * holds the cleared reference, and was not replaced by a later save.
+     */
+    private void purge() {
+        final ReferenceQueue<Object> queue = this.queue;
+        final ConcurrentSkipListMap<CacheKey, ReferenceCacheStoreReference> keyToReference = this.keyToReference;
+
+        for (; ; ) {
+            final Reference<?> cleared = queue.poll();
+            if (null == cleared) {
+                break;
+            }
+
+            final ReferenceCacheStoreReference reference = (ReferenceCacheStoreReference) cleared;
+            if (keyToReference.remove(reference.withoutValue().key(), reference)) {
+                this.count.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Creates either a soft or weak reference to the value of a {@link CacheValue}.
+     */
+    private final BiFunction<CacheValue, ReferenceQueue<Object>, ReferenceCacheStoreReference> references;
+
+    /**
+     * Receives references once their value has been reclaimed.
+     */
+    private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+    private final ConcurrentSkipListMap<CacheKey, ReferenceCacheStoreReference> keyToReference = new ConcurrentSkipListMap<>();
+
+    @Override
+    public String toString() {
+        return this.keyToReference.values()
+            .toString();
+    }
+}
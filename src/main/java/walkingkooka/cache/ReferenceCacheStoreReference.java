@@ -0,0 +1,84 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+import java.util.Optional;
+
+/**
+ * The entry kept by {@link ReferenceCacheStore} for each {@link CacheKey}, implemented by a {@link java.lang.ref.SoftReference}
+ * or {@link java.lang.ref.WeakReference} to the value, along with the {@link CacheValue} without its value.
+ */
+interface ReferenceCacheStoreReference {
+
+    /**
+     * Referenced in place of an empty value, as a null referent cannot be told apart from a cleared reference. This
+     * is always strongly reachable so is never cleared.
+     */
+    Object EMPTY = new Object();
+
+    /**
+     * Returns the value to be referenced for the given {@link CacheValue}.
+     */
+    static Object referent(final CacheValue cacheValue) {
+        final Object value = cacheValue.valueOrNull();
+        return null != value ?
+            value :
+            EMPTY;
+    }
+
+    /**
+     * Returns the {@link CacheValue} without its value, which is always strongly held.
+     */
+    static CacheValue withoutValue(final CacheValue cacheValue) {
+        return cacheValue.setValue(Optional.empty());
+    }
+
+    /**
+     * The referenced value, which is null once cleared.
+     */
+    Object get();
+
+    /**
+     * The {@link CacheValue} without its value.
+     */
+    CacheValue withoutValue();
+
+    /**
+     * Returns the {@link CacheValue} or null if the value has been reclaimed by the garbage collector.
+     */
+    default CacheValue cacheValueOrNull() {
+        final Object value = this.get();
+
+        CacheValue cacheValue = null;
+        if (null != value) {
+            final CacheValue withoutValue = this.withoutValue();
+
+            cacheValue = CacheValue.withValueOrNull(
+                withoutValue.key(),
+                EMPTY == value ?
+                    null :
+                    value,
+                withoutValue.expireAfterWrite(),
+                withoutValue.expireAfterAccess(),
+                withoutValue.generation()
+            );
+        }
+        return cacheValue;
+    }
+}
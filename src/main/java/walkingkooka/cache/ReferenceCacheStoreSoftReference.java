@@ -0,0 +1,57 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+
+/**
+ * A {@link ReferenceCacheStoreReference} that holds the value with a {@link SoftReference}.
+ */
+final class ReferenceCacheStoreSoftReference extends SoftReference<Object> implements ReferenceCacheStoreReference {
+
+    static ReferenceCacheStoreSoftReference with(final CacheValue cacheValue,
+                                                 final ReferenceQueue<Object> queue) {
+        return new ReferenceCacheStoreSoftReference(
+            cacheValue,
+            queue
+        );
+    }
+
+    private ReferenceCacheStoreSoftReference(final CacheValue cacheValue,
+                                             final ReferenceQueue<Object> queue) {
+        super(
+            ReferenceCacheStoreReference.referent(cacheValue),
+            queue
+        );
+        this.withoutValue = ReferenceCacheStoreReference.withoutValue(cacheValue);
+    }
+
+    @Override
+    public CacheValue withoutValue() {
+        return this.withoutValue;
+    }
+
+    private final CacheValue withoutValue;
+
+    @Override
+    public String toString() {
+        return this.withoutValue.key() + "=" + this.get();
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import walkingkooka.text.Indentation;
+import walkingkooka.text.printer.TreePrintable;
+
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+
+/**
+ * A {@link CacheValueWeigher} that estimates the retained size in bytes of the {@link CacheValue#value()}, assuming a
+ * 64 bit JVM with compressed references. Strings, arrays, {@link Collection collections}, {@link Map maps} and
+ * {@link Optional} are walked, other {@link TreePrintable} values are estimated from the output of their
+ * {@link TreePrintable#printTree(walkingkooka.text.printer.IndentingPrinter)}, counting each printed line as an
+ * object and each printed character, including indentation, as a byte. Any remaining value is counted as a small object. Objects reachable more than once are
+ * only counted once. The estimate is only meant to compare the relative cost of entries, not to be exact.
+ */
+final class RetainedSizeCacheValueWeigher implements CacheValueWeigher {
+
+    /**
+     * Singleton
+     */
+    final static RetainedSizeCacheValueWeigher INSTANCE = new RetainedSizeCacheValueWeigher();
+
+    final static long OBJECT = 16;
+
+    final static long REFERENCE = 4;
+
+    final static long LONG = 8;
+
+    /**
+     * The header and fields of a {@link String} and its backing array.
+     */
+    final static long STRING = 40;
+
+    final static long ARRAY = 16;
+
+    /**
+     * The cost of a node or entry within a collection or map.
+     */
+    final static long ENTRY = 32;
+
+    /**
+     * The cost of the {@link CacheValue}, its {@link CacheKey} and their fields, before its value. The value is held
+     * directly by a field rather than an {@link Optional}.
+     */
+    final static long CACHE_VALUE = 2 * OBJECT + 6 * REFERENCE + LONG;
+
+    private RetainedSizeCacheValueWeigher() {
+        super();
+    }
+
+    @Override
+    public long weigh(final CacheValue value) {
+        final Object object = value.valueOrNull();
+
+        return CACHE_VALUE +
+            STRING + value.key().value().length() +
+            (null != object ?
+                weigh(
+                    object,
+                    new IdentityHashMap<>()
+                ) :
+                0);
+    }
+
+    private static long weigh(final Object value,
+                              final IdentityHashMap<Object, Object> visited) {
+        long weight = 0;
+
+        if (null != value && null == visited.put(value, value)) {
+            if (value instanceof String) {
+                weight = STRING + ((String) value).length();
+            } else if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+                weight = OBJECT + 8;
+            } else if (value instanceof Optional) {
+                weight = OBJECT + REFERENCE + weigh(
+                    ((Optional<?>) value).orElse(null),
+                    visited
+                );
+            } else if (value instanceof Collection) {
+                weight = OBJECT;
+                for (final Object element : (Collection<?>) value) {
+                    weight += ENTRY + weigh(
+                        element,
+                        visited
+                    );
+                }
+            } else if (value instanceof Map) {
+                weight = OBJECT;
+                for (final Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                    weight += ENTRY +
+                        weigh(
+                            entry.getKey(),
+                            visited
+                        ) +
+                        weigh(
+                            entry.getValue(),
+                            visited
+                        );
+                }
+            } else if (value instanceof Object[]) {
+                final Object[] array = (Object[]) value;
+                weight = ARRAY + array.length * REFERENCE;
+                for (final Object element : array) {
+                    weight += weigh(
+                        element,
+                        visited
+                    );
+                }
+            } else if (value instanceof byte[] || value instanceof boolean[]) {
+                weight = ARRAY + (value instanceof byte[] ? ((byte[]) value).length : ((boolean[]) value).length);
+            } else if (value instanceof char[] || value instanceof short[]) {
+                weight = ARRAY + 2L * (value instanceof char[] ? ((char[]) value).length : ((short[]) value).length);
+            } else if (value instanceof int[] || value instanceof float[]) {
+                weight = ARRAY + 4L * (value instanceof int[] ? ((int[]) value).length : ((float[]) value).length);
+            } else if (value instanceof long[] || value instanceof double[]) {
+                weight = ARRAY + 8L * (value instanceof long[] ? ((long[]) value).length : ((double[]) value).length);
+            } else if (value instanceof TreePrintable) {
+                // each printed line is roughly one node, its text roughly the fields of that node
+                final RetainedSizeCacheValueWeigherPrinter printer = RetainedSizeCacheValueWeigherPrinter.empty();
+                ((TreePrintable) value).printTree(
+                    printer.indenting(Indentation.SPACES2)
+                );
+                weight = OBJECT +
+                    printer.lines * (OBJECT + REFERENCE) +
+                    printer.characters;
+            } else {
+                weight = OBJECT + 2 * REFERENCE;
+            }
+        }
+
+        return weight;
+    }
+
+    @Override
+    public String toString() {
+        return "retained size";
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import walkingkooka.text.LineEnding;
+import walkingkooka.text.printer.Printer;
+
+/**
+ * A {@link Printer} that discards what is printed, only counting the characters and lines, so
+ * {@link RetainedSizeCacheValueWeigher} can measure the output of {@link walkingkooka.text.printer.TreePrintable#printTree}
+ * without building the text.
+ */
+final class RetainedSizeCacheValueWeigherPrinter implements Printer {
+
+    static RetainedSizeCacheValueWeigherPrinter empty() {
+        return new RetainedSizeCacheValueWeigherPrinter();
+    }
+
+    private RetainedSizeCacheValueWeigherPrinter() {
+        super();
+    }
+
+    @Override
+    public void print(final CharSequence chars) {
+        final int length = chars.length();
+        for (int i = 0; i < length; i++) {
+            if ('\n' == chars.charAt(i)) {
+                this.lines++;
+            }
+        }
+        this.characters += length;
+    }
+
+    /**
+     * The number of characters printed, including indentation and line endings.
+     */
+    long characters;
+
+    /**
+     * The number of lines printed, each roughly one node of the tree.
+     */
+    long lines;
+
+    @Override
+    public LineEnding lineEnding() {
+        return LineEnding.NL;
+    }
+
+    @Override
+    public void flush() {
+        // nop
+    }
+
+    @Override
+    public void close() {
+        // nop
+    }
+
+    @Override
+    public String toString() {
+        return this.characters + " characters " + this.lines + " lines";
+    }
+}
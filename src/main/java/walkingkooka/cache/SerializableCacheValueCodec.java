@@ -0,0 +1,112 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+
+/**
+ * A {@link CacheValueCodec} that uses java serialization, supporting any {@link Serializable} value.
+ */
+final class SerializableCacheValueCodec implements CacheValueCodec {
+
+    /**
+     * Singleton
+     */
+    final static SerializableCacheValueCodec INSTANCE = new SerializableCacheValueCodec();
+
+    private SerializableCacheValueCodec() {
+        super();
+    }
+
+    @Override
+    public byte[] encode(final Object value) {
+        if (false == value instanceof Serializable) {
+            throw new IllegalArgumentException("Expected Serializable got " + value.getClass().getName());
+        }
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+            output.writeObject(value);
+        } catch (final IOException cause) {
+            throw new IllegalArgumentException("Unable to serialize " + value.getClass().getName() + ": " + cause.getMessage(), cause);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Override
+    public Object decode(final ByteBuffer bytes) {
+        try (final ObjectInputStream input = new ObjectInputStream(new ByteBufferInputStream(bytes))) {
+            return input.readObject();
+        } catch (final IOException cause) {
+            throw new UncheckedIOException(cause);
+        } catch (final ClassNotFoundException cause) {
+            throw new IllegalStateException(cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Reads the remaining bytes of a {@link ByteBuffer} without first copying them to an array.
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        ByteBufferInputStream(final ByteBuffer bytes) {
+            this.bytes = bytes;
+        }
+
+        @Override
+        public int read() {
+            final ByteBuffer bytes = this.bytes;
+            return bytes.hasRemaining() ?
+                bytes.get() & 0xff :
+                -1;
+        }
+
+        @Override
+        public int read(final byte[] buffer,
+                        final int offset,
+                        final int length) {
+            final ByteBuffer bytes = this.bytes;
+            if (false == bytes.hasRemaining()) {
+                return -1;
+            }
+
+            final int read = Math.min(length, bytes.remaining());
+            bytes.get(buffer, offset, read);
+            return read;
+        }
+
+        @Override
+        public int available() {
+            return this.bytes.remaining();
+        }
+
+        private final ByteBuffer bytes;
+    }
+
+    @Override
+    public String toString() {
+        return "Serializable";
+    }
+}
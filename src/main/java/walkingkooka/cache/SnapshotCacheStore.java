@@ -0,0 +1,32 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+/**
+ * A {@link CacheStore} that can cheaply provide a point in time view of its entries.
+ */
+public interface SnapshotCacheStore extends CacheStore {
+
+    /**
+     * Returns an immutable read only {@link CacheStore} holding the entries present when it was taken, which is never
+     * affected by later writes. Taking a snapshot is O(1), and readers of the snapshot never block writers of this
+     * store or each other. Writes to the snapshot throw {@link UnsupportedOperationException}.
+     */
+    SnapshotCacheStore snapshot();
+}
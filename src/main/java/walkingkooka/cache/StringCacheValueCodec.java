@@ -0,0 +1,55 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A {@link CacheValueCodec} that encodes {@link String} values as UTF-8.
+ */
+final class StringCacheValueCodec implements CacheValueCodec {
+
+    /**
+     * Singleton
+     */
+    final static StringCacheValueCodec INSTANCE = new StringCacheValueCodec();
+
+    private StringCacheValueCodec() {
+        super();
+    }
+
+    @Override
+    public byte[] encode(final Object value) {
+        if (false == value instanceof String) {
+            throw new IllegalArgumentException("Expected String got " + value.getClass().getName());
+        }
+        return ((String) value).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public Object decode(final ByteBuffer bytes) {
+        return StandardCharsets.UTF_8.decode(bytes)
+            .toString();
+    }
+
+    @Override
+    public String toString() {
+        return "UTF-8";
+    }
+}
@@ -0,0 +1,514 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import walkingkooka.watch.Watchers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A {@link CacheStore} that places a small fast L1 {@link CacheStore} in front of a larger L2 {@link CacheStore}.
+ * <br>
+ * Saves always go to L1, deleting any older copy held by L2 or a pending demotion. When L1 is a {@link BoundedCacheStore} its evictions are demoted to L2, and hits in L2 are
+ * promoted back to L1. Both moves are performed by tasks given to the {@link Executor}, so a {@link #load(CacheKey)}
+ * never waits for them. L1 reports an eviction before it deletes the entry, and the evicted value is then held in a
+ * pending map until the demotion completes, so it never disappears from view.
+ * <br>
+ * An entry is normally held by one tier, but may briefly be held by both while it moves. Reads therefore prefer L1, then
+ * pending demotions, then L2. {@link #count()} sums the counts of the tiers and pending demotions, and may briefly count
+ * an entry that is moving twice. {@link #ids(int, int)} and {@link #values(int, int)} merge the ids of the tiers a page
+ * at a time, loading only the values returned, {@link #stream()} merges them lazily, while
+ * {@link #between(CacheKey, CacheKey)} merges the values in the range. The tiers should be empty or hold different
+ * keys when given.
+ * <br>
+ * Saves, deletes, demotions and promotions of the same key are serialized by a striped lock, so a move never overwrites
+ * a newer value. A delete removes the key from L1 before its pending demotion, and L1 cannot complete that delete
+ * while an eviction of the key is being reported, so a deleted entry is never demoted back into L2. The executor should
+ * run tasks on another thread, because running a demotion inline while another key is locked could deadlock.
+ */
+final class TieredCacheStore implements CacheStore {
+
+    /**
+     * The number of lock stripes, a power of two.
+     */
+    private final static int STRIPES = 64;
+
+    static TieredCacheStore with(final CacheStore l1,
+                                 final CacheStore l2,
+                                 final Executor executor) {
+        Objects.requireNonNull(l1, "l1");
+        Objects.requireNonNull(l2, "l2");
+        Objects.requireNonNull(executor, "executor");
+
+        if (l1 == l2) {
+            throw new IllegalArgumentException("L1 and L2 must be different stores");
+        }
+
+        return new TieredCacheStore(
+            l1,
+            l2,
+            executor
+        );
+    }
+
+    private TieredCacheStore(final CacheStore l1,
+                             final CacheStore l2,
+                             final Executor executor) {
+        this.l1 = l1;
+        this.l2 = l2;
+        this.executor = executor;
+
+        final Object[] locks = new Object[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new Object();
+        }
+        this.locks = locks;
+
+        if (l1 instanceof BoundedCacheStore) {
+            ((BoundedCacheStore) l1).addEvictionWatcher(this::demote);
+        }
+    }
+
+    @Override
+    public Optional<CacheValue> load(final CacheKey cacheKey) {
+        return Optional.ofNullable(
+            this.loadOrNull(cacheKey)
+        );
+    }
+
+    @Override
+    public CacheValue loadOrNull(final CacheKey cacheKey) {
+        Objects.requireNonNull(cacheKey, "cacheKey");
+
+        CacheValue loaded = this.l1.loadOrNull(cacheKey);
+        if (null == loaded) {
+            loaded = this.pending.get(cacheKey);
+            if (null == loaded) {
+                loaded = this.l2.loadOrNull(cacheKey);
+                if (null != loaded) {
+                    this.promote(cacheKey);
+                }
+            }
+        }
+
+        return loaded;
+    }
+
+    @Override
+    public CacheValue save(final CacheValue cacheValue) {
+        Objects.requireNonNull(cacheValue, "cacheValue");
+
+        this.saveLocked(cacheValue);
+
+        this.saveWatchers.accept(cacheValue);
+        return cacheValue;
+    }
+
+    /**
+     * Saves the value to L1, and then deletes any older copy held by a pending demotion or L2, so it can never be
+     * promoted or loaded again. Only the pending value read before the save is removed, because L1 may evict the new
+     * value while it is saved.
+     */
+    private void saveLocked(final CacheValue cacheValue) {
+        final CacheKey cacheKey = cacheValue.key();
+
+        synchronized (this.lock(cacheKey)) {
+            final CacheValue pending = this.pending.get(cacheKey);
+
+            this.l1.save(cacheValue);
+
+            if (null != pending) {
+                this.pending.remove(
+                    cacheKey,
+                    pending
+                );
+            }
+            this.l2.delete(cacheKey);
+        }
+    }
+
+    @Override
+    public Runnable addSaveWatcher(final Consumer<CacheValue> watcher) {
+        return this.saveWatchers.add(watcher);
+    }
+
+    private final Watchers<CacheValue> saveWatchers = Watchers.create();
+
+    @Override
+    public void delete(final CacheKey cacheKey) {
+        Objects.requireNonNull(cacheKey, "cacheKey");
+
+        if (this.deleteLocked(cacheKey)) {
+            this.deleteWatchers.accept(cacheKey);
+        }
+    }
+
+    /**
+     * Deletes the key from both tiers and any pending demotion, returning true if any held it. The pending demotion is
+     * removed after the L1 delete, which waits for any eviction of the key to be reported to {@link #demote(CacheValue)}.
+     */
+    private boolean deleteLocked(final CacheKey cacheKey) {
+        synchronized (this.lock(cacheKey)) {
+            final CacheStore l1 = this.l1;
+            final CacheStore l2 = this.l2;
+
+            boolean present = l1.load(cacheKey).isPresent();
+            l1.delete(cacheKey);
+
+            present |= null != this.pending.remove(cacheKey);
+
+            present |= l2.load(cacheKey).isPresent();
+            l2.delete(cacheKey);
+
+            return present;
+        }
+    }
+
+    @Override
+    public Runnable addDeleteWatcher(final Consumer<CacheKey> watcher) {
+        return this.deleteWatchers.add(watcher);
+    }
+
+    private final Watchers<CacheKey> deleteWatchers = Watchers.create();
+
+    /**
+     * Keys missing from L1 are loaded from the pending demotions and then L2 in a single {@link CacheStore#loadAll(Collection)}.
+     */
+    @Override
+    public Map<CacheKey, CacheValue> loadAll(final Collection<CacheKey> cacheKeys) {
+        CacheStoreChecks.all(cacheKeys, "cacheKeys");
+
+        return this.loadAll(
+            cacheKeys,
+            true
+        );
+    }
+
+    /**
+     * Loads the keys from L1, then pending demotions, then L2, optionally promoting L2 hits.
+     */
+    private Map<CacheKey, CacheValue> loadAll(final Collection<CacheKey> cacheKeys,
+                                              final boolean promote) {
+        final Map<CacheKey, CacheValue> l1 = this.l1.loadAll(cacheKeys);
+
+        final List<CacheKey> missing = new ArrayList<>();
+        final Map<CacheKey, CacheValue> pending = new LinkedHashMap<>();
+        for (final CacheKey cacheKey : cacheKeys) {
+            if (false == l1.containsKey(cacheKey)) {
+                final CacheValue value = this.pending.get(cacheKey);
+                if (null != value) {
+                    pending.put(cacheKey, value);
+                } else {
+                    missing.add(cacheKey);
+                }
+            }
+        }
+
+        final Map<CacheKey, CacheValue> l2 = missing.isEmpty() ?
+            Collections.emptyMap() :
+            this.l2.loadAll(missing);
+
+        final Map<CacheKey, CacheValue> loaded = new LinkedHashMap<>();
+        for (final CacheKey cacheKey : cacheKeys) {
+            CacheValue value = l1.get(cacheKey);
+            if (null == value) {
+                value = pending.get(cacheKey);
+            }
+            if (null == value) {
+                value = l2.get(cacheKey);
+                if (null != value && promote) {
+                    this.promote(cacheKey);
+                }
+            }
+            if (null != value) {
+                loaded.put(cacheKey, value);
+            }
+        }
+
+        return loaded;
+    }
+
+    @Override
+    public List<CacheValue> saveAll(final Collection<CacheValue> cacheValues) {
+        CacheStoreChecks.all(cacheValues, "cacheValues");
+
+        final List<CacheValue> saved = Collections.unmodifiableList(
+            new ArrayList<>(cacheValues)
+        );
+
+        for (final CacheValue cacheValue : saved) {
+            this.saveLocked(cacheValue);
+        }
+
+        if (false == saved.isEmpty()) {
+            this.saveAllWatchers.accept(saved);
+        }
+        return saved;
+    }
+
+    @Override
+    public Runnable addSaveAllWatcher(final Consumer<List<CacheValue>> watcher) {
+        return this.saveAllWatchers.add(watcher);
+    }
+
+    private final Watchers<List<CacheValue>> saveAllWatchers = Watchers.create();
+
+    @Override
+    public void deleteAll(final Collection<CacheKey> cacheKeys) {
+        CacheStoreChecks.all(cacheKeys, "cacheKeys");
+
+        final Set<CacheKey> deleted = new LinkedHashSet<>();
+        for (final CacheKey cacheKey : cacheKeys) {
+            if (this.deleteLocked(cacheKey)) {
+                deleted.add(cacheKey);
+            }
+        }
+
+        if (false == deleted.isEmpty()) {
+            this.deleteAllWatchers.accept(
+                Collections.unmodifiableSet(deleted)
+            );
+        }
+    }
+
+    @Override
+    public Runnable addDeleteAllWatcher(final Consumer<Set<CacheKey>> watcher) {
+        return this.deleteAllWatchers.add(watcher);
+    }
+
+    private final Watchers<Set<CacheKey>> deleteAllWatchers = Watchers.create();
+
+    @Override
+    public int count() {
+        return this.l1.count() +
+            this.pending.size() +
+            this.l2.count();
+    }
+
+    @Override
+    public Set<CacheKey> ids(final int offset,
+                             final int count) {
+        CacheStoreChecks.offsetAndCount(
+            offset,
+            count
+        );
+
+        final Set<CacheKey> ids = new TreeSet<>();
+
+        int skip = offset;
+        final Iterator<CacheKey> keys = this.keys();
+        while (ids.size() < count && keys.hasNext()) {
+            final CacheKey cacheKey = keys.next();
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            ids.add(cacheKey);
+        }
+
+        return ids;
+    }
+
+    @Override
+    public List<CacheValue> values(final int offset,
+                                   final int count) {
+        CacheStoreChecks.offsetAndCount(
+            offset,
+            count
+        );
+
+        // entries deleted since their ids were merged are missing from the loaded values
+        return new ArrayList<>(
+            this.loadAll(
+                this.ids(
+                    offset,
+                    count
+                ),
+                false
+            ).values()
+        );
+    }
+
+    @Override
+    public List<CacheValue> between(final CacheKey from,
+                                    final CacheKey to) {
+        CacheStoreChecks.between(
+            from,
+            to
+        );
+
+        final TreeMap<CacheKey, CacheValue> merged = new TreeMap<>();
+
+        putAll(this.l2.between(from, to), merged);
+        for (final CacheValue value : this.pending.values()) {
+            if (CacheStoreChecks.isBetween(value.key(), from, to)) {
+                merged.put(value.key(), value);
+            }
+        }
+        putAll(this.l1.between(from, to), merged);
+
+        return new ArrayList<>(merged.values());
+    }
+
+    /**
+     * Merges the ids of the tiers lazily, loading the values of a page of ids at a time without promoting them, so a
+     * traversal holds a page of each tier at a time.
+     */
+    @Override
+    public Stream<CacheValue> stream() {
+        return StreamSupport.stream(
+            Spliterators.spliteratorUnknownSize(
+                TieredCacheStoreValueIterator.with(
+                    this.keys(),
+                    (k) -> this.loadAll(
+                        k,
+                        false
+                    ).values()
+                ),
+                Spliterator.ORDERED | Spliterator.SORTED | Spliterator.DISTINCT | Spliterator.NONNULL
+            ),
+            false
+        );
+    }
+
+    /**
+     * Merges the ids of both tiers and pending demotions in key order, fetching a page of each tier at a time.
+     */
+    private Iterator<CacheKey> keys() {
+        return TieredCacheStoreKeyIterator.with(
+            TieredCacheStoreKeyCursor.store(this.l1),
+            TieredCacheStoreKeyCursor.keys(
+                new TreeSet<>(this.pending.keySet())
+            ),
+            TieredCacheStoreKeyCursor.store(this.l2)
+        );
+    }
+
+    private static void putAll(final Collection<CacheValue> values,
+                               final TreeMap<CacheKey, CacheValue> merged) {
+        for (final CacheValue value : values) {
+            merged.put(
+                value.key(),
+                value
+            );
+        }
+    }
+
+    // demote...........................................................................................................
+
+    /**
+     * Invoked by L1 as each value is evicted. The value is immediately visible as pending, and is saved to L2 later.
+     */
+    private void demote(final CacheValue value) {
+        final CacheKey cacheKey = value.key();
+        this.pending.put(
+            cacheKey,
+            value
+        );
+        this.executor.execute(
+            () -> this.demote(
+                cacheKey,
+                value
+            )
+        );
+    }
+
+    /**
+     * Saves the evicted value to L2 unless it was since deleted or replaced by a newer eviction. The value is saved to
+     * L2 before it is removed from pending so it is always visible.
+     */
+    private void demote(final CacheKey cacheKey,
+                        final CacheValue value) {
+        synchronized (this.lock(cacheKey)) {
+            if (value == this.pending.get(cacheKey)) {
+                this.l2.save(value);
+                this.pending.remove(
+                    cacheKey,
+                    value
+                );
+            }
+        }
+    }
+
+    /**
+     * Values waiting to be saved to L2 by a demotion task.
+     */
+    private final ConcurrentHashMap<CacheKey, CacheValue> pending = new ConcurrentHashMap<>();
+
+    // promote..........................................................................................................
+
+    private void promote(final CacheKey cacheKey) {
+        this.executor.execute(
+            () -> this.promoteLocked(cacheKey)
+        );
+    }
+
+    /**
+     * Moves the current L2 value to L1, unless L1 or a pending demotion already holds a newer value. The value is saved
+     * to L1 before it is deleted from L2 so it is always visible.
+     */
+    private void promoteLocked(final CacheKey cacheKey) {
+        synchronized (this.lock(cacheKey)) {
+            if (false == this.pending.containsKey(cacheKey) && false == this.l1.load(cacheKey).isPresent()) {
+                final CacheStore l2 = this.l2;
+                final Optional<CacheValue> value = l2.load(cacheKey);
+                if (value.isPresent()) {
+                    this.l1.save(value.get());
+                    l2.delete(cacheKey);
+                }
+            }
+        }
+    }
+
+    private Object lock(final CacheKey cacheKey) {
+        final int hash = cacheKey.hashCode();
+        return this.locks[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    private final Object[] locks;
+
+    private final CacheStore l1;
+
+    private final CacheStore l2;
+
+    private final Executor executor;
+
+    @Override
+    public String toString() {
+        return this.l1 + " " + this.l2;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.SortedSet;
+
+/**
+ * A cursor over keys in order, either the ids of a {@link CacheStore} fetched a page of {@link #PAGE_SIZE} at a time
+ * with {@link CacheStore#ids(int, int)}, or a fixed {@link SortedSet}.
+ * <br>
+ * This class is not thread safe.
+ */
+final class TieredCacheStoreKeyCursor {
+
+    final static int PAGE_SIZE = 1000;
+
+    static TieredCacheStoreKeyCursor store(final CacheStore store) {
+        return new TieredCacheStoreKeyCursor(
+            store,
+            Collections.emptyIterator()
+        );
+    }
+
+    static TieredCacheStoreKeyCursor keys(final SortedSet<CacheKey> keys) {
+        return new TieredCacheStoreKeyCursor(
+            null,
+            keys.iterator()
+        );
+    }
+
+    private TieredCacheStoreKeyCursor(final CacheStore store,
+                                      final Iterator<CacheKey> page) {
+        this.store = store;
+        this.page = page;
+        this.more = null != store;
+    }
+
+    /**
+     * Returns the current key, fetching the next page when required, or null once exhausted.
+     */
+    CacheKey head() {
+        while (null == this.head) {
+            if (this.page.hasNext()) {
+                this.head = this.page.next();
+                break;
+            }
+            if (false == this.more) {
+                break;
+            }
+
+            final Set<CacheKey> ids = this.store.ids(
+                this.position,
+                PAGE_SIZE
+            );
+            this.position += ids.size();
+            this.more = ids.size() == PAGE_SIZE;
+            this.page = ids.iterator();
+        }
+
+        return this.head;
+    }
+
+    /**
+     * Moves past the current key.
+     */
+    void next() {
+        this.head = null;
+    }
+
+    /**
+     * The store fetched a page at a time, or null for a fixed set of keys.
+     */
+    private final CacheStore store;
+
+    /**
+     * The offset of the next page.
+     */
+    private int position;
+
+    /**
+     * False once the last page was fetched.
+     */
+    private boolean more;
+
+    private Iterator<CacheKey> page;
+
+    private CacheKey head;
+
+    @Override
+    public String toString() {
+        return null != this.store ?
+            this.store + " " + this.position :
+            String.valueOf(this.head);
+    }
+}
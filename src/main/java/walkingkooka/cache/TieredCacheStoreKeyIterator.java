@@ -0,0 +1,87 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * An {@link Iterator} that merges several {@link TieredCacheStoreKeyCursor} into a single ascending sequence of keys,
+ * returning a key held by more than one cursor once. Keys that are not greater than the previous key, which may happen
+ * when a store is modified while it is paged, are skipped so the result is always strictly ascending.
+ */
+final class TieredCacheStoreKeyIterator implements Iterator<CacheKey> {
+
+    static TieredCacheStoreKeyIterator with(final TieredCacheStoreKeyCursor... cursors) {
+        return new TieredCacheStoreKeyIterator(cursors);
+    }
+
+    private TieredCacheStoreKeyIterator(final TieredCacheStoreKeyCursor[] cursors) {
+        this.cursors = cursors;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return null != this.min();
+    }
+
+    @Override
+    public CacheKey next() {
+        final CacheKey next = this.min();
+        if (null == next) {
+            throw new NoSuchElementException();
+        }
+        this.previous = next;
+        return next;
+    }
+
+    /**
+     * Moves every cursor past the previous key and returns the least head, or null if all are exhausted.
+     */
+    private CacheKey min() {
+        final CacheKey previous = this.previous;
+        CacheKey min = null;
+
+        for (final TieredCacheStoreKeyCursor cursor : this.cursors) {
+            CacheKey head = cursor.head();
+            while (null != head && null != previous && head.compareTo(previous) <= 0) {
+                cursor.next();
+                head = cursor.head();
+            }
+
+            if (null != head && (null == min || head.compareTo(min) < 0)) {
+                min = head;
+            }
+        }
+
+        return min;
+    }
+
+    private final TieredCacheStoreKeyCursor[] cursors;
+
+    /**
+     * The last key returned by {@link #next()}.
+     */
+    private CacheKey previous;
+
+    @Override
+    public String toString() {
+        return Arrays.toString(this.cursors);
+    }
+}
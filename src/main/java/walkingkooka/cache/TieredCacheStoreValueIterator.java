@@ -0,0 +1,91 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+/**
+ * An {@link Iterator} that takes up to {@link #PAGE_SIZE} keys at a time from an {@link Iterator} of keys, and loads
+ * their values, so only one page of values is held at a time. Keys whose values are no longer present are skipped.
+ */
+final class TieredCacheStoreValueIterator implements Iterator<CacheValue> {
+
+    final static int PAGE_SIZE = 1000;
+
+    static TieredCacheStoreValueIterator with(final Iterator<CacheKey> keys,
+                                              final Function<List<CacheKey>, Collection<CacheValue>> loader) {
+        return new TieredCacheStoreValueIterator(
+            keys,
+            loader
+        );
+    }
+
+    private TieredCacheStoreValueIterator(final Iterator<CacheKey> keys,
+                                          final Function<List<CacheKey>, Collection<CacheValue>> loader) {
+        super();
+        this.keys = keys;
+        this.loader = loader;
+    }
+
+    @Override
+    public boolean hasNext() {
+        final Iterator<CacheKey> keys = this.keys;
+
+        while (false == this.page.hasNext() && keys.hasNext()) {
+            final List<CacheKey> page = new ArrayList<>();
+            while (page.size() < PAGE_SIZE && keys.hasNext()) {
+                page.add(
+                    keys.next()
+                );
+            }
+
+            this.page = this.loader.apply(page)
+                .iterator();
+        }
+
+        return this.page.hasNext();
+    }
+
+    @Override
+    public CacheValue next() {
+        if (false == this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return this.page.next();
+    }
+
+    private final Iterator<CacheKey> keys;
+
+    /**
+     * Loads the values of a page of keys, in the order of the keys.
+     */
+    private final Function<List<CacheKey>, Collection<CacheValue>> loader;
+
+    private Iterator<CacheValue> page = Collections.emptyIterator();
+
+    @Override
+    public String toString() {
+        return this.keys.toString();
+    }
+}
@@ -0,0 +1,575 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import walkingkooka.watch.Watchers;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * A {@link BoundedCacheStore} that wraps another {@link CacheStore}, using a W-TinyLFU policy to choose which entries
+ * to evict once the total weight, computed by a {@link CacheValueWeigher}, exceeds the maximum weight.
+ * <br>
+ * New entries enter a small LRU admission window. Entries leaving the window become candidates for the main space,
+ * which is a segmented LRU of probation and protected queues. When the store is full, a candidate is only admitted if a
+ * {@link TinyLfuCacheStoreFrequencySketch} estimates it is accessed more often than the probation victim, which keeps
+ * popular entries cached during scans.
+ * <br>
+ * Loads never block, hits are recorded in a {@link TinyLfuCacheStoreReadBuffer} which is drained in batches by the
+ * next write, or by a load finding it half full if no other thread owns the policy at that moment. Writers are
+ * serialized by a monitor and then take ownership of the policy, waiting at most for a load to finish draining.
+ */
+final class TinyLfuCacheStore implements BoundedCacheStore {
+
+    static TinyLfuCacheStore with(final long maximumWeight,
+                                  final CacheValueWeigher weigher,
+                                  final CacheStore store) {
+        if (maximumWeight <= 0) {
+            throw new IllegalArgumentException("Invalid maximumWeight " + maximumWeight + " <= 0");
+        }
+
+        return new TinyLfuCacheStore(
+            maximumWeight,
+            Objects.requireNonNull(weigher, "weigher"),
+            Objects.requireNonNull(store, "store")
+        );
+    }
+
+    /**
+     * The initial number of entries tracked by the {@link TinyLfuCacheStoreFrequencySketch}, which grows as entries
+     * are added.
+     */
+    private final static int INITIAL_SKETCH_SIZE = 1024;
+
+    /**
+     * The percentage of the maximum weight given to the admission window.
+     */
+    private final static int WINDOW_PERCENT = 1;
+
+    /**
+     * The percentage of the main space given to the protected queue.
+     */
+    private final static int PROTECTED_PERCENT = 80;
+
+    private TinyLfuCacheStore(final long maximumWeight,
+                              final CacheValueWeigher weigher,
+                              final CacheStore store) {
+        this.maximumWeight = maximumWeight;
+        this.weigher = weigher;
+        this.store = store;
+
+        this.windowMaximum = Math.max(
+            1,
+            percent(maximumWeight, WINDOW_PERCENT)
+        );
+        this.protectedMaximum = percent(
+            maximumWeight - this.windowMaximum,
+            PROTECTED_PERCENT
+        );
+
+        this.sketch = TinyLfuCacheStoreFrequencySketch.with(
+            Math.min(
+                maximumWeight,
+                INITIAL_SKETCH_SIZE
+            )
+        );
+    }
+
+    private static long percent(final long value,
+                                final int percent) {
+        return (long) (value * (percent / 100.0));
+    }
+
+    @Override
+    public Optional<CacheValue> load(final CacheKey cacheKey) {
+        return Optional.ofNullable(
+            this.loadOrNull(cacheKey)
+        );
+    }
+
+    @Override
+    public CacheValue loadOrNull(final CacheKey cacheKey) {
+        Objects.requireNonNull(cacheKey, "cacheKey");
+
+        final CacheValue loaded = this.store.loadOrNull(cacheKey);
+        if (null != loaded) {
+            final TinyLfuCacheStoreNode node = this.keyToNode.get(cacheKey);
+            if (null != node && this.readBuffer.offer(node)) {
+                this.tryDrain();
+            }
+        }
+
+        return loaded;
+    }
+
+    @Override
+    public CacheValue save(final CacheValue cacheValue) {
+        Objects.requireNonNull(cacheValue, "cacheValue");
+
+        final long weight = this.weigh(cacheValue);
+
+        final CacheValue saved;
+        final List<CacheKey> evicted = new ArrayList<>();
+
+        synchronized (this.writeLock) {
+            this.ownPolicy();
+            try {
+                saved = this.store.save(cacheValue);
+
+                this.readBuffer.drain(this::onAccess);
+                this.onSave(
+                    saved.key(),
+                    weight
+                );
+                this.evict(evicted);
+            } finally {
+                this.releasePolicy();
+            }
+
+            this.evicted(evicted);
+        }
+
+        return saved;
+    }
+
+    @Override
+    public Runnable addSaveWatcher(final Consumer<CacheValue> watcher) {
+        return this.store.addSaveWatcher(watcher);
+    }
+
+    @Override
+    public void delete(final CacheKey cacheKey) {
+        Objects.requireNonNull(cacheKey, "cacheKey");
+
+        synchronized (this.writeLock) {
+            this.ownPolicy();
+            try {
+                final TinyLfuCacheStoreNode node = this.keyToNode.remove(cacheKey);
+                if (null != node) {
+                    this.remove(node);
+                }
+                this.store.delete(cacheKey);
+            } finally {
+                this.releasePolicy();
+            }
+        }
+    }
+
+    @Override
+    public Runnable addDeleteWatcher(final Consumer<CacheKey> watcher) {
+        return this.store.addDeleteWatcher(watcher);
+    }
+
+    @Override
+    public Map<CacheKey, CacheValue> loadAll(final Collection<CacheKey> cacheKeys) {
+        final Map<CacheKey, CacheValue> loaded = this.store.loadAll(cacheKeys);
+
+        final ConcurrentHashMap<CacheKey, TinyLfuCacheStoreNode> keyToNode = this.keyToNode;
+        final TinyLfuCacheStoreReadBuffer readBuffer = this.readBuffer;
+        boolean drain = false;
+
+        for (final CacheKey cacheKey : loaded.keySet()) {
+            final TinyLfuCacheStoreNode node = keyToNode.get(cacheKey);
+            if (null != node) {
+                drain |= readBuffer.offer(node);
+            }
+        }
+
+        if (drain) {
+            this.tryDrain();
+        }
+
+        return loaded;
+    }
+
+    /**
+     * Saves all values with the wrapped {@link CacheStore#saveAll(Collection)} and then evicts once for the entire
+     * batch.
+     */
+    @Override
+    public List<CacheValue> saveAll(final Collection<CacheValue> cacheValues) {
+        CacheStoreChecks.all(cacheValues, "cacheValues");
+
+        final long[] weights = new long[cacheValues.size()];
+        int i = 0;
+        for (final CacheValue cacheValue : cacheValues) {
+            weights[i++] = this.weigh(cacheValue);
+        }
+
+        final List<CacheValue> saved;
+        final List<CacheKey> evicted = new ArrayList<>();
+
+        synchronized (this.writeLock) {
+            this.ownPolicy();
+            try {
+                saved = this.store.saveAll(cacheValues);
+
+                this.readBuffer.drain(this::onAccess);
+
+                i = 0;
+                for (final CacheValue value : saved) {
+                    this.onSave(
+                        value.key(),
+                        weights[i++]
+                    );
+                }
+                this.evict(evicted);
+            } finally {
+                this.releasePolicy();
+            }
+
+            this.evicted(evicted);
+        }
+
+        return saved;
+    }
+
+    @Override
+    public Runnable addSaveAllWatcher(final Consumer<List<CacheValue>> watcher) {
+        return this.store.addSaveAllWatcher(watcher);
+    }
+
+    @Override
+    public void deleteAll(final Collection<CacheKey> cacheKeys) {
+        CacheStoreChecks.all(cacheKeys, "cacheKeys");
+
+        synchronized (this.writeLock) {
+            this.ownPolicy();
+            try {
+                final ConcurrentHashMap<CacheKey, TinyLfuCacheStoreNode> keyToNode = this.keyToNode;
+
+                for (final CacheKey cacheKey : cacheKeys) {
+                    final TinyLfuCacheStoreNode node = keyToNode.remove(cacheKey);
+                    if (null != node) {
+                        this.remove(node);
+                    }
+                }
+                this.store.deleteAll(cacheKeys);
+            } finally {
+                this.releasePolicy();
+            }
+        }
+    }
+
+    @Override
+    public Runnable addDeleteAllWatcher(final Consumer<Set<CacheKey>> watcher) {
+        return this.store.addDeleteAllWatcher(watcher);
+    }
+
+    @Override
+    public int count() {
+        return this.store.count();
+    }
+
+    @Override
+    public Set<CacheKey> ids(final int offset,
+                             final int count) {
+        return this.store.ids(
+            offset,
+            count
+        );
+    }
+
+    @Override
+    public List<CacheValue> values(final int offset,
+                                   final int count) {
+        return this.store.values(
+            offset,
+            count
+        );
+    }
+
+    @Override
+    public List<CacheValue> between(final CacheKey from,
+                                    final CacheKey to) {
+        return this.store.between(
+            from,
+            to
+        );
+    }
+
+    @Override
+    public Stream<CacheValue> stream() {
+        return this.store.stream();
+    }
+
+    @Override
+    public Stream<CacheValue> stream(final CacheKey from,
+                                     final CacheKey to) {
+        return this.store.stream(
+            from,
+            to
+        );
+    }
+
+    // BoundedCacheStore................................................................................................
+
+    @Override
+    public long weight() {
+        return this.weight;
+    }
+
+    /**
+     * The total weight of all nodes in all queues.
+     */
+    private volatile long weight;
+
+    @Override
+    public long maximumWeight() {
+        return this.maximumWeight;
+    }
+
+    private final long maximumWeight;
+
+    private final CacheValueWeigher weigher;
+
+    @Override
+    public Runnable addEvictionWatcher(final Consumer<CacheValue> watcher) {
+        return this.evictionWatchers.add(watcher);
+    }
+
+    private final Watchers<CacheValue> evictionWatchers = Watchers.create();
+
+    /**
+     * Reports each evicted entry to eviction watchers and only then deletes it from the wrapped {@link CacheStore}, so
+     * watchers see the entry before it disappears. Called holding the write lock but not the policy, so watchers may
+     * load from this store without blocking.
+     */
+    private void evicted(final List<CacheKey> evicted) {
+        final CacheStore store = this.store;
+
+        for (final CacheKey key : evicted) {
+            final CacheValue value = store.loadOrNull(key);
+            if (null != value) {
+                this.evictionWatchers.accept(value);
+            }
+            store.delete(key);
+        }
+    }
+
+    private long weigh(final CacheValue cacheValue) {
+        final long weight = this.weigher.weigh(cacheValue);
+        if (weight < 0) {
+            throw new IllegalArgumentException("Invalid weight " + weight + " < 0 for " + cacheValue.key());
+        }
+        return weight;
+    }
+
+    // policy...........................................................................................................
+    // all methods below must be called owning the policy
+
+    /**
+     * Drains the read buffer if no other thread owns the policy, otherwise leaves the hits for the owner or a later
+     * drain, so loads never wait.
+     */
+    private void tryDrain() {
+        final AtomicBoolean policy = this.policy;
+        if (policy.compareAndSet(false, true)) {
+            try {
+                this.readBuffer.drain(this::onAccess);
+            } finally {
+                policy.set(false);
+            }
+        }
+    }
+
+    /**
+     * Called by writers holding the write lock, so the only other possible owner is a load draining at most
+     * {@link TinyLfuCacheStoreReadBuffer#SIZE} hits.
+     */
+    private void ownPolicy() {
+        final AtomicBoolean policy = this.policy;
+        while (false == policy.compareAndSet(false, true)) {
+            // spin until the draining load releases the policy
+        }
+    }
+
+    private void releasePolicy() {
+        this.policy.set(false);
+    }
+
+    /**
+     * True while a thread owns the queues, sketch and weight below.
+     */
+    private final AtomicBoolean policy = new AtomicBoolean();
+
+    /**
+     * Serializes writers, which may hold it across saves, deletes and evictions of the wrapped store.
+     */
+    private final Object writeLock = new Object();
+
+    /**
+     * Adds a node for a new key to the window or updates the weight of an existing key.
+     */
+    private void onSave(final CacheKey key,
+                        final long weight) {
+        final ConcurrentHashMap<CacheKey, TinyLfuCacheStoreNode> keyToNode = this.keyToNode;
+        final TinyLfuCacheStoreNode node = keyToNode.get(key);
+
+        if (null == node) {
+            final TinyLfuCacheStoreNode added = TinyLfuCacheStoreNode.with(key);
+            added.weight = weight;
+
+            keyToNode.put(
+                key,
+                added
+            );
+
+            final TinyLfuCacheStoreFrequencySketch sketch = this.sketch;
+            if (keyToNode.size() > sketch.capacity()) {
+                sketch.ensureCapacity(2L * keyToNode.size());
+            }
+            sketch.increment(key);
+
+            this.window.addLast(added);
+            this.weight += weight;
+        } else {
+            this.weight += weight - node.weight;
+            node.queue.reweigh(
+                node,
+                weight
+            );
+            this.onAccess(node);
+        }
+    }
+
+    /**
+     * Records a hit or update, promoting probation entries to the protected queue.
+     */
+    private void onAccess(final TinyLfuCacheStoreNode node) {
+        final TinyLfuCacheStoreQueue queue = node.queue;
+
+        // node may have been removed after it was offered to the read buffer
+        if (null != queue) {
+            this.sketch.increment(node.key);
+
+            if (this.probation == queue) {
+                this.protect(node);
+            } else {
+                queue.addLast(node);
+            }
+        }
+    }
+
+    private void protect(final TinyLfuCacheStoreNode node) {
+        final TinyLfuCacheStoreQueue protectedQueue = this.protectedQueue;
+        protectedQueue.addLast(node);
+
+        // demote the least recently used protected entries back to probation
+        while (protectedQueue.weight() > this.protectedMaximum) {
+            this.probation.addLast(
+                protectedQueue.head()
+            );
+        }
+    }
+
+    private void remove(final TinyLfuCacheStoreNode node) {
+        final TinyLfuCacheStoreQueue queue = node.queue;
+        if (null != queue) {
+            queue.remove(node);
+            this.weight -= node.weight;
+        }
+    }
+
+    /**
+     * Moves entries overflowing the window into probation, then evicts until the maximum weight is honoured.
+     */
+    private void evict(final List<CacheKey> evicted) {
+        final TinyLfuCacheStoreQueue window = this.window;
+        final TinyLfuCacheStoreQueue probation = this.probation;
+
+        while (window.weight() > this.windowMaximum) {
+            probation.addLast(
+                window.head()
+            );
+        }
+
+        while (this.weight > this.maximumWeight) {
+            final TinyLfuCacheStoreNode victim;
+
+            final TinyLfuCacheStoreNode candidate = probation.tail();
+            final TinyLfuCacheStoreNode probationVictim = probation.head();
+            if (null == probationVictim) {
+                victim = null != this.protectedQueue.head() ?
+                    this.protectedQueue.head() :
+                    window.head();
+            } else {
+                if (candidate.weight > this.maximumWeight) {
+                    // can never fit
+                    victim = candidate;
+                } else {
+                    victim = candidate == probationVictim ||
+                        this.sketch.frequency(candidate.key) > this.sketch.frequency(probationVictim.key) ?
+                        probationVictim :
+                        candidate;
+                }
+            }
+
+            this.evict(
+                victim,
+                evicted
+            );
+        }
+    }
+
+    private void evict(final TinyLfuCacheStoreNode node,
+                       final List<CacheKey> evicted) {
+        final CacheKey key = node.key;
+
+        this.keyToNode.remove(key);
+        this.remove(node);
+
+        evicted.add(key);
+    }
+
+    private final TinyLfuCacheStoreQueue window = TinyLfuCacheStoreQueue.with("window");
+
+    private final TinyLfuCacheStoreQueue probation = TinyLfuCacheStoreQueue.with("probation");
+
+    private final TinyLfuCacheStoreQueue protectedQueue = TinyLfuCacheStoreQueue.with("protected");
+
+    private final long windowMaximum;
+
+    private final long protectedMaximum;
+
+    private final TinyLfuCacheStoreFrequencySketch sketch;
+
+    /**
+     * Records hits until the policy owner drains them.
+     */
+    private final TinyLfuCacheStoreReadBuffer readBuffer = TinyLfuCacheStoreReadBuffer.empty();
+
+    private final ConcurrentHashMap<CacheKey, TinyLfuCacheStoreNode> keyToNode = new ConcurrentHashMap<>();
+
+    private final CacheStore store;
+
+    @Override
+    public String toString() {
+        return this.store.toString();
+    }
+}
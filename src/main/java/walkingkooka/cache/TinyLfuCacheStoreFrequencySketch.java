@@ -0,0 +1,172 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+/**
+ * A count-min sketch of 4 bit counters estimating how often each {@link CacheKey} has been accessed. Counters are
+ * halved once a sample of accesses has been recorded, so the popularity of keys that are no longer used decays.
+ * <br>
+ * Each long holds 16 counters, each key selects one group of four counters in four different longs.
+ * This class is not thread safe and must be guarded by its owner.
+ */
+final class TinyLfuCacheStoreFrequencySketch {
+
+    static TinyLfuCacheStoreFrequencySketch with(final long maximumSize) {
+        return new TinyLfuCacheStoreFrequencySketch(maximumSize);
+    }
+
+    private final static long[] SEEDS = {
+        0x9E3779B97F4A7C15L,
+        0xC2B2AE3D27D4EB4FL,
+        0x165667B19E3779F9L,
+        0xD6E8FEB86659FD93L
+    };
+
+    private final static long ONE_MASK = 0x7777777777777777L;
+
+    private final static int MAX_COUNT = 15;
+
+    /**
+     * The largest table, which holds 16 counters per long.
+     */
+    private final static int MAX_LENGTH = 1 << 26;
+
+    private TinyLfuCacheStoreFrequencySketch(final long maximumSize) {
+        this.ensureCapacity(maximumSize);
+    }
+
+    /**
+     * Grows the table, discarding all counts, if it is smaller than the given number of entries.
+     */
+    void ensureCapacity(final long maximumSize) {
+        final long[] table = this.table;
+        final int current = null == table ?
+            0 :
+            table.length;
+
+        int length = 1;
+        while (length < maximumSize && length < MAX_LENGTH) {
+            length <<= 1;
+        }
+
+        if (length > current) {
+            this.table = new long[length];
+            this.mask = length - 1;
+            this.sampleSize = 10 * length;
+            this.additions = 0;
+        }
+    }
+
+    /**
+     * The number of entries the table can track accurately.
+     */
+    int capacity() {
+        return this.table.length;
+    }
+
+    /**
+     * Returns the estimated frequency of the given key, between 0 and 15.
+     */
+    int frequency(final CacheKey key) {
+        final int hash = spread(key.hashCode());
+        final int start = (hash & 3) << 2;
+
+        int frequency = MAX_COUNT;
+        for (int i = 0; i < 4; i++) {
+            final int shift = (start + i) << 2;
+            frequency = Math.min(
+                frequency,
+                (int) ((this.table[this.index(hash, i)] >>> shift) & 0xF)
+            );
+        }
+        return frequency;
+    }
+
+    /**
+     * Increments the counters of the given key, aging all counters when the sample size is reached.
+     */
+    void increment(final CacheKey key) {
+        final int hash = spread(key.hashCode());
+        final int start = (hash & 3) << 2;
+
+        boolean incremented = false;
+        for (int i = 0; i < 4; i++) {
+            incremented |= this.incrementAt(
+                this.index(hash, i),
+                start + i
+            );
+        }
+
+        if (incremented && ++this.additions == this.sampleSize) {
+            this.reset();
+        }
+    }
+
+    private boolean incrementAt(final int index,
+                                final int counter) {
+        final int shift = counter << 2;
+        final long mask = 0xFL << shift;
+        final long value = this.table[index];
+
+        final boolean increment = (value & mask) != mask;
+        if (increment) {
+            this.table[index] = value + (1L << shift);
+        }
+        return increment;
+    }
+
+    /**
+     * Halves every counter.
+     */
+    private void reset() {
+        final long[] table = this.table;
+        for (int i = 0; i < table.length; i++) {
+            table[i] = (table[i] >>> 1) & ONE_MASK;
+        }
+        this.additions = this.additions >>> 1;
+    }
+
+    private int index(final int hash,
+                      final int depth) {
+        long h = (hash + SEEDS[depth]) * SEEDS[depth];
+        h += h >>> 32;
+        return ((int) h) & this.mask;
+    }
+
+    /**
+     * Improves the distribution of poor hash codes.
+     */
+    private static int spread(final int hash) {
+        int h = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+        h = ((h >>> 16) ^ h) * 0x45d9f3b;
+        return (h >>> 16) ^ h;
+    }
+
+    private long[] table;
+
+    private int mask;
+
+    private int sampleSize;
+
+    private int additions;
+
+    @Override
+    public String toString() {
+        return this.table.length + " " + this.additions + "/" + this.sampleSize;
+    }
+}
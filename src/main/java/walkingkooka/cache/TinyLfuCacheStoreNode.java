@@ -0,0 +1,55 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+/**
+ * A node within one of the {@link TinyLfuCacheStoreQueue} of a {@link TinyLfuCacheStore}.
+ */
+final class TinyLfuCacheStoreNode {
+
+    static TinyLfuCacheStoreNode with(final CacheKey key) {
+        return new TinyLfuCacheStoreNode(key);
+    }
+
+    private TinyLfuCacheStoreNode(final CacheKey key) {
+        this.key = key;
+    }
+
+    final CacheKey key;
+
+    /**
+     * The weight of the current value.
+     */
+    long weight;
+
+    /**
+     * The queue holding this node, or null once removed.
+     */
+    TinyLfuCacheStoreQueue queue;
+
+    TinyLfuCacheStoreNode previous;
+
+    TinyLfuCacheStoreNode next;
+
+    @Override
+    public String toString() {
+        return null != this.key ?
+            this.key.toString() :
+            "";
+    }
+}
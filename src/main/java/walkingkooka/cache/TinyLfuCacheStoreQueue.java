@@ -0,0 +1,127 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+/**
+ * An access ordered doubly linked list of {@link TinyLfuCacheStoreNode}, with the least recently used at the head.
+ * <br>
+ * This class is not thread safe and must be guarded by its owner.
+ */
+final class TinyLfuCacheStoreQueue {
+
+    static TinyLfuCacheStoreQueue with(final String name) {
+        return new TinyLfuCacheStoreQueue(name);
+    }
+
+    private TinyLfuCacheStoreQueue(final String name) {
+        this.name = name;
+
+        final TinyLfuCacheStoreNode sentinel = TinyLfuCacheStoreNode.with(null);
+        sentinel.previous = sentinel;
+        sentinel.next = sentinel;
+        this.sentinel = sentinel;
+    }
+
+    /**
+     * Returns the least recently used node or null if empty.
+     */
+    TinyLfuCacheStoreNode head() {
+        final TinyLfuCacheStoreNode head = this.sentinel.next;
+        return this.sentinel == head ?
+            null :
+            head;
+    }
+
+    /**
+     * Returns the most recently used node or null if empty.
+     */
+    TinyLfuCacheStoreNode tail() {
+        final TinyLfuCacheStoreNode tail = this.sentinel.previous;
+        return this.sentinel == tail ?
+            null :
+            tail;
+    }
+
+    /**
+     * Adds the node as the most recently used, removing it from any other queue.
+     */
+    void addLast(final TinyLfuCacheStoreNode node) {
+        final TinyLfuCacheStoreQueue queue = node.queue;
+        if (null != queue) {
+            queue.remove(node);
+        }
+
+        final TinyLfuCacheStoreNode sentinel = this.sentinel;
+        final TinyLfuCacheStoreNode last = sentinel.previous;
+        node.previous = last;
+        node.next = sentinel;
+        last.next = node;
+        sentinel.previous = node;
+
+        node.queue = this;
+        this.size++;
+        this.weight += node.weight;
+    }
+
+    /**
+     * Removes the node which must belong to this queue.
+     */
+    void remove(final TinyLfuCacheStoreNode node) {
+        node.previous.next = node.next;
+        node.next.previous = node.previous;
+        node.previous = null;
+        node.next = null;
+        node.queue = null;
+
+        this.size--;
+        this.weight -= node.weight;
+    }
+
+    /**
+     * Updates the weight of a node which must belong to this queue.
+     */
+    void reweigh(final TinyLfuCacheStoreNode node,
+                 final long weight) {
+        this.weight += weight - node.weight;
+        node.weight = weight;
+    }
+
+    int size() {
+        return this.size;
+    }
+
+    private int size;
+
+    /**
+     * The total weight of all nodes.
+     */
+    long weight() {
+        return this.weight;
+    }
+
+    private long weight;
+
+    private final TinyLfuCacheStoreNode sentinel;
+
+    private final String name;
+
+    @Override
+    public String toString() {
+        return this.name + " " + this.size + " " + this.weight;
+    }
+}
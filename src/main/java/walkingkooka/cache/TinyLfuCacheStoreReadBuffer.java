@@ -0,0 +1,101 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * A lossy ring buffer that records the {@link TinyLfuCacheStoreNode} of each hit, so loads never need to own the
+ * policy. Many threads may {@link #offer(TinyLfuCacheStoreNode)}, but only the thread owning the policy of the
+ * {@link TinyLfuCacheStore} may {@link #drain(Consumer)}. When the buffer is full further hits are dropped, which only slightly reduces the accuracy
+ * of the access order and frequencies.
+ */
+final class TinyLfuCacheStoreReadBuffer {
+
+    static TinyLfuCacheStoreReadBuffer empty() {
+        return new TinyLfuCacheStoreReadBuffer();
+    }
+
+    final static int SIZE = 64;
+
+    private final static int MASK = SIZE - 1;
+
+    @SuppressWarnings("unchecked")
+    private TinyLfuCacheStoreReadBuffer() {
+        super();
+
+        this.buffer = new AtomicReference[SIZE];
+        for (int i = 0; i < SIZE; i++) {
+            this.buffer[i] = new AtomicReference<>();
+        }
+    }
+
+    /**
+     * Records the node returning true if the buffer is at least half full and should be drained.
+     */
+    boolean offer(final TinyLfuCacheStoreNode node) {
+        final long writes = this.writes.get();
+        final long pending = writes - this.reads;
+
+        if (pending < SIZE && this.writes.compareAndSet(writes, writes + 1)) {
+            this.buffer[(int) (writes & MASK)].lazySet(node);
+        }
+
+        return pending >= SIZE / 2;
+    }
+
+    /**
+     * Passes every recorded node to the {@link Consumer} in the order they were offered.
+     */
+    void drain(final Consumer<TinyLfuCacheStoreNode> consumer) {
+        final long writes = this.writes.get();
+        long reads = this.reads;
+
+        while (reads < writes) {
+            final int index = (int) (reads & MASK);
+            final AtomicReference<TinyLfuCacheStoreNode> slot = this.buffer[index];
+            final TinyLfuCacheStoreNode node = slot.get();
+            if (null == node) {
+                // slot claimed but not yet published, try again on the next drain
+                break;
+            }
+            slot.lazySet(null);
+            consumer.accept(node);
+            reads++;
+        }
+
+        this.reads = reads;
+    }
+
+    /**
+     * A slot per {@link AtomicReference} rather than an {@link java.util.concurrent.atomic.AtomicReferenceArray}, which
+     * is not available to GWT or J2CL.
+     */
+    private final AtomicReference<TinyLfuCacheStoreNode>[] buffer;
+
+    private final AtomicLong writes = new AtomicLong();
+
+    private volatile long reads;
+
+    @Override
+    public String toString() {
+        return (this.writes.get() - this.reads) + "/" + SIZE;
+    }
+}
@@ -17,15 +17,26 @@
 
 package walkingkooka.cache;
 
-import walkingkooka.store.Store;
-import walkingkooka.store.Stores;
+import walkingkooka.watch.Watchers;
 
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.function.Consumer;
 
+/**
+ * A {@link CacheStore} holding its entries in a {@link TreeMap} in {@link CacheKey} order. Loads read the map directly,
+ * so {@link #loadOrNull(CacheKey)} returns a hit without allocating an {@link Optional}.
+ */
 final class TreeMapStoreCacheStore implements CacheStore {
 
     static TreeMapStoreCacheStore empty() {
@@ -33,78 +44,213 @@ final class TreeMapStoreCacheStore implements CacheStore {
     }
 
     private TreeMapStoreCacheStore() {
-        this.store = Stores.treeMap(
-            Comparator.naturalOrder(),
-            TreeMapStoreCacheStore::idSetter
-        );
+        super();
     }
 
-    private static CacheValue idSetter(final CacheKey id,
-                                       final CacheValue value) {
-        return value.setKey(id);
+    @Override
+    public Optional<CacheValue> load(final CacheKey cacheKey) {
+        return Optional.ofNullable(
+            this.loadOrNull(cacheKey)
+        );
     }
 
-    @Override 
-    public Optional<CacheValue> load(final CacheKey cacheKey) {
-        return this.store.load(cacheKey);
+    @Override
+    public CacheValue loadOrNull(final CacheKey cacheKey) {
+        Objects.requireNonNull(cacheKey, "cacheKey");
+
+        return this.keyToValue.get(cacheKey);
     }
 
     @Override
     public CacheValue save(final CacheValue cacheValue) {
-        return this.store.save(cacheValue);
+        Objects.requireNonNull(cacheValue, "cacheValue");
+
+        this.keyToValue.put(
+            cacheValue.key(),
+            cacheValue
+        );
+        this.saveWatchers.accept(cacheValue);
+        return cacheValue;
     }
 
     @Override
     public Runnable addSaveWatcher(final Consumer<CacheValue> watcher) {
-        return this.store.addSaveWatcher(watcher);
+        return this.saveWatchers.add(watcher);
     }
 
+    private final Watchers<CacheValue> saveWatchers = Watchers.create();
+
     @Override
     public void delete(final CacheKey cacheKey) {
-        this.store.delete(cacheKey);
+        Objects.requireNonNull(cacheKey, "cacheKey");
+
+        if (null != this.keyToValue.remove(cacheKey)) {
+            this.deleteWatchers.accept(cacheKey);
+        }
     }
 
     @Override
     public Runnable addDeleteWatcher(final Consumer<CacheKey> watcher) {
-        return this.store.addDeleteWatcher(watcher);
+        return this.deleteWatchers.add(watcher);
+    }
+
+    private final Watchers<CacheKey> deleteWatchers = Watchers.create();
+
+    @Override
+    public Map<CacheKey, CacheValue> loadAll(final Collection<CacheKey> cacheKeys) {
+        CacheStoreChecks.all(cacheKeys, "cacheKeys");
+
+        final TreeMap<CacheKey, CacheValue> keyToValue = this.keyToValue;
+        final Map<CacheKey, CacheValue> loaded = new LinkedHashMap<>();
+
+        for (final CacheKey cacheKey : cacheKeys) {
+            final CacheValue value = keyToValue.get(cacheKey);
+            if (null != value) {
+                loaded.put(
+                    cacheKey,
+                    value
+                );
+            }
+        }
+
+        return loaded;
     }
 
+    @Override
+    public List<CacheValue> saveAll(final Collection<CacheValue> cacheValues) {
+        CacheStoreChecks.all(cacheValues, "cacheValues");
+
+        final TreeMap<CacheKey, CacheValue> keyToValue = this.keyToValue;
+        final List<CacheValue> saved = Collections.unmodifiableList(
+            new ArrayList<>(cacheValues)
+        );
+
+        for (final CacheValue cacheValue : saved) {
+            keyToValue.put(
+                cacheValue.key(),
+                cacheValue
+            );
+        }
+
+        if (false == saved.isEmpty()) {
+            this.saveAllWatchers.accept(saved);
+        }
+        return saved;
+    }
+
+    @Override
+    public Runnable addSaveAllWatcher(final Consumer<List<CacheValue>> watcher) {
+        return this.saveAllWatchers.add(watcher);
+    }
+
+    private final Watchers<List<CacheValue>> saveAllWatchers = Watchers.create();
+
+    @Override
+    public void deleteAll(final Collection<CacheKey> cacheKeys) {
+        CacheStoreChecks.all(cacheKeys, "cacheKeys");
+
+        final TreeMap<CacheKey, CacheValue> keyToValue = this.keyToValue;
+        final Set<CacheKey> deleted = new LinkedHashSet<>();
+
+        for (final CacheKey cacheKey : cacheKeys) {
+            if (null != keyToValue.remove(cacheKey)) {
+                deleted.add(cacheKey);
+            }
+        }
+
+        if (false == deleted.isEmpty()) {
+            this.deleteAllWatchers.accept(
+                Collections.unmodifiableSet(deleted)
+            );
+        }
+    }
+
+    @Override
+    public Runnable addDeleteAllWatcher(final Consumer<Set<CacheKey>> watcher) {
+        return this.deleteAllWatchers.add(watcher);
+    }
+
+    private final Watchers<Set<CacheKey>> deleteAllWatchers = Watchers.create();
+
     @Override
     public int count() {
-        return this.store.count();
+        return this.keyToValue.size();
     }
 
     @Override
     public Set<CacheKey> ids(final int offset,
                              final int count) {
-        return this.store.ids(
+        CacheStoreChecks.offsetAndCount(
             offset,
             count
         );
+
+        final Set<CacheKey> ids = new TreeSet<>();
+
+        int skip = offset;
+        for (final CacheKey cacheKey : this.keyToValue.keySet()) {
+            if (ids.size() == count) {
+                break;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            ids.add(cacheKey);
+        }
+
+        return ids;
     }
 
     @Override
     public List<CacheValue> values(final int offset,
                                    final int count) {
-        return this.store.values(
+        CacheStoreChecks.offsetAndCount(
             offset,
             count
         );
+
+        final List<CacheValue> values = new ArrayList<>();
+
+        int skip = offset;
+        for (final CacheValue value : this.keyToValue.values()) {
+            if (values.size() == count) {
+                break;
+            }
+            if (skip > 0) {
+                skip--;
+                continue;
+            }
+            values.add(value);
+        }
+
+        return values;
     }
 
     @Override
     public List<CacheValue> between(final CacheKey from,
                                     final CacheKey to) {
-        return this.store.between(
+        CacheStoreChecks.between(
             from,
             to
         );
+
+        return from.compareTo(to) <= 0 ?
+            new ArrayList<>(
+                this.keyToValue.subMap(
+                    from,
+                    true,
+                    to,
+                    true
+                ).values()
+            ) :
+            new ArrayList<>();
     }
 
-    private final Store<CacheKey, CacheValue> store;
+    private final TreeMap<CacheKey, CacheValue> keyToValue = new TreeMap<>();
 
     @Override
     public String toString() {
-        return this.store.toString();
+        return this.keyToValue.toString();
     }
 }
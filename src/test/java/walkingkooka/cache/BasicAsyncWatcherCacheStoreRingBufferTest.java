@@ -0,0 +1,215 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.Cast;
+import walkingkooka.ToStringTesting;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class BasicAsyncWatcherCacheStoreRingBufferTest implements ClassTesting<BasicAsyncWatcherCacheStoreRingBuffer<?>>,
+    ToStringTesting<BasicAsyncWatcherCacheStoreRingBuffer<?>> {
+
+    @Test
+    public void testWithZeroCapacityFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> BasicAsyncWatcherCacheStoreRingBuffer.with(0)
+        );
+    }
+
+    @Test
+    public void testWithTooLargeCapacityFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> BasicAsyncWatcherCacheStoreRingBuffer.with(BasicAsyncWatcherCacheStoreRingBuffer.MAX_CAPACITY + 1)
+        );
+    }
+
+    @Test
+    public void testWithCapacityPowerOfTwo() {
+        this.capacityAndCheck(
+            8,
+            8
+        );
+    }
+
+    @Test
+    public void testWithCapacityRoundedUp() {
+        this.capacityAndCheck(
+            5,
+            8
+        );
+    }
+
+    @Test
+    public void testWithCapacityOne() {
+        this.capacityAndCheck(
+            1,
+            1
+        );
+    }
+
+    private void capacityAndCheck(final int capacity,
+                                  final int expected) {
+        this.checkEquals(
+            expected,
+            BasicAsyncWatcherCacheStoreRingBuffer.with(capacity)
+                .capacity(),
+            "capacity " + capacity
+        );
+    }
+
+    @Test
+    public void testPollEmpty() {
+        this.checkEquals(
+            null,
+            BasicAsyncWatcherCacheStoreRingBuffer.with(4)
+                .poll()
+        );
+    }
+
+    @Test
+    public void testOfferAndPollInOrder() {
+        final BasicAsyncWatcherCacheStoreRingBuffer<String> queue = BasicAsyncWatcherCacheStoreRingBuffer.with(4);
+
+        this.offerAndCheck(queue, "a", true);
+        this.offerAndCheck(queue, "b", true);
+        this.offerAndCheck(queue, "c", true);
+
+        this.checkEquals(3, queue.size(), "size");
+        this.checkEquals("a", queue.poll());
+        this.checkEquals("b", queue.poll());
+        this.checkEquals("c", queue.poll());
+        this.checkEquals(null, queue.poll());
+        this.checkEquals(0, queue.size(), "size");
+    }
+
+    @Test
+    public void testOfferFull() {
+        final BasicAsyncWatcherCacheStoreRingBuffer<String> queue = BasicAsyncWatcherCacheStoreRingBuffer.with(2);
+
+        this.offerAndCheck(queue, "a", true);
+        this.offerAndCheck(queue, "b", true);
+        this.offerAndCheck(queue, "c", false);
+
+        this.checkEquals(2, queue.size(), "size");
+        this.checkEquals("a", queue.poll());
+
+        this.offerAndCheck(queue, "d", true);
+        this.checkEquals("b", queue.poll());
+        this.checkEquals("d", queue.poll());
+    }
+
+    @Test
+    public void testWrapsAround() {
+        final BasicAsyncWatcherCacheStoreRingBuffer<Integer> queue = BasicAsyncWatcherCacheStoreRingBuffer.with(4);
+
+        for (int i = 0; i < 100; i++) {
+            this.offerAndCheck(queue, i, true);
+            this.offerAndCheck(queue, -i, true);
+
+            this.checkEquals(i, queue.poll());
+            this.checkEquals(-i, queue.poll());
+        }
+        this.checkEquals(0, queue.size(), "size");
+    }
+
+    @Test
+    public void testConcurrentProducers() throws Exception {
+        final int producers = 4;
+        final int count = 10_000;
+        final BasicAsyncWatcherCacheStoreRingBuffer<Integer> queue = BasicAsyncWatcherCacheStoreRingBuffer.with(64);
+
+        final Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            threads[p] = new Thread(
+                () -> {
+                    for (int i = 0; i < count; i++) {
+                        while (false == queue.offer(i)) {
+                            Thread.yield();
+                        }
+                    }
+                }
+            );
+            threads[p].start();
+        }
+
+        long sum = 0;
+        int polled = 0;
+        while (polled < producers * count) {
+            final Integer element = queue.poll();
+            if (null != element) {
+                sum += element;
+                polled++;
+            } else {
+                Thread.yield();
+            }
+        }
+
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        this.checkEquals(
+            producers * ((long) count * (count - 1) / 2),
+            sum,
+            "sum"
+        );
+        this.checkEquals(null, queue.poll());
+    }
+
+    private <T> void offerAndCheck(final BasicAsyncWatcherCacheStoreRingBuffer<T> queue,
+                                   final T element,
+                                   final boolean expected) {
+        this.checkEquals(
+            expected,
+            queue.offer(element),
+            "offer " + element
+        );
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        final BasicAsyncWatcherCacheStoreRingBuffer<String> queue = BasicAsyncWatcherCacheStoreRingBuffer.with(4);
+        queue.offer("a");
+
+        this.toStringAndCheck(
+            queue,
+            "1/4"
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<BasicAsyncWatcherCacheStoreRingBuffer<?>> type() {
+        return Cast.to(BasicAsyncWatcherCacheStoreRingBuffer.class);
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,569 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.set.Sets;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class BasicAsyncWatcherCacheStoreTest implements CacheStoreTesting<BasicAsyncWatcherCacheStore> {
+
+    private final static int CAPACITY = 2;
+
+    @Test
+    public void testWithNullStoreFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> BasicAsyncWatcherCacheStore.with(
+                null,
+                this.executor,
+                CAPACITY,
+                CacheWatcherOverflow.DROP
+            )
+        );
+    }
+
+    @Test
+    public void testWithNullExecutorFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> BasicAsyncWatcherCacheStore.with(
+                CacheStores.treeMap(),
+                null,
+                CAPACITY,
+                CacheWatcherOverflow.DROP
+            )
+        );
+    }
+
+    @Test
+    public void testWithZeroCapacityFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> BasicAsyncWatcherCacheStore.with(
+                CacheStores.treeMap(),
+                this.executor,
+                0,
+                CacheWatcherOverflow.DROP
+            )
+        );
+    }
+
+    @Test
+    public void testWithNullOverflowFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> BasicAsyncWatcherCacheStore.with(
+                CacheStores.treeMap(),
+                this.executor,
+                CAPACITY,
+                null
+            )
+        );
+    }
+
+    @Test
+    public void testSaveAndLoad() {
+        final BasicAsyncWatcherCacheStore store = this.createStore();
+        final CacheValue value = this.value();
+
+        store.save(value);
+
+        this.loadAndCheck(
+            store,
+            value.key(),
+            value
+        );
+    }
+
+    // watcherCount.....................................................................................................
+
+    @Test
+    public void testWatcherCount() {
+        final BasicAsyncWatcherCacheStore store = this.createStore();
+
+        final Runnable remover = store.addSaveWatcher((v) -> {
+        });
+        store.addDeleteAllWatcher((k) -> {
+        });
+
+        this.checkEquals(
+            2,
+            store.watcherCount(),
+            "watcherCount"
+        );
+
+        remover.run();
+        remover.run();
+
+        this.checkEquals(
+            1,
+            store.watcherCount(),
+            "watcherCount"
+        );
+    }
+
+    @Test
+    public void testSaveWithoutSaveWatchersQueuesNothing() {
+        final BasicAsyncWatcherCacheStore store = this.createStore(CacheWatcherOverflow.DROP);
+        store.addDeleteWatcher((k) -> {
+        });
+
+        store.save(this.value());
+
+        this.checkEquals(
+            0,
+            store.queueDepth(),
+            "queueDepth"
+        );
+        this.checkEquals(
+            Lists.empty(),
+            this.tasks,
+            "tasks"
+        );
+    }
+
+    // dispatch.........................................................................................................
+
+    @Test
+    public void testSaveDeliveredByExecutor() {
+        final BasicAsyncWatcherCacheStore store = this.createStore(CacheWatcherOverflow.DROP);
+
+        final List<CacheValue> saved = Lists.array();
+        store.addSaveWatcher(saved::add);
+
+        final CacheValue value = this.value();
+        store.save(value);
+
+        this.checkEquals(
+            Lists.empty(),
+            saved,
+            "saved before executor runs"
+        );
+        this.checkEquals(
+            1,
+            store.queueDepth(),
+            "queueDepth"
+        );
+        this.checkEquals(
+            1,
+            this.tasks.size(),
+            "tasks"
+        );
+
+        this.runTasks();
+
+        this.checkEquals(
+            Lists.of(value),
+            saved,
+            "saved"
+        );
+        this.checkEquals(
+            0,
+            store.queueDepth(),
+            "queueDepth"
+        );
+        this.checkEquals(
+            1L,
+            store.dispatchedCount(),
+            "dispatchedCount"
+        );
+    }
+
+    @Test
+    public void testEventsBatchedIntoSingleTask() {
+        final BasicAsyncWatcherCacheStore store = this.createStore(CacheWatcherOverflow.DROP);
+
+        final List<CacheKey> deleted = Lists.array();
+        store.addDeleteWatcher(deleted::add);
+
+        final CacheValue value1 = this.value();
+        final CacheValue value2 = this.value2();
+        store.save(value1);
+        store.save(value2);
+        store.delete(value1.key());
+        store.delete(value2.key());
+
+        this.checkEquals(
+            1,
+            this.tasks.size(),
+            "tasks"
+        );
+
+        this.runTasks();
+
+        this.checkEquals(
+            Lists.of(
+                value1.key(),
+                value2.key()
+            ),
+            deleted,
+            "deleted"
+        );
+    }
+
+    @Test
+    public void testWatcherFailureReportedAndDeliveryContinues() {
+        final BasicAsyncWatcherCacheStore store = this.createStore(CacheWatcherOverflow.DROP);
+
+        final RuntimeException failure = new RuntimeException("Watcher failed");
+        store.addSaveWatcher((v) -> {
+            throw failure;
+        });
+
+        final List<CacheValue> saved = Lists.array();
+        store.addSaveWatcher(saved::add);
+
+        final CacheValue value1 = this.value();
+        final CacheValue value2 = this.value2();
+        store.save(value1);
+        store.save(value2);
+
+        final List<Throwable> uncaught = Lists.array();
+        final Thread thread = Thread.currentThread();
+        final Thread.UncaughtExceptionHandler handler = thread.getUncaughtExceptionHandler();
+        thread.setUncaughtExceptionHandler((t, e) -> uncaught.add(e));
+        try {
+            this.runTasks();
+        } finally {
+            thread.setUncaughtExceptionHandler(handler);
+        }
+
+        this.checkEquals(
+            Lists.of(
+                failure,
+                failure
+            ),
+            uncaught,
+            "uncaught"
+        );
+        this.checkEquals(
+            2L,
+            store.dispatchedCount(),
+            "dispatchedCount"
+        );
+    }
+
+    // overflow.........................................................................................................
+
+    @Test
+    public void testOverflowDrop() {
+        final BasicAsyncWatcherCacheStore store = this.createStore(CacheWatcherOverflow.DROP);
+
+        final List<CacheValue> saved = Lists.array();
+        store.addSaveWatcher(saved::add);
+
+        final CacheValue value1 = this.prefixValue("key.1");
+        final CacheValue value2 = this.prefixValue("key.2");
+        store.save(value1);
+        store.save(value2);
+        store.save(this.prefixValue("key.3"));
+
+        this.checkEquals(
+            1L,
+            store.droppedCount(),
+            "droppedCount"
+        );
+
+        this.runTasks();
+
+        this.checkEquals(
+            Lists.of(
+                value1,
+                value2
+            ),
+            saved,
+            "saved"
+        );
+    }
+
+    @Test
+    public void testOverflowCoalesce() {
+        final BasicAsyncWatcherCacheStore store = this.createStore(CacheWatcherOverflow.COALESCE);
+
+        final List<CacheValue> saved = Lists.array();
+        store.addSaveWatcher(saved::add);
+
+        final CacheValue value1 = this.prefixValue("key.1");
+        final CacheValue value2 = this.prefixValue("key.2");
+        final CacheValue value3 = this.prefixValue("key.3");
+        final CacheValue value4 = value3.setValue(
+            Optional.of("Replaced")
+        );
+
+        store.save(value1);
+        store.save(value2);
+        store.save(value3);
+        store.save(value4);
+
+        this.checkEquals(
+            3,
+            store.queueDepth(),
+            "queueDepth"
+        );
+        this.checkEquals(
+            1L,
+            store.coalescedCount(),
+            "coalescedCount"
+        );
+        this.checkEquals(
+            0L,
+            store.droppedCount(),
+            "droppedCount"
+        );
+
+        this.runTasks();
+
+        this.checkEquals(
+            Lists.of(
+                value1,
+                value2,
+                value4
+            ),
+            saved,
+            "saved"
+        );
+        this.checkEquals(
+            0,
+            store.queueDepth(),
+            "queueDepth"
+        );
+    }
+
+    @Test
+    public void testOverflowCoalesceDeleteAllDeliveredAfterCoalescedSave() {
+        final BasicAsyncWatcherCacheStore store = this.createStore(CacheWatcherOverflow.COALESCE);
+
+        final CacheValue value1 = this.prefixValue("key.1");
+        final CacheValue value2 = this.prefixValue("key.2");
+        final CacheValue value3 = this.prefixValue("key.3");
+
+        final List<Object> events = Lists.array();
+        store.addSaveWatcher(
+            (v) -> {
+                events.add(v);
+
+                // the queue now has room, while the save of value3 is still coalesced
+                if (v.equals(value1)) {
+                    store.deleteAll(
+                        Lists.of(
+                            value3.key()
+                        )
+                    );
+                }
+            }
+        );
+        store.addDeleteAllWatcher(events::add);
+
+        store.save(value1);
+        store.save(value2);
+        store.save(value3);
+
+        this.runTasks();
+
+        this.checkEquals(
+            Lists.of(
+                value1,
+                value2,
+                value3,
+                Sets.of(
+                    value3.key()
+                )
+            ),
+            events,
+            "events"
+        );
+        this.checkEquals(
+            0,
+            store.queueDepth(),
+            "queueDepth"
+        );
+    }
+
+    @Test
+    public void testOverflowCoalesceDropsDeleteAll() {
+        final BasicAsyncWatcherCacheStore store = this.createStore(CacheWatcherOverflow.COALESCE);
+
+        final List<Set<CacheKey>> deleted = Lists.array();
+        store.addDeleteAllWatcher(deleted::add);
+
+        for (int i = 0; i < CAPACITY + 1; i++) {
+            final CacheValue value = this.prefixValue("key." + i);
+            store.save(value);
+            store.deleteAll(
+                Lists.of(
+                    value.key()
+                )
+            );
+        }
+
+        this.checkEquals(
+            1L,
+            store.droppedCount(),
+            "droppedCount"
+        );
+
+        this.runTasks();
+
+        this.checkEquals(
+            CAPACITY,
+            deleted.size(),
+            "deleted"
+        );
+    }
+
+    @Test
+    public void testOverflowBlock() throws Exception {
+        final int count = 100;
+
+        final BasicAsyncWatcherCacheStore store = BasicAsyncWatcherCacheStore.with(
+            CacheStores.treeMap(),
+            (r) -> new Thread(r).start(),
+            CAPACITY,
+            CacheWatcherOverflow.BLOCK
+        );
+
+        final List<CacheValue> saved = Lists.array();
+        store.addSaveWatcher(
+            (v) -> {
+                synchronized (saved) {
+                    saved.add(v);
+                }
+            }
+        );
+
+        for (int i = 0; i < count; i++) {
+            store.save(
+                this.prefixValue("key." + i)
+            );
+        }
+
+        final long timeout = System.currentTimeMillis() + 10_000;
+        while (store.dispatchedCount() < count && System.currentTimeMillis() < timeout) {
+            Thread.sleep(1);
+        }
+
+        this.checkEquals(
+            (long) count,
+            store.dispatchedCount(),
+            "dispatchedCount"
+        );
+        this.checkEquals(
+            0L,
+            store.droppedCount(),
+            "droppedCount"
+        );
+
+        synchronized (saved) {
+            for (int i = 0; i < count; i++) {
+                this.checkEquals(
+                    CacheKey.with("key." + i),
+                    saved.get(i).key(),
+                    "saved " + i
+                );
+            }
+        }
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        final CacheStore wrapped = CacheStores.treeMap();
+        final BasicAsyncWatcherCacheStore store = BasicAsyncWatcherCacheStore.with(
+            wrapped,
+            this.executor,
+            CAPACITY,
+            CacheWatcherOverflow.DROP
+        );
+        store.addSaveWatcher((v) -> {
+        });
+        store.save(this.value());
+
+        this.checkEquals(
+            wrapped + " 1/2",
+            store.toString()
+        );
+    }
+
+    // helpers..........................................................................................................
+
+    private void runTasks() {
+        while (false == this.tasks.isEmpty()) {
+            this.tasks.remove(0)
+                .run();
+        }
+    }
+
+    /**
+     * Holds drain tasks until {@link #runTasks()}.
+     */
+    private final List<Runnable> tasks = Lists.array();
+
+    private final Executor executor = this.tasks::add;
+
+    private BasicAsyncWatcherCacheStore createStore(final CacheWatcherOverflow overflow) {
+        return BasicAsyncWatcherCacheStore.with(
+            CacheStores.treeMap(),
+            this.executor,
+            CAPACITY,
+            overflow
+        );
+    }
+
+    /**
+     * Delivers events immediately on the writing thread so the {@link CacheStoreTesting} watcher tests pass.
+     */
+    @Override
+    public BasicAsyncWatcherCacheStore createStore() {
+        return BasicAsyncWatcherCacheStore.with(
+            CacheStores.treeMap(),
+            Runnable::run,
+            CAPACITY,
+            CacheWatcherOverflow.DROP
+        );
+    }
+
+    @Override
+    public CacheKey id() {
+        return CacheKey.with("key123");
+    }
+
+    @Override
+    public CacheValue value() {
+        return CacheValue.with(
+            this.id(),
+            Optional.of("Value456")
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<BasicAsyncWatcherCacheStore> type() {
+        return BasicAsyncWatcherCacheStore.class;
+    }
+}
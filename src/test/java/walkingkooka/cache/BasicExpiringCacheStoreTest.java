@@ -0,0 +1,487 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.set.Sets;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class BasicExpiringCacheStoreTest implements CacheStoreTesting<BasicExpiringCacheStore> {
+
+    @Test
+    public void testWithNullStoreFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> BasicExpiringCacheStore.with(
+                null,
+                this::now
+            )
+        );
+    }
+
+    @Test
+    public void testWithNullClockFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> BasicExpiringCacheStore.with(
+                CacheStores.treeMap(),
+                null
+            )
+        );
+    }
+
+    @Test
+    public void testSaveAndLoad() {
+        final BasicExpiringCacheStore store = this.createStore();
+
+        final CacheValue value = this.value();
+
+        store.save(value);
+
+        this.loadAndCheck(
+            store,
+            value.key(),
+            value
+        );
+    }
+
+    @Test
+    public void testLoadAfterExpireAfterWrite() {
+        final BasicExpiringCacheStore store = this.createStore();
+
+        final CacheValue value = this.value()
+            .setExpireAfterWrite(
+                Optional.of(Duration.ofMillis(100))
+            );
+        store.save(value);
+
+        this.now = 99;
+        this.loadAndCheck(
+            store,
+            value.key(),
+            value
+        );
+
+        this.now = 100;
+        this.checkEquals(
+            Optional.empty(),
+            store.load(value.key())
+        );
+    }
+
+    @Test
+    public void testLoadExtendsExpireAfterAccess() {
+        final BasicExpiringCacheStore store = this.createStore();
+
+        final CacheValue value = this.value()
+            .setExpireAfterAccess(
+                Optional.of(Duration.ofMillis(100))
+            );
+        store.save(value);
+
+        this.now = 50;
+        this.loadAndCheck(
+            store,
+            value.key(),
+            value
+        );
+
+        this.now = 149;
+        this.loadAndCheck(
+            store,
+            value.key(),
+            value
+        );
+
+        this.now = 249;
+        this.checkEquals(
+            Optional.empty(),
+            store.load(value.key())
+        );
+    }
+
+    @Test
+    public void testCountIdsValuesAndBetweenHideExpired() {
+        final BasicExpiringCacheStore store = this.createStore();
+
+        final CacheValue expires = CacheValue.with(
+            CacheKey.with("key1"),
+            Optional.of(1)
+        ).setExpireAfterWrite(
+            Optional.of(Duration.ofMillis(100))
+        );
+        store.save(expires);
+
+        final CacheValue kept = CacheValue.with(
+            CacheKey.with("key2"),
+            Optional.of(2)
+        );
+        store.save(kept);
+
+        this.now = 100;
+
+        this.countAndCheck(
+            store,
+            1
+        );
+        this.checkEquals(
+            Sets.of(kept.key()),
+            store.ids(
+                0,
+                2
+            )
+        );
+        this.checkEquals(
+            Lists.of(kept),
+            store.values(
+                0,
+                2
+            )
+        );
+        this.checkEquals(
+            Lists.of(kept),
+            store.between(
+                expires.key(),
+                kept.key()
+            )
+        );
+    }
+
+    @Test
+    public void testSweepWithInvalidBatchSizeFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> this.createStore()
+                .sweep(0)
+        );
+    }
+
+    @Test
+    public void testSweep() {
+        final BasicExpiringCacheStore store = this.createStore();
+
+        final CacheValue expires = this.value()
+            .setExpireAfterWrite(
+                Optional.of(Duration.ofMillis(100))
+            );
+        store.save(expires);
+
+        final CacheValue never = CacheValue.with(
+            CacheKey.with("never"),
+            Optional.of("never")
+        );
+        store.save(never);
+
+        this.checkEquals(
+            0,
+            store.sweep(10),
+            "nothing expired"
+        );
+
+        this.now = 100;
+
+        this.checkEquals(
+            1,
+            store.sweep(10),
+            "one expired"
+        );
+        this.checkEquals(
+            1,
+            store.count()
+        );
+        this.loadAndCheck(
+            store,
+            never.key(),
+            never
+        );
+    }
+
+    @Test
+    public void testSweepFiresExpiryWatcher() {
+        final BasicExpiringCacheStore store = this.createStore();
+
+        final CacheValue value = this.value()
+            .setExpireAfterWrite(
+                Optional.of(Duration.ofMillis(100))
+            );
+        store.save(value);
+
+        final List<CacheKey> expired = Lists.array();
+        store.addExpiryWatcher(expired::add);
+
+        this.now = 100;
+        store.sweep(10);
+
+        this.checkEquals(
+            Lists.of(value.key()),
+            expired
+        );
+    }
+
+    @Test
+    public void testSweepBounded() {
+        final BasicExpiringCacheStore store = this.createStore();
+
+        for (int i = 0; i < 10; i++) {
+            store.save(
+                CacheValue.with(
+                    CacheKey.with("key" + i),
+                    Optional.of(i)
+                ).setExpireAfterWrite(
+                    Optional.of(Duration.ofMillis(1))
+                )
+            );
+        }
+
+        this.now = 1;
+
+        this.checkEquals(
+            4,
+            store.sweep(4)
+        );
+        this.checkEquals(
+            4,
+            store.sweep(4)
+        );
+        this.checkEquals(
+            2,
+            store.sweep(4)
+        );
+        this.checkEquals(
+            0,
+            store.count()
+        );
+    }
+
+    @Test
+    public void testCountExpiredThenReplacedOrDeleted() {
+        final BasicExpiringCacheStore store = this.createStore();
+
+        for (int i = 0; i < 4; i++) {
+            store.save(
+                CacheValue.with(
+                    CacheKey.with("key" + i),
+                    Optional.of(i)
+                ).setExpireAfterWrite(
+                    Optional.of(Duration.ofMillis(10))
+                )
+            );
+        }
+
+        this.now = 10;
+        this.countAndCheck(
+            store,
+            0
+        );
+
+        store.save(
+            CacheValue.with(
+                CacheKey.with("key0"),
+                Optional.of("replaced")
+            )
+        );
+        store.delete(
+            CacheKey.with("key1")
+        );
+        this.countAndCheck(
+            store,
+            1
+        );
+
+        this.checkEquals(
+            2,
+            store.sweep(10),
+            "sweep"
+        );
+        this.countAndCheck(
+            store,
+            1
+        );
+    }
+
+    @Test
+    public void testSweepDoesNotDeleteConcurrentSave() throws Exception {
+        final CacheStore wrapped = CacheStores.treeMap();
+        final BasicExpiringCacheStore[] store = new BasicExpiringCacheStore[1];
+        final Thread[] saver = new Thread[1];
+
+        final CacheValue fresh = this.value();
+
+        // saves the key from another thread as the sweep deletes it, waiting until that save finishes or blocks
+        final CacheStore delaying = (CacheStore) Proxy.newProxyInstance(
+            CacheStore.class.getClassLoader(),
+            new Class<?>[]{
+                CacheStore.class
+            },
+            (proxy, method, args) -> {
+                if ("delete".equals(method.getName()) && null == saver[0]) {
+                    final Thread thread = new Thread(
+                        () -> store[0].save(fresh)
+                    );
+                    saver[0] = thread;
+                    thread.start();
+
+                    while (thread.isAlive() && Thread.State.BLOCKED != thread.getState()) {
+                        Thread.yield();
+                    }
+                }
+                try {
+                    return method.invoke(
+                        wrapped,
+                        args
+                    );
+                } catch (final InvocationTargetException cause) {
+                    throw cause.getCause();
+                }
+            }
+        );
+        store[0] = BasicExpiringCacheStore.with(
+            delaying,
+            this::now
+        );
+
+        store[0].save(
+            fresh.setExpireAfterWrite(
+                Optional.of(Duration.ofMillis(10))
+            )
+        );
+
+        this.now = 10;
+        this.checkEquals(
+            1,
+            store[0].sweep(10),
+            "sweep"
+        );
+        saver[0].join();
+
+        this.loadAndCheck(
+            store[0],
+            fresh.key(),
+            fresh
+        );
+        this.countAndCheck(
+            store[0],
+            1
+        );
+    }
+
+    private long now() {
+        return this.now;
+    }
+
+    private long now;
+
+    @Test
+    public void testStreamSkipsExpiredWithoutPaging() {
+        final BasicExpiringCacheStore store = BasicExpiringCacheStore.with(
+            unpaged(
+                CacheStores.copyOnWrite()
+            ),
+            this::now
+        );
+
+        final CacheValue expires = CacheValue.with(
+            CacheKey.with("key1"),
+            Optional.of(1)
+        ).setExpireAfterWrite(
+            Optional.of(Duration.ofMillis(100))
+        );
+        store.save(expires);
+
+        final CacheValue kept = CacheValue.with(
+            CacheKey.with("key2"),
+            Optional.of(2)
+        );
+        store.save(kept);
+
+        this.now = 100;
+
+        this.streamAndCheck(
+            store,
+            kept
+        );
+        this.streamAndCheck(
+            store,
+            expires.key(),
+            kept.key(),
+            kept
+        );
+    }
+
+    /**
+     * Wraps the store failing any offset paging, so streams must be read from the stream of the wrapped store.
+     */
+    private static CacheStore unpaged(final CacheStore store) {
+        return (CacheStore) Proxy.newProxyInstance(
+            CacheStore.class.getClassLoader(),
+            new Class<?>[]{
+                CacheStore.class
+            },
+            (proxy, method, args) -> {
+                final String name = method.getName();
+                if ("ids".equals(name) || "values".equals(name)) {
+                    throw new UnsupportedOperationException(name);
+                }
+                try {
+                    return method.invoke(
+                        store,
+                        args
+                    );
+                } catch (final InvocationTargetException cause) {
+                    throw cause.getCause();
+                }
+            }
+        );
+    }
+
+    @Override
+    public BasicExpiringCacheStore createStore() {
+        return BasicExpiringCacheStore.with(
+            CacheStores.treeMap(),
+            this::now
+        );
+    }
+
+    @Override
+    public CacheKey id() {
+        return CacheKey.with("key123");
+    }
+
+    @Override
+    public CacheValue value() {
+        return CacheValue.with(
+            this.id(),
+            Optional.of("Value456")
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<BasicExpiringCacheStore> type() {
+        return BasicExpiringCacheStore.class;
+    }
+}
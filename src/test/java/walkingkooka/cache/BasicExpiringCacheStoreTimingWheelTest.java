@@ -0,0 +1,213 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+public final class BasicExpiringCacheStoreTimingWheelTest implements ClassTesting<BasicExpiringCacheStoreTimingWheel>,
+    ToStringTesting<BasicExpiringCacheStoreTimingWheel> {
+
+    @Test
+    public void testAdvanceBeforeDeadline() {
+        final BasicExpiringCacheStoreTimingWheel wheel = BasicExpiringCacheStoreTimingWheel.with(0);
+        wheel.schedule(
+            this.deadline("a1", 100, 0)
+        );
+
+        this.advanceAndCheck(
+            wheel,
+            99
+        );
+    }
+
+    @Test
+    public void testAdvanceAtDeadline() {
+        final BasicExpiringCacheStoreTimingWheel wheel = BasicExpiringCacheStoreTimingWheel.with(0);
+        final BasicExpiringCacheStoreDeadline a1 = this.deadline("a1", 100, 0);
+        wheel.schedule(a1);
+
+        this.advanceAndCheck(
+            wheel,
+            100,
+            a1
+        );
+    }
+
+    @Test
+    public void testAdvanceSeveralTimes() {
+        final BasicExpiringCacheStoreTimingWheel wheel = BasicExpiringCacheStoreTimingWheel.with(0);
+        final BasicExpiringCacheStoreDeadline a1 = this.deadline("a1", 10, 0);
+        final BasicExpiringCacheStoreDeadline b2 = this.deadline("b2", 5000, 0);
+        final BasicExpiringCacheStoreDeadline c3 = this.deadline("c3", 3_600_000, 0);
+
+        wheel.schedule(a1);
+        wheel.schedule(b2);
+        wheel.schedule(c3);
+
+        this.advanceAndCheck(
+            wheel,
+            10,
+            a1
+        );
+        this.advanceAndCheck(
+            wheel,
+            4999
+        );
+        this.advanceAndCheck(
+            wheel,
+            5000,
+            b2
+        );
+        this.advanceAndCheck(
+            wheel,
+            3_599_999
+        );
+        this.advanceAndCheck(
+            wheel,
+            3_600_000,
+            c3
+        );
+    }
+
+    @Test
+    public void testAdvanceAfterUnschedule() {
+        final BasicExpiringCacheStoreTimingWheel wheel = BasicExpiringCacheStoreTimingWheel.with(0);
+        final BasicExpiringCacheStoreDeadline a1 = this.deadline("a1", 100, 0);
+        final BasicExpiringCacheStoreDeadline b2 = this.deadline("b2", 100, 0);
+
+        wheel.schedule(a1);
+        wheel.schedule(b2);
+        wheel.unschedule(a1);
+
+        this.advanceAndCheck(
+            wheel,
+            100,
+            b2
+        );
+    }
+
+    @Test
+    public void testAdvanceReschedulesAccessed() {
+        final BasicExpiringCacheStoreTimingWheel wheel = BasicExpiringCacheStoreTimingWheel.with(0);
+        final BasicExpiringCacheStoreDeadline a1 = BasicExpiringCacheStoreDeadline.with(
+            CacheValue.with(
+                CacheKey.with("a1"),
+                Optional.empty()
+            ).setExpireAfterAccess(
+                Optional.of(
+                    Duration.ofMillis(100)
+                )
+            ),
+            0
+        );
+        wheel.schedule(a1);
+
+        a1.accessed(50);
+
+        this.advanceAndCheck(
+            wheel,
+            100
+        );
+        this.advanceAndCheck(
+            wheel,
+            150,
+            a1
+        );
+    }
+
+    @Test
+    public void testScheduleNeverIgnored() {
+        final BasicExpiringCacheStoreTimingWheel wheel = BasicExpiringCacheStoreTimingWheel.with(0);
+        wheel.schedule(
+            BasicExpiringCacheStoreDeadline.with(
+                CacheValue.with(
+                    CacheKey.with("never"),
+                    Optional.empty()
+                ),
+                0
+            )
+        );
+
+        this.advanceAndCheck(
+            wheel,
+            Long.MAX_VALUE - 1
+        );
+    }
+
+    private BasicExpiringCacheStoreDeadline deadline(final String key,
+                                                     final long expireAfterWrite,
+                                                     final long now) {
+        return BasicExpiringCacheStoreDeadline.with(
+            CacheValue.with(
+                CacheKey.with(key),
+                Optional.empty()
+            ).setExpireAfterWrite(
+                Optional.of(
+                    Duration.ofMillis(expireAfterWrite)
+                )
+            ),
+            now
+        );
+    }
+
+    private void advanceAndCheck(final BasicExpiringCacheStoreTimingWheel wheel,
+                                 final long now,
+                                 final BasicExpiringCacheStoreDeadline... expected) {
+        final List<BasicExpiringCacheStoreDeadline> expired = Lists.array();
+        wheel.advance(
+            now,
+            expired::add
+        );
+
+        this.checkEquals(
+            Lists.of(expected),
+            expired,
+            "advance " + now
+        );
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+            BasicExpiringCacheStoreTimingWheel.with(123),
+            "123"
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<BasicExpiringCacheStoreTimingWheel> type() {
+        return BasicExpiringCacheStoreTimingWheel.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,632 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class BasicGenerationalCacheStoreTest implements CacheStoreTesting<BasicGenerationalCacheStore> {
+
+    @Test
+    public void testWithNullStoreFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> BasicGenerationalCacheStore.with(null)
+        );
+    }
+
+    @Test
+    public void testSaveStampsGeneration() {
+        final BasicGenerationalCacheStore store = this.createStore();
+        store.nextGeneration();
+
+        final CacheValue saved = store.save(
+            this.value("a1")
+        );
+
+        this.checkEquals(
+            2L,
+            saved.generation(),
+            "generation"
+        );
+        this.loadAndCheck(
+            store,
+            saved.key(),
+            saved
+        );
+    }
+
+    @Test
+    public void testSaveAllStampsGeneration() {
+        final BasicGenerationalCacheStore store = this.createStore();
+
+        final List<CacheValue> saved = store.saveAll(
+            Lists.of(
+                this.value("a1"),
+                this.value("b2")
+            )
+        );
+
+        this.checkEquals(
+            Lists.of(
+                this.value("a1").setGeneration(1),
+                this.value("b2").setGeneration(1)
+            ),
+            saved
+        );
+    }
+
+    @Test
+    public void testInvalidateAll() {
+        final CacheStore wrapped = CacheStores.treeMap();
+        final BasicGenerationalCacheStore store = BasicGenerationalCacheStore.with(wrapped);
+
+        final CacheValue a1 = store.save(this.value("a1"));
+        final CacheValue b2 = store.save(this.value("b2"));
+
+        store.invalidateAll();
+
+        this.checkEquals(
+            Optional.empty(),
+            store.load(a1.key())
+        );
+        this.checkEquals(
+            Optional.empty(),
+            store.load(b2.key())
+        );
+        this.countAndCheck(
+            store,
+            0
+        );
+        this.checkEquals(
+            2,
+            wrapped.count(),
+            "wrapped count before sweep"
+        );
+
+        final CacheValue c3 = store.save(this.value("c3"));
+        this.loadAndCheck(
+            store,
+            c3.key(),
+            c3
+        );
+        this.countAndCheck(
+            store,
+            1
+        );
+    }
+
+    @Test
+    public void testInvalidateAllIncludesUnstampedValues() {
+        final CacheStore wrapped = CacheStores.treeMap();
+        final CacheValue value = this.value("a1");
+        wrapped.save(value);
+
+        final BasicGenerationalCacheStore store = BasicGenerationalCacheStore.with(wrapped);
+        this.loadAndCheck(
+            store,
+            value.key(),
+            value
+        );
+
+        store.invalidateAll();
+
+        this.checkEquals(
+            Optional.empty(),
+            store.load(value.key())
+        );
+    }
+
+    @Test
+    public void testInvalidateGeneration() {
+        final BasicGenerationalCacheStore store = this.createStore();
+
+        final CacheValue a1 = store.save(this.value("a1"));
+        store.nextGeneration();
+        final CacheValue b2 = store.save(this.value("b2"));
+
+        store.invalidateGeneration(1);
+
+        this.checkEquals(
+            Optional.empty(),
+            store.load(a1.key())
+        );
+        this.loadAndCheck(
+            store,
+            b2.key(),
+            b2
+        );
+        this.checkEquals(
+            Lists.of(b2),
+            store.values(
+                0,
+                10
+            )
+        );
+        this.checkEquals(
+            new TreeSet<>(
+                Set.of(b2.key())
+            ),
+            store.ids(
+                0,
+                10
+            )
+        );
+        this.checkEquals(
+            Lists.of(b2),
+            store.between(
+                a1.key(),
+                b2.key()
+            )
+        );
+    }
+
+    @Test
+    public void testInvalidateCurrentGenerationStartsNext() {
+        final BasicGenerationalCacheStore store = this.createStore();
+
+        final CacheValue a1 = store.save(this.value("a1"));
+        store.invalidateGeneration(1);
+
+        this.checkEquals(
+            2L,
+            store.generation(),
+            "generation"
+        );
+
+        final CacheValue a1Again = store.save(this.value("a1"));
+        this.checkEquals(
+            2L,
+            a1Again.generation(),
+            "generation"
+        );
+        this.loadAndCheck(
+            store,
+            a1Again.key(),
+            a1Again
+        );
+    }
+
+    @Test
+    public void testInvalidateFutureGenerationFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> this.createStore()
+                .invalidateGeneration(2)
+        );
+    }
+
+    @Test
+    public void testInvalidateDoesNotNotifyWatchers() {
+        final BasicGenerationalCacheStore store = this.createStore();
+        store.save(this.value("a1"));
+
+        final List<CacheKey> deleted = Lists.array();
+        store.addDeleteWatcher(deleted::add);
+
+        store.invalidateAll();
+
+        this.checkEquals(
+            Lists.empty(),
+            deleted
+        );
+    }
+
+    @Test
+    public void testValuesOffsetSkipsInvalid() {
+        final BasicGenerationalCacheStore store = this.createStore();
+
+        store.save(this.value("a1"));
+        store.save(this.value("c3"));
+        store.nextGeneration();
+        final CacheValue b2 = store.save(this.value("b2"));
+        final CacheValue d4 = store.save(this.value("d4"));
+        final CacheValue e5 = store.save(this.value("e5"));
+
+        store.invalidateGeneration(1);
+
+        this.checkEquals(
+            Lists.of(
+                d4,
+                e5
+            ),
+            store.values(
+                1,
+                2
+            )
+        );
+        this.checkEquals(
+            Lists.of(b2),
+            store.values(
+                0,
+                1
+            )
+        );
+    }
+
+    @Test
+    public void testSweepWithInvalidBatchSizeFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> this.createStore()
+                .sweep(0)
+        );
+    }
+
+    @Test
+    public void testSweepNothingInvalidated() {
+        final BasicGenerationalCacheStore store = this.createStore();
+        store.save(this.value("a1"));
+
+        this.sweepAndCheck(
+            store,
+            10,
+            0
+        );
+    }
+
+    @Test
+    public void testSweepBatches() {
+        final CacheStore wrapped = CacheStores.treeMap();
+        final BasicGenerationalCacheStore store = BasicGenerationalCacheStore.with(wrapped);
+
+        store.save(this.value("a1"));
+        store.save(this.value("b2"));
+        store.save(this.value("c3"));
+        store.nextGeneration();
+        final CacheValue d4 = store.save(this.value("d4"));
+        store.invalidateGeneration(1);
+        final CacheValue e5 = store.save(this.value("e5"));
+
+        final List<Set<CacheKey>> deleted = Lists.array();
+        store.addDeleteAllWatcher(deleted::add);
+
+        this.sweepAndCheck(
+            store,
+            2,
+            2
+        );
+        this.sweepAndCheck(
+            store,
+            2,
+            1
+        );
+        this.sweepAndCheck(
+            store,
+            2,
+            0
+        );
+        this.sweepAndCheck(
+            store,
+            2,
+            0
+        );
+
+        this.checkEquals(
+            Lists.of(
+                d4,
+                e5
+            ),
+            wrapped.values(
+                0,
+                10
+            )
+        );
+        this.checkEquals(
+            Lists.of(
+                Set.of(
+                    CacheKey.with("a1"),
+                    CacheKey.with("b2")
+                ),
+                Set.of(
+                    CacheKey.with("c3")
+                )
+            ),
+            deleted,
+            "deleteAll watcher"
+        );
+        this.countAndCheck(
+            store,
+            2
+        );
+    }
+
+    @Test
+    public void testSweepInvalidateDuringPass() {
+        final CacheStore wrapped = CacheStores.treeMap();
+        final BasicGenerationalCacheStore store = BasicGenerationalCacheStore.with(wrapped);
+
+        store.save(this.value("a1"));
+        store.save(this.value("c3"));
+        store.nextGeneration();
+        store.save(this.value("b2"));
+        store.save(this.value("d4"));
+        store.invalidateGeneration(1);
+
+        // a1 deleted, b2 remains valid
+        this.sweepAndCheck(
+            store,
+            2,
+            1
+        );
+
+        store.invalidateAll();
+
+        // c3 and d4
+        this.sweepAndCheck(
+            store,
+            2,
+            2
+        );
+        // the pass ends but b2 was skipped before invalidateAll
+        this.sweepAndCheck(
+            store,
+            2,
+            0
+        );
+        this.sweepAndCheck(
+            store,
+            2,
+            1
+        );
+        this.sweepAndCheck(
+            store,
+            2,
+            0
+        );
+        this.checkEquals(
+            0,
+            wrapped.count(),
+            "wrapped count"
+        );
+    }
+
+    @Test
+    public void testSaveLandingAfterInvalidateAndSweepNotVisible() {
+        final CacheStore wrapped = CacheStores.treeMap();
+        final BasicGenerationalCacheStore[] store = new BasicGenerationalCacheStore[1];
+
+        // invalidates and sweeps after the generation was stamped but before the save lands
+        final CacheStore delayed = (CacheStore) Proxy.newProxyInstance(
+            CacheStore.class.getClassLoader(),
+            new Class<?>[]{
+                CacheStore.class
+            },
+            (proxy, method, args) -> {
+                if ("save".equals(method.getName())) {
+                    store[0].invalidateAll();
+                    store[0].sweep(10);
+                }
+                try {
+                    return method.invoke(
+                        wrapped,
+                        args
+                    );
+                } catch (final InvocationTargetException cause) {
+                    throw cause.getCause();
+                }
+            }
+        );
+        store[0] = BasicGenerationalCacheStore.with(delayed);
+
+        final CacheValue a1 = store[0].save(this.value("a1"));
+
+        this.countAndCheck(
+            store[0],
+            0
+        );
+        this.checkEquals(
+            Lists.empty(),
+            store[0].values(0, 10),
+            "values"
+        );
+        this.checkEquals(
+            Set.of(),
+            store[0].ids(0, 10),
+            "ids"
+        );
+        this.checkEquals(
+            Lists.empty(),
+            store[0].between(
+                a1.key(),
+                a1.key()
+            ),
+            "between"
+        );
+        this.sweepAndCheck(
+            store[0],
+            10,
+            1
+        );
+        this.checkEquals(
+            0,
+            wrapped.count(),
+            "wrapped count"
+        );
+    }
+
+    private void sweepAndCheck(final BasicGenerationalCacheStore store,
+                               final int batchSize,
+                               final int expected) {
+        this.checkEquals(
+            expected,
+            store.sweep(batchSize),
+            "sweep " + batchSize
+        );
+    }
+
+    @Test
+    public void testLoadByPrefixSkipsInvalid() {
+        final BasicGenerationalCacheStore store = this.createStore();
+
+        store.save(this.value("ns.a1"));
+        store.nextGeneration();
+        final CacheValue b2 = store.save(this.value("ns.b2"));
+        store.invalidateGeneration(1);
+
+        this.loadByPrefixAndCheck(
+            store,
+            "ns.",
+            b2
+        );
+    }
+
+    @Test
+    public void testLoadAllSkipsInvalid() {
+        final BasicGenerationalCacheStore store = this.createStore();
+
+        final CacheValue a1 = store.save(this.value("a1"));
+        store.nextGeneration();
+        final CacheValue b2 = store.save(this.value("b2"));
+        store.invalidateGeneration(1);
+
+        this.checkEquals(
+            Set.of(b2.key()),
+            store.loadAll(
+                Lists.of(
+                    a1.key(),
+                    b2.key()
+                )
+            ).keySet()
+        );
+    }
+
+    @Test
+    public void testBoundedWrappedStoreEvictsInvalid() {
+        final BoundedCacheStore bounded = CacheStores.bounded(
+            2,
+            CacheStores.concurrent()
+        );
+        final BasicGenerationalCacheStore store = BasicGenerationalCacheStore.with(bounded);
+
+        store.save(this.value("a1"));
+        store.save(this.value("b2"));
+        store.invalidateAll();
+
+        for (int i = 0; i < 10; i++) {
+            final CacheValue value = store.save(this.value("c" + i));
+            store.load(value.key());
+        }
+
+        this.checkEquals(
+            true,
+            bounded.count() <= 2,
+            "bounded count"
+        );
+    }
+
+    private CacheValue value(final String key) {
+        return CacheValue.with(
+            CacheKey.with(key),
+            Optional.of(key + "Value")
+        );
+    }
+
+    @Test
+    public void testStreamSkipsInvalidWithoutPaging() {
+        final BasicGenerationalCacheStore store = BasicGenerationalCacheStore.with(
+            unpaged(
+                CacheStores.copyOnWrite()
+            )
+        );
+
+        store.save(this.value("a1"));
+        store.nextGeneration();
+        final CacheValue b2 = store.save(this.value("b2"));
+        final CacheValue c2 = store.save(this.value("c2"));
+        store.invalidateGeneration(1);
+
+        this.streamAndCheck(
+            store,
+            b2,
+            c2
+        );
+        this.streamAndCheck(
+            store,
+            CacheKey.with("a1"),
+            CacheKey.with("b2"),
+            b2
+        );
+    }
+
+    /**
+     * Wraps the store failing any offset paging, so streams must be read from the stream of the wrapped store.
+     */
+    private static CacheStore unpaged(final CacheStore store) {
+        return (CacheStore) Proxy.newProxyInstance(
+            CacheStore.class.getClassLoader(),
+            new Class<?>[]{
+                CacheStore.class
+            },
+            (proxy, method, args) -> {
+                final String name = method.getName();
+                if ("ids".equals(name) || "values".equals(name)) {
+                    throw new UnsupportedOperationException(name);
+                }
+                try {
+                    return method.invoke(
+                        store,
+                        args
+                    );
+                } catch (final InvocationTargetException cause) {
+                    throw cause.getCause();
+                }
+            }
+        );
+    }
+
+    @Override
+    public BasicGenerationalCacheStore createStore() {
+        return BasicGenerationalCacheStore.with(
+            CacheStores.treeMap()
+        );
+    }
+
+    @Override
+    public CacheKey id() {
+        return CacheKey.with("key123");
+    }
+
+    /**
+     * The value stamped with the first generation, so it equals the value returned by loads.
+     */
+    @Override
+    public CacheValue value() {
+        return CacheValue.with(
+            this.id(),
+            Optional.of("Value456")
+        ).setGeneration(1);
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<BasicGenerationalCacheStore> type() {
+        return BasicGenerationalCacheStore.class;
+    }
+}
@@ -0,0 +1,486 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class BasicLoadingCacheStoreTest implements CacheStoreTesting<BasicLoadingCacheStore> {
+
+    @Test
+    public void testWithNullStoreFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> BasicLoadingCacheStore.with(null)
+        );
+    }
+
+    @Test
+    public void testLoadWithNullLoaderFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> this.createStore()
+                .load(
+                    this.id(),
+                    null
+                )
+        );
+    }
+
+    @Test
+    public void testSaveAndLoad() {
+        final BasicLoadingCacheStore store = this.createStore();
+
+        final CacheValue value = this.value();
+
+        store.save(value);
+
+        this.loadAndCheck(
+            store,
+            value.key(),
+            value
+        );
+    }
+
+    @Test
+    public void testLoadWithLoaderPresent() {
+        final BasicLoadingCacheStore store = this.createStore();
+
+        final CacheValue value = this.value();
+        store.save(value);
+
+        assertSame(
+            value,
+            store.load(
+                value.key(),
+                (k) -> {
+                    throw new UnsupportedOperationException();
+                }
+            )
+        );
+    }
+
+    @Test
+    public void testLoadWithLoaderMissingSaves() {
+        final BasicLoadingCacheStore store = this.createStore();
+
+        final List<CacheValue> saved = Lists.array();
+        store.addSaveWatcher(saved::add);
+
+        final CacheValue value = store.load(
+            this.id(),
+            (k) -> Optional.of("Loaded " + k)
+        );
+
+        this.checkEquals(
+            CacheValue.with(
+                this.id(),
+                Optional.of("Loaded key123")
+            ),
+            value
+        );
+        this.checkEquals(
+            Lists.of(value),
+            saved,
+            "save watcher"
+        );
+        this.loadAndCheck(
+            store,
+            this.id(),
+            value
+        );
+    }
+
+    @Test
+    public void testLoadWithLoaderFailure() {
+        final BasicLoadingCacheStore store = this.createStore();
+
+        final IllegalStateException thrown = assertThrows(
+            IllegalStateException.class,
+            () -> store.load(
+                this.id(),
+                (k) -> {
+                    throw new IllegalStateException("Failed");
+                }
+            )
+        );
+        this.checkEquals(
+            "Failed",
+            thrown.getMessage()
+        );
+
+        // failure is not cached
+        this.checkEquals(
+            Optional.of("retry"),
+            store.load(
+                this.id(),
+                (k) -> Optional.of("retry")
+            ).value()
+        );
+    }
+
+    @Test
+    public void testLoadWithLoaderConcurrentSingleComputation() throws Exception {
+        final BasicLoadingCacheStore store = BasicLoadingCacheStore.with(
+            CacheStores.concurrent()
+        );
+
+        final int threads = 8;
+        final AtomicInteger computations = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<CacheValue>> futures = Lists.array();
+            for (int i = 0; i < threads; i++) {
+                futures.add(
+                    executor.submit(
+                        () -> store.load(
+                            this.id(),
+                            (k) -> {
+                                computations.incrementAndGet();
+                                started.countDown();
+                                try {
+                                    release.await();
+                                } catch (final InterruptedException cause) {
+                                    throw new IllegalStateException(cause);
+                                }
+                                return Optional.of("computed");
+                            }
+                        )
+                    )
+                );
+            }
+
+            started.await(10, TimeUnit.SECONDS);
+            // give the other threads a chance to join the computation in flight
+            Thread.sleep(100);
+            release.countDown();
+
+            for (final Future<CacheValue> future : futures) {
+                this.checkEquals(
+                    Optional.of("computed"),
+                    future.get(10, TimeUnit.SECONDS)
+                        .value()
+                );
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        this.checkEquals(
+            1,
+            computations.get(),
+            "computations"
+        );
+    }
+
+    // refresh..........................................................................................................
+
+    private final static Duration REFRESH_AFTER_WRITE = Duration.ofMillis(100);
+
+    @Test
+    public void testWithRefreshAfterWriteZeroFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> BasicLoadingCacheStore.withRefreshAfterWrite(
+                CacheStores.treeMap(),
+                Duration.ZERO,
+                this.executor::add,
+                () -> this.now
+            )
+        );
+    }
+
+    @Test
+    public void testWithRefreshAfterWriteNullExecutorFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> BasicLoadingCacheStore.withRefreshAfterWrite(
+                CacheStores.treeMap(),
+                REFRESH_AFTER_WRITE,
+                null,
+                () -> this.now
+            )
+        );
+    }
+
+    @Test
+    public void testLoadWithLoaderBeforeRefreshAfterWrite() {
+        final BasicLoadingCacheStore store = this.createRefreshingStore();
+
+        final CacheValue value = this.value();
+        store.save(value);
+
+        this.now = 99;
+
+        assertSame(
+            value,
+            store.load(
+                value.key(),
+                (k) -> Optional.of("refreshed")
+            )
+        );
+        this.checkEquals(
+            Lists.empty(),
+            this.executor,
+            "nothing refreshed"
+        );
+    }
+
+    @Test
+    public void testLoadWithLoaderAfterRefreshAfterWrite() {
+        final BasicLoadingCacheStore store = this.createRefreshingStore();
+
+        final CacheValue value = this.value();
+        store.save(value);
+
+        this.now = 100;
+
+        assertSame(
+            value,
+            store.load(
+                value.key(),
+                (k) -> Optional.of("refreshed")
+            ),
+            "current value returned while refreshing"
+        );
+
+        // a second hit while the refresh is in flight does not start another
+        store.load(
+            value.key(),
+            (k) -> Optional.of("refreshed2")
+        );
+        this.checkEquals(
+            1,
+            this.executor.size(),
+            "refreshes"
+        );
+
+        this.executor.remove(0)
+            .run();
+
+        this.loadAndCheck(
+            store,
+            value.key(),
+            value.setValue(
+                Optional.of("refreshed")
+            )
+        );
+    }
+
+    @Test
+    public void testLoadWithLoaderRefreshFailureKeepsValue() {
+        final BasicLoadingCacheStore store = this.createRefreshingStore();
+
+        final CacheValue value = this.value();
+        store.save(value);
+
+        this.now = 100;
+
+        store.load(
+            value.key(),
+            (k) -> {
+                throw new IllegalStateException();
+            }
+        );
+        this.executor.remove(0)
+            .run();
+
+        this.loadAndCheck(
+            store,
+            value.key(),
+            value
+        );
+
+        // retried on the next hit
+        store.load(
+            value.key(),
+            (k) -> Optional.of("refreshed")
+        );
+        this.checkEquals(
+            1,
+            this.executor.size(),
+            "refreshes"
+        );
+    }
+
+    @Test
+    public void testLoadWithLoaderRefreshDiscardedAfterSave() {
+        final BasicLoadingCacheStore store = this.createRefreshingStore();
+
+        final CacheValue value = this.value();
+        store.save(value);
+
+        this.now = 100;
+
+        store.load(
+            value.key(),
+            (k) -> Optional.of("refreshed")
+        );
+
+        final CacheValue saved = value.setValue(
+            Optional.of("saved")
+        );
+        store.save(saved);
+
+        this.executor.remove(0)
+            .run();
+
+        this.loadAndCheck(
+            store,
+            value.key(),
+            saved
+        );
+    }
+
+    @Test
+    public void testLoadWithLoaderRefreshDiscardedAfterDelete() {
+        final BasicLoadingCacheStore store = this.createRefreshingStore();
+
+        final CacheValue value = this.value();
+        store.save(value);
+
+        this.now = 100;
+
+        store.load(
+            value.key(),
+            (k) -> Optional.of("refreshed")
+        );
+
+        store.delete(value.key());
+
+        this.executor.remove(0)
+            .run();
+
+        this.checkEquals(
+            Optional.empty(),
+            store.load(value.key())
+        );
+    }
+
+    private BasicLoadingCacheStore createRefreshingStore() {
+        return BasicLoadingCacheStore.withRefreshAfterWrite(
+            CacheStores.treeMap(),
+            REFRESH_AFTER_WRITE,
+            this.executor::add,
+            () -> this.now
+        );
+    }
+
+    private final List<Runnable> executor = Lists.array();
+
+    private long now;
+
+    @Test
+    public void testStreamWithoutPaging() {
+        final BasicLoadingCacheStore store = BasicLoadingCacheStore.with(
+            unpaged(
+                CacheStores.copyOnWrite()
+            )
+        );
+
+        final CacheValue value1 = store.save(
+            this.prefixValue("key1")
+        );
+        final CacheValue value2 = store.save(
+            this.prefixValue("key2")
+        );
+
+        this.streamAndCheck(
+            store,
+            value1,
+            value2
+        );
+        this.streamAndCheck(
+            store,
+            value2.key(),
+            value2.key(),
+            value2
+        );
+    }
+
+    /**
+     * Wraps the store failing any offset paging, so streams must be read from the stream of the wrapped store.
+     */
+    private static CacheStore unpaged(final CacheStore store) {
+        return (CacheStore) Proxy.newProxyInstance(
+            CacheStore.class.getClassLoader(),
+            new Class<?>[]{
+                CacheStore.class
+            },
+            (proxy, method, args) -> {
+                final String name = method.getName();
+                if ("ids".equals(name) || "values".equals(name)) {
+                    throw new UnsupportedOperationException(name);
+                }
+                try {
+                    return method.invoke(
+                        store,
+                        args
+                    );
+                } catch (final InvocationTargetException cause) {
+                    throw cause.getCause();
+                }
+            }
+        );
+    }
+
+    @Override
+    public BasicLoadingCacheStore createStore() {
+        return BasicLoadingCacheStore.with(
+            CacheStores.treeMap()
+        );
+    }
+
+    @Override
+    public CacheKey id() {
+        return CacheKey.with("key123");
+    }
+
+    @Override
+    public CacheValue value() {
+        return CacheValue.with(
+            this.id(),
+            Optional.of("Value456")
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<BasicLoadingCacheStore> type() {
+        return BasicLoadingCacheStore.class;
+    }
+}
@@ -0,0 +1,334 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class BasicStatsCacheStoreTest implements CacheStoreTesting<BasicStatsCacheStore> {
+
+    @Test
+    public void testWithNullStoreFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> BasicStatsCacheStore.with(
+                null,
+                this::ticker,
+                BasicStatsCacheStoreAtomicLongCounter::new
+            )
+        );
+    }
+
+    @Test
+    public void testWithNullTickerFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> BasicStatsCacheStore.with(
+                CacheStores.treeMap(),
+                null,
+                BasicStatsCacheStoreAtomicLongCounter::new
+            )
+        );
+    }
+
+    @Test
+    public void testWithNullCountersFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> BasicStatsCacheStore.with(
+                CacheStores.treeMap(),
+                this::ticker,
+                null
+            )
+        );
+    }
+
+    @Test
+    public void testSaveAndLoad() {
+        final BasicStatsCacheStore store = this.createStore();
+
+        final CacheValue value = this.value();
+
+        store.save(value);
+
+        this.loadAndCheck(
+            store,
+            value.key(),
+            value
+        );
+    }
+
+    @Test
+    public void testStatsEmpty() {
+        this.checkEquals(
+            CacheStats.EMPTY,
+            this.createStore()
+                .stats()
+        );
+    }
+
+    @Test
+    public void testStatsHitsMissesSavesDeletes() {
+        final BasicStatsCacheStore store = this.createStore();
+
+        final CacheValue value = this.value();
+        store.save(value);
+        store.load(value.key());
+        store.load(value.key());
+        store.load(CacheKey.with("missing"));
+        store.delete(value.key());
+
+        final CacheStats stats = store.stats();
+        this.checkEquals(
+            2L,
+            stats.hitCount(),
+            "hits"
+        );
+        this.checkEquals(
+            1L,
+            stats.missCount(),
+            "misses"
+        );
+        this.checkEquals(
+            1L,
+            stats.saveCount(),
+            "saves"
+        );
+        this.checkEquals(
+            1L,
+            stats.deleteCount(),
+            "deletes"
+        );
+        this.checkEquals(
+            3L * TICK,
+            stats.totalLoadTime(),
+            "totalLoadTime"
+        );
+        this.checkEquals(
+            3L,
+            stats.loadLatencyCount(
+                CacheStats.loadLatencyBucket(TICK)
+            ),
+            "loadLatency"
+        );
+    }
+
+    @Test
+    public void testStatsLongAdderCountersConcurrentLoads() throws Exception {
+        final BasicStatsCacheStore store = BasicStatsCacheStore.with(
+            CacheStores.concurrent(),
+            System::nanoTime,
+            BasicStatsCacheStoreLongAdderCounter::new
+        );
+
+        final CacheValue value = this.value();
+        store.save(value);
+
+        final int threads = 4;
+        final int loads = 10000;
+
+        final Thread[] loaders = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            loaders[t] = new Thread(
+                () -> {
+                    for (int i = 0; i < loads; i++) {
+                        store.load(value.key());
+                    }
+                }
+            );
+            loaders[t].start();
+        }
+        for (final Thread loader : loaders) {
+            loader.join();
+        }
+
+        this.checkEquals(
+            (long) threads * loads,
+            store.stats()
+                .hitCount(),
+            "hits"
+        );
+    }
+
+    @Test
+    public void testStatsDeletesIgnoreAbsentKeys() {
+        final BasicStatsCacheStore store = this.createStore();
+
+        final CacheValue value = this.value();
+        store.save(value);
+        store.delete(CacheKey.with("missing"));
+        store.deleteAll(
+            Lists.of(
+                value.key(),
+                CacheKey.with("missing2")
+            )
+        );
+
+        this.checkEquals(
+            1L,
+            store.stats()
+                .deleteCount()
+        );
+    }
+
+    @Test
+    public void testStatsEvictionsNotCountedAsDeletes() {
+        final BasicStatsCacheStore store = BasicStatsCacheStore.with(
+            CacheStores.bounded(
+                1,
+                CacheStores.treeMap()
+            ),
+            this::ticker,
+            BasicStatsCacheStoreAtomicLongCounter::new
+        );
+
+        store.save(
+            CacheValue.with(
+                CacheKey.with("a1"),
+                Optional.empty()
+            )
+        );
+        store.save(
+            CacheValue.with(
+                CacheKey.with("b2"),
+                Optional.empty()
+            )
+        );
+
+        final CacheStats stats = store.stats();
+        this.checkEquals(
+            1L,
+            stats.evictionCount(),
+            "evictions"
+        );
+        this.checkEquals(
+            0L,
+            stats.deleteCount(),
+            "deletes"
+        );
+    }
+
+    @Test
+    public void testStatsEvictions() {
+        final BasicStatsCacheStore store = BasicStatsCacheStore.with(
+            CacheStores.bounded(
+                1,
+                CacheStores.treeMap()
+            ),
+            this::ticker,
+            BasicStatsCacheStoreAtomicLongCounter::new
+        );
+
+        store.save(
+            CacheValue.with(
+                CacheKey.with("a1"),
+                Optional.empty()
+            )
+        );
+        store.save(
+            CacheValue.with(
+                CacheKey.with("b2"),
+                Optional.empty()
+            )
+        );
+
+        this.checkEquals(
+            1L,
+            store.stats()
+                .evictionCount()
+        );
+    }
+
+    @Test
+    public void testStatsExpirations() {
+        final ExpiringCacheStore expiring = CacheStores.expiring(
+            CacheStores.treeMap(),
+            () -> this.now
+        );
+        final BasicStatsCacheStore store = BasicStatsCacheStore.with(
+            expiring,
+            this::ticker,
+            BasicStatsCacheStoreAtomicLongCounter::new
+        );
+
+        store.save(
+            this.value()
+                .setExpireAfterWrite(
+                    Optional.of(Duration.ofMillis(1))
+                )
+        );
+
+        this.now = 1;
+        expiring.sweep(10);
+
+        this.checkEquals(
+            1L,
+            store.stats()
+                .expirationCount()
+        );
+    }
+
+    private final static long TICK = 100;
+
+    /**
+     * Each call advances the ticker so every load appears to take {@link #TICK} nanoseconds.
+     */
+    private long ticker() {
+        final long ticker = this.ticker;
+        this.ticker += TICK;
+        return ticker;
+    }
+
+    private long ticker;
+
+    private long now;
+
+    @Override
+    public BasicStatsCacheStore createStore() {
+        return BasicStatsCacheStore.with(
+            CacheStores.treeMap(),
+            this::ticker,
+            BasicStatsCacheStoreAtomicLongCounter::new
+        );
+    }
+
+    @Override
+    public CacheKey id() {
+        return CacheKey.with("key123");
+    }
+
+    @Override
+    public CacheValue value() {
+        return CacheValue.with(
+            this.id(),
+            Optional.of("Value456")
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<BasicStatsCacheStore> type() {
+        return BasicStatsCacheStore.class;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class CacheKeyInternerTest implements ClassTesting<CacheKeyInterner> {
+
+    @Test
+    public void testInternWithNullFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> CacheKeyInterner.empty()
+                .intern(null)
+        );
+    }
+
+    @Test
+    public void testInternWithInvalidFails() {
+        final CacheKeyInterner interner = CacheKeyInterner.empty();
+
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> interner.intern("1invalid")
+        );
+
+        this.checkEquals(
+            0,
+            interner.size()
+        );
+    }
+
+    @Test
+    public void testIntern() {
+        final CacheKeyInterner interner = CacheKeyInterner.empty();
+
+        this.checkEquals(
+            CacheKey.with("key123"),
+            interner.intern("key123")
+        );
+    }
+
+    @Test
+    public void testInternSameTextReturnsSame() {
+        final CacheKeyInterner interner = CacheKeyInterner.empty();
+
+        final CacheKey key = interner.intern("key123");
+
+        assertSame(
+            key,
+            interner.intern(
+                new String("key123")
+            )
+        );
+        this.checkEquals(
+            1,
+            interner.size()
+        );
+    }
+
+    @Test
+    public void testClear() {
+        final CacheKeyInterner interner = CacheKeyInterner.empty();
+
+        final CacheKey key = interner.intern("key123");
+        interner.clear();
+
+        this.checkEquals(
+            0,
+            interner.size(),
+            "size"
+        );
+        assertNotSame(
+            key,
+            interner.intern("key123")
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<CacheKeyInterner> type() {
+        return CacheKeyInterner.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class CacheKeyPrefixTest implements ClassTesting<CacheKeyPrefix>,
+    ToStringTesting<CacheKeyPrefix> {
+
+    @Test
+    public void testWithNullFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> CacheKeyPrefix.with(null)
+        );
+    }
+
+    @Test
+    public void testWithEmptyFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> CacheKeyPrefix.with("")
+        );
+    }
+
+    @Test
+    public void testFromAndTo() {
+        final CacheKeyPrefix prefix = CacheKeyPrefix.with("spreadsheet.123.");
+
+        this.checkEquals(
+            false,
+            prefix.isNone(),
+            "isNone"
+        );
+        this.checkEquals(
+            CacheKey.with("spreadsheet.123."),
+            prefix.from(),
+            "from"
+        );
+
+        final String to = prefix.to()
+            .value();
+        this.checkEquals(
+            CacheKey.MAX_LENGTH,
+            to.length(),
+            "to length"
+        );
+        this.checkEquals(
+            true,
+            to.startsWith("spreadsheet.123.zzz"),
+            "to " + to
+        );
+    }
+
+    @Test
+    public void testInvalidInitialIsNone() {
+        this.isNoneAndCheck("1abc");
+    }
+
+    @Test
+    public void testInvalidPartIsNone() {
+        this.isNoneAndCheck("abc-");
+    }
+
+    @Test
+    public void testTooLongIsNone() {
+        this.isNoneAndCheck(
+            "a".repeat(CacheKey.MAX_LENGTH + 1)
+        );
+    }
+
+    private void isNoneAndCheck(final String prefix) {
+        final CacheKeyPrefix cacheKeyPrefix = CacheKeyPrefix.with(prefix);
+
+        this.checkEquals(
+            true,
+            cacheKeyPrefix.isNone(),
+            "isNone"
+        );
+        this.checkEquals(
+            null,
+            cacheKeyPrefix.from(),
+            "from"
+        );
+        this.checkEquals(
+            null,
+            cacheKeyPrefix.to(),
+            "to"
+        );
+    }
+
+    @Test
+    public void testTest() {
+        this.testAndCheck(
+            "spreadsheet.123.cell.A1",
+            true
+        );
+    }
+
+    @Test
+    public void testTestSameAsPrefix() {
+        this.testAndCheck(
+            "spreadsheet.123.",
+            true
+        );
+    }
+
+    @Test
+    public void testTestDifferentNamespace() {
+        this.testAndCheck(
+            "spreadsheet.1234.cell.A1",
+            false
+        );
+    }
+
+    @Test
+    public void testTestCaseSensitive() {
+        this.testAndCheck(
+            "SPREADSHEET.123.cell.A1",
+            false
+        );
+    }
+
+    private void testAndCheck(final String key,
+                              final boolean expected) {
+        this.checkEquals(
+            expected,
+            CacheKeyPrefix.with("spreadsheet.123.")
+                .test(CacheKey.with(key)),
+            key
+        );
+    }
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+            CacheKeyPrefix.with("spreadsheet.123."),
+            "spreadsheet.123."
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<CacheKeyPrefix> type() {
+        return CacheKeyPrefix.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.HashCodeEqualsDefinedTesting2;
+import walkingkooka.ToStringTesting;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class CacheStatsTest implements HashCodeEqualsDefinedTesting2<CacheStats>,
+    ToStringTesting<CacheStats> {
+
+    @Test
+    public void testLoadLatencyBucket() {
+        this.checkEquals(0, CacheStats.loadLatencyBucket(0), "0");
+        this.checkEquals(1, CacheStats.loadLatencyBucket(1), "1");
+        this.checkEquals(2, CacheStats.loadLatencyBucket(2), "2");
+        this.checkEquals(2, CacheStats.loadLatencyBucket(3), "3");
+        this.checkEquals(3, CacheStats.loadLatencyBucket(4), "4");
+        this.checkEquals(63, CacheStats.loadLatencyBucket(Long.MAX_VALUE), "MAX");
+    }
+
+    @Test
+    public void testHitRateNoLoads() {
+        this.checkEquals(
+            1.0,
+            CacheStats.EMPTY.hitRate()
+        );
+    }
+
+    @Test
+    public void testHitRateAndMissRate() {
+        final CacheStats stats = this.createStats(3, 1);
+
+        this.checkEquals(
+            0.75,
+            stats.hitRate(),
+            "hitRate"
+        );
+        this.checkEquals(
+            0.25,
+            stats.missRate(),
+            "missRate"
+        );
+        this.checkEquals(
+            4L,
+            stats.loadCount(),
+            "loadCount"
+        );
+    }
+
+    @Test
+    public void testAverageLoadTime() {
+        this.checkEquals(
+            25.0,
+            this.createStats(3, 1)
+                .averageLoadTime()
+        );
+    }
+
+    @Test
+    public void testLoadLatencyCountInvalidBucketFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> this.createObject()
+                .loadLatencyCount(CacheStats.LOAD_LATENCY_BUCKETS)
+        );
+    }
+
+    @Test
+    public void testLoadLatencyPercentile() {
+        final long[] latencies = new long[CacheStats.LOAD_LATENCY_BUCKETS];
+        latencies[4] = 99;
+        latencies[10] = 1;
+
+        final CacheStats stats = CacheStats.with(
+            100,
+            0,
+            0,
+            0,
+            0,
+            0,
+            0,
+            latencies
+        );
+
+        this.checkEquals(
+            16L,
+            stats.loadLatencyPercentile(0.5),
+            "p50"
+        );
+        this.checkEquals(
+            16L,
+            stats.loadLatencyPercentile(0.99),
+            "p99"
+        );
+        this.checkEquals(
+            1024L,
+            stats.loadLatencyPercentile(1.0),
+            "p100"
+        );
+    }
+
+    @Test
+    public void testLoadLatencyPercentileNoLoads() {
+        this.checkEquals(
+            0L,
+            CacheStats.EMPTY.loadLatencyPercentile(0.99)
+        );
+    }
+
+    @Test
+    public void testMinus() {
+        final CacheStats earlier = this.createStats(3, 1);
+        final CacheStats later = this.createStats(10, 2);
+
+        this.checkEquals(
+            this.createStats(7, 1),
+            later.minus(earlier)
+        );
+    }
+
+    @Test
+    public void testMinusNullFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> this.createObject()
+                .minus(null)
+        );
+    }
+
+    @Test
+    public void testEqualsDifferentHitCount() {
+        this.checkNotEquals(
+            this.createStats(4, 1)
+        );
+    }
+
+    @Test
+    public void testEqualsDifferentLoadLatencies() {
+        final long[] latencies = new long[CacheStats.LOAD_LATENCY_BUCKETS];
+        latencies[7] = 4;
+
+        this.checkNotEquals(
+            CacheStats.with(
+                3,
+                1,
+                0,
+                0,
+                0,
+                0,
+                100,
+                latencies
+            )
+        );
+    }
+
+    @Override
+    public CacheStats createObject() {
+        return this.createStats(3, 1);
+    }
+
+    /**
+     * Creates stats where every load took 25 nanoseconds.
+     */
+    private CacheStats createStats(final long hits,
+                                   final long misses) {
+        final long[] latencies = new long[CacheStats.LOAD_LATENCY_BUCKETS];
+        latencies[CacheStats.loadLatencyBucket(25)] = hits + misses;
+
+        return CacheStats.with(
+            hits,
+            misses,
+            0,
+            0,
+            0,
+            0,
+            25 * (hits + misses),
+            latencies
+        );
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+            this.createObject(),
+            "hits=3 misses=1 saves=0 deletes=0 evictions=0 expirations=0 totalLoadTime=100"
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<CacheStats> type() {
+        return CacheStats.class;
+    }
+}
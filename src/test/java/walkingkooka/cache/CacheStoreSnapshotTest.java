@@ -0,0 +1,332 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class CacheStoreSnapshotTest implements ClassTesting<CacheStoreSnapshot>,
+    ToStringTesting<CacheStoreSnapshot> {
+
+    private final static CacheStoreSnapshot SNAPSHOT = CacheStoreSnapshot.empty()
+        .register(
+            "string",
+            String.class,
+            CacheValueCodecs.string()
+        ).register(
+            "serializable",
+            java.io.Serializable.class,
+            CacheValueCodecs.serializable()
+        );
+
+    @Test
+    public void testRegisterWithNullNameFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> CacheStoreSnapshot.empty()
+                .register(
+                    null,
+                    String.class,
+                    CacheValueCodecs.string()
+                )
+        );
+    }
+
+    @Test
+    public void testRegisterWithEmptyNameFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> CacheStoreSnapshot.empty()
+                .register(
+                    "",
+                    String.class,
+                    CacheValueCodecs.string()
+                )
+        );
+    }
+
+    @Test
+    public void testRegisterDuplicateFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> SNAPSHOT.register(
+                "string",
+                String.class,
+                CacheValueCodecs.string()
+            )
+        );
+    }
+
+    @Test
+    public void testSetCompressedSame() {
+        assertSame(
+            SNAPSHOT,
+            SNAPSHOT.setCompressed(false)
+        );
+    }
+
+    @Test
+    public void testSnapshotAndRestoreEmpty() throws IOException {
+        this.snapshotAndRestoreAndCheck(
+            SNAPSHOT,
+            Lists.empty()
+        );
+    }
+
+    @Test
+    public void testSnapshotAndRestore() throws IOException {
+        this.snapshotAndRestoreAndCheck(
+            SNAPSHOT,
+            values(10)
+        );
+    }
+
+    @Test
+    public void testSnapshotAndRestoreCompressed() throws IOException {
+        this.snapshotAndRestoreAndCheck(
+            SNAPSHOT.setCompressed(true),
+            values(10)
+        );
+    }
+
+    @Test
+    public void testSnapshotAndRestoreSeveralPages() throws IOException {
+        this.snapshotAndRestoreAndCheck(
+            SNAPSHOT.setCompressed(true),
+            values(CacheStoreSnapshot.PAGE_SIZE * 2 + 1)
+        );
+    }
+
+    @Test
+    public void testSnapshotAndRestoreExpiresEmptyAndSeveralTypes() throws IOException {
+        this.snapshotAndRestoreAndCheck(
+            SNAPSHOT,
+            Lists.of(
+                CacheValue.with(
+                    CacheKey.with("a1"),
+                    Optional.empty()
+                ).setExpireAfterAccess(
+                    Optional.of(Duration.ofSeconds(1, 2))
+                ),
+                CacheValue.with(
+                    CacheKey.with("b2"),
+                    Optional.of(123)
+                ).setExpireAfterWrite(
+                    Optional.of(Duration.ofDays(3))
+                ),
+                CacheValue.with(
+                    CacheKey.with("c3"),
+                    Optional.of("c3Value")
+                )
+            )
+        );
+    }
+
+    @Test
+    public void testCompressedSmaller() throws IOException {
+        final CacheStore store = store(values(100));
+
+        this.checkEquals(
+            true,
+            snapshot(SNAPSHOT.setCompressed(true), store).length < snapshot(SNAPSHOT, store).length,
+            "compressed smaller"
+        );
+    }
+
+    @Test
+    public void testRestoreSavesInBatches() throws IOException {
+        final List<CacheValue> values = values(CacheStoreSnapshot.PAGE_SIZE * 2 + 1);
+        final byte[] bytes = snapshot(
+            SNAPSHOT,
+            store(values)
+        );
+
+        final CacheStore restored = CacheStores.treeMap();
+        final List<Integer> batches = new ArrayList<>();
+        restored.addSaveAllWatcher(b -> batches.add(b.size()));
+
+        final List<CacheValue> saved = new ArrayList<>();
+        restored.addSaveWatcher(saved::add);
+
+        this.checkEquals(
+            values.size(),
+            SNAPSHOT.restore(
+                new ByteArrayInputStream(bytes),
+                restored
+            ),
+            "restored"
+        );
+        this.checkEquals(
+            Lists.of(
+                CacheStoreSnapshot.PAGE_SIZE,
+                CacheStoreSnapshot.PAGE_SIZE,
+                1
+            ),
+            batches,
+            "batches"
+        );
+        this.checkEquals(
+            Lists.empty(),
+            saved,
+            "save watcher"
+        );
+    }
+
+    @Test
+    public void testSnapshotUnregisteredTypeFails() {
+        final CacheStore store = store(
+            Lists.of(
+                CacheValue.with(
+                    CacheKey.with("a1"),
+                    Optional.of(123)
+                )
+            )
+        );
+
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> CacheStoreSnapshot.empty()
+                .snapshot(
+                    store,
+                    new ByteArrayOutputStream()
+                )
+        );
+    }
+
+    @Test
+    public void testRestoreUnregisteredTypeFails() throws IOException {
+        final byte[] bytes = snapshot(
+            SNAPSHOT,
+            store(values(1))
+        );
+
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> CacheStoreSnapshot.empty()
+                .restore(
+                    new ByteArrayInputStream(bytes),
+                    CacheStores.treeMap()
+                )
+        );
+    }
+
+    @Test
+    public void testRestoreInvalidHeaderFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> SNAPSHOT.restore(
+                new ByteArrayInputStream("invalid!".getBytes()),
+                CacheStores.treeMap()
+            )
+        );
+    }
+
+    private void snapshotAndRestoreAndCheck(final CacheStoreSnapshot snapshot,
+                                            final List<CacheValue> values) throws IOException {
+        final byte[] bytes = snapshot(
+            snapshot,
+            store(values)
+        );
+
+        final CacheStore restored = CacheStores.treeMap();
+        this.checkEquals(
+            values.size(),
+            snapshot.restore(
+                new ByteArrayInputStream(bytes),
+                restored
+            ),
+            "restored"
+        );
+
+        this.checkEquals(
+            values,
+            restored.values(
+                0,
+                values.size() + 1
+            )
+        );
+    }
+
+    private static byte[] snapshot(final CacheStoreSnapshot snapshot,
+                                   final CacheStore store) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        snapshot.snapshot(
+            store,
+            bytes
+        );
+        return bytes.toByteArray();
+    }
+
+    private static CacheStore store(final List<CacheValue> values) {
+        final CacheStore store = CacheStores.treeMap();
+        store.saveAll(values);
+        return store;
+    }
+
+    /**
+     * Keys are zero padded so their order matches creation order.
+     */
+    private static List<CacheValue> values(final int count) {
+        final List<CacheValue> values = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            values.add(
+                CacheValue.with(
+                    CacheKey.with(String.format("key%05d", i)),
+                    Optional.of("value" + i)
+                )
+            );
+        }
+        return values;
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+            SNAPSHOT.setCompressed(true),
+            "string=UTF-8, serializable=Serializable, compressed"
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<CacheStoreSnapshot> type() {
+        return CacheStoreSnapshot.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
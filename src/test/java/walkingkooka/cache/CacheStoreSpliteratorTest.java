@@ -0,0 +1,251 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+public final class CacheStoreSpliteratorTest implements ClassTesting<CacheStoreSpliterator>,
+    ToStringTesting<CacheStoreSpliterator> {
+
+    private final static int COUNT = 2 * CacheStoreSpliterator.PAGE_SIZE + 3;
+
+    @Test
+    public void testCharacteristics() {
+        final Spliterator<CacheValue> spliterator = this.createSpliterator();
+
+        this.checkEquals(
+            Spliterator.ORDERED | Spliterator.SORTED | Spliterator.NONNULL,
+            spliterator.characteristics(),
+            "characteristics"
+        );
+        this.checkEquals(
+            null,
+            spliterator.getComparator(),
+            "comparator"
+        );
+    }
+
+    @Test
+    public void testCharacteristicsImmutable() {
+        final Spliterator<CacheValue> spliterator = CacheStoreSpliterator.with(
+            this.store,
+            0,
+            COUNT,
+            true
+        );
+
+        this.checkEquals(
+            Spliterator.ORDERED | Spliterator.SORTED | Spliterator.NONNULL | Spliterator.DISTINCT | Spliterator.SIZED | Spliterator.SUBSIZED,
+            spliterator.characteristics(),
+            "characteristics"
+        );
+        this.checkEquals(
+            null,
+            spliterator.getComparator(),
+            "comparator"
+        );
+    }
+
+    @Test
+    public void testEstimateSize() {
+        final Spliterator<CacheValue> spliterator = this.createSpliterator();
+
+        this.checkEquals(
+            (long) COUNT,
+            spliterator.estimateSize(),
+            "estimateSize"
+        );
+
+        spliterator.tryAdvance((v) -> {
+        });
+
+        this.checkEquals(
+            COUNT - 1L,
+            spliterator.estimateSize(),
+            "estimateSize after advance"
+        );
+    }
+
+    @Test
+    public void testStreamAllPagesInOrder() {
+        final List<CacheValue> values = StreamSupport.stream(
+            this.createSpliterator(),
+            false
+        ).collect(Collectors.toList());
+
+        this.checkEquals(
+            this.store.values(0, COUNT),
+            values
+        );
+    }
+
+    @Test
+    public void testTrySplit() {
+        final Spliterator<CacheValue> spliterator = this.createSpliterator();
+        final Spliterator<CacheValue> prefix = spliterator.trySplit();
+
+        this.checkEquals(
+            COUNT / 2L,
+            prefix.estimateSize(),
+            "prefix estimateSize"
+        );
+        this.checkEquals(
+            COUNT - COUNT / 2L,
+            spliterator.estimateSize(),
+            "estimateSize"
+        );
+
+        final CacheValue[] first = new CacheValue[1];
+        spliterator.tryAdvance((v) -> first[0] = v);
+
+        this.checkEquals(
+            this.store.values(COUNT / 2, 1).get(0),
+            first[0],
+            "first after split"
+        );
+    }
+
+    @Test
+    public void testTrySplitTooSmall() {
+        this.checkEquals(
+            null,
+            CacheStoreSpliterator.with(
+                this.store,
+                0,
+                CacheStoreSpliterator.PAGE_SIZE,
+                false
+            ).trySplit()
+        );
+    }
+
+    @Test
+    public void testParallelStream() {
+        final List<CacheValue> values = StreamSupport.stream(
+            this.createSpliterator(),
+            true
+        ).collect(Collectors.toList());
+
+        this.checkEquals(
+            this.store.values(0, COUNT),
+            values
+        );
+    }
+
+    @Test
+    public void testStoreShrinks() {
+        final Spliterator<CacheValue> spliterator = this.createSpliterator();
+
+        this.store.deleteAll(
+            this.store.ids(0, COUNT - 1)
+        );
+
+        final List<CacheValue> values = StreamSupport.stream(
+            spliterator,
+            false
+        ).collect(Collectors.toList());
+
+        this.checkEquals(
+            1,
+            values.size(),
+            "values"
+        );
+    }
+
+    @Test
+    public void testToArrayStoreShrinksDuringTraversal() {
+        final CacheKey last = this.store.ids(COUNT - 1, 1)
+            .iterator()
+            .next();
+
+        final Object[] values = StreamSupport.stream(
+            this.createSpliterator(),
+            false
+        ).peek(
+            (v) -> this.store.delete(last)
+        ).toArray();
+
+        this.checkEquals(
+            COUNT - 1,
+            values.length,
+            "values"
+        );
+    }
+
+    private Spliterator<CacheValue> createSpliterator() {
+        return CacheStoreSpliterator.with(
+            this.store,
+            0,
+            this.store.count(),
+            false
+        );
+    }
+
+    private final CacheStore store = store();
+
+    private static CacheStore store() {
+        final CacheStore store = CacheStores.treeMap();
+
+        for (int i = 0; i < COUNT; i++) {
+            store.save(
+                CacheValue.with(
+                    CacheKey.with(String.format("key.%05d", i)),
+                    Optional.of("value" + i)
+                )
+            );
+        }
+
+        return store;
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+            CacheStoreSpliterator.with(
+                this.store,
+                1,
+                2,
+                false
+            ),
+            "1..2"
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<CacheStoreSpliterator> type() {
+        return CacheStoreSpliterator.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
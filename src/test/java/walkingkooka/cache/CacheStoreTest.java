@@ -0,0 +1,214 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+public final class CacheStoreTest implements ClassTesting<CacheStore> {
+
+    private final static CacheValue VALUE1 = CacheValue.with(
+        CacheKey.with("key1"),
+        Optional.of(1)
+    );
+
+    private final static CacheValue VALUE2 = CacheValue.with(
+        CacheKey.with("key2"),
+        Optional.of(2)
+    );
+
+    @Test
+    public void testDefaultLoadAll() {
+        final CacheStore store = new TestCacheStore();
+        store.save(VALUE1);
+        store.save(VALUE2);
+
+        this.checkEquals(
+            Map.of(
+                VALUE2.key(),
+                VALUE2,
+                VALUE1.key(),
+                VALUE1
+            ),
+            store.loadAll(
+                Lists.of(
+                    VALUE2.key(),
+                    CacheKey.with("missing"),
+                    VALUE1.key()
+                )
+            )
+        );
+    }
+
+    @Test
+    public void testDefaultSaveAllNotifiesSaveWatchers() {
+        final CacheStore store = new TestCacheStore();
+
+        final List<CacheValue> saved = Lists.array();
+        store.addSaveWatcher(saved::add);
+
+        final List<List<CacheValue>> savedAll = Lists.array();
+        store.addSaveAllWatcher(savedAll::add);
+
+        final List<CacheValue> values = Lists.of(
+            VALUE1,
+            VALUE2
+        );
+        this.checkEquals(
+            values,
+            store.saveAll(values),
+            "saveAll"
+        );
+        this.checkEquals(
+            values,
+            saved,
+            "save watcher"
+        );
+        this.checkEquals(
+            Lists.empty(),
+            savedAll,
+            "saveAll watcher"
+        );
+    }
+
+    @Test
+    public void testDefaultDeleteAllNotifiesDeleteWatchers() {
+        final CacheStore store = new TestCacheStore();
+        store.save(VALUE1);
+        store.save(VALUE2);
+
+        final List<CacheKey> deleted = Lists.array();
+        store.addDeleteWatcher(deleted::add);
+
+        final List<Set<CacheKey>> deletedAll = Lists.array();
+        store.addDeleteAllWatcher(deletedAll::add);
+
+        store.deleteAll(
+            Lists.of(
+                VALUE1.key(),
+                VALUE2.key()
+            )
+        );
+
+        this.checkEquals(
+            Lists.of(
+                VALUE1.key(),
+                VALUE2.key()
+            ),
+            deleted,
+            "delete watcher"
+        );
+        this.checkEquals(
+            Lists.empty(),
+            deletedAll,
+            "deleteAll watcher"
+        );
+        this.checkEquals(
+            0,
+            store.count(),
+            "count"
+        );
+    }
+
+    /**
+     * A {@link CacheStore} that only implements the {@link walkingkooka.store.Store} methods, like a third party store
+     * written before the bulk methods were added.
+     */
+    private static final class TestCacheStore implements CacheStore {
+
+        @Override
+        public Optional<CacheValue> load(final CacheKey cacheKey) {
+            return this.store.load(cacheKey);
+        }
+
+        @Override
+        public CacheValue save(final CacheValue cacheValue) {
+            return this.store.save(cacheValue);
+        }
+
+        @Override
+        public Runnable addSaveWatcher(final Consumer<CacheValue> watcher) {
+            return this.store.addSaveWatcher(watcher);
+        }
+
+        @Override
+        public void delete(final CacheKey cacheKey) {
+            this.store.delete(cacheKey);
+        }
+
+        @Override
+        public Runnable addDeleteWatcher(final Consumer<CacheKey> watcher) {
+            return this.store.addDeleteWatcher(watcher);
+        }
+
+        @Override
+        public int count() {
+            return this.store.count();
+        }
+
+        @Override
+        public Set<CacheKey> ids(final int offset,
+                                 final int count) {
+            return this.store.ids(
+                offset,
+                count
+            );
+        }
+
+        @Override
+        public List<CacheValue> values(final int offset,
+                                       final int count) {
+            return this.store.values(
+                offset,
+                count
+            );
+        }
+
+        @Override
+        public List<CacheValue> between(final CacheKey from,
+                                        final CacheKey to) {
+            return this.store.between(
+                from,
+                to
+            );
+        }
+
+        private final CacheStore store = CacheStores.treeMap();
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<CacheStore> type() {
+        return CacheStore.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PUBLIC;
+    }
+}
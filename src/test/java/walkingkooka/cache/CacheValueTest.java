@@ -22,6 +22,7 @@ import walkingkooka.HashCodeEqualsDefinedTesting2;
 import walkingkooka.ToStringTesting;
 import walkingkooka.text.printer.TreePrintableTesting;
 
+import java.time.Duration;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertNotSame;
@@ -174,8 +175,178 @@ public final class CacheValueTest implements HashCodeEqualsDefinedTesting2<Cache
         );
     }
 
+    // setExpireAfterWrite..............................................................................................
+
+    @Test
+    public void testSetExpireAfterWriteWithNullFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> this.createObject().setExpireAfterWrite(null)
+        );
+    }
+
+    @Test
+    public void testSetExpireAfterWriteWithZeroFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> this.createObject().setExpireAfterWrite(
+                Optional.of(Duration.ZERO)
+            )
+        );
+    }
+
+    @Test
+    public void testSetExpireAfterWriteWithSame() {
+        final CacheValue cacheValue = this.createObject();
+
+        assertSame(
+            cacheValue,
+            cacheValue.setExpireAfterWrite(CacheValue.NO_EXPIRY)
+        );
+    }
+
+    @Test
+    public void testSetExpireAfterWriteWithDifferent() {
+        final CacheValue cacheValue = this.createObject();
+        final Optional<Duration> expireAfterWrite = Optional.of(
+            Duration.ofSeconds(1)
+        );
+
+        final CacheValue different = cacheValue.setExpireAfterWrite(expireAfterWrite);
+        assertNotSame(
+            cacheValue,
+            different
+        );
+
+        this.checkEquals(
+            expireAfterWrite,
+            different.expireAfterWrite()
+        );
+        this.checkEquals(
+            CacheValue.NO_EXPIRY,
+            different.expireAfterAccess()
+        );
+        this.keyAndCheck(
+            different,
+            KEY
+        );
+        this.valueAndCheck(
+            different,
+            VALUE
+        );
+    }
+
+    // setExpireAfterAccess.............................................................................................
+
+    @Test
+    public void testSetExpireAfterAccessWithNullFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> this.createObject().setExpireAfterAccess(null)
+        );
+    }
+
+    @Test
+    public void testSetExpireAfterAccessWithNegativeFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> this.createObject().setExpireAfterAccess(
+                Optional.of(Duration.ofSeconds(-1))
+            )
+        );
+    }
+
+    @Test
+    public void testSetExpireAfterAccessWithDifferent() {
+        final CacheValue cacheValue = this.createObject();
+        final Optional<Duration> expireAfterAccess = Optional.of(
+            Duration.ofSeconds(1)
+        );
+
+        final CacheValue different = cacheValue.setExpireAfterAccess(expireAfterAccess);
+        assertNotSame(
+            cacheValue,
+            different
+        );
+
+        this.checkEquals(
+            expireAfterAccess,
+            different.expireAfterAccess()
+        );
+        this.checkEquals(
+            CacheValue.NO_EXPIRY,
+            different.expireAfterWrite()
+        );
+    }
+
+    // generation.......................................................................................................
+
+    @Test
+    public void testGenerationDefault() {
+        this.checkEquals(
+            CacheValue.NO_GENERATION,
+            this.createObject()
+                .generation()
+        );
+    }
+
+    @Test
+    public void testSetGenerationWithNegativeFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> this.createObject().setGeneration(-1)
+        );
+    }
+
+    @Test
+    public void testSetGenerationWithSame() {
+        final CacheValue cacheValue = this.createObject();
+        assertSame(
+            cacheValue,
+            cacheValue.setGeneration(CacheValue.NO_GENERATION)
+        );
+    }
+
+    @Test
+    public void testSetGenerationWithDifferent() {
+        final CacheValue cacheValue = this.createObject()
+            .setExpireAfterWrite(
+                Optional.of(Duration.ofSeconds(1))
+            );
+
+        final CacheValue different = cacheValue.setGeneration(2);
+        assertNotSame(
+            cacheValue,
+            different
+        );
+
+        this.checkEquals(
+            2L,
+            different.generation(),
+            "generation"
+        );
+        this.checkEquals(
+            cacheValue.expireAfterWrite(),
+            different.expireAfterWrite(),
+            "expireAfterWrite"
+        );
+        this.checkEquals(
+            cacheValue.setGeneration(2)
+                .setGeneration(CacheValue.NO_GENERATION),
+            cacheValue
+        );
+    }
+
     // Object...........................................................................................................
 
+    @Test
+    public void testEqualsDifferentGeneration() {
+        this.checkNotEquals(
+            this.createObject()
+                .setGeneration(1)
+        );
+    }
+
     @Test
     public void testEqualsDifferentKey() {
         this.checkNotEquals(
@@ -198,6 +369,101 @@ public final class CacheValueTest implements HashCodeEqualsDefinedTesting2<Cache
         );
     }
 
+    @Test
+    public void testEqualsDifferentExpireAfterWrite() {
+        this.checkNotEquals(
+            this.createObject()
+                .setExpireAfterWrite(
+                    Optional.of(Duration.ofSeconds(1))
+                )
+        );
+    }
+
+    @Test
+    public void testEqualsDifferentExpireAfterAccess() {
+        this.checkNotEquals(
+            this.createObject()
+                .setExpireAfterAccess(
+                    Optional.of(Duration.ofSeconds(1))
+                )
+        );
+    }
+
+    // valueOrNull.....................................................................................................
+
+    @Test
+    public void testValueOrNull() {
+        this.checkEquals(
+            VALUE.get(),
+            this.createObject()
+                .valueOrNull()
+        );
+    }
+
+    @Test
+    public void testValueOrNullEmpty() {
+        this.checkEquals(
+            null,
+            CacheValue.with(
+                KEY,
+                Optional.empty()
+            ).valueOrNull()
+        );
+    }
+
+    // lazy............................................................................................................
+
+    @Test
+    public void testLazyDecodesOnce() {
+        final int[] decodes = new int[1];
+
+        final CacheValue lazy = CacheValue.lazy(
+            KEY,
+            () -> {
+                decodes[0]++;
+                return VALUE.get();
+            },
+            CacheValue.NO_EXPIRY,
+            CacheValue.NO_EXPIRY,
+            CacheValue.NO_GENERATION
+        );
+
+        this.checkEquals(
+            0,
+            decodes[0],
+            "decodes before value"
+        );
+
+        this.checkEquals(
+            VALUE,
+            lazy.value()
+        );
+        this.checkEquals(
+            VALUE,
+            lazy.value()
+        );
+
+        this.checkEquals(
+            1,
+            decodes[0],
+            "decodes"
+        );
+    }
+
+    @Test
+    public void testLazyEquals() {
+        this.checkEquals(
+            this.createObject(),
+            CacheValue.lazy(
+                KEY,
+                () -> VALUE.get(),
+                CacheValue.NO_EXPIRY,
+                CacheValue.NO_EXPIRY,
+                CacheValue.NO_GENERATION
+            )
+        );
+    }
+
     @Override
     public CacheValue createObject() {
         return CacheValue.with(
@@ -0,0 +1,276 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public final class ConcurrentSkipListMapCacheStoreTest implements CacheStoreTesting<ConcurrentSkipListMapCacheStore> {
+
+    @Test
+    public void testSaveAndLoad() {
+        final ConcurrentSkipListMapCacheStore store = this.createStore();
+
+        final CacheValue value = this.value();
+
+        store.save(value);
+
+        this.loadAndCheck(
+            store,
+            value.key(),
+            value
+        );
+    }
+
+    @Test
+    public void testIdsSorted() {
+        final ConcurrentSkipListMapCacheStore store = this.createStore();
+
+        final CacheValue c = this.value("c3");
+        final CacheValue a = this.value("a1");
+        final CacheValue b = this.value("b2");
+
+        store.save(c);
+        store.save(a);
+        store.save(b);
+
+        this.checkEquals(
+            new TreeSet<>(
+                Set.of(
+                    b.key(),
+                    c.key()
+                )
+            ),
+            store.ids(
+                1,
+                2
+            )
+        );
+    }
+
+    @Test
+    public void testValuesSorted() {
+        final ConcurrentSkipListMapCacheStore store = this.createStore();
+
+        final CacheValue c = this.value("c3");
+        final CacheValue a = this.value("a1");
+        final CacheValue b = this.value("b2");
+
+        store.save(c);
+        store.save(a);
+        store.save(b);
+
+        this.checkEquals(
+            Lists.of(
+                a,
+                b
+            ),
+            store.values(
+                0,
+                2
+            )
+        );
+    }
+
+    @Test
+    public void testBetween() {
+        final ConcurrentSkipListMapCacheStore store = this.createStore();
+
+        final CacheValue a = this.value("a1");
+        final CacheValue b = this.value("b2");
+        final CacheValue c = this.value("c3");
+        final CacheValue d = this.value("d4");
+
+        store.save(d);
+        store.save(c);
+        store.save(b);
+        store.save(a);
+
+        this.checkEquals(
+            Lists.of(
+                b,
+                c
+            ),
+            store.between(
+                b.key(),
+                c.key()
+            )
+        );
+    }
+
+    @Test
+    public void testConcurrentSaves() throws Exception {
+        final ConcurrentSkipListMapCacheStore store = this.createStore();
+
+        final int threads = 4;
+        final int perThread = 1000;
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            executor.submit(
+                () -> {
+                    for (int i = 0; i < perThread; i++) {
+                        store.save(
+                            this.value("t" + thread + "i" + i)
+                        );
+                    }
+                }
+            );
+        }
+        executor.shutdown();
+        executor.awaitTermination(
+            10,
+            TimeUnit.SECONDS
+        );
+
+        this.checkEquals(
+            threads * perThread,
+            store.count()
+        );
+    }
+
+    @Test
+    public void testBetweenFromAfterTo() {
+        final ConcurrentSkipListMapCacheStore store = this.createStore();
+
+        final CacheValue a = this.value("a1");
+        final CacheValue b = this.value("b2");
+
+        store.save(a);
+        store.save(b);
+
+        this.checkEquals(
+            Lists.empty(),
+            store.between(
+                b.key(),
+                a.key()
+            )
+        );
+    }
+
+    @Test
+    public void testSaveReplaceAndDeleteCount() {
+        final ConcurrentSkipListMapCacheStore store = this.createStore();
+
+        final CacheValue a = this.value("a1");
+
+        store.save(a);
+        store.save(a.setValue(Optional.of("replaced")));
+        this.countAndCheck(
+            store,
+            1
+        );
+
+        store.delete(a.key());
+        store.delete(a.key());
+        this.countAndCheck(
+            store,
+            0
+        );
+    }
+
+    @Test
+    public void testBetweenDuringConcurrentSaves() throws Exception {
+        final ConcurrentSkipListMapCacheStore store = this.createStore();
+
+        final CacheValue a = this.value("a0");
+        final CacheValue z = this.value("z0");
+        store.save(a);
+        store.save(z);
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.submit(
+            () -> {
+                for (int i = 0; i < 10000; i++) {
+                    final CacheValue value = this.value("m" + i);
+                    store.save(value);
+                    store.delete(value.key());
+                }
+            }
+        );
+
+        for (int i = 0; i < 1000; i++) {
+            final List<CacheValue> between = store.between(
+                a.key(),
+                z.key()
+            );
+            this.checkEquals(
+                a,
+                between.get(0),
+                "first"
+            );
+            this.checkEquals(
+                z,
+                between.get(between.size() - 1),
+                "last"
+            );
+        }
+
+        executor.shutdown();
+        executor.awaitTermination(
+            10,
+            TimeUnit.SECONDS
+        );
+
+        this.countAndCheck(
+            store,
+            2
+        );
+    }
+
+    private CacheValue value(final String key) {
+        return CacheValue.with(
+            CacheKey.with(key),
+            Optional.of(key + "Value")
+        );
+    }
+
+    @Override
+    public ConcurrentSkipListMapCacheStore createStore() {
+        return ConcurrentSkipListMapCacheStore.empty();
+    }
+
+    @Override
+    public CacheKey id() {
+        return CacheKey.with("key123");
+    }
+
+    @Override
+    public CacheValue value() {
+        return CacheValue.with(
+            this.id(),
+            Optional.of("Value456")
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<ConcurrentSkipListMapCacheStore> type() {
+        return ConcurrentSkipListMapCacheStore.class;
+    }
+}
@@ -0,0 +1,389 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class CopyOnWriteCacheStoreTest implements CacheStoreTesting<CopyOnWriteCacheStore> {
+
+    @Test
+    public void testSaveAndLoad() {
+        final CopyOnWriteCacheStore store = this.createStore();
+        final CacheValue value = this.value();
+
+        store.save(value);
+
+        this.loadAndCheck(
+            store,
+            value.key(),
+            value
+        );
+    }
+
+    @Test
+    public void testDeleteMissingFiresNothing() {
+        final CopyOnWriteCacheStore store = this.createStore();
+        store.save(this.value());
+
+        final List<CacheKey> deleted = Lists.array();
+        store.addDeleteWatcher(deleted::add);
+
+        store.delete(CacheKey.with("missing"));
+
+        this.checkEquals(
+            Lists.empty(),
+            deleted,
+            "deleted"
+        );
+        this.checkEquals(
+            1,
+            store.count(),
+            "count"
+        );
+    }
+
+    @Test
+    public void testRandomSavesAndDeletesMatchTreeMap() {
+        final CopyOnWriteCacheStore store = this.createStore();
+        final TreeMap<CacheKey, CacheValue> expected = new TreeMap<>();
+        final Random random = new Random(1);
+
+        for (int i = 0; i < 5000; i++) {
+            final CacheValue value = this.prefixValue("key." + random.nextInt(500));
+            if (random.nextInt(3) == 0) {
+                store.delete(value.key());
+                expected.remove(value.key());
+            } else {
+                store.save(value);
+                expected.put(
+                    value.key(),
+                    value
+                );
+            }
+        }
+
+        this.checkEquals(
+            expected.size(),
+            store.count(),
+            "count"
+        );
+        this.checkEquals(
+            new ArrayList<>(expected.values()),
+            store.values(0, Integer.MAX_VALUE),
+            "values"
+        );
+
+        final List<CacheValue> expectedValues = new ArrayList<>(expected.values());
+        for (int offset = 0; offset < expectedValues.size(); offset += 37) {
+            this.checkEquals(
+                expectedValues.subList(
+                    offset,
+                    Math.min(
+                        offset + 10,
+                        expectedValues.size()
+                    )
+                ),
+                store.values(
+                    offset,
+                    10
+                ),
+                "values " + offset
+            );
+            this.checkEquals(
+                expected.navigableKeySet()
+                    .subSet(
+                        expectedValues.get(offset).key(),
+                        true,
+                        expectedValues.get(Math.min(offset + 9, expectedValues.size() - 1)).key(),
+                        true
+                    ),
+                store.ids(
+                    offset,
+                    10
+                ),
+                "ids " + offset
+            );
+        }
+    }
+
+    @Test
+    public void testSequentialSaves() {
+        final CopyOnWriteCacheStore store = this.createStore();
+        final int count = 1 << 12;
+
+        for (int i = 0; i < count; i++) {
+            store.save(
+                this.prefixValue(String.format("key.%05d", i))
+            );
+        }
+
+        this.checkEquals(
+            count,
+            store.count(),
+            "count"
+        );
+        this.checkEquals(
+            this.prefixValue("key.02048"),
+            store.values(2048, 1).get(0),
+            "values"
+        );
+        this.checkEquals(
+            Lists.of(
+                this.prefixValue("key.00010"),
+                this.prefixValue("key.00011")
+            ),
+            store.between(
+                CacheKey.with("key.00010"),
+                CacheKey.with("key.00011")
+            ),
+            "between"
+        );
+    }
+
+    @Test
+    public void testConcurrentWriters() throws Exception {
+        final CopyOnWriteCacheStore store = this.createStore();
+        final int threads = 4;
+        final int count = 1000;
+
+        final Thread[] writers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            writers[t] = new Thread(
+                () -> {
+                    for (int i = 0; i < count; i++) {
+                        store.save(
+                            this.prefixValue("key." + thread + "." + i)
+                        );
+                    }
+                }
+            );
+            writers[t].start();
+        }
+        for (final Thread writer : writers) {
+            writer.join();
+        }
+
+        this.checkEquals(
+            threads * count,
+            store.count(),
+            "count"
+        );
+    }
+
+    // snapshot.........................................................................................................
+
+    @Test
+    public void testSnapshotUnaffectedByLaterWrites() {
+        final CopyOnWriteCacheStore store = this.createStore();
+
+        final CacheValue value1 = this.prefixValue("key.1");
+        final CacheValue value2 = this.prefixValue("key.2");
+        store.save(value1);
+        store.save(value2);
+
+        final SnapshotCacheStore snapshot = store.snapshot();
+
+        store.delete(value1.key());
+        store.save(
+            value2.setValue(
+                Optional.of("Replaced")
+            )
+        );
+        store.save(this.prefixValue("key.3"));
+
+        this.checkEquals(
+            2,
+            snapshot.count(),
+            "count"
+        );
+        this.checkEquals(
+            Lists.of(
+                value1,
+                value2
+            ),
+            snapshot.values(0, 3),
+            "values"
+        );
+        this.checkEquals(
+            Lists.of(
+                value1,
+                value2
+            ),
+            snapshot.loadByPrefix("key."),
+            "loadByPrefix"
+        );
+        this.checkEquals(
+            Optional.of(value1),
+            snapshot.load(value1.key()),
+            "load"
+        );
+        this.checkEquals(
+            2,
+            store.count(),
+            "store count"
+        );
+    }
+
+    @Test
+    public void testStreamUnaffectedByLaterWrites() {
+        final CopyOnWriteCacheStore store = this.createStore();
+
+        final CacheValue value1 = this.prefixValue("key.1");
+        final CacheValue value2 = this.prefixValue("key.2");
+        store.save(value1);
+        store.save(value2);
+
+        final Stream<CacheValue> stream = store.stream();
+
+        store.delete(value1.key());
+        store.save(this.prefixValue("key.3"));
+
+        this.checkEquals(
+            Lists.of(
+                value1,
+                value2
+            ),
+            stream.collect(Collectors.toList())
+        );
+    }
+
+    @Test
+    public void testSnapshotEmpty() {
+        final SnapshotCacheStore snapshot = this.createStore()
+            .snapshot();
+
+        this.checkEquals(
+            0,
+            snapshot.count(),
+            "count"
+        );
+        this.checkEquals(
+            Optional.empty(),
+            snapshot.load(this.id()),
+            "load"
+        );
+    }
+
+    @Test
+    public void testSnapshotSaveFails() {
+        assertThrows(
+            UnsupportedOperationException.class,
+            () -> this.createStore()
+                .snapshot()
+                .save(this.value())
+        );
+    }
+
+    @Test
+    public void testSnapshotDeleteFails() {
+        assertThrows(
+            UnsupportedOperationException.class,
+            () -> this.createStore()
+                .snapshot()
+                .delete(this.id())
+        );
+    }
+
+    @Test
+    public void testSnapshotSaveAllFails() {
+        assertThrows(
+            UnsupportedOperationException.class,
+            () -> this.createStore()
+                .snapshot()
+                .saveAll(
+                    Lists.of(
+                        this.value()
+                    )
+                )
+        );
+    }
+
+    @Test
+    public void testSnapshotDeleteAllFails() {
+        assertThrows(
+            UnsupportedOperationException.class,
+            () -> this.createStore()
+                .snapshot()
+                .deleteAll(
+                    Lists.of(
+                        this.id()
+                    )
+                )
+        );
+    }
+
+    @Test
+    public void testSnapshotDeleteByPrefixFails() {
+        assertThrows(
+            UnsupportedOperationException.class,
+            () -> this.createStore()
+                .snapshot()
+                .deleteByPrefix("key.")
+        );
+    }
+
+    @Test
+    public void testSnapshotSnapshot() {
+        final SnapshotCacheStore snapshot = this.createStore()
+            .snapshot();
+
+        assertSame(
+            snapshot,
+            snapshot.snapshot()
+        );
+    }
+
+    @Override
+    public CopyOnWriteCacheStore createStore() {
+        return CopyOnWriteCacheStore.empty();
+    }
+
+    @Override
+    public CacheKey id() {
+        return CacheKey.with("key123");
+    }
+
+    @Override
+    public CacheValue value() {
+        return CacheValue.with(
+            this.id(),
+            Optional.of("Value456")
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<CopyOnWriteCacheStore> type() {
+        return CopyOnWriteCacheStore.class;
+    }
+}
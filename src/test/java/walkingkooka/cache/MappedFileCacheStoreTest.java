@@ -0,0 +1,487 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class MappedFileCacheStoreTest implements CacheStoreTesting<MappedFileCacheStore> {
+
+    @Test
+    public void testOpenWithNullPathFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> MappedFileCacheStore.open(
+                null,
+                CacheValueCodecs.string()
+            )
+        );
+    }
+
+    @Test
+    public void testOpenWithNullCodecFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> MappedFileCacheStore.open(
+                this.path(),
+                null
+            )
+        );
+    }
+
+    @Test
+    public void testOpenInvalidFileFails() throws IOException {
+        final Path path = this.path();
+        Files.write(
+            path,
+            "not a cache file".getBytes()
+        );
+
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> MappedFileCacheStore.open(
+                path,
+                CacheValueCodecs.string()
+            )
+        );
+    }
+
+    @Test
+    public void testSaveAndLoad() {
+        final MappedFileCacheStore store = this.createStore();
+
+        final CacheValue value = this.value();
+
+        store.save(value);
+
+        this.loadAndCheck(
+            store,
+            value.key(),
+            value
+        );
+    }
+
+    @Test
+    public void testSaveReopenAndLoad() {
+        final Path path = this.path();
+
+        final CacheValue a = this.value("a1");
+        final CacheValue b = this.value("b2")
+            .setExpireAfterWrite(
+                Optional.of(Duration.ofSeconds(30, 5))
+            );
+        final CacheValue empty = CacheValue.with(
+            CacheKey.with("c3"),
+            Optional.empty()
+        ).setExpireAfterAccess(
+            Optional.of(Duration.ofMinutes(1))
+        );
+
+        try (final MappedFileCacheStore store = this.open(path)) {
+            store.save(a);
+            store.save(b);
+            store.save(empty);
+        }
+
+        try (final MappedFileCacheStore store = this.open(path)) {
+            this.countAndCheck(
+                store,
+                3
+            );
+            this.loadAndCheck(
+                store,
+                a.key(),
+                a
+            );
+            this.loadAndCheck(
+                store,
+                b.key(),
+                b
+            );
+            this.loadAndCheck(
+                store,
+                empty.key(),
+                empty
+            );
+        }
+    }
+
+    @Test
+    public void testSaveGenerationNotPersisted() {
+        final Path path = this.path();
+
+        final CacheValue value = this.value("a1")
+            .setGeneration(2);
+
+        try (final MappedFileCacheStore store = this.open(path)) {
+            store.save(value);
+
+            this.loadAndCheck(
+                store,
+                value.key(),
+                value
+            );
+        }
+
+        try (final MappedFileCacheStore store = this.open(path)) {
+            this.loadAndCheck(
+                store,
+                value.key(),
+                value.setGeneration(CacheValue.NO_GENERATION)
+            );
+        }
+    }
+
+    @Test
+    public void testSaveReplaceDeleteReopen() {
+        final Path path = this.path();
+
+        final CacheValue a = this.value("a1");
+        final CacheValue b = this.value("b2");
+        final CacheValue replaced = a.setValue(
+            Optional.of("replaced")
+        );
+
+        try (final MappedFileCacheStore store = this.open(path)) {
+            store.save(a);
+            store.save(b);
+            store.save(replaced);
+            store.delete(b.key());
+        }
+
+        try (final MappedFileCacheStore store = this.open(path)) {
+            this.checkEquals(
+                Lists.of(replaced),
+                store.values(0, 10)
+            );
+        }
+    }
+
+    @Test
+    public void testReopenDiscardsTornRecord() throws IOException {
+        final Path path = this.path();
+
+        final CacheValue a = this.value("a1");
+        final CacheValue b = this.value("b2");
+
+        try (final MappedFileCacheStore store = this.open(path)) {
+            store.save(a);
+            store.save(b);
+        }
+
+        // corrupt the last byte of the value of b
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            final long last = findLastValueByte(channel);
+            channel.write(
+                ByteBuffer.wrap(new byte[]{'!'}),
+                last
+            );
+        }
+
+        try (final MappedFileCacheStore store = this.open(path)) {
+            this.checkEquals(
+                Lists.of(a),
+                store.values(0, 10)
+            );
+
+            store.save(b);
+        }
+
+        try (final MappedFileCacheStore store = this.open(path)) {
+            this.checkEquals(
+                Lists.of(a, b),
+                store.values(0, 10)
+            );
+        }
+    }
+
+    /**
+     * Finds the position of the last non zero byte in the file.
+     */
+    private static long findLastValueByte(final FileChannel channel) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+        channel.read(buffer, 0);
+
+        int position = buffer.capacity() - 1;
+        while (0 == buffer.get(position)) {
+            position--;
+        }
+        return position;
+    }
+
+    @Test
+    public void testLoadDoesNotDecode() {
+        final int[] decodes = new int[1];
+
+        final MappedFileCacheStore store = MappedFileCacheStore.open(
+            this.path(),
+            new CacheValueCodec() {
+                @Override
+                public byte[] encode(final Object value) {
+                    return CacheValueCodecs.string()
+                        .encode(value);
+                }
+
+                @Override
+                public Object decode(final ByteBuffer bytes) {
+                    decodes[0]++;
+                    return CacheValueCodecs.string()
+                        .decode(bytes);
+                }
+            }
+        );
+
+        store.save(this.value());
+
+        final CacheValue loaded = store.load(this.id())
+            .get();
+        this.checkEquals(
+            0,
+            decodes[0],
+            "decodes after load"
+        );
+
+        this.checkEquals(
+            this.value()
+                .value(),
+            loaded.value()
+        );
+        this.checkEquals(
+            1,
+            decodes[0],
+            "decodes after value"
+        );
+    }
+
+    @Test
+    public void testCompact() throws IOException {
+        final Path path = this.path();
+
+        final CacheValue a = this.value("a1");
+        final CacheValue b = this.value("b2");
+
+        try (final MappedFileCacheStore store = this.open(path)) {
+            store.save(a);
+            store.save(b);
+
+            for (int i = 0; i < 100; i++) {
+                store.save(
+                    a.setValue(
+                        Optional.of("replaced" + i)
+                    )
+                );
+            }
+            store.save(a);
+            store.delete(b.key());
+
+            final CacheValue loadedBeforeCompact = store.load(a.key())
+                .get();
+
+            this.checkEquals(
+                true,
+                store.garbage() > 0,
+                "garbage before compact"
+            );
+
+            store.compact();
+
+            this.checkEquals(
+                0L,
+                store.garbage(),
+                "garbage after compact"
+            );
+            this.checkEquals(
+                a,
+                loadedBeforeCompact,
+                "value loaded before compact"
+            );
+            this.checkEquals(
+                Lists.of(a),
+                store.values(0, 10)
+            );
+
+            store.save(b);
+        }
+
+        try (final MappedFileCacheStore store = this.open(path)) {
+            this.checkEquals(
+                Lists.of(a, b),
+                store.values(0, 10)
+            );
+        }
+    }
+
+    @Test
+    public void testCompactAutomatically() {
+        final MappedFileCacheStore store = this.createStore();
+
+        final String large = "x".repeat(64 * 1024);
+        for (int i = 0; i < 100; i++) {
+            store.save(
+                this.value()
+                    .setValue(
+                        Optional.of(large + i)
+                    )
+            );
+        }
+
+        this.checkEquals(
+            true,
+            store.garbage() <= MappedFileCacheStore.COMPACT_THRESHOLD,
+            "garbage " + store.garbage()
+        );
+        this.checkEquals(
+            Optional.of(large + 99),
+            store.load(this.id())
+                .get()
+                .value()
+        );
+    }
+
+    @Test
+    public void testClosedFails() {
+        final MappedFileCacheStore store = this.createStore();
+        store.close();
+
+        assertThrows(
+            IllegalStateException.class,
+            () -> store.load(this.id())
+        );
+    }
+
+    @Test
+    public void testIds() {
+        final MappedFileCacheStore store = this.createStore();
+
+        final CacheValue c = this.value("c3");
+        final CacheValue a = this.value("a1");
+        final CacheValue b = this.value("b2");
+
+        store.save(c);
+        store.save(a);
+        store.save(b);
+
+        this.checkEquals(
+            new TreeSet<>(
+                Set.of(
+                    b.key(),
+                    c.key()
+                )
+            ),
+            store.ids(
+                1,
+                2
+            )
+        );
+    }
+
+    @Test
+    public void testBetween() {
+        final MappedFileCacheStore store = this.createStore();
+
+        final CacheValue a = this.value("a1");
+        final CacheValue b = this.value("b2");
+        final CacheValue c = this.value("c3");
+        final CacheValue d = this.value("d4");
+
+        store.save(d);
+        store.save(c);
+        store.save(b);
+        store.save(a);
+
+        this.checkEquals(
+            Lists.of(
+                b,
+                c
+            ),
+            store.between(
+                b.key(),
+                c.key()
+            )
+        );
+    }
+
+    private CacheValue value(final String key) {
+        return CacheValue.with(
+            CacheKey.with(key),
+            Optional.of(key + "Value")
+        );
+    }
+
+    private MappedFileCacheStore open(final Path path) {
+        return MappedFileCacheStore.open(
+            path,
+            CacheValueCodecs.string()
+        );
+    }
+
+    private Path path() {
+        try {
+            final Path path = Files.createTempFile(
+                "MappedFileCacheStoreTest",
+                ".cache"
+            );
+            path.toFile()
+                .deleteOnExit();
+            return path;
+        } catch (final IOException cause) {
+            throw new UncheckedIOException(cause);
+        }
+    }
+
+    @Override
+    public MappedFileCacheStore createStore() {
+        return this.open(
+            this.path()
+        );
+    }
+
+    @Override
+    public CacheKey id() {
+        return CacheKey.with("key123");
+    }
+
+    @Override
+    public CacheValue value() {
+        return CacheValue.with(
+            this.id(),
+            Optional.of("Value456")
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<MappedFileCacheStore> type() {
+        return MappedFileCacheStore.class;
+    }
+}
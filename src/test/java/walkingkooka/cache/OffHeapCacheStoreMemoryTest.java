@@ -0,0 +1,185 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class OffHeapCacheStoreMemoryTest implements ClassTesting<OffHeapCacheStoreMemory>,
+    ToStringTesting<OffHeapCacheStoreMemory> {
+
+    private final static int SLAB_SIZE = 64;
+
+    @Test
+    public void testWithNotPowerOfTwoFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> OffHeapCacheStoreMemory.with(100)
+        );
+    }
+
+    @Test
+    public void testWithTooSmallFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> OffHeapCacheStoreMemory.with(8)
+        );
+    }
+
+    @Test
+    public void testAllocateAndCopy() {
+        final OffHeapCacheStoreMemory memory = OffHeapCacheStoreMemory.with(SLAB_SIZE);
+
+        final long a = memory.allocate(bytes("apple"));
+        final long b = memory.allocate(bytes("banana12345678901234"));
+
+        this.copyAndCheck(memory, a, "apple");
+        this.copyAndCheck(memory, b, "banana12345678901234");
+
+        this.checkEquals(
+            16L + 32,
+            memory.allocated(),
+            "allocated"
+        );
+        this.checkEquals(
+            (long) SLAB_SIZE,
+            memory.reserved(),
+            "reserved"
+        );
+    }
+
+    @Test
+    public void testAllocateAcrossSlabs() {
+        final OffHeapCacheStoreMemory memory = OffHeapCacheStoreMemory.with(SLAB_SIZE);
+
+        final long a = memory.allocate(bytes("12345678901234567890123456789012345678"));
+        final long b = memory.allocate(bytes("abcdefghijklmnopqrstuvwxyzabcdefghijkl"));
+
+        this.copyAndCheck(memory, a, "12345678901234567890123456789012345678");
+        this.copyAndCheck(memory, b, "abcdefghijklmnopqrstuvwxyzabcdefghijkl");
+
+        this.checkEquals(
+            2L * SLAB_SIZE,
+            memory.reserved(),
+            "reserved"
+        );
+    }
+
+    @Test
+    public void testFreeThenAllocateReusesBlock() {
+        final OffHeapCacheStoreMemory memory = OffHeapCacheStoreMemory.with(SLAB_SIZE);
+
+        final long a = memory.allocate(bytes("apple"));
+        memory.free(a, 5);
+
+        this.checkEquals(
+            0L,
+            memory.allocated(),
+            "allocated"
+        );
+
+        final long b = memory.allocate(bytes("berry"));
+        this.checkEquals(
+            a,
+            b,
+            "address"
+        );
+        this.copyAndCheck(memory, b, "berry");
+    }
+
+    @Test
+    public void testAllocateLargerThanSlab() {
+        final OffHeapCacheStoreMemory memory = OffHeapCacheStoreMemory.with(SLAB_SIZE);
+
+        final String text = "0123456789".repeat(10);
+        final long a = memory.allocate(bytes(text));
+        this.copyAndCheck(memory, a, text);
+
+        this.checkEquals(
+            100L,
+            memory.reserved(),
+            "reserved"
+        );
+
+        memory.free(a, 100);
+        this.checkEquals(
+            0L,
+            memory.reserved(),
+            "reserved after free"
+        );
+    }
+
+    @Test
+    public void testAllocateEmpty() {
+        final OffHeapCacheStoreMemory memory = OffHeapCacheStoreMemory.with(SLAB_SIZE);
+
+        final long a = memory.allocate(new byte[0]);
+        this.copyAndCheck(memory, a, "");
+    }
+
+    private void copyAndCheck(final OffHeapCacheStoreMemory memory,
+                              final long address,
+                              final String expected) {
+        final byte[] bytes = bytes(expected);
+        this.checkEquals(
+            expected,
+            new String(
+                memory.copy(
+                    address,
+                    bytes.length
+                ),
+                StandardCharsets.UTF_8
+            )
+        );
+    }
+
+    private static byte[] bytes(final String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        final OffHeapCacheStoreMemory memory = OffHeapCacheStoreMemory.with(SLAB_SIZE);
+        memory.allocate(bytes("apple"));
+
+        this.toStringAndCheck(
+            memory,
+            "16/64"
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<OffHeapCacheStoreMemory> type() {
+        return OffHeapCacheStoreMemory.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,370 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class OffHeapCacheStoreTest implements CacheStoreTesting<OffHeapCacheStore> {
+
+    private final static int SLAB_SIZE = 1024;
+
+    @Test
+    public void testWithNullCodecFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> OffHeapCacheStore.with(
+                null,
+                SLAB_SIZE
+            )
+        );
+    }
+
+    @Test
+    public void testSaveAndLoadGeneration() {
+        final OffHeapCacheStore store = this.createStore();
+
+        final CacheValue value = this.value()
+            .setGeneration(2);
+
+        store.save(value);
+
+        this.loadAndCheck(
+            store,
+            value.key(),
+            value
+        );
+    }
+
+    @Test
+    public void testSaveAndLoad() {
+        final OffHeapCacheStore store = this.createStore();
+
+        final CacheValue value = this.value();
+
+        store.save(value);
+
+        this.loadAndCheck(
+            store,
+            value.key(),
+            value
+        );
+    }
+
+    @Test
+    public void testSaveEmptyValueAndLoad() {
+        final OffHeapCacheStore store = this.createStore();
+
+        final CacheValue value = CacheValue.with(
+            this.id(),
+            Optional.empty()
+        );
+
+        store.save(value);
+
+        this.loadAndCheck(
+            store,
+            value.key(),
+            value
+        );
+        this.checkEquals(
+            0L,
+            store.allocated(),
+            "allocated"
+        );
+    }
+
+    @Test
+    public void testSaveWithExpiryAndLoad() {
+        final OffHeapCacheStore store = this.createStore();
+
+        final CacheValue value = this.value()
+            .setExpireAfterWrite(
+                Optional.of(Duration.ofMinutes(1))
+            ).setExpireAfterAccess(
+                Optional.of(Duration.ofSeconds(5))
+            );
+
+        store.save(value);
+
+        this.loadAndCheck(
+            store,
+            value.key(),
+            value
+        );
+    }
+
+    @Test
+    public void testSaveUnsupportedValueFails() {
+        final OffHeapCacheStore store = this.createStore();
+
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> store.save(
+                CacheValue.with(
+                    this.id(),
+                    Optional.of(123)
+                )
+            )
+        );
+
+        this.countAndCheck(
+            store,
+            0
+        );
+    }
+
+    @Test
+    public void testLoadDoesNotDecode() {
+        final int[] decodes = new int[1];
+
+        final OffHeapCacheStore store = OffHeapCacheStore.with(
+            new CacheValueCodec() {
+                @Override
+                public byte[] encode(final Object value) {
+                    return CacheValueCodecs.string()
+                        .encode(value);
+                }
+
+                @Override
+                public Object decode(final ByteBuffer bytes) {
+                    decodes[0]++;
+                    return CacheValueCodecs.string()
+                        .decode(bytes);
+                }
+            },
+            SLAB_SIZE
+        );
+
+        store.save(this.value());
+
+        final CacheValue loaded = store.load(this.id())
+            .get();
+        this.checkEquals(
+            0,
+            decodes[0],
+            "decodes after load"
+        );
+
+        this.checkEquals(
+            this.value()
+                .value(),
+            loaded.value()
+        );
+        this.checkEquals(
+            1,
+            decodes[0],
+            "decodes after value"
+        );
+    }
+
+    @Test
+    public void testLoadedValueSurvivesDeleteAndReuse() {
+        final OffHeapCacheStore store = this.createStore();
+
+        store.save(this.value());
+        final CacheValue loaded = store.load(this.id())
+            .get();
+
+        store.delete(this.id());
+        store.save(this.value("other1"));
+
+        this.checkEquals(
+            this.value()
+                .value(),
+            loaded.value()
+        );
+    }
+
+    @Test
+    public void testSaveReplaceFreesPrevious() {
+        final OffHeapCacheStore store = this.createStore();
+
+        store.save(this.value());
+        final long allocated = store.allocated();
+
+        store.save(
+            this.value()
+                .setValue(
+                    Optional.of("Replaced")
+                )
+        );
+
+        this.checkEquals(
+            allocated,
+            store.allocated(),
+            "allocated"
+        );
+    }
+
+    @Test
+    public void testDeleteFrees() {
+        final OffHeapCacheStore store = this.createStore();
+
+        store.save(this.value());
+        store.delete(this.id());
+
+        this.checkEquals(
+            0L,
+            store.allocated(),
+            "allocated"
+        );
+    }
+
+    @Test
+    public void testSerializableCodec() {
+        final OffHeapCacheStore store = OffHeapCacheStore.with(
+            CacheValueCodecs.serializable(),
+            SLAB_SIZE
+        );
+
+        final CacheValue value = CacheValue.with(
+            this.id(),
+            Optional.of(
+                (Serializable) Lists.of(1, "two", 3.0)
+            )
+        );
+        store.save(value);
+
+        this.loadAndCheck(
+            store,
+            value.key(),
+            value
+        );
+    }
+
+    @Test
+    public void testIds() {
+        final OffHeapCacheStore store = this.createStore();
+
+        final CacheValue c = this.value("c3");
+        final CacheValue a = this.value("a1");
+        final CacheValue b = this.value("b2");
+
+        store.save(c);
+        store.save(a);
+        store.save(b);
+
+        this.checkEquals(
+            new TreeSet<>(
+                Set.of(
+                    b.key(),
+                    c.key()
+                )
+            ),
+            store.ids(
+                1,
+                2
+            )
+        );
+    }
+
+    @Test
+    public void testValues() {
+        final OffHeapCacheStore store = this.createStore();
+
+        final CacheValue c = this.value("c3");
+        final CacheValue a = this.value("a1");
+        final CacheValue b = this.value("b2");
+
+        store.save(c);
+        store.save(a);
+        store.save(b);
+
+        this.checkEquals(
+            Lists.of(
+                a,
+                b
+            ),
+            store.values(
+                0,
+                2
+            )
+        );
+    }
+
+    @Test
+    public void testBetween() {
+        final OffHeapCacheStore store = this.createStore();
+
+        final CacheValue a = this.value("a1");
+        final CacheValue b = this.value("b2");
+        final CacheValue c = this.value("c3");
+        final CacheValue d = this.value("d4");
+
+        store.save(d);
+        store.save(c);
+        store.save(b);
+        store.save(a);
+
+        this.checkEquals(
+            Lists.of(
+                b,
+                c
+            ),
+            store.between(
+                b.key(),
+                c.key()
+            )
+        );
+    }
+
+    private CacheValue value(final String key) {
+        return CacheValue.with(
+            CacheKey.with(key),
+            Optional.of(key + "Value")
+        );
+    }
+
+    @Override
+    public OffHeapCacheStore createStore() {
+        return OffHeapCacheStore.with(
+            CacheValueCodecs.string(),
+            SLAB_SIZE
+        );
+    }
+
+    @Override
+    public CacheKey id() {
+        return CacheKey.with("key123");
+    }
+
+    @Override
+    public CacheValue value() {
+        return CacheValue.with(
+            this.id(),
+            Optional.of("Value456")
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<OffHeapCacheStore> type() {
+        return OffHeapCacheStore.class;
+    }
+}
@@ -0,0 +1,271 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeMap;
+
+public final class OrderStatisticTreeCacheStoreTest implements CacheStoreTesting<OrderStatisticTreeCacheStore> {
+
+    @Test
+    public void testSaveAndLoad() {
+        final OrderStatisticTreeCacheStore store = this.createStore();
+        final CacheValue value = this.value();
+
+        store.save(value);
+
+        this.loadAndCheck(
+            store,
+            value.key(),
+            value
+        );
+    }
+
+    @Test
+    public void testSaveReplaces() {
+        final OrderStatisticTreeCacheStore store = this.createStore();
+        final CacheValue value = this.value();
+        final CacheValue replaced = value.setValue(
+            Optional.of("Replaced")
+        );
+
+        store.save(value);
+        store.save(replaced);
+
+        this.loadAndCheck(
+            store,
+            value.key(),
+            replaced
+        );
+        this.checkEquals(
+            1,
+            store.count(),
+            "count"
+        );
+    }
+
+    @Test
+    public void testDeleteMissingFiresNothing() {
+        final OrderStatisticTreeCacheStore store = this.createStore();
+        store.save(this.value());
+
+        final List<CacheKey> deleted = Lists.array();
+        store.addDeleteWatcher(deleted::add);
+
+        store.delete(CacheKey.with("missing"));
+
+        this.checkEquals(
+            Lists.empty(),
+            deleted,
+            "deleted"
+        );
+        this.checkEquals(
+            1,
+            store.count(),
+            "count"
+        );
+    }
+
+    @Test
+    public void testStreamBetweenWhileDeletingBeforeRange() {
+        final OrderStatisticTreeCacheStore store = this.createStore();
+        final int count = 3 * OrderStatisticTreeCacheStoreIterator.PAGE_SIZE;
+
+        for (int i = 0; i < count; i++) {
+            store.save(
+                this.prefixValue(String.format("key.%05d", i))
+            );
+        }
+
+        final List<CacheValue> expected = store.between(
+            CacheKey.with("key.01000"),
+            CacheKey.with("key.02499")
+        );
+
+        final List<CacheValue> streamed = Lists.array();
+        store.stream(
+            CacheKey.with("key.01000"),
+            CacheKey.with("key.02499")
+        ).forEach(
+            (v) -> {
+                // shifts the offsets of every value in the range
+                if (streamed.isEmpty()) {
+                    for (int i = 0; i < 100; i++) {
+                        store.delete(
+                            CacheKey.with(String.format("key.%05d", i))
+                        );
+                    }
+                }
+                streamed.add(v);
+            }
+        );
+
+        this.checkEquals(
+            expected,
+            streamed
+        );
+    }
+
+    @Test
+    public void testValuesPages() {
+        final OrderStatisticTreeCacheStore store = this.createStore();
+        final int count = 1000;
+
+        for (int i = 0; i < count; i++) {
+            store.save(
+                this.prefixValue(String.format("key.%04d", i))
+            );
+        }
+
+        for (int offset = 0; offset < count; offset += 100) {
+            final List<CacheValue> expected = Lists.array();
+            for (int i = offset; i < offset + 3; i++) {
+                expected.add(
+                    this.prefixValue(String.format("key.%04d", i))
+                );
+            }
+
+            this.checkEquals(
+                expected,
+                store.values(
+                    offset,
+                    3
+                ),
+                "values " + offset
+            );
+        }
+
+        this.checkEquals(
+            Lists.of(
+                this.prefixValue("key.0999")
+            ),
+            store.values(
+                count - 1,
+                10
+            ),
+            "values last page"
+        );
+        this.checkEquals(
+            Lists.empty(),
+            store.values(
+                count,
+                10
+            ),
+            "values after last"
+        );
+    }
+
+    @Test
+    public void testRandomSavesAndDeletesMatchTreeMap() {
+        final OrderStatisticTreeCacheStore store = this.createStore();
+        final TreeMap<CacheKey, CacheValue> expected = new TreeMap<>();
+        final Random random = new Random(1);
+
+        for (int i = 0; i < 5000; i++) {
+            final CacheValue value = this.prefixValue("key." + random.nextInt(500));
+            if (random.nextInt(3) == 0) {
+                store.delete(value.key());
+                expected.remove(value.key());
+            } else {
+                store.save(value);
+                expected.put(
+                    value.key(),
+                    value
+                );
+            }
+        }
+
+        this.checkEquals(
+            expected.size(),
+            store.count(),
+            "count"
+        );
+
+        final List<CacheValue> expectedValues = new ArrayList<>(expected.values());
+        this.checkEquals(
+            expectedValues,
+            store.values(0, Integer.MAX_VALUE),
+            "values"
+        );
+
+        for (int offset = 0; offset < expectedValues.size(); offset += 37) {
+            final int to = Math.min(
+                offset + 10,
+                expectedValues.size()
+            );
+
+            this.checkEquals(
+                expectedValues.subList(
+                    offset,
+                    to
+                ),
+                store.values(
+                    offset,
+                    10
+                ),
+                "values " + offset
+            );
+            this.checkEquals(
+                expected.navigableKeySet()
+                    .subSet(
+                        expectedValues.get(offset).key(),
+                        true,
+                        expectedValues.get(to - 1).key(),
+                        true
+                    ),
+                store.ids(
+                    offset,
+                    10
+                ),
+                "ids " + offset
+            );
+        }
+    }
+
+    @Override
+    public OrderStatisticTreeCacheStore createStore() {
+        return OrderStatisticTreeCacheStore.empty();
+    }
+
+    @Override
+    public CacheKey id() {
+        return CacheKey.with("key123");
+    }
+
+    @Override
+    public CacheValue value() {
+        return CacheValue.with(
+            this.id(),
+            Optional.of("Value456")
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<OrderStatisticTreeCacheStore> type() {
+        return OrderStatisticTreeCacheStore.class;
+    }
+}
@@ -0,0 +1,544 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+public final class RadixTreeCacheStoreTest implements CacheStoreTesting<RadixTreeCacheStore> {
+
+    @Test
+    public void testSaveAndLoad() {
+        final RadixTreeCacheStore store = this.createStore();
+
+        final CacheValue value = this.value();
+
+        store.save(value);
+
+        this.loadAndCheck(
+            store,
+            value.key(),
+            value
+        );
+    }
+
+    @Test
+    public void testSaveAndLoadEmptyValueAndExpiry() {
+        final RadixTreeCacheStore store = this.createStore();
+
+        final CacheValue value = CacheValue.with(
+            this.id(),
+            Optional.empty()
+        ).setExpireAfterWrite(
+            Optional.of(
+                Duration.ofSeconds(1)
+            )
+        ).setExpireAfterAccess(
+            Optional.of(
+                Duration.ofSeconds(2)
+            )
+        );
+
+        store.save(value);
+
+        this.loadAndCheck(
+            store,
+            value.key(),
+            value
+        );
+    }
+
+    @Test
+    public void testSaveAndLoadGeneration() {
+        final RadixTreeCacheStore store = this.createStore();
+
+        final CacheValue value = this.value()
+            .setGeneration(2);
+
+        store.save(value);
+
+        this.loadAndCheck(
+            store,
+            value.key(),
+            value
+        );
+    }
+
+    @Test
+    public void testSaveSplitsSharedPrefix() {
+        final RadixTreeCacheStore store = this.createStore();
+
+        final CacheValue abc = this.value("spreadsheet.123.cell.A1");
+        final CacheValue abd = this.value("spreadsheet.123.cell.B2");
+        final CacheValue ab = this.value("spreadsheet.123");
+        final CacheValue a = this.value("spreadsheet");
+
+        store.save(abc);
+        store.save(abd);
+        store.save(ab);
+        store.save(a);
+
+        this.loadAndCheck(
+            store,
+            abc.key(),
+            abc
+        );
+        this.loadAndCheck(
+            store,
+            abd.key(),
+            abd
+        );
+        this.loadAndCheck(
+            store,
+            ab.key(),
+            ab
+        );
+        this.loadAndCheck(
+            store,
+            a.key(),
+            a
+        );
+        this.countAndCheck(
+            store,
+            4
+        );
+    }
+
+    @Test
+    public void testLoadPrefixOfKeyMissing() {
+        final RadixTreeCacheStore store = this.createStore();
+
+        store.save(this.value("spreadsheet.123.cell.A1"));
+        store.save(this.value("spreadsheet.123.cell.B2"));
+
+        this.checkEquals(
+            Optional.empty(),
+            store.load(
+                CacheKey.with("spreadsheet.123.cell")
+            )
+        );
+        this.checkEquals(
+            Optional.empty(),
+            store.load(
+                CacheKey.with("spreadsheet.123.cell.A")
+            )
+        );
+        this.checkEquals(
+            Optional.empty(),
+            store.load(
+                CacheKey.with("spreadsheet.123.cell.A12")
+            )
+        );
+    }
+
+    @Test
+    public void testSaveReplaceAndDeleteCount() {
+        final RadixTreeCacheStore store = this.createStore();
+
+        final CacheValue a = this.value("a1");
+
+        store.save(a);
+        store.save(a.setValue(Optional.of("replaced")));
+        this.countAndCheck(
+            store,
+            1
+        );
+
+        store.delete(a.key());
+        store.delete(a.key());
+        this.countAndCheck(
+            store,
+            0
+        );
+    }
+
+    @Test
+    public void testDeleteMergesAndKeepsOthers() {
+        final RadixTreeCacheStore store = this.createStore();
+
+        final CacheValue a1 = this.value("spreadsheet.123.cell.A1");
+        final CacheValue b2 = this.value("spreadsheet.123.cell.B2");
+        final CacheValue c3 = this.value("spreadsheet.123.label.C3");
+
+        store.save(a1);
+        store.save(b2);
+        store.save(c3);
+
+        store.delete(a1.key());
+        store.delete(c3.key());
+
+        this.loadAndCheck(
+            store,
+            b2.key(),
+            b2
+        );
+
+        store.save(c3);
+
+        this.checkEquals(
+            Lists.of(
+                b2,
+                c3
+            ),
+            store.values(
+                0,
+                10
+            )
+        );
+    }
+
+    @Test
+    public void testDeletePrefixOfKeyIgnored() {
+        final RadixTreeCacheStore store = this.createStore();
+
+        final CacheValue value = this.value("spreadsheet.123");
+        store.save(value);
+
+        store.delete(CacheKey.with("spreadsheet"));
+        store.delete(CacheKey.with("spreadsheet.1234"));
+
+        this.loadAndCheck(
+            store,
+            value.key(),
+            value
+        );
+        this.countAndCheck(
+            store,
+            1
+        );
+    }
+
+    @Test
+    public void testIdsSorted() {
+        final RadixTreeCacheStore store = this.createStore();
+
+        final CacheValue c = this.value("c3");
+        final CacheValue a = this.value("a1");
+        final CacheValue b = this.value("b2");
+
+        store.save(c);
+        store.save(a);
+        store.save(b);
+
+        this.checkEquals(
+            new TreeSet<>(
+                Set.of(
+                    b.key(),
+                    c.key()
+                )
+            ),
+            store.ids(
+                1,
+                2
+            )
+        );
+    }
+
+    @Test
+    public void testValuesSortedPrefixBeforeLonger() {
+        final RadixTreeCacheStore store = this.createStore();
+
+        final CacheValue ab = this.value("ab");
+        final CacheValue abDot = this.value("ab.c");
+        final CacheValue ab0 = this.value("ab0");
+        final CacheValue abc = this.value("abc");
+        final CacheValue abZ = this.value("abZ");
+
+        store.save(abc);
+        store.save(abZ);
+        store.save(ab0);
+        store.save(abDot);
+        store.save(ab);
+
+        this.checkEquals(
+            Lists.of(
+                ab,
+                abDot,
+                ab0,
+                abZ,
+                abc
+            ),
+            store.values(
+                0,
+                10
+            )
+        );
+    }
+
+    @Test
+    public void testBetween() {
+        final RadixTreeCacheStore store = this.createStore();
+
+        final CacheValue a = this.value("a1");
+        final CacheValue b = this.value("b2");
+        final CacheValue c = this.value("c3");
+        final CacheValue d = this.value("d4");
+
+        store.save(d);
+        store.save(c);
+        store.save(b);
+        store.save(a);
+
+        this.checkEquals(
+            Lists.of(
+                b,
+                c
+            ),
+            store.between(
+                b.key(),
+                c.key()
+            )
+        );
+    }
+
+    @Test
+    public void testBetweenMissingBounds() {
+        final RadixTreeCacheStore store = this.createStore();
+
+        final CacheValue a = this.value("spreadsheet.1");
+        final CacheValue b = this.value("spreadsheet.2");
+        final CacheValue c = this.value("spreadsheet.3");
+
+        store.save(a);
+        store.save(b);
+        store.save(c);
+
+        this.checkEquals(
+            Lists.of(
+                b
+            ),
+            store.between(
+                CacheKey.with("spreadsheet.1a"),
+                CacheKey.with("spreadsheet.2z")
+            )
+        );
+    }
+
+    @Test
+    public void testBetweenFromAfterTo() {
+        final RadixTreeCacheStore store = this.createStore();
+
+        final CacheValue a = this.value("a1");
+        final CacheValue b = this.value("b2");
+
+        store.save(a);
+        store.save(b);
+
+        this.checkEquals(
+            Lists.empty(),
+            store.between(
+                b.key(),
+                a.key()
+            )
+        );
+    }
+
+    @Test
+    public void testDenseNode() {
+        final RadixTreeCacheStore store = this.createStore();
+
+        final String characters = "zyxZYX9870.abcABC";
+        final List<CacheValue> values = new ArrayList<>();
+        for (final char c : characters.toCharArray()) {
+            final CacheValue value = this.value("ns" + c);
+            values.add(value);
+            store.save(value);
+        }
+        values.sort(null);
+
+        this.checkEquals(
+            values,
+            store.values(
+                0,
+                100
+            )
+        );
+
+        for (final CacheValue value : values) {
+            store.delete(value.key());
+        }
+        this.countAndCheck(
+            store,
+            0
+        );
+    }
+
+    @Test
+    public void testLoadByPrefixWithinLabel() {
+        final RadixTreeCacheStore store = this.createStore();
+
+        final CacheValue a1 = this.value("spreadsheet.123.cell.A1");
+        final CacheValue b2 = this.value("spreadsheet.123.cell.B2");
+
+        store.save(a1);
+        store.save(b2);
+        store.save(this.value("spreadsheet.456.cell.A1"));
+
+        this.loadByPrefixAndCheck(
+            store,
+            "spreadsheet.12",
+            a1,
+            b2
+        );
+    }
+
+    @Test
+    public void testDeleteByPrefixMergesParent() {
+        final RadixTreeCacheStore store = this.createStore();
+
+        final CacheValue a1 = this.value("spreadsheet.123.cell.A1");
+        final CacheValue b2 = this.value("spreadsheet.123.cell.B2");
+        final CacheValue other = this.value("spreadsheet.456.cell.A1");
+
+        store.save(a1);
+        store.save(b2);
+        store.save(other);
+
+        store.deleteByPrefix("spreadsheet.123.");
+
+        this.countAndCheck(
+            store,
+            1
+        );
+        this.loadAndCheck(
+            store,
+            other.key(),
+            other
+        );
+
+        store.save(a1);
+        this.loadAndCheck(
+            store,
+            a1.key(),
+            a1
+        );
+        this.countAndCheck(
+            store,
+            2
+        );
+    }
+
+    @Test
+    public void testRandomSavesAndDeletesMatchTreeMap() {
+        final RadixTreeCacheStore store = this.createStore();
+        final TreeMap<CacheKey, CacheValue> expected = new TreeMap<>();
+
+        final Random random = new Random(1);
+        final String characters = ".0129ABYZabyz";
+
+        for (int i = 0; i < 5000; i++) {
+            final StringBuilder key = new StringBuilder("k");
+            final int length = random.nextInt(6);
+            for (int j = 0; j < length; j++) {
+                key.append(
+                    characters.charAt(
+                        random.nextInt(characters.length())
+                    )
+                );
+            }
+
+            final CacheValue value = this.value(key.toString());
+            if (random.nextInt(3) == 0) {
+                store.delete(value.key());
+                expected.remove(value.key());
+            } else {
+                store.save(value);
+                expected.put(value.key(), value);
+            }
+        }
+
+        this.countAndCheck(
+            store,
+            expected.size()
+        );
+        this.checkEquals(
+            new ArrayList<>(expected.values()),
+            store.values(
+                0,
+                expected.size()
+            )
+        );
+
+        final CacheKey from = CacheKey.with("k0");
+        final CacheKey to = CacheKey.with("kA.z");
+        this.checkEquals(
+            new ArrayList<>(
+                expected.subMap(
+                    from,
+                    true,
+                    to,
+                    true
+                ).values()
+            ),
+            store.between(
+                from,
+                to
+            )
+        );
+
+        for (final CacheValue value : expected.values()) {
+            this.loadAndCheck(
+                store,
+                value.key(),
+                value
+            );
+        }
+    }
+
+    private CacheValue value(final String key) {
+        return CacheValue.with(
+            CacheKey.with(key),
+            Optional.of(key + "Value")
+        );
+    }
+
+    @Override
+    public RadixTreeCacheStore createStore() {
+        return RadixTreeCacheStore.empty();
+    }
+
+    @Override
+    public CacheKey id() {
+        return CacheKey.with("key123");
+    }
+
+    @Override
+    public CacheValue value() {
+        return CacheValue.with(
+            this.id(),
+            Optional.of("Value456")
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<RadixTreeCacheStore> type() {
+        return RadixTreeCacheStore.class;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+
+package walkingkooka.cache;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+public final class ReferenceCacheStoreTest implements CacheStoreTesting<ReferenceCacheStore> {
+
+    @Test
+    public void testSaveAndLoad() {
+        final ReferenceCacheStore store = this.createStore();
+        final CacheValue value = this.value()
+            .setExpireAfterWrite(
+                Optional.of(Duration.ofSeconds(1))
+            ).setGeneration(2);
+
+        store.save(value);
+
+        this.loadAndCheck(
+            store,
+            value.key(),
+            value
+        );
+    }
+
+    @Test
+    public void testSaveEmptyValueAndLoad() {
+        final ReferenceCacheStore store = this.createStore();
+        final CacheValue value = this.value()
+            .setValue(Optional.empty());
+
+        store.save(value);
+
+        this.loadAndCheck(
+            store,
+            value.key(),
+            value
+        );
+    }
+
+    @Test
+    public void testWeakSaveAndLoadStronglyReachable() {
+        final ReferenceCacheStore store = ReferenceCacheStore.weak();
+        final CacheValue value = this.value();
+
+        store.save(value);
+        this.gc();
+
+        this.loadOrNullAndCheck(
+            store,
+            value.key(),
+            value
+        );
+    }
+
+    @Test
+    public void testWeakReclaimedIsMissAndPurged() {
+        final ReferenceCacheStore store = ReferenceCacheStore.weak();
+        final CacheValue kept = this.value2();
+        store.save(kept);
+
+        final List<CacheKey> deleted = Lists.array();
+        store.addDeleteWatcher(deleted::add);
+
+        this.saveUnreachable(store);
+
+        for (int i = 0; i < 100 && (null != store.loadOrNull(this.id()) || store.count() > 1); i++) {
+            this.gc();
+        }
+
+        this.loadOrNullAndCheck(
+            store,
+            this.id(),
+            null
+        );
+        this.checkEquals(
+            1,
+            store.count(),
+            "count"
+        );
+        this.checkEquals(
+            Lists.of(kept),
+            store.values(0, 2),
+            "values"
+        );
+        this.checkEquals(
+            Lists.empty(),
+            deleted,
+            "delete watcher"
+        );
+    }
+
+    /**
+     * Saves a value only referenced by the store, in a separate method so no local variable keeps it reachable.
+     */
+    private void saveUnreachable(final ReferenceCacheStore store) {
+        store.save(
+            CacheValue.with(
+                this.id(),
+                Optional.of(
+                    new StringBuilder("Reclaimable")
+                )
+            )
+        );
+    }
+
+    private void gc() {
+        System.gc();
+        try {
+            Thread.sleep(10);
+        } catch (final InterruptedException ignore) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public ReferenceCacheStore createStore() {
+        return ReferenceCacheStore.soft();
+    }
+
+    @Override
+    public CacheKey id() {
+        return CacheKey.with("key123");
+    }
+
+    @Override
+    public CacheValue value() {
+        return CacheValue.with(
+            this.id(),
+            Optional.of("Value456")
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<ReferenceCacheStore> type() {
+        return ReferenceCacheStore.class;
+    }
+}
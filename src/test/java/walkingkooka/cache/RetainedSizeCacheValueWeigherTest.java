@@ -0,0 +1,191 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.ToStringTesting;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.text.printer.TreePrintable;
+
+import java.util.Map;
+import java.util.Optional;
+
+public final class RetainedSizeCacheValueWeigherTest implements ClassTesting<RetainedSizeCacheValueWeigher>,
+    ToStringTesting<RetainedSizeCacheValueWeigher> {
+
+    private final static CacheKey KEY = CacheKey.with("key");
+
+    private final static long EMPTY = RetainedSizeCacheValueWeigher.CACHE_VALUE +
+        RetainedSizeCacheValueWeigher.STRING +
+        3;
+
+    @Test
+    public void testWeighEmpty() {
+        this.weighAndCheck(
+            Optional.empty(),
+            EMPTY
+        );
+    }
+
+    @Test
+    public void testWeighString() {
+        this.weighAndCheck(
+            Optional.of("Hello"),
+            EMPTY + RetainedSizeCacheValueWeigher.STRING + 5
+        );
+    }
+
+    @Test
+    public void testWeighByteArray() {
+        this.weighAndCheck(
+            Optional.of(new byte[100]),
+            EMPTY + RetainedSizeCacheValueWeigher.ARRAY + 100
+        );
+    }
+
+    @Test
+    public void testWeighLongArray() {
+        this.weighAndCheck(
+            Optional.of(new long[100]),
+            EMPTY + RetainedSizeCacheValueWeigher.ARRAY + 800
+        );
+    }
+
+    @Test
+    public void testWeighList() {
+        this.weighAndCheck(
+            Optional.of(
+                Lists.of(
+                    "a",
+                    "bc"
+                )
+            ),
+            EMPTY +
+                RetainedSizeCacheValueWeigher.OBJECT +
+                2 * RetainedSizeCacheValueWeigher.ENTRY +
+                2 * RetainedSizeCacheValueWeigher.STRING + 3
+        );
+    }
+
+    @Test
+    public void testWeighListSameElementCountedOnce() {
+        final String element = "abc";
+
+        this.weighAndCheck(
+            Optional.of(
+                Lists.of(
+                    element,
+                    element
+                )
+            ),
+            EMPTY +
+                RetainedSizeCacheValueWeigher.OBJECT +
+                2 * RetainedSizeCacheValueWeigher.ENTRY +
+                RetainedSizeCacheValueWeigher.STRING + 3
+        );
+    }
+
+    @Test
+    public void testWeighMap() {
+        this.weighAndCheck(
+            Optional.of(
+                Map.of(
+                    "a",
+                    "bc"
+                )
+            ),
+            EMPTY +
+                RetainedSizeCacheValueWeigher.OBJECT +
+                RetainedSizeCacheValueWeigher.ENTRY +
+                2 * RetainedSizeCacheValueWeigher.STRING + 3
+        );
+    }
+
+    @Test
+    public void testWeighTreePrintable() {
+        final TreePrintable tree = (printer) -> {
+            printer.println("root");
+            printer.indent();
+            printer.println("child");
+            printer.outdent();
+        };
+
+        this.weighAndCheck(
+            Optional.of(tree),
+            EMPTY +
+                RetainedSizeCacheValueWeigher.OBJECT +
+                2 * (RetainedSizeCacheValueWeigher.OBJECT + RetainedSizeCacheValueWeigher.REFERENCE) +
+                "root\n".length() +
+                "  child\n".length()
+        );
+    }
+
+    @Test
+    public void testWeighLargerStringHeavier() {
+        final RetainedSizeCacheValueWeigher weigher = RetainedSizeCacheValueWeigher.INSTANCE;
+
+        this.checkEquals(
+            true,
+            weigher.weigh(this.value(Optional.of("a".repeat(1000)))) >
+                weigher.weigh(this.value(Optional.of("a"))),
+            "longer string heavier"
+        );
+    }
+
+    private void weighAndCheck(final Optional<Object> value,
+                               final long expected) {
+        this.checkEquals(
+            expected,
+            RetainedSizeCacheValueWeigher.INSTANCE.weigh(
+                this.value(value)
+            ),
+            value.toString()
+        );
+    }
+
+    private CacheValue value(final Optional<Object> value) {
+        return CacheValue.with(
+            KEY,
+            value
+        );
+    }
+
+    // toString.........................................................................................................
+
+    @Test
+    public void testToString() {
+        this.toStringAndCheck(
+            RetainedSizeCacheValueWeigher.INSTANCE,
+            "retained size"
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<RetainedSizeCacheValueWeigher> type() {
+        return RetainedSizeCacheValueWeigher.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
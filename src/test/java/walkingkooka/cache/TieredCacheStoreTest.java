@@ -0,0 +1,517 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class TieredCacheStoreTest implements CacheStoreTesting<TieredCacheStore> {
+
+    private final static int L1_SIZE = 2;
+
+    @Test
+    public void testWithNullL1Fails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> TieredCacheStore.with(
+                null,
+                CacheStores.treeMap(),
+                this.executor
+            )
+        );
+    }
+
+    @Test
+    public void testWithNullL2Fails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> TieredCacheStore.with(
+                CacheStores.treeMap(),
+                null,
+                this.executor
+            )
+        );
+    }
+
+    @Test
+    public void testWithNullExecutorFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> TieredCacheStore.with(
+                CacheStores.treeMap(),
+                CacheStores.treeMap(),
+                null
+            )
+        );
+    }
+
+    @Test
+    public void testWithSameStoreFails() {
+        final CacheStore store = CacheStores.treeMap();
+
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> TieredCacheStore.with(
+                store,
+                store,
+                this.executor
+            )
+        );
+    }
+
+    @Test
+    public void testSaveAndLoad() {
+        final TieredCacheStore store = this.createStore();
+
+        final CacheValue value = this.value();
+
+        store.save(value);
+
+        this.loadAndCheck(
+            store,
+            value.key(),
+            value
+        );
+    }
+
+    @Test
+    public void testEvictedVisibleBeforeAndAfterDemotion() {
+        final TieredCacheStore store = this.createStore();
+        final List<CacheValue> values = this.saveValues(store);
+
+        this.loadAllAndCheck(store, values);
+        this.countAndCheck(store, values.size());
+
+        this.runTasks();
+
+        this.checkEquals(
+            true,
+            this.l1.count() <= L1_SIZE,
+            "l1 count"
+        );
+        this.checkEquals(
+            values.size(),
+            this.l1.count() + this.l2.count(),
+            "l1 + l2 count"
+        );
+        this.countAndCheck(store, values.size());
+        this.checkEquals(
+            values,
+            store.values(0, values.size())
+        );
+    }
+
+    @Test
+    public void testLoadFromL2Promotes() {
+        final TieredCacheStore store = this.createStore();
+        final List<CacheValue> values = this.saveValues(store);
+        this.runTasks();
+
+        final CacheValue demoted = this.demoted(values);
+
+        this.loadAndCheck(
+            store,
+            demoted.key(),
+            demoted
+        );
+        this.checkEquals(
+            1,
+            this.tasks.size(),
+            "promotion task"
+        );
+
+        this.runTasks();
+
+        this.checkEquals(
+            values.size(),
+            this.l1.count() + this.l2.count(),
+            "each value held by one tier"
+        );
+        this.loadAndCheck(
+            store,
+            demoted.key(),
+            demoted
+        );
+        this.countAndCheck(store, values.size());
+    }
+
+    @Test
+    public void testDeleteBeforeDemotionNotResurrected() {
+        final TieredCacheStore store = this.createStore();
+        final List<CacheValue> values = this.saveValues(store);
+
+        final CacheValue evicted = this.demoted(values);
+        store.delete(evicted.key());
+
+        this.runTasks();
+
+        this.checkEquals(
+            Optional.empty(),
+            store.load(evicted.key())
+        );
+        this.countAndCheck(store, values.size() - 1);
+    }
+
+    @Test
+    public void testDeleteDuringEvictionNotResurrected() throws Exception {
+        final CacheStore wrapped = CacheStores.treeMap();
+        this.l1 = CacheStores.bounded(
+            L1_SIZE,
+            wrapped
+        );
+        this.l2 = CacheStores.treeMap();
+
+        final TieredCacheStore store = TieredCacheStore.with(
+            this.l1,
+            this.l2,
+            this.executor
+        );
+
+        final List<CacheKey> deleted = Lists.array();
+        store.addDeleteWatcher(deleted::add);
+
+        final CacheValue evicted = CacheValue.with(
+            CacheKey.with("key0"),
+            Optional.of("value0")
+        );
+        final Thread[] deleter = new Thread[1];
+
+        // runs as L1 evicts, deletes concurrently and waits until that delete blocks
+        wrapped.addDeleteWatcher(
+            (k) -> {
+                if (k.equals(evicted.key()) && null == deleter[0]) {
+                    final Thread thread = new Thread(
+                        () -> store.delete(evicted.key())
+                    );
+                    deleter[0] = thread;
+                    thread.start();
+
+                    while (thread.isAlive() && Thread.State.BLOCKED != thread.getState()) {
+                        Thread.yield();
+                    }
+                }
+            }
+        );
+
+        final List<CacheValue> values = this.saveValues(store);
+        deleter[0].join();
+
+        this.runTasks();
+
+        this.checkEquals(
+            Lists.of(evicted.key()),
+            deleted,
+            "deleted"
+        );
+        this.checkEquals(
+            Optional.empty(),
+            store.load(evicted.key()),
+            "load"
+        );
+        this.checkEquals(
+            Optional.empty(),
+            this.l2.load(evicted.key()),
+            "l2"
+        );
+        this.countAndCheck(store, values.size() - 1);
+    }
+
+    @Test
+    public void testSaveNewerBeforeDemotion() {
+        final TieredCacheStore store = this.createStore();
+        final List<CacheValue> values = this.saveValues(store);
+
+        final CacheValue evicted = this.demoted(values);
+        final CacheValue newer = evicted.setValue(
+            Optional.of("newer")
+        );
+        store.save(newer);
+
+        this.runTasks();
+
+        this.loadAndCheck(
+            store,
+            newer.key(),
+            newer
+        );
+        this.countAndCheck(store, values.size());
+    }
+
+    @Test
+    public void testSaveNewerAfterDemotionDeletesL2() {
+        final TieredCacheStore store = this.createStore();
+        final List<CacheValue> values = this.saveValues(store);
+        this.runTasks();
+
+        final CacheValue demoted = this.demoted(values);
+        final CacheValue newer = demoted.setValue(
+            Optional.of("newer")
+        );
+        store.save(newer);
+
+        this.checkEquals(
+            Optional.empty(),
+            this.l2.load(demoted.key()),
+            "older value deleted from l2"
+        );
+
+        this.runTasks();
+
+        this.loadAndCheck(
+            store,
+            newer.key(),
+            newer
+        );
+        this.checkEquals(
+            values.size(),
+            this.l1.count() + this.l2.count(),
+            "each value held by one tier"
+        );
+        this.countAndCheck(store, values.size());
+    }
+
+    @Test
+    public void testBetween() {
+        final TieredCacheStore store = this.createStore();
+        final List<CacheValue> values = this.saveValues(store);
+        this.runTasks();
+
+        this.checkEquals(
+            values.subList(1, 4),
+            store.between(
+                values.get(1).key(),
+                values.get(3).key()
+            )
+        );
+    }
+
+    @Test
+    public void testIds() {
+        final TieredCacheStore store = this.createStore();
+        final List<CacheValue> values = this.saveValues(store);
+        this.runTasks();
+
+        this.checkEquals(
+            Lists.of(
+                values.get(2).key(),
+                values.get(3).key()
+            ),
+            new ArrayList<>(store.ids(2, 2))
+        );
+    }
+
+    @Test
+    public void testValues() {
+        final TieredCacheStore store = this.createStore();
+        final List<CacheValue> values = this.saveValues(store);
+
+        // some values are still pending
+        this.checkEquals(
+            values.subList(1, 4),
+            store.values(1, 3),
+            "values before demotion"
+        );
+
+        this.runTasks();
+
+        this.checkEquals(
+            values.subList(1, 4),
+            store.values(1, 3),
+            "values after demotion"
+        );
+    }
+
+    @Test
+    public void testValuesDoesNotPromote() {
+        final TieredCacheStore store = this.createStore();
+        final List<CacheValue> values = this.saveValues(store);
+        this.runTasks();
+
+        store.values(0, values.size());
+
+        this.checkEquals(
+            Lists.empty(),
+            this.tasks,
+            "tasks"
+        );
+    }
+
+    @Test
+    public void testCountIdsAndValuesSeveralPages() {
+        final TieredCacheStore store = this.createStore();
+        final int count = TieredCacheStoreKeyCursor.PAGE_SIZE * 2 + 500;
+
+        final List<CacheValue> values = Lists.array();
+        for (int i = 0; i < count; i++) {
+            final CacheValue value = CacheValue.with(
+                CacheKey.with(String.format("key%05d", i)),
+                Optional.of("value" + i)
+            );
+            store.save(value);
+            values.add(value);
+        }
+        this.runTasks();
+
+        this.countAndCheck(store, count);
+        this.checkEquals(
+            values.subList(1998, 2003),
+            store.values(1998, 5),
+            "values"
+        );
+        this.checkEquals(
+            Lists.of(
+                values.get(count - 1).key()
+            ),
+            new ArrayList<>(store.ids(count - 1, 10)),
+            "ids"
+        );
+    }
+
+    @Test
+    public void testStreamSeveralPages() {
+        final TieredCacheStore store = this.createStore();
+        final int count = TieredCacheStoreValueIterator.PAGE_SIZE * 2 + 500;
+
+        final List<CacheValue> values = Lists.array();
+        for (int i = 0; i < count; i++) {
+            final CacheValue value = CacheValue.with(
+                CacheKey.with(String.format("key%05d", i)),
+                Optional.of("value" + i)
+            );
+            store.save(value);
+            values.add(value);
+        }
+
+        // the last values are still pending
+        this.runTasks(count - 10);
+        final int pending = this.tasks.size();
+
+        this.checkEquals(
+            values,
+            store.stream()
+                .collect(Collectors.toList()),
+            "stream"
+        );
+        this.checkEquals(
+            pending,
+            this.tasks.size(),
+            "nothing promoted"
+        );
+    }
+
+    /**
+     * Saves several values, more than L1 can hold.
+     */
+    private List<CacheValue> saveValues(final TieredCacheStore store) {
+        final List<CacheValue> values = Lists.array();
+        for (int i = 0; i < 6; i++) {
+            final CacheValue value = CacheValue.with(
+                CacheKey.with("key" + i),
+                Optional.of("value" + i)
+            );
+            store.save(value);
+            values.add(value);
+        }
+        return values;
+    }
+
+    /**
+     * Returns a saved value that is no longer in L1.
+     */
+    private CacheValue demoted(final List<CacheValue> values) {
+        for (final CacheValue value : values) {
+            if (false == this.l1.load(value.key()).isPresent()) {
+                return value;
+            }
+        }
+        throw new AssertionError("Nothing evicted from L1");
+    }
+
+    private void loadAllAndCheck(final TieredCacheStore store,
+                                 final List<CacheValue> values) {
+        for (final CacheValue value : values) {
+            this.loadAndCheck(
+                store,
+                value.key(),
+                value
+            );
+        }
+    }
+
+    private void runTasks() {
+        this.runTasks(Integer.MAX_VALUE);
+    }
+
+    private void runTasks(final int count) {
+        for (int i = 0; i < count && false == this.tasks.isEmpty(); i++) {
+            this.tasks.remove(0)
+                .run();
+        }
+    }
+
+    private final List<Runnable> tasks = new ArrayList<>();
+
+    private final Executor executor = this.tasks::add;
+
+    private CacheStore l1;
+
+    private CacheStore l2;
+
+    @Override
+    public TieredCacheStore createStore() {
+        this.l1 = CacheStores.bounded(
+            L1_SIZE,
+            CacheStores.treeMap()
+        );
+        this.l2 = CacheStores.treeMap();
+
+        return TieredCacheStore.with(
+            this.l1,
+            this.l2,
+            this.executor
+        );
+    }
+
+    @Override
+    public CacheKey id() {
+        return CacheKey.with("key123");
+    }
+
+    @Override
+    public CacheValue value() {
+        return CacheValue.with(
+            this.id(),
+            Optional.of("Value456")
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<TieredCacheStore> type() {
+        return TieredCacheStore.class;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+public final class TinyLfuCacheStoreFrequencySketchTest implements ClassTesting<TinyLfuCacheStoreFrequencySketch> {
+
+    @Test
+    public void testFrequencyNeverIncremented() {
+        this.frequencyAndCheck(
+            TinyLfuCacheStoreFrequencySketch.with(16),
+            CacheKey.with("never"),
+            0
+        );
+    }
+
+    @Test
+    public void testIncrement() {
+        final TinyLfuCacheStoreFrequencySketch sketch = TinyLfuCacheStoreFrequencySketch.with(16);
+        final CacheKey key = CacheKey.with("key123");
+
+        sketch.increment(key);
+        sketch.increment(key);
+        sketch.increment(key);
+
+        this.frequencyAndCheck(
+            sketch,
+            key,
+            3
+        );
+    }
+
+    @Test
+    public void testIncrementSaturates() {
+        final TinyLfuCacheStoreFrequencySketch sketch = TinyLfuCacheStoreFrequencySketch.with(1024);
+        final CacheKey key = CacheKey.with("key123");
+
+        for (int i = 0; i < 100; i++) {
+            sketch.increment(key);
+        }
+
+        this.frequencyAndCheck(
+            sketch,
+            key,
+            15
+        );
+    }
+
+    @Test
+    public void testIncrementAges() {
+        final TinyLfuCacheStoreFrequencySketch sketch = TinyLfuCacheStoreFrequencySketch.with(16);
+        final CacheKey hot = CacheKey.with("hot");
+
+        for (int i = 0; i < 8; i++) {
+            sketch.increment(hot);
+        }
+
+        // sample size is 10 times the table length, enough other keys halve every counter
+        for (int i = 0; i < 1000; i++) {
+            sketch.increment(
+                CacheKey.with("other" + i)
+            );
+        }
+
+        this.checkEquals(
+            true,
+            sketch.frequency(hot) < 8,
+            "aged"
+        );
+    }
+
+    private void frequencyAndCheck(final TinyLfuCacheStoreFrequencySketch sketch,
+                                   final CacheKey key,
+                                   final int expected) {
+        this.checkEquals(
+            expected,
+            sketch.frequency(key),
+            key.toString()
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<TinyLfuCacheStoreFrequencySketch> type() {
+        return TinyLfuCacheStoreFrequencySketch.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
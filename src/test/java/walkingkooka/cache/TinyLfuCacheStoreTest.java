@@ -0,0 +1,527 @@
+/*
+ * Copyright 2025 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.cache;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class TinyLfuCacheStoreTest implements CacheStoreTesting<TinyLfuCacheStore> {
+
+    @Test
+    public void testWithInvalidMaximumSizeFails() {
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> TinyLfuCacheStore.with(
+                0,
+                CacheValueWeighers.one(),
+                CacheStores.treeMap()
+            )
+        );
+    }
+
+    @Test
+    public void testWithNullWeigherFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> TinyLfuCacheStore.with(
+                1,
+                null,
+                CacheStores.treeMap()
+            )
+        );
+    }
+
+    @Test
+    public void testWithNullStoreFails() {
+        assertThrows(
+            NullPointerException.class,
+            () -> TinyLfuCacheStore.with(
+                1,
+                CacheValueWeighers.one(),
+                null
+            )
+        );
+    }
+
+    @Test
+    public void testSaveAndLoad() {
+        final TinyLfuCacheStore store = this.createStore();
+
+        final CacheValue value = this.value();
+
+        store.save(value);
+
+        this.loadAndCheck(
+            store,
+            value.key(),
+            value
+        );
+    }
+
+    @Test
+    public void testSaveEvictsBeyondMaximumSize() {
+        final TinyLfuCacheStore store = TinyLfuCacheStore.with(
+            10,
+            CacheValueWeighers.one(),
+            CacheStores.treeMap()
+        );
+
+        final List<CacheValue> evicted = Lists.array();
+        store.addEvictionWatcher(evicted::add);
+
+        for (int i = 0; i < 25; i++) {
+            store.save(
+                this.value("key" + i)
+            );
+        }
+
+        this.checkEquals(
+            10,
+            store.count(),
+            "count"
+        );
+        this.checkEquals(
+            15,
+            evicted.size(),
+            "evicted"
+        );
+    }
+
+    @Test
+    public void testEvictionWatcherNotifiedBeforeDelete() {
+        final CacheStore wrapped = CacheStores.treeMap();
+        final TinyLfuCacheStore store = TinyLfuCacheStore.with(
+            1,
+            CacheValueWeighers.one(),
+            wrapped
+        );
+
+        final List<CacheValue> present = Lists.array();
+        store.addEvictionWatcher(
+            (v) -> wrapped.load(v.key())
+                .ifPresent(present::add)
+        );
+
+        final CacheValue evicted = this.value("key1");
+        store.save(evicted);
+        store.save(
+            this.value("key2")
+        );
+
+        this.checkEquals(
+            Lists.of(evicted),
+            present,
+            "present when evicted"
+        );
+        this.checkEquals(
+            Optional.empty(),
+            wrapped.load(evicted.key()),
+            "deleted after eviction"
+        );
+    }
+
+    @Test
+    public void testSaveReplaceDoesNotEvict() {
+        final TinyLfuCacheStore store = TinyLfuCacheStore.with(
+            2,
+            CacheValueWeighers.one(),
+            CacheStores.treeMap()
+        );
+
+        final List<CacheValue> evicted = Lists.array();
+        store.addEvictionWatcher(evicted::add);
+
+        for (int i = 0; i < 10; i++) {
+            store.save(
+                this.value()
+                    .setValue(Optional.of(i))
+            );
+        }
+
+        this.checkEquals(
+            1,
+            store.count(),
+            "count"
+        );
+        this.checkEquals(
+            Lists.empty(),
+            evicted,
+            "evicted"
+        );
+    }
+
+    @Test
+    public void testDelete() {
+        final TinyLfuCacheStore store = TinyLfuCacheStore.with(
+            2,
+            CacheValueWeighers.one(),
+            CacheStores.treeMap()
+        );
+
+        final CacheValue a = this.value("a1");
+        final CacheValue b = this.value("b2");
+        final CacheValue c = this.value("c3");
+
+        store.save(a);
+        store.save(b);
+        store.delete(a.key());
+        store.save(c);
+
+        this.checkEquals(
+            2,
+            store.count(),
+            "count"
+        );
+        this.loadAndCheck(
+            store,
+            b.key(),
+            b
+        );
+        this.loadAndCheck(
+            store,
+            c.key(),
+            c
+        );
+    }
+
+    @Test
+    public void testSaveWithNegativeWeightFails() {
+        final TinyLfuCacheStore store = TinyLfuCacheStore.with(
+            10,
+            v -> -1,
+            CacheStores.treeMap()
+        );
+
+        assertThrows(
+            IllegalArgumentException.class,
+            () -> store.save(this.value())
+        );
+    }
+
+    @Test
+    public void testSaveEvictsBeyondMaximumWeight() {
+        final TinyLfuCacheStore store = TinyLfuCacheStore.with(
+            100,
+            v -> (Integer) v.value().get(),
+            CacheStores.treeMap()
+        );
+
+        final List<CacheValue> evicted = Lists.array();
+        store.addEvictionWatcher(evicted::add);
+
+        for (int i = 0; i < 10; i++) {
+            store.save(
+                CacheValue.with(
+                    CacheKey.with("key" + i),
+                    Optional.of(30)
+                )
+            );
+        }
+
+        this.checkEquals(
+            90L,
+            store.weight(),
+            "weight"
+        );
+        this.checkEquals(
+            3,
+            store.count(),
+            "count"
+        );
+        this.checkEquals(
+            7,
+            evicted.size(),
+            "evicted"
+        );
+    }
+
+    @Test
+    public void testSaveHeavierThanMaximumWeight() {
+        final TinyLfuCacheStore store = TinyLfuCacheStore.with(
+            100,
+            v -> (Integer) v.value().get(),
+            CacheStores.treeMap()
+        );
+
+        final CacheValue light = CacheValue.with(
+            CacheKey.with("light"),
+            Optional.of(10)
+        );
+        store.save(light);
+
+        final CacheValue heavy = CacheValue.with(
+            CacheKey.with("heavy"),
+            Optional.of(101)
+        );
+        store.save(heavy);
+
+        this.checkEquals(
+            10L,
+            store.weight(),
+            "weight"
+        );
+        this.loadAndCheck(
+            store,
+            light.key(),
+            light
+        );
+    }
+
+    @Test
+    public void testSaveReplaceUpdatesWeight() {
+        final TinyLfuCacheStore store = TinyLfuCacheStore.with(
+            100,
+            v -> (Integer) v.value().get(),
+            CacheStores.treeMap()
+        );
+
+        final CacheValue value = CacheValue.with(
+            CacheKey.with("key"),
+            Optional.of(10)
+        );
+        store.save(value);
+        store.save(
+            value.setValue(
+                Optional.of(20)
+            )
+        );
+
+        this.checkEquals(
+            20L,
+            store.weight(),
+            "weight"
+        );
+    }
+
+    @Test
+    public void testMaximumWeight() {
+        this.checkEquals(
+            100L,
+            this.createStore()
+                .maximumWeight()
+        );
+    }
+
+    @Test
+    public void testFrequentlyLoadedSurvivesScan() {
+        final TinyLfuCacheStore store = TinyLfuCacheStore.with(
+            100,
+            CacheValueWeighers.one(),
+            CacheStores.concurrent()
+        );
+
+        final int hot = 50;
+        for (int i = 0; i < hot; i++) {
+            store.save(
+                this.value("hot" + i)
+            );
+        }
+
+        for (int j = 0; j < 20; j++) {
+            for (int i = 0; i < hot; i++) {
+                store.load(
+                    CacheKey.with("hot" + i)
+                );
+            }
+        }
+
+        // a scan of entries that are only ever saved once
+        for (int i = 0; i < 1000; i++) {
+            store.save(
+                this.value("scan" + i)
+            );
+        }
+
+        int hits = 0;
+        for (int i = 0; i < hot; i++) {
+            if (store.load(CacheKey.with("hot" + i)).isPresent()) {
+                hits++;
+            }
+        }
+
+        this.checkEquals(
+            100,
+            store.count(),
+            "count"
+        );
+        this.checkEquals(
+            true,
+            hits >= hot * 9 / 10,
+            "hot entries retained " + hits
+        );
+    }
+
+    @Test
+    public void testLoadDoesNotWaitForSave() throws Exception {
+        final CacheStore wrapped = CacheStores.treeMap();
+        final TinyLfuCacheStore store = TinyLfuCacheStore.with(
+            100,
+            CacheValueWeighers.one(),
+            wrapped
+        );
+
+        final CacheValue loaded = this.value("loaded");
+        store.save(loaded);
+
+        final CountDownLatch saving = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        wrapped.addSaveWatcher(
+            (v) -> {
+                if (v.key().equals(CacheKey.with("slow"))) {
+                    saving.countDown();
+                    try {
+                        release.await();
+                    } catch (final InterruptedException cause) {
+                        throw new IllegalStateException(cause);
+                    }
+                }
+            }
+        );
+
+        final Thread writer = new Thread(
+            () -> store.save(
+                this.value("slow")
+            )
+        );
+        writer.start();
+        saving.await();
+
+        // enough loads to fill the read buffer several times, each time attempting a drain
+        final Thread reader = new Thread(
+            () -> {
+                for (int i = 0; i < TinyLfuCacheStoreReadBuffer.SIZE * 4; i++) {
+                    store.load(loaded.key());
+                }
+            }
+        );
+        reader.start();
+        reader.join(5000);
+
+        final boolean finished = false == reader.isAlive();
+
+        release.countDown();
+        writer.join();
+        reader.join();
+
+        this.checkEquals(
+            true,
+            finished,
+            "loads finished while save in progress"
+        );
+    }
+
+    private CacheValue value(final String key) {
+        return CacheValue.with(
+            CacheKey.with(key),
+            Optional.of(key + "Value")
+        );
+    }
+
+    @Test
+    public void testStreamWithoutPaging() {
+        final TinyLfuCacheStore store = TinyLfuCacheStore.with(
+            100,
+            CacheValueWeighers.one(),
+            unpaged(
+                CacheStores.copyOnWrite()
+            )
+        );
+
+        final CacheValue value1 = store.save(
+            this.prefixValue("key1")
+        );
+        final CacheValue value2 = store.save(
+            this.prefixValue("key2")
+        );
+
+        this.streamAndCheck(
+            store,
+            value1,
+            value2
+        );
+        this.streamAndCheck(
+            store,
+            value2.key(),
+            value2.key(),
+            value2
+        );
+    }
+
+    /**
+     * Wraps the store failing any offset paging, so streams must be read from the stream of the wrapped store.
+     */
+    private static CacheStore unpaged(final CacheStore store) {
+        return (CacheStore) Proxy.newProxyInstance(
+            CacheStore.class.getClassLoader(),
+            new Class<?>[]{
+                CacheStore.class
+            },
+            (proxy, method, args) -> {
+                final String name = method.getName();
+                if ("ids".equals(name) || "values".equals(name)) {
+                    throw new UnsupportedOperationException(name);
+                }
+                try {
+                    return method.invoke(
+                        store,
+                        args
+                    );
+                } catch (final InvocationTargetException cause) {
+                    throw cause.getCause();
+                }
+            }
+        );
+    }
+
+    @Override
+    public TinyLfuCacheStore createStore() {
+        return TinyLfuCacheStore.with(
+            100,
+            CacheValueWeighers.one(),
+            CacheStores.treeMap()
+        );
+    }
+
+    @Override
+    public CacheKey id() {
+        return CacheKey.with("key123");
+    }
+
+    @Override
+    public CacheValue value() {
+        return CacheValue.with(
+            this.id(),
+            Optional.of("Value456")
+        );
+    }
+
+    // class............................................................................................................
+
+    @Override
+    public Class<TinyLfuCacheStore> type() {
+        return TinyLfuCacheStore.class;
+    }
+}